@@ -0,0 +1,203 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.benchmarks;
+
+import com.io7m.looseleaf.database.api.LLDatabaseFactoryType;
+import com.io7m.looseleaf.database.bitcask.LLDatabaseBitcaskFactory;
+import com.io7m.looseleaf.database.lsm.LLDatabaseLSMFactory;
+import com.io7m.looseleaf.database.memory.LLDatabaseMemoryFactory;
+import com.io7m.looseleaf.database.mvstore.LLDatabaseMVStoreFactory;
+import com.io7m.looseleaf.database.sharded.LLDatabaseShardedConfiguration;
+import com.io7m.looseleaf.database.sharded.LLDatabaseShardedFactory;
+import com.io7m.looseleaf.database.sqlite.LLDatabaseSQLiteFactory;
+import com.io7m.looseleaf.security.LLKeyName;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Functions to create and populate databases for benchmarks.
+ */
+
+public final class LLBenchmarkDatabases
+{
+  private LLBenchmarkDatabases()
+  {
+
+  }
+
+  /**
+   * @return Every database implementation that can be benchmarked
+   */
+
+  public static List<LLDatabaseFactoryType> factories()
+  {
+    final var unsharded =
+      List.<LLDatabaseFactoryType>of(
+        new LLDatabaseMVStoreFactory(),
+        new LLDatabaseSQLiteFactory(),
+        new LLDatabaseMemoryFactory(),
+        new LLDatabaseBitcaskFactory(),
+        new LLDatabaseLSMFactory()
+      );
+
+    final var factories = new ArrayList<>(unsharded);
+    factories.add(
+      new LLDatabaseShardedFactory(
+        LLDatabaseShardedConfiguration.defaults(),
+        unsharded
+      )
+    );
+    return List.copyOf(factories);
+  }
+
+  /**
+   * Find the database implementation with the given kind.
+   *
+   * @param kind The database kind (such as "MVSTORE" or "SQLITE")
+   *
+   * @return The database implementation
+   */
+
+  public static LLDatabaseFactoryType factory(
+    final String kind)
+  {
+    Objects.requireNonNull(kind, "kind");
+
+    return factories()
+      .stream()
+      .filter(f -> Objects.equals(f.kind(), kind))
+      .findFirst()
+      .orElseThrow(() -> {
+        return new UnsupportedOperationException(
+          "No database implementation available with kind '%s'"
+            .formatted(kind)
+        );
+      });
+  }
+
+  /**
+   * Generate {@code count} distinct keys, each padded to at least
+   * {@code length} characters.
+   *
+   * @param count  The number of keys
+   * @param length The minimum key length
+   *
+   * @return The keys, in ascending order
+   */
+
+  public static LLKeyName[] keys(
+    final int count,
+    final int length)
+  {
+    final var keys = new LLKeyName[count];
+    for (int index = 0; index < count; ++index) {
+      keys[index] = key("bench", index, length);
+    }
+    return keys;
+  }
+
+  /**
+   * Generate a key with the given prefix and index, padded to at least
+   * {@code length} characters.
+   *
+   * @param prefix The key prefix
+   * @param index  The key index
+   * @param length The minimum key length
+   *
+   * @return The key
+   */
+
+  public static LLKeyName key(
+    final String prefix,
+    final int index,
+    final int length)
+  {
+    final var text = new StringBuilder(length);
+    text.append('/');
+    text.append(prefix);
+    text.append('/');
+    text.append("%010d".formatted(Integer.valueOf(index)));
+    if (text.length() < length) {
+      text.append('/');
+    }
+    while (text.length() < length) {
+      text.append('k');
+    }
+    return LLKeyName.create(text.toString());
+  }
+
+  /**
+   * Generate a random printable value.
+   *
+   * @param random The random source
+   * @param length The value length
+   *
+   * @return The value
+   */
+
+  public static String value(
+    final SplittableRandom random,
+    final int length)
+  {
+    final var text = new StringBuilder(length);
+    for (int index = 0; index < length; ++index) {
+      text.append((char) random.nextInt('a', 'z' + 1));
+    }
+    return text.toString();
+  }
+
+  /**
+   * Create a fresh temporary directory.
+   *
+   * @return The directory
+   *
+   * @throws IOException On errors
+   */
+
+  public static Path createTempDirectory()
+    throws IOException
+  {
+    return Files.createTempDirectory("looseleaf-benchmarks-");
+  }
+
+  /**
+   * Delete a directory and its contents.
+   *
+   * @param directory The directory
+   *
+   * @throws IOException On errors
+   */
+
+  public static void deleteDirectory(
+    final Path directory)
+    throws IOException
+  {
+    try (var walk = Files.walk(directory)) {
+      walk.sorted(Comparator.reverseOrder())
+        .map(Path::toFile)
+        .forEach(File::delete);
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.benchmarks;
+
+import com.io7m.looseleaf.security.LLAction;
+import com.io7m.looseleaf.security.LLGrant;
+import com.io7m.looseleaf.security.LLKeyExpression;
+import com.io7m.looseleaf.security.LLPassword;
+import com.io7m.looseleaf.security.LLRole;
+import com.io7m.looseleaf.security.LLRoleName;
+import com.io7m.looseleaf.security.LLUser;
+import com.io7m.looseleaf.security.LLUserName;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Functions to create users and messages resembling those seen by a
+ * running server.
+ */
+
+public final class LLBenchmarkRequests
+{
+  private LLBenchmarkRequests()
+  {
+
+  }
+
+  /**
+   * The name of the key read or written by request {@code index} of an
+   * application {@code application}. Keys of this form are matched by the
+   * wildcard grants produced by {@link #user(LLPassword, int)}.
+   *
+   * @param application The application index
+   * @param index       The key index
+   *
+   * @return A raw key name
+   */
+
+  public static String dataKey(
+    final int application,
+    final int index)
+  {
+    return "/app/%d/data/objects/%d".formatted(
+      Integer.valueOf(application),
+      Integer.valueOf(index)
+    );
+  }
+
+  /**
+   * The name of the configuration key of an application. Keys of this form
+   * are matched exactly by the grants produced by
+   * {@link #user(LLPassword, int)}.
+   *
+   * @param application The application index
+   *
+   * @return A raw key name
+   */
+
+  public static String configKey(
+    final int application)
+  {
+    return "/app/%d/config".formatted(Integer.valueOf(application));
+  }
+
+  /**
+   * Create a user with access to {@code applications} applications, with
+   * the grants spread over several roles. For each application, the user
+   * holds exact grants on the configuration key and wildcard grants on the
+   * data keys.
+   *
+   * @param password     The user's password
+   * @param applications The number of applications
+   *
+   * @return A user
+   */
+
+  public static LLUser user(
+    final LLPassword password,
+    final int applications)
+  {
+    final var roles = new HashMap<LLRoleName, LLRole>();
+    final var applicationsPerRole = 4;
+
+    var grants = new ArrayList<LLGrant>();
+    for (int application = 0; application < applications; ++application) {
+      final var config =
+        LLKeyExpression.create(configKey(application));
+      final var data =
+        LLKeyExpression.create("/app/%d/data/*".formatted(
+          Integer.valueOf(application)));
+
+      for (final var action : LLAction.values()) {
+        grants.add(new LLGrant(action, config));
+        grants.add(new LLGrant(action, data));
+      }
+
+      final var last = application + 1 == applications;
+      if (last || (application + 1) % applicationsPerRole == 0) {
+        final var name = new LLRoleName("role%d".formatted(
+          Integer.valueOf(roles.size())));
+        roles.put(name, new LLRole(name, List.copyOf(grants)));
+        grants = new ArrayList<>();
+      }
+    }
+
+    return new LLUser(new LLUserName("benchmark"), password, Map.copyOf(roles));
+  }
+
+  /**
+   * Generate {@code count} distinct raw data keys spread over
+   * {@code applications} applications.
+   *
+   * @param random       The random source
+   * @param count        The number of keys
+   * @param applications The number of applications
+   *
+   * @return The keys
+   */
+
+  public static Set<String> dataKeys(
+    final SplittableRandom random,
+    final int count,
+    final int applications)
+  {
+    final var keys = new HashSet<String>(count * 2);
+    for (int index = 0; index < count; ++index) {
+      keys.add(dataKey(random.nextInt(applications), index));
+    }
+    return keys;
+  }
+}
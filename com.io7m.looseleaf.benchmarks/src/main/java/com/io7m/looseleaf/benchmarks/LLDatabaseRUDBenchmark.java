@@ -0,0 +1,174 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.benchmarks;
+
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.security.LLKeyName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-key read and read-update-delete benchmarks.
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class LLDatabaseRUDBenchmark
+{
+  /**
+   * The number of keys read, updated, and deleted by each operation.
+   */
+
+  @Param({"1", "10", "100"})
+  public int operationSize;
+
+  private LLKeyName[] scratch;
+
+  /**
+   * Multi-key read and read-update-delete benchmarks.
+   */
+
+  public LLDatabaseRUDBenchmark()
+  {
+
+  }
+
+  /**
+   * Generate the keys used for deletions. These never exist in the
+   * database, so deleting them leaves the data set unchanged between
+   * invocations.
+   *
+   * @param state The database
+   */
+
+  @Setup(Level.Trial)
+  public void setup(
+    final LLDatabaseState state)
+  {
+    this.scratch = new LLKeyName[this.operationSize];
+    for (int index = 0; index < this.operationSize; ++index) {
+      this.scratch[index] =
+        LLBenchmarkDatabases.key("scratch", index, state.keyLength);
+    }
+  }
+
+  private Set<LLKeyName> randomKeys(
+    final LLDatabaseState state)
+  {
+    final var keys = state.keys();
+    final var random = ThreadLocalRandom.current();
+    final var size = Math.min(this.operationSize, keys.length);
+    final var result = new HashSet<LLKeyName>(size * 2);
+    while (result.size() < size) {
+      result.add(keys[random.nextInt(keys.length)]);
+    }
+    return result;
+  }
+
+  /**
+   * Read a set of random keys with a single call.
+   *
+   * @param state The database
+   *
+   * @return The values
+   *
+   * @throws IOException On errors
+   */
+
+  @Benchmark
+  public Map<LLKeyName, String> getMany(
+    final LLDatabaseState state)
+    throws IOException
+  {
+    return state.database().getMany(this.randomKeys(state));
+  }
+
+  /**
+   * Read a set of random keys in a read-only transaction.
+   *
+   * @param state The database
+   *
+   * @return The values
+   *
+   * @throws IOException On errors
+   */
+
+  @Benchmark
+  public Map<LLKeyName, String> read(
+    final LLDatabaseState state)
+    throws IOException
+  {
+    return state.database()
+      .readUpdateDelete(
+        new LLDatabaseRUD(this.randomKeys(state), Map.of(), Set.of())
+      );
+  }
+
+  /**
+   * Read a set of random keys, overwrite another set of random keys, and
+   * delete a set of keys, in one transaction.
+   *
+   * @param state The database
+   *
+   * @return The values
+   *
+   * @throws IOException On errors
+   */
+
+  @Benchmark
+  public Map<LLKeyName, String> readUpdateDelete(
+    final LLDatabaseState state)
+    throws IOException
+  {
+    final var value = state.value();
+    final var updates = new HashMap<LLKeyName, String>();
+    for (final var key : this.randomKeys(state)) {
+      updates.put(key, value);
+    }
+
+    return state.database()
+      .readUpdateDelete(
+        new LLDatabaseRUD(
+          this.randomKeys(state),
+          updates,
+          Set.of(this.scratch)
+        )
+      );
+  }
+}
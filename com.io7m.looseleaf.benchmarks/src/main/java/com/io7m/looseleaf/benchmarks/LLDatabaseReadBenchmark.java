@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.benchmarks;
+
+import com.io7m.looseleaf.security.LLKeyName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-key and whole-database read benchmarks.
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LLDatabaseReadBenchmark
+{
+  private static final LLKeyName MISSING =
+    LLKeyName.create("/missing");
+
+  /**
+   * Single-key and whole-database read benchmarks.
+   */
+
+  public LLDatabaseReadBenchmark()
+  {
+
+  }
+
+  /**
+   * Read a random key that exists.
+   *
+   * @param state The database
+   *
+   * @return The value
+   *
+   * @throws IOException On errors
+   */
+
+  @Benchmark
+  public Optional<String> get(
+    final LLDatabaseState state)
+    throws IOException
+  {
+    final var keys = state.keys();
+    final var key = keys[ThreadLocalRandom.current().nextInt(keys.length)];
+    return state.database().get(key);
+  }
+
+  /**
+   * Read a key that does not exist.
+   *
+   * @param state The database
+   *
+   * @return The value
+   *
+   * @throws IOException On errors
+   */
+
+  @Benchmark
+  public Optional<String> getMissing(
+    final LLDatabaseState state)
+    throws IOException
+  {
+    return state.database().get(MISSING);
+  }
+
+  /**
+   * Read every entry in the database.
+   *
+   * @param state The database
+   * @param hole  The blackhole
+   *
+   * @throws IOException On errors
+   */
+
+  @Benchmark
+  public void getAll(
+    final LLDatabaseState state,
+    final Blackhole hole)
+    throws IOException
+  {
+    try (var cursor = state.database().cursor()) {
+      while (cursor.next()) {
+        hole.consume(cursor.key());
+        hole.consume(cursor.value());
+      }
+    }
+  }
+
+  /**
+   * Estimate the number of keys.
+   *
+   * @param state The database
+   *
+   * @return The key count
+   *
+   * @throws IOException On errors
+   */
+
+  @Benchmark
+  public long keyCountApproximate(
+    final LLDatabaseState state)
+    throws IOException
+  {
+    return state.database().keyCountApproximate();
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.benchmarks;
+
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+import com.io7m.looseleaf.security.LLKeyName;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * A populated database shared by all benchmark threads.
+ */
+
+@State(Scope.Benchmark)
+public class LLDatabaseState
+{
+  private static final int POPULATE_BATCH_SIZE = 1000;
+
+  /**
+   * The database kind under test.
+   */
+
+  @Param({"MVSTORE", "SQLITE", "MEMORY", "BITCASK", "LSM", "SHARDED"})
+  public String kind;
+
+  /**
+   * The number of keys in the database.
+   */
+
+  @Param({"1000", "100000"})
+  public int keyCount;
+
+  /**
+   * The minimum length of each key.
+   */
+
+  @Param({"24", "128"})
+  public int keyLength;
+
+  /**
+   * The length of each value.
+   */
+
+  @Param({"16", "1024"})
+  public int valueLength;
+
+  private Path directory;
+  private LLDatabaseType database;
+  private LLKeyName[] keys;
+  private String value;
+
+  /**
+   * A populated database shared by all benchmark threads.
+   */
+
+  public LLDatabaseState()
+  {
+
+  }
+
+  /**
+   * Create and populate the database.
+   *
+   * @throws IOException On errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws IOException
+  {
+    final var random = new SplittableRandom(0x6c6f6f73656c6561L);
+
+    this.directory =
+      LLBenchmarkDatabases.createTempDirectory();
+    this.database =
+      LLBenchmarkDatabases.factory(this.kind)
+        .open(this.directory.resolve("database.db"));
+    this.keys =
+      LLBenchmarkDatabases.keys(this.keyCount, this.keyLength);
+    this.value =
+      LLBenchmarkDatabases.value(random, this.valueLength);
+
+    final var batch = new HashMap<LLKeyName, String>(POPULATE_BATCH_SIZE);
+    for (final var key : this.keys) {
+      batch.put(key, LLBenchmarkDatabases.value(random, this.valueLength));
+      if (batch.size() == POPULATE_BATCH_SIZE) {
+        this.write(batch);
+        batch.clear();
+      }
+    }
+    this.write(batch);
+  }
+
+  private void write(
+    final Map<LLKeyName, String> batch)
+    throws IOException
+  {
+    if (batch.isEmpty()) {
+      return;
+    }
+    this.database.readUpdateDelete(
+      new LLDatabaseRUD(Set.of(), Map.copyOf(batch), Set.of())
+    );
+  }
+
+  /**
+   * Close and delete the database.
+   *
+   * @throws IOException On errors
+   */
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+    throws IOException
+  {
+    this.database.close();
+    LLBenchmarkDatabases.deleteDirectory(this.directory);
+  }
+
+  /**
+   * @return The database
+   */
+
+  public LLDatabaseType database()
+  {
+    return this.database;
+  }
+
+  /**
+   * @return The keys present in the database, in ascending order
+   */
+
+  public LLKeyName[] keys()
+  {
+    return this.keys;
+  }
+
+  /**
+   * @return A value of the configured length, suitable for writes
+   */
+
+  public String value()
+  {
+    return this.value;
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.benchmarks;
+
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed read/write workloads at several thread counts. Each operation
+ * either reads or overwrites a single random key; the proportion of reads
+ * is given by {@link #readPercent}, so a low value gives a write-heavy
+ * workload.
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class LLDatabaseWorkloadBenchmark
+{
+  /**
+   * The percentage of operations that are reads.
+   */
+
+  @Param({"10", "50", "90"})
+  public int readPercent;
+
+  /**
+   * Mixed read/write workloads at several thread counts.
+   */
+
+  public LLDatabaseWorkloadBenchmark()
+  {
+
+  }
+
+  private Object operation(
+    final LLDatabaseState state)
+    throws IOException
+  {
+    final var random = ThreadLocalRandom.current();
+    final var keys = state.keys();
+    final var key = keys[random.nextInt(keys.length)];
+    final var database = state.database();
+
+    if (random.nextInt(100) < this.readPercent) {
+      return database.get(key);
+    }
+    return database.readUpdateDelete(
+      new LLDatabaseRUD(Set.of(), Map.of(key, state.value()), Set.of())
+    );
+  }
+
+  /**
+   * Run the workload on one thread.
+   *
+   * @param state The database
+   *
+   * @return The operation result
+   *
+   * @throws IOException On errors
+   */
+
+  @Benchmark
+  @Threads(1)
+  public Object threads1(
+    final LLDatabaseState state)
+    throws IOException
+  {
+    return this.operation(state);
+  }
+
+  /**
+   * Run the workload on four threads.
+   *
+   * @param state The database
+   *
+   * @return The operation result
+   *
+   * @throws IOException On errors
+   */
+
+  @Benchmark
+  @Threads(4)
+  public Object threads4(
+    final LLDatabaseState state)
+    throws IOException
+  {
+    return this.operation(state);
+  }
+
+  /**
+   * Run the workload on sixteen threads.
+   *
+   * @param state The database
+   *
+   * @return The operation result
+   *
+   * @throws IOException On errors
+   */
+
+  @Benchmark
+  @Threads(16)
+  public Object threads16(
+    final LLDatabaseState state)
+    throws IOException
+  {
+    return this.operation(state);
+  }
+}
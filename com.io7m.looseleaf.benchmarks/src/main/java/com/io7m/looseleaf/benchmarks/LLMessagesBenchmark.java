@@ -0,0 +1,176 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.benchmarks;
+
+import com.io7m.looseleaf.protocol.v1.LLv1MessageType;
+import com.io7m.looseleaf.protocol.v1.LLv1Messages;
+import com.io7m.looseleaf.protocol.v1.LLv1RUD;
+import com.io7m.looseleaf.protocol.v1.LLv1Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization and deserialization of v1 protocol messages.
+ */
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class LLMessagesBenchmark
+{
+  /**
+   * The number of keys in each message.
+   */
+
+  @Param({"1", "10", "100"})
+  public int keyCount;
+
+  /**
+   * The length of each value.
+   */
+
+  @Param({"16", "1024"})
+  public int valueLength;
+
+  private LLv1Messages messages;
+  private LLv1RUD rud;
+  private byte[] rudBytes;
+  private LLv1Result result;
+  private byte[] resultBytes;
+
+  /**
+   * Serialization and deserialization of v1 protocol messages.
+   */
+
+  public LLMessagesBenchmark()
+  {
+
+  }
+
+  /**
+   * Create the messages.
+   *
+   * @throws IOException On errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws IOException
+  {
+    final var random = new SplittableRandom(0x6c6f6f73656c6561L);
+    final var keys =
+      LLBenchmarkRequests.dataKeys(random, this.keyCount * 2, 8)
+        .stream()
+        .toList();
+
+    final var reads = keys.subList(0, this.keyCount);
+    final var updates = new HashMap<String, String>();
+    for (final var key : keys.subList(this.keyCount, keys.size())) {
+      updates.put(key, LLBenchmarkDatabases.value(random, this.valueLength));
+    }
+
+    final var values = new HashMap<String, String>();
+    for (final var key : reads) {
+      values.put(key, LLBenchmarkDatabases.value(random, this.valueLength));
+    }
+
+    this.messages = new LLv1Messages();
+    this.rud = new LLv1RUD(Set.copyOf(reads), updates, Set.of());
+    this.rudBytes = this.messages.serialize(this.rud);
+    this.result = new LLv1Result(values);
+    this.resultBytes = this.messages.serialize(this.result);
+  }
+
+  /**
+   * Serialize a RUD request.
+   *
+   * @return The serialized message
+   *
+   * @throws IOException On errors
+   */
+
+  @Benchmark
+  public byte[] serializeRUD()
+    throws IOException
+  {
+    return this.messages.serialize(this.rud);
+  }
+
+  /**
+   * Deserialize a RUD request.
+   *
+   * @return The deserialized message
+   *
+   * @throws IOException On errors
+   */
+
+  @Benchmark
+  public LLv1MessageType deserializeRUD()
+    throws IOException
+  {
+    return this.messages.deserialize(this.rudBytes);
+  }
+
+  /**
+   * Serialize a result.
+   *
+   * @return The serialized message
+   *
+   * @throws IOException On errors
+   */
+
+  @Benchmark
+  public byte[] serializeResult()
+    throws IOException
+  {
+    return this.messages.serialize(this.result);
+  }
+
+  /**
+   * Deserialize a result.
+   *
+   * @return The deserialized message
+   *
+   * @throws IOException On errors
+   */
+
+  @Benchmark
+  public LLv1MessageType deserializeResult()
+    throws IOException
+  {
+    return this.messages.deserialize(this.resultBytes);
+  }
+}
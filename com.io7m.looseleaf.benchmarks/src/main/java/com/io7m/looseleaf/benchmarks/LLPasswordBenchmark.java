@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.benchmarks;
+
+import com.io7m.looseleaf.security.LLPassword;
+import com.io7m.looseleaf.security.LLPasswordAlgorithmPBKDF2HmacSHA256;
+import com.io7m.looseleaf.security.LLPasswordException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password checks, as performed for each request that is not served from
+ * the credential cache.
+ */
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class LLPasswordBenchmark
+{
+  private LLPassword password;
+
+  /**
+   * Password checks.
+   */
+
+  public LLPasswordBenchmark()
+  {
+
+  }
+
+  /**
+   * Hash the password.
+   *
+   * @throws LLPasswordException On errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws LLPasswordException
+  {
+    this.password =
+      LLPasswordAlgorithmPBKDF2HmacSHA256.create()
+        .createHashed("benchmark", new byte[16]);
+  }
+
+  /**
+   * Check a correct password.
+   *
+   * @return The result
+   *
+   * @throws LLPasswordException On errors
+   */
+
+  @Benchmark
+  public boolean checkCorrect()
+    throws LLPasswordException
+  {
+    return this.password.check("benchmark");
+  }
+
+  /**
+   * Check an incorrect password.
+   *
+   * @return The result
+   *
+   * @throws LLPasswordException On errors
+   */
+
+  @Benchmark
+  public boolean checkIncorrect()
+    throws LLPasswordException
+  {
+    return this.password.check("incorrect");
+  }
+}
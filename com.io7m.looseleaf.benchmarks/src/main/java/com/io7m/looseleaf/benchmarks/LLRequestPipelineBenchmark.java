@@ -0,0 +1,203 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.benchmarks;
+
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.protocol.v1.LLv1Messages;
+import com.io7m.looseleaf.protocol.v1.LLv1RUD;
+import com.io7m.looseleaf.protocol.v1.LLv1Result;
+import com.io7m.looseleaf.security.LLAction;
+import com.io7m.looseleaf.security.LLKeyName;
+import com.io7m.looseleaf.security.LLPasswordAlgorithmPBKDF2HmacSHA256;
+import com.io7m.looseleaf.security.LLPasswordException;
+import com.io7m.looseleaf.security.LLPermissions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The work performed by the RUD servlet for each request, excluding the
+ * database and the HTTP server: parse the message, parse and check each key,
+ * convert the database result, and serialize the response.
+ */
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class LLRequestPipelineBenchmark
+{
+  private static final int APPLICATIONS = 8;
+
+  /**
+   * The number of keys read, and the number of keys updated, by each
+   * request.
+   */
+
+  @Param({"1", "10", "100"})
+  public int keyCount;
+
+  /**
+   * The length of each value.
+   */
+
+  @Param({"16", "1024"})
+  public int valueLength;
+
+  private LLv1Messages messages;
+  private LLPermissions permissions;
+  private byte[] request;
+  private Map<LLKeyName, String> databaseResult;
+
+  /**
+   * The work performed by the RUD servlet for each request.
+   */
+
+  public LLRequestPipelineBenchmark()
+  {
+
+  }
+
+  /**
+   * Create the request and the database result.
+   *
+   * @throws IOException         On errors
+   * @throws LLPasswordException On errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws IOException, LLPasswordException
+  {
+    final var random = new SplittableRandom(0x6c6f6f73656c6561L);
+    final var keys =
+      LLBenchmarkRequests.dataKeys(random, this.keyCount * 2, APPLICATIONS)
+        .stream()
+        .toList();
+
+    final var reads = keys.subList(0, this.keyCount);
+    final var updates = new HashMap<String, String>();
+    for (final var key : keys.subList(this.keyCount, keys.size())) {
+      updates.put(key, LLBenchmarkDatabases.value(random, this.valueLength));
+    }
+
+    this.databaseResult = new HashMap<>();
+    for (final var key : reads) {
+      this.databaseResult.put(
+        LLKeyName.create(key),
+        LLBenchmarkDatabases.value(random, this.valueLength)
+      );
+    }
+
+    final var password =
+      LLPasswordAlgorithmPBKDF2HmacSHA256.create()
+        .createHashed("benchmark", new byte[16]);
+
+    this.messages = new LLv1Messages();
+    this.permissions = LLPermissions.compile(
+      LLBenchmarkRequests.user(password, APPLICATIONS).roles().values());
+    this.request = this.messages.serialize(
+      new LLv1RUD(Set.copyOf(reads), updates, Set.of()));
+  }
+
+  private Set<LLKeyName> checkKeys(
+    final LLAction action,
+    final Set<String> names)
+  {
+    final var result = new HashSet<LLKeyName>();
+    for (final var name : names) {
+      final var keyName = LLKeyName.create(name);
+      if (!this.permissions.allows(action, keyName)) {
+        throw new IllegalStateException("Not permitted: " + keyName);
+      }
+      result.add(keyName);
+    }
+    return result;
+  }
+
+  /**
+   * Process a single request.
+   *
+   * @return The response body
+   *
+   * @throws IOException On errors
+   */
+
+  @Benchmark
+  public byte[] processRUD()
+    throws IOException
+  {
+    final LLv1RUD message;
+    try (var stream = new ByteArrayInputStream(this.request)) {
+      message = (LLv1RUD) this.messages.deserialize(stream);
+    }
+
+    final var keysUpdate = new HashMap<LLKeyName, String>();
+    for (final var entry : message.update().entrySet()) {
+      final var keyName = LLKeyName.create(entry.getKey());
+      if (!this.permissions.allows(LLAction.WRITE, keyName)) {
+        throw new IllegalStateException("Not permitted: " + keyName);
+      }
+      keysUpdate.put(keyName, entry.getValue());
+    }
+
+    final var rud =
+      new LLDatabaseRUD(
+        this.checkKeys(LLAction.READ, message.read()),
+        keysUpdate,
+        this.checkKeys(LLAction.WRITE, message.delete())
+      );
+
+    final var result =
+      new LLv1Result(
+        this.databaseResult.entrySet()
+          .stream()
+          .filter(e -> rud.read().contains(e.getKey()))
+          .map(e -> Map.entry(e.getKey().value(), e.getValue()))
+          .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))
+      );
+
+    final var data = this.messages.serialize(result);
+    final var output = new ByteArrayOutputStream(data.length + 2);
+    output.write(data);
+    output.write('\r');
+    output.write('\n');
+    return output.toByteArray();
+  }
+}
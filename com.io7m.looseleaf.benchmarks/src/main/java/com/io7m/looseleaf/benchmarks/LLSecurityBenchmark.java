@@ -0,0 +1,169 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.benchmarks;
+
+import com.io7m.looseleaf.security.LLKeyName;
+import com.io7m.looseleaf.security.LLPasswordAlgorithmPBKDF2HmacSHA256;
+import com.io7m.looseleaf.security.LLPasswordException;
+import com.io7m.looseleaf.security.LLPermissions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.io7m.looseleaf.security.LLAction.READ;
+import static com.io7m.looseleaf.security.LLAction.WRITE;
+
+/**
+ * Key name parsing and permission checks.
+ */
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class LLSecurityBenchmark
+{
+  /**
+   * The number of applications to which the user has access. Each
+   * application contributes four grants.
+   */
+
+  @Param({"1", "8", "128"})
+  public int applications;
+
+  private LLPermissions permissions;
+  private String rawKey;
+  private String rawKeyUnnormalized;
+  private LLKeyName configKey;
+  private LLKeyName dataKey;
+  private LLKeyName deniedKey;
+
+  /**
+   * Key name parsing and permission checks.
+   */
+
+  public LLSecurityBenchmark()
+  {
+
+  }
+
+  /**
+   * Create the user and keys.
+   *
+   * @throws LLPasswordException On errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws LLPasswordException
+  {
+    final var password =
+      LLPasswordAlgorithmPBKDF2HmacSHA256.create()
+        .createHashed("benchmark", new byte[16]);
+
+    final var application = this.applications / 2;
+    this.permissions =
+      LLPermissions.compile(
+        LLBenchmarkRequests.user(password, this.applications)
+          .roles()
+          .values());
+    this.rawKey =
+      LLBenchmarkRequests.dataKey(application, 23);
+    this.rawKeyUnnormalized =
+      "/app//%d/data///objects/23/".formatted(Integer.valueOf(application));
+    this.configKey =
+      LLKeyName.create(LLBenchmarkRequests.configKey(application));
+    this.dataKey =
+      LLKeyName.create(this.rawKey);
+    this.deniedKey =
+      LLKeyName.create("/app/%d/data/objects/23".formatted(
+        Integer.valueOf(this.applications)));
+  }
+
+  /**
+   * Parse a key name that is already in normal form.
+   *
+   * @return The key name
+   */
+
+  @Benchmark
+  public LLKeyName keyNameCreate()
+  {
+    return LLKeyName.create(this.rawKey);
+  }
+
+  /**
+   * Parse a key name that requires normalization.
+   *
+   * @return The key name
+   */
+
+  @Benchmark
+  public LLKeyName keyNameCreateUnnormalized()
+  {
+    return LLKeyName.create(this.rawKeyUnnormalized);
+  }
+
+  /**
+   * Check a key permitted by an exact grant.
+   *
+   * @return The result
+   */
+
+  @Benchmark
+  public boolean allowsExact()
+  {
+    return this.permissions.allows(WRITE, this.configKey);
+  }
+
+  /**
+   * Check a key permitted by a wildcard grant.
+   *
+   * @return The result
+   */
+
+  @Benchmark
+  public boolean allowsWildcard()
+  {
+    return this.permissions.allows(READ, this.dataKey);
+  }
+
+  /**
+   * Check a key that is not permitted.
+   *
+   * @return The result
+   */
+
+  @Benchmark
+  public boolean allowsDenied()
+  {
+    return this.permissions.allows(READ, this.deniedKey);
+  }
+}
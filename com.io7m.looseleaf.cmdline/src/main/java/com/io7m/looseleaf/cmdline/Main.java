@@ -18,7 +18,9 @@ package com.io7m.looseleaf.cmdline;
 
 import com.io7m.looseleaf.cmdline.internal.LLCheckConfiguration;
 import com.io7m.looseleaf.cmdline.internal.LLCreatePassword;
+import com.io7m.looseleaf.cmdline.internal.LLLoadTestCommand;
 import com.io7m.looseleaf.cmdline.internal.LLMigrateDatabase;
+import com.io7m.looseleaf.cmdline.internal.LLReshardDatabase;
 import com.io7m.looseleaf.cmdline.internal.LLServer;
 import com.io7m.looseleaf.server.LLVersion;
 import com.io7m.quarrel.core.QApplication;
@@ -73,6 +75,8 @@ public final class Main implements Runnable
     builder.addCommand(new LLCreatePassword());
     builder.addCommand(new LLServer());
     builder.addCommand(new LLMigrateDatabase());
+    builder.addCommand(new LLReshardDatabase());
+    builder.addCommand(new LLLoadTestCommand());
 
     this.application = builder.build();
     this.exitCode = 0;
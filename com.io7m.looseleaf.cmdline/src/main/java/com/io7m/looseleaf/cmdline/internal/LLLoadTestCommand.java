@@ -0,0 +1,363 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.cmdline.internal;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.io7m.looseleaf.server.LLServers;
+import com.io7m.looseleaf.server.api.LLServerConfigurations;
+import com.io7m.quarrel.core.QCommandContextType;
+import com.io7m.quarrel.core.QCommandMetadata;
+import com.io7m.quarrel.core.QCommandStatus;
+import com.io7m.quarrel.core.QCommandType;
+import com.io7m.quarrel.core.QParameterNamed01;
+import com.io7m.quarrel.core.QParameterNamed1;
+import com.io7m.quarrel.core.QParameterNamedType;
+import com.io7m.quarrel.core.QStringType;
+import com.io7m.quarrel.ext.logback.QLogback;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Optional;
+
+import static com.fasterxml.jackson.databind.SerializationFeature.INDENT_OUTPUT;
+
+/**
+ * Drive a server with a synthetic workload and report latencies.
+ */
+
+public final class LLLoadTestCommand implements QCommandType
+{
+  private static final QParameterNamed01<URI> SERVER =
+    new QParameterNamed01<>(
+      "--server",
+      List.of(),
+      new QStringType.QConstant(
+        "The base URI of a running server (such as http://localhost:20000)."),
+      Optional.empty(),
+      URI.class
+    );
+
+  private static final QParameterNamed01<Path> CONFIGURATION =
+    new QParameterNamed01<>(
+      "--configuration",
+      List.of(),
+      new QStringType.QConstant(
+        "A server configuration file. If specified, a server is started "
+        + "in-process and tested."),
+      Optional.empty(),
+      Path.class
+    );
+
+  private static final QParameterNamed1<String> USER =
+    new QParameterNamed1<>(
+      "--user",
+      List.of(),
+      new QStringType.QConstant("The user name."),
+      Optional.empty(),
+      String.class
+    );
+
+  private static final QParameterNamed1<String> PASSWORD =
+    new QParameterNamed1<>(
+      "--password",
+      List.of(),
+      new QStringType.QConstant("The password."),
+      Optional.empty(),
+      String.class
+    );
+
+  private static final QParameterNamed1<Duration> DURATION =
+    new QParameterNamed1<>(
+      "--duration",
+      List.of(),
+      new QStringType.QConstant("The duration of the test."),
+      Optional.of(Duration.ofSeconds(30L)),
+      Duration.class
+    );
+
+  private static final QParameterNamed1<Integer> CONCURRENCY =
+    new QParameterNamed1<>(
+      "--concurrency",
+      List.of(),
+      new QStringType.QConstant("The number of concurrent connections."),
+      Optional.of(Integer.valueOf(8)),
+      Integer.class
+    );
+
+  private static final QParameterNamed01<Double> RATE =
+    new QParameterNamed01<>(
+      "--rate",
+      List.of(),
+      new QStringType.QConstant(
+        "The total request rate in requests per second. If specified, the "
+        + "test is open-loop; otherwise, each connection sends requests "
+        + "back-to-back."),
+      Optional.empty(),
+      Double.class
+    );
+
+  private static final QParameterNamed1<String> KEY_PREFIX =
+    new QParameterNamed1<>(
+      "--key-prefix",
+      List.of(),
+      new QStringType.QConstant("The prefix of every key used by the test."),
+      Optional.of("/load-test"),
+      String.class
+    );
+
+  private static final QParameterNamed1<Integer> KEY_COUNT =
+    new QParameterNamed1<>(
+      "--key-count",
+      List.of(),
+      new QStringType.QConstant("The number of distinct keys."),
+      Optional.of(Integer.valueOf(10000)),
+      Integer.class
+    );
+
+  private static final QParameterNamed1<LLLoadTestDistribution> DISTRIBUTION =
+    new QParameterNamed1<>(
+      "--distribution",
+      List.of(),
+      new QStringType.QConstant("The key popularity distribution."),
+      Optional.of(LLLoadTestDistribution.UNIFORM),
+      LLLoadTestDistribution.class
+    );
+
+  private static final QParameterNamed1<Double> ZIPF_EXPONENT =
+    new QParameterNamed1<>(
+      "--zipf-exponent",
+      List.of(),
+      new QStringType.QConstant("The exponent of the Zipfian distribution."),
+      Optional.of(Double.valueOf(0.99)),
+      Double.class
+    );
+
+  private static final QParameterNamed1<Integer> VALUE_SIZE =
+    new QParameterNamed1<>(
+      "--value-size",
+      List.of(),
+      new QStringType.QConstant("The size of written values in characters."),
+      Optional.of(Integer.valueOf(64)),
+      Integer.class
+    );
+
+  private static final QParameterNamed1<Integer> WEIGHT_READ =
+    new QParameterNamed1<>(
+      "--weight-read",
+      List.of(),
+      new QStringType.QConstant("The relative frequency of reads."),
+      Optional.of(Integer.valueOf(80)),
+      Integer.class
+    );
+
+  private static final QParameterNamed1<Integer> WEIGHT_UPDATE =
+    new QParameterNamed1<>(
+      "--weight-update",
+      List.of(),
+      new QStringType.QConstant("The relative frequency of updates."),
+      Optional.of(Integer.valueOf(15)),
+      Integer.class
+    );
+
+  private static final QParameterNamed1<Integer> WEIGHT_DELETE =
+    new QParameterNamed1<>(
+      "--weight-delete",
+      List.of(),
+      new QStringType.QConstant("The relative frequency of deletions."),
+      Optional.of(Integer.valueOf(0)),
+      Integer.class
+    );
+
+  private static final QParameterNamed1<Integer> WEIGHT_RUD =
+    new QParameterNamed1<>(
+      "--weight-rud",
+      List.of(),
+      new QStringType.QConstant("The relative frequency of RUD operations."),
+      Optional.of(Integer.valueOf(5)),
+      Integer.class
+    );
+
+  private static final QParameterNamed1<Integer> RUD_KEYS =
+    new QParameterNamed1<>(
+      "--rud-keys",
+      List.of(),
+      new QStringType.QConstant(
+        "The number of keys read, and the number of keys updated, by each "
+        + "RUD operation."),
+      Optional.of(Integer.valueOf(4)),
+      Integer.class
+    );
+
+  private static final QParameterNamed1<Boolean> PRELOAD =
+    new QParameterNamed1<>(
+      "--preload",
+      List.of(),
+      new QStringType.QConstant("Write every key before the test starts."),
+      Optional.of(Boolean.TRUE),
+      Boolean.class
+    );
+
+  private static final QParameterNamed01<Path> REPORT =
+    new QParameterNamed01<>(
+      "--report",
+      List.of(),
+      new QStringType.QConstant("Write a JSON report to the given file."),
+      Optional.empty(),
+      Path.class
+    );
+
+  private final QCommandMetadata metadata;
+
+  /**
+   * Construct a command.
+   */
+
+  public LLLoadTestCommand()
+  {
+    this.metadata = new QCommandMetadata(
+      "load-test",
+      new QStringType.QConstant(
+        "Drive a server with a synthetic workload and report latencies."),
+      Optional.empty()
+    );
+  }
+
+  @Override
+  public List<QParameterNamedType<?>> onListNamedParameters()
+  {
+    return QLogback.plusParameters(List.of(
+      CONCURRENCY,
+      CONFIGURATION,
+      DISTRIBUTION,
+      DURATION,
+      KEY_COUNT,
+      KEY_PREFIX,
+      PASSWORD,
+      PRELOAD,
+      RATE,
+      REPORT,
+      RUD_KEYS,
+      SERVER,
+      USER,
+      VALUE_SIZE,
+      WEIGHT_DELETE,
+      WEIGHT_READ,
+      WEIGHT_RUD,
+      WEIGHT_UPDATE,
+      ZIPF_EXPONENT
+    ));
+  }
+
+  @Override
+  public QCommandStatus onExecute(
+    final QCommandContextType context)
+    throws Exception
+  {
+    QLogback.configure(context);
+
+    final var serverOpt =
+      context.parameterValue(SERVER);
+    final var configurationOpt =
+      context.parameterValue(CONFIGURATION);
+
+    if (serverOpt.isPresent() == configurationOpt.isPresent()) {
+      throw new IllegalArgumentException(
+        "Exactly one of %s or %s must be specified."
+          .formatted(SERVER.name(), CONFIGURATION.name())
+      );
+    }
+
+    if (configurationOpt.isPresent()) {
+      final var configuration =
+        new LLServerConfigurations().parse(configurationOpt.get());
+      final var address =
+        configuration.addresses().get(0);
+      final var serverURI =
+        URI.create("http://%s:%d".formatted(
+          address.host(), Integer.valueOf(address.port())));
+
+      try (var ignored = new LLServers().open(configuration)) {
+        run(context, serverURI);
+      }
+    } else {
+      run(context, serverOpt.get());
+    }
+
+    return QCommandStatus.SUCCESS;
+  }
+
+  private static void run(
+    final QCommandContextType context,
+    final URI serverURI)
+    throws Exception
+  {
+    final var result =
+      new LLLoadTestRunner(workload(context, serverURI)).run();
+
+    result.writeText(context.output());
+
+    final var reportOpt = context.parameterValue(REPORT);
+    if (reportOpt.isPresent()) {
+      final var mapper =
+        JsonMapper.builder()
+          .enable(INDENT_OUTPUT)
+          .build();
+      mapper.writeValue(reportOpt.get().toFile(), result.toJSON(mapper));
+    }
+  }
+
+  private static LLLoadTestWorkload workload(
+    final QCommandContextType context,
+    final URI serverURI)
+  {
+    final var weights =
+      new EnumMap<LLLoadTestOperation, Integer>(LLLoadTestOperation.class);
+
+    weights.put(LLLoadTestOperation.READ, context.parameterValue(WEIGHT_READ));
+    weights.put(
+      LLLoadTestOperation.UPDATE, context.parameterValue(WEIGHT_UPDATE));
+    weights.put(
+      LLLoadTestOperation.DELETE, context.parameterValue(WEIGHT_DELETE));
+    weights.put(LLLoadTestOperation.RUD, context.parameterValue(WEIGHT_RUD));
+
+    return new LLLoadTestWorkload(
+      serverURI,
+      context.parameterValue(USER),
+      context.parameterValue(PASSWORD),
+      context.parameterValue(DURATION),
+      context.<Integer>parameterValue(CONCURRENCY).intValue(),
+      context.parameterValue(RATE),
+      context.parameterValue(KEY_PREFIX),
+      context.<Integer>parameterValue(KEY_COUNT).intValue(),
+      context.parameterValue(DISTRIBUTION),
+      context.<Double>parameterValue(ZIPF_EXPONENT).doubleValue(),
+      context.<Integer>parameterValue(VALUE_SIZE).intValue(),
+      weights,
+      context.<Integer>parameterValue(RUD_KEYS).intValue(),
+      context.<Boolean>parameterValue(PRELOAD).booleanValue()
+    );
+  }
+
+  @Override
+  public QCommandMetadata metadata()
+  {
+    return this.metadata;
+  }
+}
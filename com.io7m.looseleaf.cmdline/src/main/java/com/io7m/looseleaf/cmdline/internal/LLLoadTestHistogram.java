@@ -0,0 +1,192 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.cmdline.internal;
+
+import java.util.Objects;
+
+/**
+ * A latency histogram in the style of HdrHistogram. Values are counted in
+ * log-linear buckets: each power of two is divided into 64 equal
+ * sub-buckets, so any recorded value is reported to within about 1.6%
+ * regardless of its magnitude, and the histogram has a fixed size.
+ *
+ * Histograms are not thread-safe; each load test worker records into its
+ * own histogram and the results are merged afterwards.
+ */
+
+public final class LLLoadTestHistogram
+{
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT * 2;
+  private static final int BUCKET_COUNT =
+    (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+  private final long[] counts;
+  private long count;
+  private long minimum;
+  private long maximum;
+  private double sum;
+
+  /**
+   * Create an empty histogram.
+   */
+
+  public LLLoadTestHistogram()
+  {
+    this.counts = new long[BUCKET_COUNT];
+    this.minimum = Long.MAX_VALUE;
+    this.maximum = 0L;
+  }
+
+  private static int indexOf(
+    final long value)
+  {
+    if (value < LINEAR_LIMIT) {
+      return (int) value;
+    }
+
+    final var exponent = 63 - Long.numberOfLeadingZeros(value);
+    final var shift = exponent - SUB_BUCKET_BITS;
+    return (shift * SUB_BUCKET_COUNT) + (int) (value >>> shift);
+  }
+
+  private static long highestValueOf(
+    final int index)
+  {
+    if (index < LINEAR_LIMIT) {
+      return index;
+    }
+
+    final var shift = (index / SUB_BUCKET_COUNT) - 1;
+    final var mantissa = (long) (index % SUB_BUCKET_COUNT) + SUB_BUCKET_COUNT;
+    return ((mantissa + 1L) << shift) - 1L;
+  }
+
+  /**
+   * Record a value.
+   *
+   * @param value The value (negative values are recorded as zero)
+   */
+
+  public void record(
+    final long value)
+  {
+    final var clamped = Math.max(0L, value);
+    ++this.counts[indexOf(clamped)];
+    ++this.count;
+    this.sum += clamped;
+    this.minimum = Math.min(this.minimum, clamped);
+    this.maximum = Math.max(this.maximum, clamped);
+  }
+
+  /**
+   * Add all values recorded in {@code other} to this histogram.
+   *
+   * @param other The other histogram
+   */
+
+  public void add(
+    final LLLoadTestHistogram other)
+  {
+    Objects.requireNonNull(other, "other");
+
+    for (int index = 0; index < BUCKET_COUNT; ++index) {
+      this.counts[index] += other.counts[index];
+    }
+    this.count += other.count;
+    this.sum += other.sum;
+    this.minimum = Math.min(this.minimum, other.minimum);
+    this.maximum = Math.max(this.maximum, other.maximum);
+  }
+
+  /**
+   * @return The number of recorded values
+   */
+
+  public long count()
+  {
+    return this.count;
+  }
+
+  /**
+   * @return The smallest recorded value, or {@code 0} if nothing has been
+   * recorded
+   */
+
+  public long minimum()
+  {
+    return this.count == 0L ? 0L : this.minimum;
+  }
+
+  /**
+   * @return The largest recorded value
+   */
+
+  public long maximum()
+  {
+    return this.maximum;
+  }
+
+  /**
+   * @return The mean of the recorded values
+   */
+
+  public double mean()
+  {
+    return this.count == 0L ? 0.0 : this.sum / this.count;
+  }
+
+  /**
+   * Find the value below which the given percentage of recorded values
+   * fall. The result is the upper bound of the bucket containing the
+   * percentile, and so may overestimate the true value by the precision
+   * of the histogram, but never exceeds the maximum recorded value.
+   *
+   * @param percentile The percentile in the range {@code [0, 100]}
+   *
+   * @return The value at the percentile, or {@code 0} if nothing has been
+   * recorded
+   */
+
+  public long valueAtPercentile(
+    final double percentile)
+  {
+    if (percentile < 0.0 || percentile > 100.0) {
+      throw new IllegalArgumentException(
+        "Percentile %f must be in the range [0, 100]".formatted(
+          Double.valueOf(percentile))
+      );
+    }
+
+    if (this.count == 0L) {
+      return 0L;
+    }
+
+    final var target =
+      Math.max(1L, (long) Math.ceil((percentile / 100.0) * this.count));
+
+    long seen = 0L;
+    for (int index = 0; index < BUCKET_COUNT; ++index) {
+      seen += this.counts[index];
+      if (seen >= target) {
+        return Math.min(highestValueOf(index), this.maximum);
+      }
+    }
+    return this.maximum;
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.cmdline.internal;
+
+import com.io7m.looseleaf.security.LLKeyName;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * The set of keys used by a load test, and the means to choose keys from
+ * it according to a distribution. Instances are immutable and may be
+ * shared between workers; each worker supplies its own random source.
+ */
+
+public final class LLLoadTestKeys
+{
+  private final LLKeyName[] keys;
+  private final double[] cumulative;
+
+  private LLLoadTestKeys(
+    final LLKeyName[] inKeys,
+    final double[] inCumulative)
+  {
+    this.keys =
+      Objects.requireNonNull(inKeys, "keys");
+    this.cumulative =
+      Objects.requireNonNull(inCumulative, "cumulative");
+  }
+
+  /**
+   * Create a set of keys.
+   *
+   * @param prefix       The prefix of every key
+   * @param count        The number of keys
+   * @param distribution The distribution from which keys are chosen
+   * @param exponent     The Zipfian exponent (ignored for other
+   *                     distributions)
+   *
+   * @return A set of keys
+   */
+
+  public static LLLoadTestKeys create(
+    final String prefix,
+    final int count,
+    final LLLoadTestDistribution distribution,
+    final double exponent)
+  {
+    Objects.requireNonNull(prefix, "prefix");
+    Objects.requireNonNull(distribution, "distribution");
+
+    if (count <= 0) {
+      throw new IllegalArgumentException(
+        "Key count %d must be positive".formatted(Integer.valueOf(count)));
+    }
+
+    final var keys = new LLKeyName[count];
+    for (int index = 0; index < count; ++index) {
+      keys[index] = LLKeyName.create(
+        "%s/%08d".formatted(prefix, Integer.valueOf(index)));
+    }
+
+    return switch (distribution) {
+      case UNIFORM -> new LLLoadTestKeys(keys, new double[0]);
+      case ZIPFIAN -> new LLLoadTestKeys(keys, zipfian(count, exponent));
+    };
+  }
+
+  /*
+   * The cumulative probabilities of each rank, where the probability of
+   * rank k (counting from 1) is proportional to 1/k^s.
+   */
+
+  private static double[] zipfian(
+    final int count,
+    final double exponent)
+  {
+    if (!(exponent > 0.0)) {
+      throw new IllegalArgumentException(
+        "Zipfian exponent %f must be positive".formatted(
+          Double.valueOf(exponent))
+      );
+    }
+
+    final var cumulative = new double[count];
+    double total = 0.0;
+    for (int index = 0; index < count; ++index) {
+      total += 1.0 / Math.pow(index + 1.0, exponent);
+      cumulative[index] = total;
+    }
+    for (int index = 0; index < count; ++index) {
+      cumulative[index] /= total;
+    }
+    return cumulative;
+  }
+
+  /**
+   * @return The number of keys
+   */
+
+  public int size()
+  {
+    return this.keys.length;
+  }
+
+  /**
+   * @param index The key index
+   *
+   * @return The key at the given index
+   */
+
+  public LLKeyName key(
+    final int index)
+  {
+    return this.keys[index];
+  }
+
+  /**
+   * Choose a key.
+   *
+   * @param random The random source
+   *
+   * @return A key
+   */
+
+  public LLKeyName choose(
+    final SplittableRandom random)
+  {
+    if (this.cumulative.length == 0) {
+      return this.keys[random.nextInt(this.keys.length)];
+    }
+
+    final var position =
+      Arrays.binarySearch(this.cumulative, random.nextDouble());
+    final var index =
+      position >= 0 ? position : -(position + 1);
+    return this.keys[Math.min(index, this.keys.length - 1)];
+  }
+}
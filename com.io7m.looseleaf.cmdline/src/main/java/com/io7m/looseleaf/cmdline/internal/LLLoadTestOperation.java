@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.cmdline.internal;
+
+import java.util.Locale;
+
+/**
+ * The operations performed by a load test.
+ */
+
+public enum LLLoadTestOperation
+{
+  /**
+   * Read a single key with the read endpoint.
+   */
+
+  READ,
+
+  /**
+   * Update a single key with the update endpoint.
+   */
+
+  UPDATE,
+
+  /**
+   * Delete a single key with the delete endpoint.
+   */
+
+  DELETE,
+
+  /**
+   * Read and update several keys with the RUD endpoint.
+   */
+
+  RUD;
+
+  /**
+   * @return The name of the operation as it appears in reports
+   */
+
+  public String label()
+  {
+    return this.name().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.cmdline.internal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.PrintWriter;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The results of a load test.
+ */
+
+public final class LLLoadTestResult
+{
+  private static final double[] PERCENTILES = {
+    50.0, 90.0, 99.0, 99.9, 99.99,
+  };
+
+  private final LLLoadTestWorkload workload;
+  private final long elapsedNanos;
+  private final EnumMap<LLLoadTestOperation, LLLoadTestHistogram> histograms;
+  private final EnumMap<LLLoadTestOperation, Long> errors;
+
+  /**
+   * The results of a load test.
+   *
+   * @param inWorkload     The workload
+   * @param inElapsedNanos The time taken by the test
+   * @param inHistograms   The latencies of successful operations, in
+   *                       nanoseconds
+   * @param inErrors       The number of failed operations
+   */
+
+  public LLLoadTestResult(
+    final LLLoadTestWorkload inWorkload,
+    final long inElapsedNanos,
+    final Map<LLLoadTestOperation, LLLoadTestHistogram> inHistograms,
+    final Map<LLLoadTestOperation, Long> inErrors)
+  {
+    this.workload =
+      Objects.requireNonNull(inWorkload, "workload");
+    this.elapsedNanos =
+      inElapsedNanos;
+    this.histograms =
+      new EnumMap<>(LLLoadTestOperation.class);
+    this.errors =
+      new EnumMap<>(LLLoadTestOperation.class);
+
+    for (final var operation : LLLoadTestOperation.values()) {
+      final var histogram = new LLLoadTestHistogram();
+      final var existing = inHistograms.get(operation);
+      if (existing != null) {
+        histogram.add(existing);
+      }
+      this.histograms.put(operation, histogram);
+      this.errors.put(
+        operation,
+        inErrors.getOrDefault(operation, Long.valueOf(0L)));
+    }
+  }
+
+  /**
+   * Merge the results of several workers.
+   *
+   * @param workload     The workload
+   * @param elapsedNanos The time taken by the test
+   * @param results      The worker results
+   *
+   * @return The merged results
+   */
+
+  public static LLLoadTestResult merge(
+    final LLLoadTestWorkload workload,
+    final long elapsedNanos,
+    final List<LLLoadTestResult> results)
+  {
+    final var histograms =
+      new EnumMap<LLLoadTestOperation, LLLoadTestHistogram>(
+        LLLoadTestOperation.class);
+    final var errors =
+      new EnumMap<LLLoadTestOperation, Long>(LLLoadTestOperation.class);
+
+    for (final var operation : LLLoadTestOperation.values()) {
+      final var histogram = new LLLoadTestHistogram();
+      long errorCount = 0L;
+      for (final var result : results) {
+        histogram.add(result.histograms.get(operation));
+        errorCount += result.errors.get(operation).longValue();
+      }
+      histograms.put(operation, histogram);
+      errors.put(operation, Long.valueOf(errorCount));
+    }
+
+    return new LLLoadTestResult(workload, elapsedNanos, histograms, errors);
+  }
+
+  /**
+   * @return The latencies of all successful operations, in nanoseconds
+   */
+
+  public LLLoadTestHistogram total()
+  {
+    final var total = new LLLoadTestHistogram();
+    for (final var histogram : this.histograms.values()) {
+      total.add(histogram);
+    }
+    return total;
+  }
+
+  /**
+   * @param operation The operation
+   *
+   * @return The latencies of successful operations, in nanoseconds
+   */
+
+  public LLLoadTestHistogram histogram(
+    final LLLoadTestOperation operation)
+  {
+    return this.histograms.get(operation);
+  }
+
+  /**
+   * @param operation The operation
+   *
+   * @return The number of failed operations
+   */
+
+  public long errors(
+    final LLLoadTestOperation operation)
+  {
+    return this.errors.get(operation).longValue();
+  }
+
+  /**
+   * @return The total number of failed operations
+   */
+
+  public long errorsTotal()
+  {
+    return this.errors.values()
+      .stream()
+      .mapToLong(Long::longValue)
+      .sum();
+  }
+
+  /**
+   * @return The number of successful operations per second
+   */
+
+  public double throughput()
+  {
+    if (this.elapsedNanos <= 0L) {
+      return 0.0;
+    }
+    return this.total().count() / (this.elapsedNanos / 1_000_000_000.0);
+  }
+
+  private static double milliseconds(
+    final long nanos)
+  {
+    return nanos / 1_000_000.0;
+  }
+
+  /**
+   * Write a human-readable report.
+   *
+   * @param output The output
+   */
+
+  public void writeText(
+    final PrintWriter output)
+  {
+    final var total = this.total();
+
+    output.printf(
+      Locale.ROOT,
+      "Workload:    %s, concurrency %d%s, %s%n",
+      this.workload.mode(),
+      Integer.valueOf(this.workload.concurrency()),
+      this.workload.rate()
+        .map(r -> String.format(Locale.ROOT, ", %.1f requests/s", r))
+        .orElse(""),
+      this.workload.distribution().name().toLowerCase(Locale.ROOT)
+    );
+    output.printf(
+      Locale.ROOT,
+      "Elapsed:     %.3f s%n",
+      Double.valueOf(this.elapsedNanos / 1_000_000_000.0)
+    );
+    output.printf(
+      Locale.ROOT,
+      "Operations:  %d succeeded, %d failed%n",
+      Long.valueOf(total.count()),
+      Long.valueOf(this.errorsTotal())
+    );
+    output.printf(
+      Locale.ROOT,
+      "Throughput:  %.1f operations/s%n",
+      Double.valueOf(this.throughput())
+    );
+    output.println();
+
+    output.printf(
+      Locale.ROOT,
+      "%-10s %10s %8s %10s %10s %10s %10s %10s %10s %10s%n",
+      "operation", "count", "errors",
+      "mean", "p50", "p90", "p99", "p99.9", "p99.99", "max"
+    );
+
+    for (final var operation : LLLoadTestOperation.values()) {
+      final var histogram = this.histograms.get(operation);
+      final var errorCount = this.errors(operation);
+      if (histogram.count() == 0L && errorCount == 0L) {
+        continue;
+      }
+      this.writeTextRow(output, operation.label(), histogram, errorCount);
+    }
+    this.writeTextRow(output, "total", total, this.errorsTotal());
+
+    output.println();
+    output.println("Latencies are in milliseconds.");
+    output.flush();
+  }
+
+  private void writeTextRow(
+    final PrintWriter output,
+    final String label,
+    final LLLoadTestHistogram histogram,
+    final long errorCount)
+  {
+    output.printf(
+      Locale.ROOT,
+      "%-10s %10d %8d %10.3f",
+      label,
+      Long.valueOf(histogram.count()),
+      Long.valueOf(errorCount),
+      Double.valueOf(histogram.mean() / 1_000_000.0)
+    );
+    for (final var percentile : PERCENTILES) {
+      output.printf(
+        Locale.ROOT,
+        " %10.3f",
+        Double.valueOf(milliseconds(histogram.valueAtPercentile(percentile)))
+      );
+    }
+    output.printf(
+      Locale.ROOT,
+      " %10.3f%n",
+      Double.valueOf(milliseconds(histogram.maximum()))
+    );
+  }
+
+  /**
+   * Produce a machine-readable report suitable for comparison between runs.
+   *
+   * @param mapper The object mapper
+   *
+   * @return The report
+   */
+
+  public ObjectNode toJSON(
+    final ObjectMapper mapper)
+  {
+    final var root = mapper.createObjectNode();
+
+    final var workloadNode = root.putObject("workload");
+    workloadNode.put("server", this.workload.server().toString());
+    workloadNode.put("mode", this.workload.mode());
+    workloadNode.put("duration", this.workload.duration().toString());
+    workloadNode.put("concurrency", this.workload.concurrency());
+    this.workload.rate()
+      .ifPresent(r -> workloadNode.put("rate", r.doubleValue()));
+    workloadNode.put("keyPrefix", this.workload.keyPrefix());
+    workloadNode.put("keyCount", this.workload.keyCount());
+    workloadNode.put("distribution", this.workload.distribution().name());
+    workloadNode.put("zipfExponent", this.workload.zipfExponent());
+    workloadNode.put("valueSize", this.workload.valueSize());
+    workloadNode.put("rudKeys", this.workload.rudKeys());
+
+    final var weightsNode = workloadNode.putObject("weights");
+    for (final var operation : LLLoadTestOperation.values()) {
+      weightsNode.put(operation.label(), this.workload.weightOf(operation));
+    }
+
+    root.put("elapsedSeconds", this.elapsedNanos / 1_000_000_000.0);
+    root.put("throughput", this.throughput());
+
+    final var operationsNode = root.putObject("operations");
+    for (final var operation : LLLoadTestOperation.values()) {
+      writeJSONOperation(
+        operationsNode.putObject(operation.label()),
+        this.histograms.get(operation),
+        this.errors(operation)
+      );
+    }
+    writeJSONOperation(
+      root.putObject("total"),
+      this.total(),
+      this.errorsTotal()
+    );
+    return root;
+  }
+
+  private static void writeJSONOperation(
+    final ObjectNode node,
+    final LLLoadTestHistogram histogram,
+    final long errorCount)
+  {
+    node.put("count", histogram.count());
+    node.put("errors", errorCount);
+    node.put("minimumMilliseconds", milliseconds(histogram.minimum()));
+    node.put("meanMilliseconds", histogram.mean() / 1_000_000.0);
+    node.put("maximumMilliseconds", milliseconds(histogram.maximum()));
+
+    final var percentiles = node.putObject("percentilesMilliseconds");
+    for (final var percentile : PERCENTILES) {
+      percentiles.put(
+        String.format(Locale.ROOT, "%s", Double.valueOf(percentile)),
+        milliseconds(histogram.valueAtPercentile(percentile))
+      );
+    }
+  }
+}
@@ -0,0 +1,400 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.cmdline.internal;
+
+import com.io7m.looseleaf.protocol.v1.LLv1Messages;
+import com.io7m.looseleaf.protocol.v1.LLv1RUD;
+import com.io7m.looseleaf.security.LLKeyName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A load test runner.
+ *
+ * In a closed-loop test, each worker sends a request as soon as the
+ * previous one completes, and latency is measured from the moment each
+ * request is sent. In an open-loop test, requests are scheduled at fixed
+ * intervals regardless of how long earlier requests took, and latency is
+ * measured from the moment each request was scheduled to be sent, so that
+ * time spent queued behind slow requests is included rather than omitted.
+ */
+
+public final class LLLoadTestRunner
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(LLLoadTestRunner.class);
+
+  private static final int PRELOAD_BATCH_SIZE = 100;
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30L);
+
+  private final LLLoadTestWorkload workload;
+  private final LLLoadTestKeys keys;
+  private final LLv1Messages messages;
+  private final HttpClient client;
+  private final String authorization;
+  private final String base;
+  private final LLLoadTestOperation[] operations;
+  private final int[] cumulativeWeights;
+
+  /**
+   * A load test runner.
+   *
+   * @param inWorkload The workload
+   */
+
+  public LLLoadTestRunner(
+    final LLLoadTestWorkload inWorkload)
+  {
+    this.workload =
+      Objects.requireNonNull(inWorkload, "workload");
+
+    this.keys =
+      LLLoadTestKeys.create(
+        inWorkload.keyPrefix(),
+        inWorkload.keyCount(),
+        inWorkload.distribution(),
+        inWorkload.zipfExponent()
+      );
+
+    this.messages =
+      new LLv1Messages();
+    this.client =
+      HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(REQUEST_TIMEOUT)
+        .build();
+
+    final var credentials =
+      "%s:%s".formatted(inWorkload.user(), inWorkload.password());
+    this.authorization =
+      "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(UTF_8));
+
+    final var serverText = inWorkload.server().toString();
+    this.base = serverText.endsWith("/")
+      ? serverText.substring(0, serverText.length() - 1)
+      : serverText;
+
+    final var enabled = new ArrayList<LLLoadTestOperation>();
+    final var weights = new ArrayList<Integer>();
+    int total = 0;
+    for (final var operation : LLLoadTestOperation.values()) {
+      final var weight = inWorkload.weightOf(operation);
+      if (weight > 0) {
+        total += weight;
+        enabled.add(operation);
+        weights.add(Integer.valueOf(total));
+      }
+    }
+
+    this.operations =
+      enabled.toArray(new LLLoadTestOperation[0]);
+    this.cumulativeWeights =
+      weights.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private static String value(
+    final SplittableRandom random,
+    final int size)
+  {
+    final var text = new StringBuilder(size);
+    for (int index = 0; index < size; ++index) {
+      text.append((char) random.nextInt('a', 'z' + 1));
+    }
+    return text.toString();
+  }
+
+  /**
+   * Run the load test.
+   *
+   * @return The results
+   *
+   * @throws IOException          On I/O errors
+   * @throws InterruptedException If interrupted
+   */
+
+  public LLLoadTestResult run()
+    throws IOException, InterruptedException
+  {
+    final var random = new SplittableRandom();
+
+    if (this.workload.preload()) {
+      this.preload(random);
+    }
+
+    final var concurrency = this.workload.concurrency();
+    final var workers = new ArrayList<Future<LLLoadTestResult>>(concurrency);
+    final var timeStart = System.nanoTime();
+    final var timeEnd = timeStart + this.workload.duration().toNanos();
+
+    try (var executor = Executors.newFixedThreadPool(concurrency)) {
+      for (int index = 0; index < concurrency; ++index) {
+        final var worker = index;
+        final var workerRandom = random.split();
+        workers.add(executor.submit(() -> {
+          return this.runWorker(worker, workerRandom, timeStart, timeEnd);
+        }));
+      }
+
+      final var results = new ArrayList<LLLoadTestResult>(concurrency);
+      for (final var future : workers) {
+        results.add(future.get());
+      }
+
+      final var elapsed = System.nanoTime() - timeStart;
+      return LLLoadTestResult.merge(this.workload, elapsed, results);
+    } catch (final ExecutionException e) {
+      throw new IOException(e.getCause());
+    }
+  }
+
+  private void preload(
+    final SplittableRandom random)
+    throws IOException, InterruptedException
+  {
+    LOG.info("Preloading {} keys", Integer.valueOf(this.keys.size()));
+
+    final var batch = new HashMap<String, String>(PRELOAD_BATCH_SIZE);
+    for (int index = 0; index < this.keys.size(); ++index) {
+      batch.put(
+        this.keys.key(index).value(),
+        value(random, this.workload.valueSize())
+      );
+      if (batch.size() == PRELOAD_BATCH_SIZE) {
+        this.preloadBatch(batch);
+      }
+    }
+    this.preloadBatch(batch);
+  }
+
+  private void preloadBatch(
+    final Map<String, String> batch)
+    throws IOException, InterruptedException
+  {
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    final var status =
+      this.send(this.rudRequest(new LLv1RUD(Set.of(), batch, Set.of())));
+
+    if (status != 200) {
+      throw new IOException(
+        "Preloading failed: server returned status %d".formatted(
+          Integer.valueOf(status))
+      );
+    }
+    batch.clear();
+  }
+
+  private LLLoadTestResult runWorker(
+    final int worker,
+    final SplittableRandom random,
+    final long timeStart,
+    final long timeEnd)
+    throws InterruptedException
+  {
+    final var histograms =
+      new EnumMap<LLLoadTestOperation, LLLoadTestHistogram>(
+        LLLoadTestOperation.class);
+    final var errors =
+      new EnumMap<LLLoadTestOperation, Long>(LLLoadTestOperation.class);
+
+    for (final var operation : LLLoadTestOperation.values()) {
+      histograms.put(operation, new LLLoadTestHistogram());
+      errors.put(operation, Long.valueOf(0L));
+    }
+
+    final var concurrency = this.workload.concurrency();
+    final var interval =
+      this.workload.rate()
+        .map(r -> Double.valueOf(1_000_000_000.0 / r.doubleValue()))
+        .orElse(Double.valueOf(0.0))
+        .doubleValue();
+
+    for (long sequence = 0L; ; ++sequence) {
+      final long timeRequest;
+      if (interval > 0.0) {
+        final var slot = (sequence * concurrency) + worker;
+        timeRequest = timeStart + (long) (slot * interval);
+        if (timeRequest >= timeEnd) {
+          break;
+        }
+        waitUntil(timeRequest);
+      } else {
+        timeRequest = System.nanoTime();
+        if (timeRequest >= timeEnd) {
+          break;
+        }
+      }
+
+      final var operation = this.chooseOperation(random);
+      final var succeeded = this.execute(operation, random);
+      final var timeResponse = System.nanoTime();
+
+      if (succeeded) {
+        histograms.get(operation).record(timeResponse - timeRequest);
+      } else {
+        errors.merge(operation, Long.valueOf(1L), Long::sum);
+      }
+    }
+
+    return new LLLoadTestResult(this.workload, 0L, histograms, errors);
+  }
+
+  private static void waitUntil(
+    final long time)
+    throws InterruptedException
+  {
+    while (true) {
+      final var remaining = time - System.nanoTime();
+      if (remaining <= 0L) {
+        return;
+      }
+      LockSupport.parkNanos(remaining);
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+    }
+  }
+
+  private LLLoadTestOperation chooseOperation(
+    final SplittableRandom random)
+  {
+    final var total =
+      this.cumulativeWeights[this.cumulativeWeights.length - 1];
+    final var choice =
+      random.nextInt(total);
+
+    for (int index = 0; index < this.cumulativeWeights.length; ++index) {
+      if (choice < this.cumulativeWeights[index]) {
+        return this.operations[index];
+      }
+    }
+    return this.operations[this.operations.length - 1];
+  }
+
+  private boolean execute(
+    final LLLoadTestOperation operation,
+    final SplittableRandom random)
+    throws InterruptedException
+  {
+    try {
+      return switch (operation) {
+        case READ -> {
+          final var status =
+            this.send(this.keyRequest("read", this.keys.choose(random))
+                        .GET()
+                        .build());
+          yield status == 200 || status == 404;
+        }
+        case UPDATE -> {
+          final var body =
+            HttpRequest.BodyPublishers.ofString(
+              value(random, this.workload.valueSize()), UTF_8);
+          final var status =
+            this.send(this.keyRequest("update", this.keys.choose(random))
+                        .POST(body)
+                        .build());
+          yield status == 200;
+        }
+        case DELETE -> {
+          final var status =
+            this.send(this.keyRequest("delete", this.keys.choose(random))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build());
+          yield status == 200;
+        }
+        case RUD -> {
+          yield this.send(this.rudRequest(this.randomRUD(random))) == 200;
+        }
+      };
+    } catch (final IOException e) {
+      LOG.debug("{}: {}", operation.label(), e.getMessage());
+      return false;
+    }
+  }
+
+  private LLv1RUD randomRUD(
+    final SplittableRandom random)
+  {
+    final var count = this.workload.rudKeys();
+    final var reads = new HashSet<String>(count);
+    final var updates = new HashMap<String, String>(count);
+    for (int index = 0; index < count; ++index) {
+      reads.add(this.keys.choose(random).value());
+      updates.put(
+        this.keys.choose(random).value(),
+        value(random, this.workload.valueSize())
+      );
+    }
+    return new LLv1RUD(reads, updates, Set.of());
+  }
+
+  private HttpRequest.Builder keyRequest(
+    final String endpoint,
+    final LLKeyName key)
+  {
+    return HttpRequest.newBuilder(
+        URI.create("%s/v1/%s%s".formatted(this.base, endpoint, key.value())))
+      .timeout(REQUEST_TIMEOUT)
+      .header("Authorization", this.authorization);
+  }
+
+  private HttpRequest rudRequest(
+    final LLv1RUD rud)
+    throws IOException
+  {
+    return HttpRequest.newBuilder(URI.create(this.base + "/v1/rud"))
+      .timeout(REQUEST_TIMEOUT)
+      .header("Authorization", this.authorization)
+      .header("Content-Type", "application/json")
+      .POST(HttpRequest.BodyPublishers.ofByteArray(
+        this.messages.serialize(rud)))
+      .build();
+  }
+
+  private int send(
+    final HttpRequest request)
+    throws IOException, InterruptedException
+  {
+    final var response =
+      this.client.send(request, HttpResponse.BodyHandlers.discarding());
+    return response.statusCode();
+  }
+}
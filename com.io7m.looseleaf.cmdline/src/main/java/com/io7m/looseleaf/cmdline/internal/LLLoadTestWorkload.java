@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.cmdline.internal;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A load test workload.
+ *
+ * @param server       The base URI of the server
+ * @param user         The user name
+ * @param password     The password
+ * @param duration     The duration of the measured part of the test
+ * @param concurrency  The number of concurrent workers
+ * @param rate         The total request rate in requests per second for an
+ *                     open-loop test, or empty for a closed-loop test in
+ *                     which each worker sends requests back-to-back
+ * @param keyPrefix    The prefix of every key
+ * @param keyCount     The number of distinct keys
+ * @param distribution The key popularity distribution
+ * @param zipfExponent The Zipfian exponent
+ * @param valueSize    The size of written values in characters
+ * @param weights      The relative frequency of each operation
+ * @param rudKeys      The number of keys read, and the number of keys
+ *                     updated, by each RUD operation
+ * @param preload      {@code true} if every key should be written before
+ *                     the test starts
+ */
+
+public record LLLoadTestWorkload(
+  URI server,
+  String user,
+  String password,
+  Duration duration,
+  int concurrency,
+  Optional<Double> rate,
+  String keyPrefix,
+  int keyCount,
+  LLLoadTestDistribution distribution,
+  double zipfExponent,
+  int valueSize,
+  Map<LLLoadTestOperation, Integer> weights,
+  int rudKeys,
+  boolean preload)
+{
+  /**
+   * A load test workload.
+   */
+
+  public LLLoadTestWorkload
+  {
+    Objects.requireNonNull(server, "server");
+    Objects.requireNonNull(user, "user");
+    Objects.requireNonNull(password, "password");
+    Objects.requireNonNull(duration, "duration");
+    Objects.requireNonNull(rate, "rate");
+    Objects.requireNonNull(keyPrefix, "keyPrefix");
+    Objects.requireNonNull(distribution, "distribution");
+    Objects.requireNonNull(weights, "weights");
+
+    weights = Map.copyOf(weights);
+
+    if (duration.isNegative() || duration.isZero()) {
+      throw new IllegalArgumentException(
+        "Duration %s must be positive".formatted(duration));
+    }
+    if (concurrency <= 0) {
+      throw new IllegalArgumentException(
+        "Concurrency %d must be positive".formatted(
+          Integer.valueOf(concurrency)));
+    }
+    rate.ifPresent(r -> {
+      if (!(r.doubleValue() > 0.0)) {
+        throw new IllegalArgumentException(
+          "Rate %s must be positive".formatted(r));
+      }
+    });
+    if (valueSize < 0) {
+      throw new IllegalArgumentException(
+        "Value size %d must be non-negative".formatted(
+          Integer.valueOf(valueSize)));
+    }
+    if (rudKeys <= 0) {
+      throw new IllegalArgumentException(
+        "RUD key count %d must be positive".formatted(
+          Integer.valueOf(rudKeys)));
+    }
+
+    checkWeights(weights);
+  }
+
+  private static void checkWeights(
+    final Map<LLLoadTestOperation, Integer> weights)
+  {
+    long total = 0L;
+    for (final var weight : weights.values()) {
+      if (weight.intValue() < 0) {
+        throw new IllegalArgumentException(
+          "Operation weights must be non-negative (received %s)"
+            .formatted(weights));
+      }
+      total += weight.longValue();
+    }
+    if (total == 0L) {
+      throw new IllegalArgumentException(
+        "At least one operation weight must be positive");
+    }
+  }
+
+  /**
+   * @return The mode of the test as it appears in reports
+   */
+
+  public String mode()
+  {
+    return this.rate.map(r -> "open-loop").orElse("closed-loop");
+  }
+
+  /**
+   * @param operation The operation
+   *
+   * @return The relative frequency of the operation
+   */
+
+  public int weightOf(
+    final LLLoadTestOperation operation)
+  {
+    return this.weights.getOrDefault(operation, Integer.valueOf(0))
+      .intValue();
+  }
+}
@@ -18,6 +18,8 @@ package com.io7m.looseleaf.cmdline.internal;
 
 import com.io7m.looseleaf.database.api.LLDatabaseFactoryType;
 import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+import com.io7m.looseleaf.security.LLKeyName;
 import com.io7m.quarrel.core.QCommandContextType;
 import com.io7m.quarrel.core.QCommandMetadata;
 import com.io7m.quarrel.core.QCommandStatus;
@@ -29,7 +31,9 @@ import com.io7m.quarrel.ext.logback.QLogback;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ServiceLoader;
@@ -77,6 +81,14 @@ public final class LLMigrateDatabase implements QCommandType
       String.class
     );
 
+  /*
+   * Entries are copied in batches so that memory use is bounded regardless
+   * of the size of the source database.
+   */
+
+  private static final int MIGRATE_BATCH_SIZE =
+    1000;
+
   private final QCommandMetadata metadata;
 
   /**
@@ -149,19 +161,40 @@ public final class LLMigrateDatabase implements QCommandType
 
     try (var srcDatabase = srcDatabases.open(srcFile);
          var targetDatabase = targetDatabases.open(targetFile)) {
-      final var all = srcDatabase.getAll();
-      targetDatabase.readUpdateDelete(
-        new LLDatabaseRUD(
-          Set.of(),
-          all,
-          Set.of()
-        )
-      );
+      try (var cursor = srcDatabase.cursor()) {
+        final var batch = new HashMap<LLKeyName, String>(MIGRATE_BATCH_SIZE);
+        while (cursor.next()) {
+          batch.put(cursor.key(), cursor.value());
+          if (batch.size() == MIGRATE_BATCH_SIZE) {
+            writeBatch(targetDatabase, batch);
+          }
+        }
+        writeBatch(targetDatabase, batch);
+      }
     }
 
     return QCommandStatus.SUCCESS;
   }
 
+  private static void writeBatch(
+    final LLDatabaseType targetDatabase,
+    final HashMap<LLKeyName, String> batch)
+    throws IOException
+  {
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    targetDatabase.readUpdateDelete(
+      new LLDatabaseRUD(
+        Set.of(),
+        Map.copyOf(batch),
+        Set.of()
+      )
+    );
+    batch.clear();
+  }
+
   @Override
   public QCommandMetadata metadata()
   {
@@ -0,0 +1,219 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.cmdline.internal;
+
+import com.io7m.looseleaf.database.api.LLDatabaseFactoryType;
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+import com.io7m.looseleaf.database.sharded.LLDatabaseSharded;
+import com.io7m.looseleaf.database.sharded.LLDatabaseShardedConfiguration;
+import com.io7m.looseleaf.database.sharded.LLDatabaseShardedFactory;
+import com.io7m.looseleaf.security.LLKeyName;
+import com.io7m.quarrel.core.QCommandContextType;
+import com.io7m.quarrel.core.QCommandMetadata;
+import com.io7m.quarrel.core.QCommandStatus;
+import com.io7m.quarrel.core.QCommandType;
+import com.io7m.quarrel.core.QParameterNamed01;
+import com.io7m.quarrel.core.QParameterNamed1;
+import com.io7m.quarrel.core.QParameterNamedType;
+import com.io7m.quarrel.core.QStringType;
+import com.io7m.quarrel.ext.logback.QLogback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * Copy a sharded database into a new sharded database with a different
+ * number or kind of shards.
+ */
+
+public final class LLReshardDatabase implements QCommandType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(LLReshardDatabase.class);
+
+  private static final QParameterNamed1<Path> DATABASE_SOURCE =
+    new QParameterNamed1<>(
+      "--database-source",
+      List.of(),
+      new QStringType.QConstant("The source sharded database."),
+      Optional.empty(),
+      Path.class
+    );
+
+  private static final QParameterNamed1<Path> DATABASE_TARGET =
+    new QParameterNamed1<>(
+      "--database-target",
+      List.of(),
+      new QStringType.QConstant(
+        "The target sharded database. The database must not already exist."),
+      Optional.empty(),
+      Path.class
+    );
+
+  private static final QParameterNamed1<Integer> SHARDS =
+    new QParameterNamed1<>(
+      "--shards",
+      List.of(),
+      new QStringType.QConstant("The number of shards in the target database."),
+      Optional.empty(),
+      Integer.class
+    );
+
+  private static final QParameterNamed01<String> SHARD_KIND =
+    new QParameterNamed01<>(
+      "--shard-kind",
+      List.of(),
+      new QStringType.QConstant(
+        "The kind of the shards in the target database. Defaults to the "
+        + "kind of the shards in the source database."),
+      Optional.empty(),
+      String.class
+    );
+
+  /*
+   * Entries are copied in batches so that memory use is bounded regardless
+   * of the size of the source database.
+   */
+
+  private static final int RESHARD_BATCH_SIZE =
+    1000;
+
+  private final QCommandMetadata metadata;
+
+  /**
+   * Construct a command.
+   */
+
+  public LLReshardDatabase()
+  {
+    this.metadata = new QCommandMetadata(
+      "reshard-database",
+      new QStringType.QConstant(
+        "Copy a sharded database into a database with a different number of shards."),
+      Optional.empty()
+    );
+  }
+
+  @Override
+  public List<QParameterNamedType<?>> onListNamedParameters()
+  {
+    return QLogback.plusParameters(List.of(
+      DATABASE_SOURCE,
+      DATABASE_TARGET,
+      SHARDS,
+      SHARD_KIND)
+    );
+  }
+
+  @Override
+  public QCommandStatus onExecute(
+    final QCommandContextType context)
+    throws IOException
+  {
+    QLogback.configure(context);
+
+    final var srcFile =
+      context.parameterValue(DATABASE_SOURCE);
+    final var targetFile =
+      context.parameterValue(DATABASE_TARGET);
+
+    if (Files.exists(targetFile)) {
+      throw new FileAlreadyExistsException(targetFile.toString());
+    }
+
+    final var srcConfiguration =
+      LLDatabaseSharded.readConfiguration(srcFile);
+    final var targetConfiguration =
+      new LLDatabaseShardedConfiguration(
+        context.parameterValue(SHARD_KIND)
+          .orElse(srcConfiguration.kind()),
+        context.parameterValue(SHARDS).intValue()
+      );
+
+    final var databases =
+      ServiceLoader.load(LLDatabaseFactoryType.class)
+        .stream()
+        .map(ServiceLoader.Provider::get)
+        .toList();
+
+    long count = 0L;
+    try (var srcDatabase =
+           new LLDatabaseShardedFactory(srcConfiguration, databases)
+             .open(srcFile);
+         var targetDatabase =
+           new LLDatabaseShardedFactory(targetConfiguration, databases)
+             .open(targetFile)) {
+      try (var cursor = srcDatabase.cursor()) {
+        final var batch = new HashMap<LLKeyName, String>(RESHARD_BATCH_SIZE);
+        while (cursor.next()) {
+          batch.put(cursor.key(), cursor.value());
+          ++count;
+          if (batch.size() == RESHARD_BATCH_SIZE) {
+            writeBatch(targetDatabase, batch);
+          }
+        }
+        writeBatch(targetDatabase, batch);
+      }
+    }
+
+    LOG.info(
+      "copied {} keys from {} shards of kind {} to {} shards of kind {}",
+      Long.valueOf(count),
+      Integer.valueOf(srcConfiguration.shards()),
+      srcConfiguration.kind(),
+      Integer.valueOf(targetConfiguration.shards()),
+      targetConfiguration.kind()
+    );
+    return QCommandStatus.SUCCESS;
+  }
+
+  private static void writeBatch(
+    final LLDatabaseType targetDatabase,
+    final HashMap<LLKeyName, String> batch)
+    throws IOException
+  {
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    targetDatabase.readUpdateDelete(
+      new LLDatabaseRUD(
+        Set.of(),
+        Map.copyOf(batch),
+        Set.of()
+      )
+    );
+    batch.clear();
+  }
+
+  @Override
+  public QCommandMetadata metadata()
+  {
+    return this.metadata;
+  }
+}
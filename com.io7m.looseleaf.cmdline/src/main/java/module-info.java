@@ -17,14 +17,20 @@
 module com.io7m.looseleaf.cmdline
 {
   requires com.io7m.looseleaf.database.api;
+  requires com.io7m.looseleaf.database.bitcask;
+  requires com.io7m.looseleaf.database.lsm;
+  requires com.io7m.looseleaf.database.memory;
   requires com.io7m.looseleaf.database.mvstore;
+  requires com.io7m.looseleaf.database.sharded;
   requires com.io7m.looseleaf.database.sqlite;
+  requires com.io7m.looseleaf.protocol.v1;
   requires com.io7m.looseleaf.server;
 
   requires ch.qos.logback.classic;
   requires ch.qos.logback.core;
   requires com.io7m.quarrel.core;
   requires com.io7m.quarrel.ext.logback;
+  requires java.net.http;
   requires org.slf4j;
   requires com.io7m.looseleaf.server.api;
 
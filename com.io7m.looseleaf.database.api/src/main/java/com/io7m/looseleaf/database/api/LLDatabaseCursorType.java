@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.api;
+
+import com.io7m.looseleaf.security.LLKeyName;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A forward-only cursor over the entries of a database. A cursor reads from
+ * a consistent snapshot of the database taken when the cursor is opened;
+ * changes made to the database after the cursor is opened are not visible
+ * through the cursor. Entries are produced in ascending order of key name,
+ * and only the current entry is held in memory. A cursor holds resources
+ * in the database until it is closed, and is not safe for use from multiple
+ * threads.
+ */
+
+public interface LLDatabaseCursorType extends Closeable
+{
+  /**
+   * Advance the cursor to the next entry.
+   *
+   * @return {@code true} if the cursor now points at an entry, {@code false}
+   * if there are no more entries
+   *
+   * @throws IOException On errors
+   */
+
+  boolean next()
+    throws IOException;
+
+  /**
+   * @return The key of the current entry
+   *
+   * @throws IllegalStateException If the cursor does not point at an entry
+   */
+
+  LLKeyName key();
+
+  /**
+   * @return The value of the current entry
+   *
+   * @throws IllegalStateException If the cursor does not point at an entry
+   */
+
+  String value();
+}
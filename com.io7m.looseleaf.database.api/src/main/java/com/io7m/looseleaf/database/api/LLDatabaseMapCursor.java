@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.api;
+
+import com.io7m.looseleaf.security.LLKeyName;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A cursor over an in-memory map of entries, used by the default
+ * implementation of {@link LLDatabaseType#cursor()}.
+ */
+
+final class LLDatabaseMapCursor implements LLDatabaseCursorType
+{
+  private final Iterator<Map.Entry<LLKeyName, String>> iterator;
+  private Map.Entry<LLKeyName, String> current;
+
+  LLDatabaseMapCursor(
+    final Map<LLKeyName, String> inEntries)
+  {
+    this.iterator =
+      Objects.requireNonNull(inEntries, "entries").entrySet().iterator();
+  }
+
+  @Override
+  public boolean next()
+  {
+    if (this.iterator.hasNext()) {
+      this.current = this.iterator.next();
+      return true;
+    }
+    this.current = null;
+    return false;
+  }
+
+  private Map.Entry<LLKeyName, String> current()
+  {
+    if (this.current == null) {
+      throw new IllegalStateException("Cursor does not point at an entry");
+    }
+    return this.current;
+  }
+
+  @Override
+  public LLKeyName key()
+  {
+    return this.current().getKey();
+  }
+
+  @Override
+  public String value()
+  {
+    return this.current().getValue();
+  }
+
+  @Override
+  public void close()
+  {
+    this.current = null;
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.api;
+
+import com.io7m.looseleaf.security.LLKeyName;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An ordered scan over the keys that begin with a given prefix. Keys are
+ * returned in ascending order of name, starting after the key {@code after}
+ * (if present), and at most {@code limit} keys are returned.
+ *
+ * @param prefix        The key prefix; must begin and end with {@code /}
+ * @param after         The key after which to start scanning, if any
+ * @param limit         The maximum number of keys to return
+ * @param includeValues {@code true} if values should be returned
+ */
+
+public record LLDatabaseScan(
+  String prefix,
+  Optional<LLKeyName> after,
+  int limit,
+  boolean includeValues)
+{
+  /**
+   * An ordered scan over the keys that begin with a given prefix.
+   *
+   * @param prefix        The key prefix; must begin and end with {@code /}
+   * @param after         The key after which to start scanning, if any
+   * @param limit         The maximum number of keys to return
+   * @param includeValues {@code true} if values should be returned
+   */
+
+  public LLDatabaseScan
+  {
+    Objects.requireNonNull(prefix, "prefix");
+    Objects.requireNonNull(after, "after");
+
+    if (!prefix.startsWith("/") || !prefix.endsWith("/")) {
+      throw new IllegalArgumentException(
+        "Prefix '%s' must begin and end with '/'".formatted(prefix));
+    }
+    if (limit <= 0) {
+      throw new IllegalArgumentException(
+        "Limit %d must be positive".formatted(limit));
+    }
+  }
+
+  /**
+   * The exclusive lower bound of the scan. Because key names never end with
+   * {@code /}, no key is equal to the prefix itself, and so the prefix can
+   * serve as an exclusive lower bound when no {@code after} key is given.
+   *
+   * @return The exclusive lower bound of the scan
+   */
+
+  public String lowerBoundExclusive()
+  {
+    if (this.after.isPresent()) {
+      final var afterName = this.after.get().value();
+      if (afterName.compareTo(this.prefix) > 0) {
+        return afterName;
+      }
+    }
+    return this.prefix;
+  }
+
+  /**
+   * The exclusive upper bound of the scan. All keys beginning with the prefix
+   * sort strictly below the prefix with its final {@code /} replaced by the
+   * next character, {@code 0}.
+   *
+   * @return The exclusive upper bound of the scan
+   */
+
+  public String upperBoundExclusive()
+  {
+    return this.prefix.substring(0, this.prefix.length() - 1) + "0";
+  }
+}
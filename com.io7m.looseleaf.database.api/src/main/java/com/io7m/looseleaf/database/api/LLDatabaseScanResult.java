@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.api;
+
+import com.io7m.looseleaf.security.LLKeyName;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The result of an ordered scan.
+ *
+ * @param keys   The keys, in ascending order
+ * @param values The values of the keys, if values were requested
+ * @param next   The key after which a subsequent scan should start, if there
+ *               may be more keys
+ */
+
+public record LLDatabaseScanResult(
+  List<LLKeyName> keys,
+  Map<LLKeyName, String> values,
+  Optional<LLKeyName> next)
+{
+  /**
+   * The result of an ordered scan.
+   *
+   * @param keys   The keys, in ascending order
+   * @param values The values of the keys, if values were requested
+   * @param next   The key after which a subsequent scan should start, if there
+   *               may be more keys
+   */
+
+  public LLDatabaseScanResult
+  {
+    Objects.requireNonNull(keys, "keys");
+    Objects.requireNonNull(values, "values");
+    Objects.requireNonNull(next, "next");
+  }
+}
@@ -20,8 +20,13 @@ import com.io7m.looseleaf.security.LLKeyName;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * A database.
@@ -79,12 +84,115 @@ public interface LLDatabaseType extends Closeable
   Optional<String> get(LLKeyName key)
     throws IOException;
 
+  /**
+   * Get the values associated with the given keys. Keys that do not exist
+   * are not present in the result.
+   *
+   * @param keys The keys
+   *
+   * @return The values of the keys that exist
+   *
+   * @throws IOException On errors
+   */
+
+  default Map<LLKeyName, String> getMany(
+    final Set<LLKeyName> keys)
+    throws IOException
+  {
+    Objects.requireNonNull(keys, "keys");
+
+    final var results = new HashMap<LLKeyName, String>(keys.size());
+    for (final var key : keys) {
+      final var value = this.get(key);
+      if (value.isPresent()) {
+        results.put(key, value.get());
+      }
+    }
+    return results;
+  }
+
   /**
    * @return The entire database
    *
    * @throws IOException On errors
+   *
+   * @deprecated Use {@link #cursor()}, which does not require the entire
+   * database to be held in memory
    */
 
-  Map<LLKeyName, String> getAll()
-    throws IOException;
+  @Deprecated
+  default Map<LLKeyName, String> getAll()
+    throws IOException
+  {
+    final var results = new TreeMap<LLKeyName, String>();
+    try (var c = this.cursor()) {
+      while (c.next()) {
+        results.put(c.key(), c.value());
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Scan the keys that begin with a given prefix, in ascending order.
+   *
+   * @param scan The scan parameters
+   *
+   * @return The scanned keys
+   *
+   * @throws IOException On errors
+   */
+
+  default LLDatabaseScanResult scan(
+    final LLDatabaseScan scan)
+    throws IOException
+  {
+    Objects.requireNonNull(scan, "scan");
+
+    final var lower = scan.lowerBoundExclusive();
+    final var upper = scan.upperBoundExclusive();
+    final var keys = new ArrayList<LLKeyName>(Math.min(scan.limit(), 64));
+    final var values = new HashMap<LLKeyName, String>();
+
+    try (var c = this.cursor()) {
+      while (c.next()) {
+        final var key = c.key();
+        final var name = key.value();
+        if (name.compareTo(lower) <= 0) {
+          continue;
+        }
+        if (name.compareTo(upper) >= 0) {
+          break;
+        }
+        if (keys.size() == scan.limit()) {
+          final var last = keys.get(keys.size() - 1);
+          return new LLDatabaseScanResult(keys, values, Optional.of(last));
+        }
+        keys.add(key);
+        if (scan.includeValues()) {
+          values.put(key, c.value());
+        }
+      }
+    }
+    return new LLDatabaseScanResult(keys, values, Optional.empty());
+  }
+
+  /**
+   * Open a cursor over every entry in the database. The cursor reads from a
+   * consistent snapshot of the database and must be closed when no longer
+   * required. The default implementation opens a cursor over the result of
+   * {@link #getAll()}, and so implementations must override at least one of
+   * the two methods.
+   *
+   * @return A cursor over the entire database
+   *
+   * @throws IOException On errors
+   */
+
+  @SuppressWarnings("deprecation")
+  default LLDatabaseCursorType cursor()
+    throws IOException
+  {
+    return new LLDatabaseMapCursor(new TreeMap<>(this.getAll()));
+  }
 }
@@ -0,0 +1,1088 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.bitcask;
+
+import com.io7m.looseleaf.database.api.LLDatabaseCursorType;
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.api.LLDatabaseScan;
+import com.io7m.looseleaf.database.api.LLDatabaseScanResult;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+import com.io7m.looseleaf.security.LLKeyName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A log-structured database in the style of Bitcask.
+ *
+ * <p>Every change is appended to the active segment file, and values are
+ * never held in memory: an off-heap hash index maps each key to the segment,
+ * offset, and size of its most recent entry, and values are read from the
+ * segment on demand using positional reads. Scans and cursors require the
+ * keys in order, so the database additionally keeps a sorted set of the keys
+ * themselves on the heap; the heap therefore grows with the number and size
+ * of keys, but not with the size of values.</p>
+ *
+ * <p>Each operation that writes appends a single checksummed batch holding
+ * all of its changes, and only then updates the index, so an operation that
+ * fails to reach the segment has no effect. Operations that write are
+ * serialized, but the append itself happens outside the lock used by
+ * readers, which only wait for the index to be updated. Operations that
+ * read several keys use an optimistic read that is retried under a read
+ * lock if a write overlapped it.</p>
+ *
+ * <p>When the active segment grows beyond the configured size, writes move
+ * to a new segment. When enough of the data in the inactive segments has
+ * been superseded, a background thread merges every inactive segment into a
+ * single segment holding only the entries that the index still refers to,
+ * and then replaces the inactive segments with it. On startup, the database
+ * rebuilds its index by scanning the segments in order.</p>
+ */
+
+public final class LLDatabaseBitcask
+  implements LLDatabaseType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(LLDatabaseBitcask.class);
+
+  private static final long FILE_MAGIC = 0x4C4C42434D41494EL;
+  private static final int MERGE_BATCH_SIZE = 1_048_576;
+  private static final long INITIAL_INDEX_CAPACITY = 1024L;
+
+  private final LLDatabaseBitcaskFiles files;
+  private final LLDatabaseBitcaskConfiguration configuration;
+  private final FileChannel fileChannel;
+  private final FileLock fileLock;
+  private final LLDatabaseBitcaskIndex index;
+  private final ConcurrentSkipListSet<String> sortedKeys;
+  private final ConcurrentHashMap<Integer, LLDatabaseBitcaskSegment> segments;
+  private final StampedLock lock;
+  private final ReentrantLock writer;
+  private final AtomicBoolean closed;
+  private final AtomicBoolean merging;
+  private final AtomicInteger segmentNumbers;
+  private final AtomicInteger cursors;
+  private final AtomicLong keyCount;
+  private final AtomicLong dataSize;
+  private final ExecutorService mergeExecutor;
+  private volatile LLDatabaseBitcaskSegment active;
+
+  /**
+   * The location of the entry of a key.
+   *
+   * @param key     The key
+   * @param segment The number of the segment holding the entry
+   * @param offset  The offset of the entry within the segment
+   * @param size    The size of the entry
+   */
+
+  record Location(
+    String key,
+    int segment,
+    long offset,
+    int size)
+  {
+
+  }
+
+  /**
+   * An entry copied into the output of a merge.
+   *
+   * @param key       The key
+   * @param segment   The number of the segment that held the original entry
+   * @param offset    The offset of the original entry
+   * @param newOffset The offset of the copy within the output
+   * @param size      The size of the entry
+   */
+
+  private record Moved(
+    String key,
+    int segment,
+    long offset,
+    long newOffset,
+    int size)
+  {
+
+  }
+
+  @FunctionalInterface
+  private interface ReaderType<T>
+  {
+    T read()
+      throws IOException;
+  }
+
+  private LLDatabaseBitcask(
+    final LLDatabaseBitcaskFiles inFiles,
+    final LLDatabaseBitcaskConfiguration inConfiguration,
+    final FileChannel inFileChannel,
+    final FileLock inFileLock)
+  {
+    this.files =
+      Objects.requireNonNull(inFiles, "files");
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.fileChannel =
+      Objects.requireNonNull(inFileChannel, "fileChannel");
+    this.fileLock =
+      Objects.requireNonNull(inFileLock, "fileLock");
+    this.index =
+      new LLDatabaseBitcaskIndex(INITIAL_INDEX_CAPACITY);
+    this.sortedKeys =
+      new ConcurrentSkipListSet<>();
+    this.segments =
+      new ConcurrentHashMap<>();
+    this.lock =
+      new StampedLock();
+    this.writer =
+      new ReentrantLock();
+    this.closed =
+      new AtomicBoolean(false);
+    this.merging =
+      new AtomicBoolean(false);
+    this.segmentNumbers =
+      new AtomicInteger(1);
+    this.cursors =
+      new AtomicInteger(0);
+    this.keyCount =
+      new AtomicLong(0L);
+    this.dataSize =
+      new AtomicLong(0L);
+
+    this.mergeExecutor =
+      Executors.newSingleThreadExecutor(runnable -> {
+        final var thread = new Thread(runnable);
+        thread.setName("com.io7m.looseleaf.database.bitcask.merge");
+        thread.setDaemon(true);
+        return thread;
+      });
+  }
+
+  /**
+   * Open a database, rebuilding its index from its segments.
+   *
+   * @param file          The database file
+   * @param configuration The database tuning parameters
+   *
+   * @return A database
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static LLDatabaseBitcask open(
+    final Path file,
+    final LLDatabaseBitcaskConfiguration configuration)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(configuration, "configuration");
+
+    final var files = new LLDatabaseBitcaskFiles(file);
+    final var channel = FileChannel.open(files.main(), CREATE, READ, WRITE);
+    try {
+      final var fileLock = lockMainFile(files, channel);
+      checkMainFile(files, channel);
+
+      final var database =
+        new LLDatabaseBitcask(files, configuration, channel, fileLock);
+      try {
+        database.recover();
+      } catch (final IOException e) {
+        database.close();
+        throw e;
+      }
+
+      LOG.debug(
+        "opened {} with {} keys in {} segments",
+        files.main(),
+        Long.valueOf(database.keyCount.get()),
+        Integer.valueOf(database.segments.size())
+      );
+      return database;
+    } catch (final IOException e) {
+      if (channel.isOpen()) {
+        channel.close();
+      }
+      throw e;
+    }
+  }
+
+  private static FileLock lockMainFile(
+    final LLDatabaseBitcaskFiles files,
+    final FileChannel channel)
+    throws IOException
+  {
+    try {
+      final var fileLock = channel.tryLock();
+      if (fileLock != null) {
+        return fileLock;
+      }
+    } catch (final OverlappingFileLockException e) {
+      // Held by this process
+    }
+    throw new IOException(
+      "Database %s is already open.".formatted(files.main()));
+  }
+
+  /**
+   * The main database file holds nothing but a magic number, so that a
+   * database of another kind is not mistaken for an empty Bitcask database.
+   */
+
+  private static void checkMainFile(
+    final LLDatabaseBitcaskFiles files,
+    final FileChannel channel)
+    throws IOException
+  {
+    if (channel.size() == 0L) {
+      channel.write(ByteBuffer.allocate(8).putLong(0, FILE_MAGIC), 0L);
+      channel.force(true);
+      files.syncDirectory();
+      return;
+    }
+
+    final var buffer = ByteBuffer.allocate(8);
+    channel.read(buffer, 0L);
+    if (channel.size() != 8L || buffer.getLong(0) != FILE_MAGIC) {
+      throw new IOException(
+        "File %s is not a Bitcask database.".formatted(files.main()));
+    }
+  }
+
+  private void recover()
+    throws IOException
+  {
+    this.finishMerge();
+
+    final var paths = this.files.list(LLDatabaseBitcaskFiles.SEGMENT_SUFFIX);
+    if (paths.isEmpty()) {
+      this.active = this.createSegment(0L);
+      return;
+    }
+
+    /*
+     * Only the most recent segment can end with an incomplete batch,
+     * because writes move to a new segment only after the last append to
+     * the old segment has completed.
+     */
+
+    final var last = paths.lastKey();
+    for (final var entry : paths.entrySet()) {
+      final var id = entry.getKey().longValue();
+      final var path = entry.getValue();
+      final var number = this.segmentNumbers.getAndIncrement();
+      final var reading =
+        LLDatabaseBitcaskSegment.open(path, id, number, Files.size(path), false);
+      this.segments.put(Integer.valueOf(number), reading);
+
+      final var scanned =
+        LLDatabaseBitcaskSegment.scan(path, (e, offset) -> {
+          this.recoverEntry(number, e, offset);
+        });
+
+      if (id != last) {
+        if (scanned.torn()) {
+          throw new IOException(
+            "Segment %s is corrupt; only the most recent segment may be incomplete."
+              .formatted(path));
+        }
+        continue;
+      }
+
+      if (scanned.torn()) {
+        LOG.warn(
+          "discarding {} bytes of incomplete data at the end of {}",
+          Long.valueOf(Files.size(path) - scanned.size()),
+          path
+        );
+      }
+
+      reading.close();
+      if (scanned.size() < LLDatabaseBitcaskSegment.HEADER_SIZE) {
+        Files.delete(path);
+        this.active = LLDatabaseBitcaskSegment.create(path, id, number);
+        this.files.syncDirectory();
+      } else {
+        this.active =
+          LLDatabaseBitcaskSegment.open(path, id, number, scanned.size(), true);
+        this.active.addDead(reading.dead());
+      }
+      this.segments.put(Integer.valueOf(number), this.active);
+    }
+  }
+
+  private void recoverEntry(
+    final int number,
+    final ByteBuffer entry,
+    final long offset)
+    throws IOException
+  {
+    final var key = LLDatabaseBitcaskBatch.key(entry);
+    final var size = LLDatabaseBitcaskBatch.entrySize(entry);
+    if (LLDatabaseBitcaskBatch.isTombstone(entry)) {
+      this.removeKey(key, number, size);
+    } else {
+      this.putKey(key, number, offset, size);
+    }
+  }
+
+  /**
+   * Complete or discard a merge that was interrupted by a crash. A merge is
+   * committed at the moment that its output is renamed from the temporary
+   * file; once that has happened, the segments that it replaces may be
+   * deleted.
+   */
+
+  private void finishMerge()
+    throws IOException
+  {
+    for (final var path : this.files.list(
+      LLDatabaseBitcaskFiles.MERGE_TEMPORARY_SUFFIX).values()) {
+      Files.delete(path);
+    }
+
+    final var merges = this.files.list(LLDatabaseBitcaskFiles.MERGE_SUFFIX);
+    if (merges.isEmpty()) {
+      return;
+    }
+
+    final var id = merges.lastKey();
+    for (final var entry : this.files.list(
+      LLDatabaseBitcaskFiles.SEGMENT_SUFFIX).entrySet()) {
+      if (Long.compareUnsigned(entry.getKey().longValue(), id.longValue()) <= 0) {
+        Files.delete(entry.getValue());
+      }
+    }
+    for (final var path : merges.headMap(id).values()) {
+      Files.delete(path);
+    }
+
+    LOG.info("completing interrupted merge into segment {}", id);
+    Files.move(
+      merges.get(id),
+      this.files.segment(id.longValue()),
+      ATOMIC_MOVE
+    );
+    this.files.syncDirectory();
+  }
+
+  private LLDatabaseBitcaskSegment createSegment(
+    final long id)
+    throws IOException
+  {
+    final var number = this.segmentNumbers.getAndIncrement();
+    final var segment =
+      LLDatabaseBitcaskSegment.create(this.files.segment(id), id, number);
+    this.files.syncDirectory();
+    this.segments.put(Integer.valueOf(number), segment);
+    return segment;
+  }
+
+  private LLDatabaseBitcaskSegment segmentOf(
+    final int number)
+    throws IOException
+  {
+    final var segment = this.segments.get(Integer.valueOf(number));
+    if (segment == null) {
+      throw new IOException("No segment with number %d.".formatted(number));
+    }
+    return segment;
+  }
+
+  private LLDatabaseBitcaskIndex.KeyCheckType checkFor(
+    final String key)
+  {
+    return new LLDatabaseBitcaskIndex.KeyCheckType()
+    {
+      @Override
+      public boolean isPresent()
+      {
+        return LLDatabaseBitcask.this.sortedKeys.contains(key);
+      }
+
+      @Override
+      public boolean isKeyOf(
+        final int segment,
+        final long offset,
+        final int size)
+        throws IOException
+      {
+        final var entry =
+          LLDatabaseBitcask.this.segmentOf(segment).read(offset, size);
+        return LLDatabaseBitcaskBatch.key(entry).equals(key);
+      }
+    };
+  }
+
+  private long slotOf(
+    final String key)
+    throws IOException
+  {
+    return this.index.find(
+      LLDatabaseBitcaskIndex.hashOf(key),
+      this.checkFor(key)
+    );
+  }
+
+  /**
+   * Point the index at a new entry for a key, and record that any entry it
+   * replaces has been superseded. Must be called by the writer with the
+   * write lock held, or during recovery.
+   */
+
+  private void putKey(
+    final String key,
+    final int number,
+    final long offset,
+    final int size)
+    throws IOException
+  {
+    final var slot = this.slotOf(key);
+    if (slot >= 0L) {
+      final var previousSize = this.index.size(slot);
+      this.segmentOf(this.index.segment(slot)).addDead(previousSize);
+      this.index.update(slot, number, offset, size);
+      this.dataSize.addAndGet(size - previousSize);
+      return;
+    }
+
+    this.index.insert(LLDatabaseBitcaskIndex.hashOf(key), number, offset, size);
+    this.sortedKeys.add(key);
+    this.keyCount.incrementAndGet();
+    this.dataSize.addAndGet(LLDatabaseBitcaskBatch.valueSize(key, size));
+  }
+
+  /**
+   * Remove a key from the index. The tombstone that removed the key is
+   * itself superseded immediately. Must be called by the writer with the
+   * write lock held, or during recovery.
+   */
+
+  private void removeKey(
+    final String key,
+    final int number,
+    final int tombstoneSize)
+    throws IOException
+  {
+    this.segmentOf(number).addDead(tombstoneSize);
+
+    final var slot = this.slotOf(key);
+    if (slot < 0L) {
+      return;
+    }
+
+    final var previousSize = this.index.size(slot);
+    this.segmentOf(this.index.segment(slot)).addDead(previousSize);
+    this.index.remove(slot);
+    this.sortedKeys.remove(key);
+    this.keyCount.decrementAndGet();
+    this.dataSize.addAndGet(
+      -LLDatabaseBitcaskBatch.valueSize(key, previousSize));
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      try {
+        this.mergeExecutor.shutdown();
+        this.mergeExecutor.awaitTermination(1L, TimeUnit.HOURS);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+
+      this.writer.lock();
+      final var stamp = this.lock.writeLock();
+      try {
+        for (final var segment : this.segments.values()) {
+          segment.close();
+        }
+        this.segments.clear();
+        this.fileLock.release();
+      } finally {
+        this.fileChannel.close();
+        this.lock.unlockWrite(stamp);
+        this.writer.unlock();
+      }
+    }
+  }
+
+  @Override
+  public long dataSizeApproximate()
+  {
+    return this.dataSize.get();
+  }
+
+  @Override
+  public long keyCountApproximate()
+  {
+    return this.keyCount.get();
+  }
+
+  @Override
+  public boolean isClosed()
+  {
+    return this.closed.get();
+  }
+
+  @Override
+  public Map<LLKeyName, String> readUpdateDelete(
+    final LLDatabaseRUD rud)
+    throws IOException
+  {
+    Objects.requireNonNull(rud, "rud");
+
+    final var batch = new LLDatabaseBitcaskBatch();
+    final var changes = new ArrayList<Location>(
+      rud.update().size() + rud.delete().size());
+
+    for (final var e : rud.update().entrySet()) {
+      final var k = e.getKey().value();
+      final var kb = k.getBytes(UTF_8);
+      final var vb = e.getValue().getBytes(UTF_8);
+      final var offset = batch.addPut(kb, vb);
+      changes.add(new Location(k, 0, offset, LLDatabaseBitcaskBatch.entrySize(kb, vb)));
+    }
+    for (final var key : rud.delete()) {
+      final var k = key.value();
+      final var kb = k.getBytes(UTF_8);
+      batch.addRemove(kb);
+      changes.add(new Location(k, -1, 0L, LLDatabaseBitcaskBatch.entrySize(kb, null)));
+    }
+
+    this.writer.lock();
+    try {
+      if (this.closed.get()) {
+        throw new IOException("Database is closed.");
+      }
+
+      /*
+       * Only the writer modifies the index, so the writer can read without
+       * taking the read lock.
+       */
+
+      final var results = new TreeMap<LLKeyName, String>();
+      for (final var k : rud.read()) {
+        final var v = this.readValue(k.value());
+        if (v != null) {
+          results.put(k, v);
+        }
+      }
+
+      if (batch.count() > 0) {
+        final var segment = this.active;
+        final var offset =
+          segment.append(batch.finish(), this.configuration.synchronousCommit());
+        this.apply(segment.number(), offset, changes);
+        this.rotateIfNecessary();
+        this.mergeIfNecessary();
+      }
+      return results;
+    } finally {
+      this.writer.unlock();
+    }
+  }
+
+  private void apply(
+    final int number,
+    final long batchOffset,
+    final List<Location> changes)
+    throws IOException
+  {
+    final var stamp = this.lock.writeLock();
+    try {
+      for (final var change : changes) {
+        if (change.segment() < 0) {
+          this.removeKey(change.key(), number, change.size());
+        } else {
+          this.putKey(change.key(), number, batchOffset + change.offset(), change.size());
+        }
+      }
+    } catch (final IOException e) {
+      /*
+       * The batch is already in the segment, and so the index no longer
+       * describes the segments. Refuse all further writes; reopening the
+       * database rebuilds the index.
+       */
+
+      this.closed.set(true);
+      throw new IOException(
+        "Failed to update the index; the database must be reopened.", e);
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Move writes to a new segment if the active segment has grown too large.
+   * The operation that triggered the rotation has already committed, so
+   * failures here are logged rather than reported to the caller, and the
+   * active segment simply continues to grow until a later attempt succeeds.
+   */
+
+  private void rotateIfNecessary()
+  {
+    final var previous = this.active;
+    if (previous.size() < this.configuration.segmentSize()) {
+      return;
+    }
+
+    final var id = previous.id() + 1L;
+    try {
+      previous.force();
+      this.active = this.createSegment(id);
+    } catch (final IOException e) {
+      LOG.error("failed to create segment {}: ", Long.valueOf(id), e);
+    }
+  }
+
+  /**
+   * Start a merge if enough of the data in the inactive segments has been
+   * superseded.
+   */
+
+  private void mergeIfNecessary()
+  {
+    if (this.merging.get()) {
+      return;
+    }
+
+    final var current = this.active;
+    final var inputs = new ArrayList<LLDatabaseBitcaskSegment>();
+    long total = 0L;
+    long dead = 0L;
+    for (final var segment : this.segments.values()) {
+      if (segment != current) {
+        inputs.add(segment);
+        total += segment.size() - LLDatabaseBitcaskSegment.HEADER_SIZE;
+        dead += segment.dead();
+      }
+    }
+
+    if (dead == 0L || dead < this.configuration.mergeThreshold() * total) {
+      return;
+    }
+    if (!this.merging.compareAndSet(false, true)) {
+      return;
+    }
+
+    inputs.sort((x, y) -> Long.compareUnsigned(x.id(), y.id()));
+    this.mergeExecutor.execute(() -> this.merge(inputs));
+  }
+
+  private void merge(
+    final List<LLDatabaseBitcaskSegment> inputs)
+  {
+    try {
+      this.mergeSegments(inputs);
+    } catch (final IOException e) {
+      LOG.error("failed to merge segments: ", e);
+    } finally {
+      this.merging.set(false);
+    }
+  }
+
+  private void mergeSegments(
+    final List<LLDatabaseBitcaskSegment> inputs)
+    throws IOException
+  {
+    final var id = inputs.get(inputs.size() - 1).id();
+    final var temporary = this.files.mergeTemporary(id);
+    Files.deleteIfExists(temporary);
+
+    final var output =
+      LLDatabaseBitcaskSegment.create(
+        temporary, id, this.segmentNumbers.getAndIncrement());
+
+    var swapped = false;
+    try {
+      final var moved = this.copyLive(inputs, output);
+      output.force();
+      swapped = this.swap(inputs, output, moved);
+    } finally {
+      if (!swapped) {
+        output.close();
+        Files.deleteIfExists(temporary);
+      }
+    }
+  }
+
+  /**
+   * Copy every entry to which the index still refers from the given
+   * segments into the output. Tombstones are never copied: the inputs are
+   * every inactive segment, so no older entry remains for a tombstone to
+   * hide once the inputs are deleted.
+   */
+
+  private List<Moved> copyLive(
+    final List<LLDatabaseBitcaskSegment> inputs,
+    final LLDatabaseBitcaskSegment output)
+    throws IOException
+  {
+    final var moved = new ArrayList<Moved>();
+    final var pending = new ArrayList<Moved>();
+    final var batch = new LLDatabaseBitcaskBatch();
+
+    for (final var input : inputs) {
+      if (this.closed.get()) {
+        throw new IOException("Database is closed.");
+      }
+
+      final var number = input.number();
+      LLDatabaseBitcaskSegment.scan(input.path(), (entry, offset) -> {
+        if (LLDatabaseBitcaskBatch.isTombstone(entry)) {
+          return;
+        }
+        final var key = LLDatabaseBitcaskBatch.key(entry);
+        if (!this.isCurrent(key, number, offset)) {
+          return;
+        }
+
+        final var relative = batch.addEncoded(entry);
+        pending.add(new Moved(key, number, offset, relative, entry.remaining()));
+        if (batch.size() >= MERGE_BATCH_SIZE) {
+          flushMerge(output, batch, pending, moved);
+        }
+      });
+    }
+
+    flushMerge(output, batch, pending, moved);
+    return moved;
+  }
+
+  private static void flushMerge(
+    final LLDatabaseBitcaskSegment output,
+    final LLDatabaseBitcaskBatch batch,
+    final List<Moved> pending,
+    final List<Moved> moved)
+    throws IOException
+  {
+    if (batch.count() == 0) {
+      return;
+    }
+
+    final var offset = output.append(batch.finish(), false);
+    for (final var m : pending) {
+      moved.add(new Moved(m.key(), m.segment(), m.offset(), offset + m.newOffset(), m.size()));
+    }
+    batch.clear();
+    pending.clear();
+  }
+
+  private boolean isCurrent(
+    final String key,
+    final int number,
+    final long offset)
+    throws IOException
+  {
+    final var stamp = this.lock.readLock();
+    try {
+      final var slot = this.slotOf(key);
+      return slot >= 0L
+        && this.index.segment(slot) == number
+        && this.index.offset(slot) == offset;
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Replace the inputs of a merge with its output. Entries that were
+   * superseded while the merge was running are counted as dead in the
+   * output. The swap is abandoned if any cursor is open, because cursors
+   * read from the segments that the swap deletes.
+   */
+
+  private boolean swap(
+    final List<LLDatabaseBitcaskSegment> inputs,
+    final LLDatabaseBitcaskSegment output,
+    final List<Moved> moved)
+    throws IOException
+  {
+    this.writer.lock();
+    try {
+      final var stamp = this.lock.writeLock();
+      try {
+        if (this.closed.get()) {
+          return false;
+        }
+        if (this.cursors.get() > 0) {
+          LOG.debug("abandoning merge as cursors are open");
+          return false;
+        }
+
+        final var id = output.id();
+        final var committed = this.files.merge(id);
+        Files.move(output.path(), committed, ATOMIC_MOVE);
+        output.setPath(committed);
+        this.files.syncDirectory();
+        this.segments.put(Integer.valueOf(output.number()), output);
+
+        for (final var m : moved) {
+          final var slot = this.slotOf(m.key());
+          if (slot >= 0L
+            && this.index.segment(slot) == m.segment()
+            && this.index.offset(slot) == m.offset()) {
+            this.index.update(slot, output.number(), m.newOffset(), m.size());
+          } else {
+            output.addDead(m.size());
+          }
+        }
+
+        for (final var input : inputs) {
+          this.segments.remove(Integer.valueOf(input.number()));
+          input.close();
+          Files.delete(input.path());
+        }
+
+        final var path = this.files.segment(id);
+        Files.move(committed, path, ATOMIC_MOVE);
+        output.setPath(path);
+        this.files.syncDirectory();
+
+        LOG.debug(
+          "merged {} segments into segment {} ({} entries)",
+          Integer.valueOf(inputs.size()),
+          Long.valueOf(id),
+          Integer.valueOf(moved.size())
+        );
+        return true;
+      } finally {
+        this.lock.unlockWrite(stamp);
+      }
+    } finally {
+      this.writer.unlock();
+    }
+  }
+
+  /**
+   * Evaluate a function that reads several entries, such that the function
+   * observes either all or none of the changes made by each operation. The
+   * function is first evaluated without locking, and is evaluated again
+   * under the read lock if a write was in progress at any point. A failure
+   * during the unlocked evaluation may be the result of a concurrent merge,
+   * and so is only reported if it recurs under the read lock.
+   */
+
+  private <T> T readConsistent(
+    final ReaderType<T> reader)
+    throws IOException
+  {
+    final var optimistic = this.lock.tryOptimisticRead();
+    if (optimistic != 0L) {
+      try {
+        final var result = reader.read();
+        if (this.lock.validate(optimistic)) {
+          return result;
+        }
+      } catch (final IOException | RuntimeException e) {
+        if (this.lock.validate(optimistic)) {
+          throw e;
+        }
+      }
+    }
+
+    final var stamp = this.lock.readLock();
+    try {
+      if (this.closed.get()) {
+        throw new IOException("Database is closed.");
+      }
+      return reader.read();
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  private String readValue(
+    final String key)
+    throws IOException
+  {
+    final var slot = this.slotOf(key);
+    if (slot < 0L) {
+      return null;
+    }
+    return LLDatabaseBitcaskBatch.value(
+      this.segmentOf(this.index.segment(slot))
+        .read(this.index.offset(slot), this.index.size(slot))
+    );
+  }
+
+  /**
+   * Read the value at a location returned by {@link #cursor()}.
+   *
+   * @param location The location
+   *
+   * @return The value
+   *
+   * @throws IOException On I/O errors
+   */
+
+  String readValue(
+    final Location location)
+    throws IOException
+  {
+    return LLDatabaseBitcaskBatch.value(
+      this.segmentOf(location.segment())
+        .read(location.offset(), location.size())
+    );
+  }
+
+  /**
+   * Indicate that a cursor has been closed, allowing merges to complete.
+   */
+
+  void cursorClosed()
+  {
+    this.cursors.decrementAndGet();
+  }
+
+  @Override
+  public Optional<String> get(
+    final LLKeyName key)
+    throws IOException
+  {
+    Objects.requireNonNull(key, "key");
+    return Optional.ofNullable(this.readConsistent(() -> this.readValue(key.value())));
+  }
+
+  @Override
+  public Map<LLKeyName, String> getMany(
+    final Set<LLKeyName> keys)
+    throws IOException
+  {
+    Objects.requireNonNull(keys, "keys");
+
+    return this.readConsistent(() -> {
+      final var results = new TreeMap<LLKeyName, String>();
+      for (final var k : keys) {
+        final var v = this.readValue(k.value());
+        if (v != null) {
+          results.put(k, v);
+        }
+      }
+      return results;
+    });
+  }
+
+  @Override
+  public LLDatabaseScanResult scan(
+    final LLDatabaseScan scan)
+    throws IOException
+  {
+    Objects.requireNonNull(scan, "scan");
+    return this.readConsistent(() -> this.scanUnlocked(scan));
+  }
+
+  private LLDatabaseScanResult scanUnlocked(
+    final LLDatabaseScan scan)
+    throws IOException
+  {
+    final var range =
+      this.sortedKeys.subSet(
+        scan.lowerBoundExclusive(),
+        false,
+        scan.upperBoundExclusive(),
+        false
+      );
+
+    final var results = new ArrayList<LLKeyName>(Math.min(scan.limit(), 64));
+    final var values = new HashMap<LLKeyName, String>();
+    for (final var k : range) {
+      if (results.size() == scan.limit()) {
+        final var last = results.get(results.size() - 1);
+        return new LLDatabaseScanResult(results, values, Optional.of(last));
+      }
+
+      final var key = LLKeyName.create(k);
+      results.add(key);
+      if (scan.includeValues()) {
+        values.put(key, this.readValue(k));
+      }
+    }
+    return new LLDatabaseScanResult(results, values, Optional.empty());
+  }
+
+  @Override
+  public LLDatabaseCursorType cursor()
+    throws IOException
+  {
+    /*
+     * The cursor records the location of every entry at a single point in
+     * time, and reads values lazily. Merges are not permitted to delete
+     * segments while a cursor is open, so the locations remain readable
+     * even if the keys are later changed.
+     */
+
+    final var stamp = this.lock.readLock();
+    try {
+      if (this.closed.get()) {
+        throw new IOException("Database is closed.");
+      }
+
+      final var locations = new ArrayList<Location>(this.sortedKeys.size());
+      for (final var k : this.sortedKeys) {
+        final var slot = this.slotOf(k);
+        if (slot >= 0L) {
+          locations.add(new Location(
+            k,
+            this.index.segment(slot),
+            this.index.offset(slot),
+            this.index.size(slot)
+          ));
+        }
+      }
+
+      this.cursors.incrementAndGet();
+      return new LLDatabaseBitcaskCursor(this, locations.iterator());
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+}
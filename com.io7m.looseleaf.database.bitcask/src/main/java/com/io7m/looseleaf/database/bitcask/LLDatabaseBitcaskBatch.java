@@ -0,0 +1,327 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.bitcask;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The encoding of batches of entries in segments.
+ *
+ * <p>A batch consists of the length of its payload, the CRC32C checksum of
+ * its payload, and the payload itself. The payload is a count of entries
+ * followed by the entries. An entry consists of the length of its key, the
+ * length of its value, the key, and the value. A value length of {@code -1}
+ * marks a tombstone, which records that the key was removed. A batch is the
+ * unit of atomicity: after a crash, either every entry in a batch is
+ * recovered, or none are.</p>
+ */
+
+final class LLDatabaseBitcaskBatch
+{
+  /**
+   * The size of the batch header.
+   */
+
+  static final int HEADER_SIZE = 8;
+
+  /**
+   * The size of the entry header.
+   */
+
+  static final int ENTRY_HEADER_SIZE = 8;
+
+  private static final int TOMBSTONE = -1;
+
+  private ByteBuffer buffer;
+  private int count;
+
+  /**
+   * A new, empty batch.
+   */
+
+  LLDatabaseBitcaskBatch()
+  {
+    this.buffer = ByteBuffer.allocate(256);
+    this.clear();
+  }
+
+  /**
+   * Remove every entry from the batch.
+   */
+
+  void clear()
+  {
+    this.buffer.clear();
+    this.buffer.position(HEADER_SIZE + 4);
+    this.count = 0;
+  }
+
+  /**
+   * @return The number of entries in the batch
+   */
+
+  int count()
+  {
+    return this.count;
+  }
+
+  /**
+   * @return The size of the encoded batch in bytes
+   */
+
+  int size()
+  {
+    return this.buffer.position();
+  }
+
+  private void reserve(
+    final int bytes)
+  {
+    if (this.buffer.remaining() < bytes) {
+      final var capacity =
+        Math.max(this.buffer.capacity() * 2, this.buffer.position() + bytes);
+      final var next = ByteBuffer.allocate(capacity);
+      this.buffer.flip();
+      next.put(this.buffer);
+      this.buffer = next;
+    }
+  }
+
+  /**
+   * Add an entry that assigns a value to a key.
+   *
+   * @param key   The encoded key
+   * @param value The encoded value
+   *
+   * @return The offset of the entry from the start of the batch
+   */
+
+  int addPut(
+    final byte[] key,
+    final byte[] value)
+  {
+    this.reserve(ENTRY_HEADER_SIZE + key.length + value.length);
+    final var offset = this.buffer.position();
+    this.buffer.putInt(key.length);
+    this.buffer.putInt(value.length);
+    this.buffer.put(key);
+    this.buffer.put(value);
+    ++this.count;
+    return offset;
+  }
+
+  /**
+   * Add a tombstone entry that removes a key.
+   *
+   * @param key The encoded key
+   *
+   * @return The offset of the entry from the start of the batch
+   */
+
+  int addRemove(
+    final byte[] key)
+  {
+    this.reserve(ENTRY_HEADER_SIZE + key.length);
+    final var offset = this.buffer.position();
+    this.buffer.putInt(key.length);
+    this.buffer.putInt(TOMBSTONE);
+    this.buffer.put(key);
+    ++this.count;
+    return offset;
+  }
+
+  /**
+   * Add an existing, encoded entry.
+   *
+   * @param entry The entry
+   *
+   * @return The offset of the entry from the start of the batch
+   */
+
+  int addEncoded(
+    final ByteBuffer entry)
+  {
+    this.reserve(entry.remaining());
+    final var offset = this.buffer.position();
+    this.buffer.put(entry.duplicate());
+    ++this.count;
+    return offset;
+  }
+
+  /**
+   * Finish the batch. The batch must not be modified until the returned
+   * buffer has been written.
+   *
+   * @return The encoded batch
+   */
+
+  ByteBuffer finish()
+  {
+    final var length = this.buffer.position() - HEADER_SIZE;
+    this.buffer.putInt(HEADER_SIZE, this.count);
+
+    final var checksum = new CRC32C();
+    checksum.update(this.buffer.array(), HEADER_SIZE, length);
+    this.buffer.putInt(0, length);
+    this.buffer.putInt(4, (int) checksum.getValue());
+    return this.buffer.duplicate().flip();
+  }
+
+  /**
+   * @param key   The encoded key
+   * @param value The encoded value, or {@code null} for a tombstone
+   *
+   * @return The size of an entry with the given key and value
+   */
+
+  static int entrySize(
+    final byte[] key,
+    final byte[] value)
+  {
+    return ENTRY_HEADER_SIZE + key.length + (value == null ? 0 : value.length);
+  }
+
+  /**
+   * @param key       The key of an entry
+   * @param entrySize The size of the entry in bytes
+   *
+   * @return The size of the encoded value of the entry in bytes
+   */
+
+  static int valueSize(
+    final String key,
+    final int entrySize)
+  {
+    return entrySize - ENTRY_HEADER_SIZE - encodedLength(key);
+  }
+
+  /**
+   * @param text A string
+   *
+   * @return The length of the string encoded as UTF-8, in bytes
+   */
+
+  static int encodedLength(
+    final String text)
+  {
+    int length = 0;
+    for (int index = 0; index < text.length(); ++index) {
+      final var c = text.charAt(index);
+      if (c < 0x80) {
+        length += 1;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isSurrogate(c)) {
+        length += 2;
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * @param entry An entry
+   *
+   * @return The size of the entry in bytes
+   */
+
+  static int entrySize(
+    final ByteBuffer entry)
+  {
+    final var base = entry.position();
+    final var valueLength = entry.getInt(base + 4);
+    return ENTRY_HEADER_SIZE
+      + entry.getInt(base)
+      + Math.max(valueLength, 0);
+  }
+
+  /**
+   * @param entry An entry
+   *
+   * @return {@code true} if the entry is a tombstone
+   */
+
+  static boolean isTombstone(
+    final ByteBuffer entry)
+  {
+    return entry.getInt(entry.position() + 4) == TOMBSTONE;
+  }
+
+  /**
+   * @param entry An entry
+   *
+   * @return The key of the entry
+   */
+
+  static String key(
+    final ByteBuffer entry)
+  {
+    final var base = entry.position();
+    final var keyLength = entry.getInt(base);
+    return UTF_8.decode(entry.slice(base + ENTRY_HEADER_SIZE, keyLength))
+      .toString();
+  }
+
+  /**
+   * @param entry An entry
+   *
+   * @return The value of the entry, or {@code null} for a tombstone
+   */
+
+  static String value(
+    final ByteBuffer entry)
+  {
+    final var base = entry.position();
+    final var keyLength = entry.getInt(base);
+    final var valueLength = entry.getInt(base + 4);
+    if (valueLength == TOMBSTONE) {
+      return null;
+    }
+    return UTF_8.decode(
+      entry.slice(base + ENTRY_HEADER_SIZE + keyLength, valueLength)
+    ).toString();
+  }
+
+  /**
+   * Check that an entry is well-formed and fits within its buffer.
+   *
+   * @param entry An entry
+   *
+   * @return {@code true} if the entry is well-formed
+   */
+
+  static boolean isWellFormed(
+    final ByteBuffer entry)
+  {
+    if (entry.remaining() < ENTRY_HEADER_SIZE) {
+      return false;
+    }
+
+    final var base = entry.position();
+    final long keyLength = entry.getInt(base);
+    final long valueLength = entry.getInt(base + 4);
+    if (keyLength < 0L || valueLength < TOMBSTONE) {
+      return false;
+    }
+    return ENTRY_HEADER_SIZE + keyLength + Math.max(valueLength, 0L)
+      <= entry.remaining();
+  }
+}
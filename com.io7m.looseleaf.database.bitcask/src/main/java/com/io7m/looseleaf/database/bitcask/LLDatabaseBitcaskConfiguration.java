@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.bitcask;
+
+/**
+ * Tuning parameters for Bitcask databases.
+ *
+ * @param synchronousCommit {@code true} if each commit must be flushed to
+ *                          stable storage before it completes
+ * @param segmentSize       The size in bytes that the active segment may
+ *                          reach before writes move to a new segment
+ * @param mergeThreshold    The fraction of the bytes in the inactive
+ *                          segments that must be dead before the inactive
+ *                          segments are merged
+ */
+
+public record LLDatabaseBitcaskConfiguration(
+  boolean synchronousCommit,
+  long segmentSize,
+  double mergeThreshold)
+{
+  /**
+   * Tuning parameters for Bitcask databases.
+   *
+   * @param synchronousCommit {@code true} if each commit must be flushed to
+   *                          stable storage before it completes
+   * @param segmentSize       The size in bytes that the active segment may
+   *                          reach before writes move to a new segment
+   * @param mergeThreshold    The fraction of the bytes in the inactive
+   *                          segments that must be dead before the inactive
+   *                          segments are merged
+   */
+
+  public LLDatabaseBitcaskConfiguration
+  {
+    if (segmentSize <= 0L) {
+      throw new IllegalArgumentException(
+        "Segment size %d must be positive".formatted(segmentSize));
+    }
+    if (!(mergeThreshold > 0.0 && mergeThreshold <= 1.0)) {
+      throw new IllegalArgumentException(
+        "Merge threshold %f must be in the range (0, 1]"
+          .formatted(mergeThreshold));
+    }
+  }
+
+  /**
+   * @return The default configuration
+   */
+
+  public static LLDatabaseBitcaskConfiguration defaults()
+  {
+    return new LLDatabaseBitcaskConfiguration(
+      true,
+      67_108_864L,
+      0.5
+    );
+  }
+}
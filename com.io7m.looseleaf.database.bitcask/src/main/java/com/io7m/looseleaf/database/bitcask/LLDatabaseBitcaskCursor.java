@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.bitcask;
+
+import com.io7m.looseleaf.database.api.LLDatabaseCursorType;
+import com.io7m.looseleaf.security.LLKeyName;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * A cursor over the locations of the entries of a Bitcask database at a
+ * single point in time. Values are read as the cursor advances.
+ */
+
+final class LLDatabaseBitcaskCursor implements LLDatabaseCursorType
+{
+  private final LLDatabaseBitcask database;
+  private final Iterator<LLDatabaseBitcask.Location> iterator;
+  private LLKeyName key;
+  private String value;
+  private boolean closed;
+
+  /**
+   * A cursor over the locations of the entries of a Bitcask database.
+   *
+   * @param inDatabase The database
+   * @param inIterator The iterator
+   */
+
+  LLDatabaseBitcaskCursor(
+    final LLDatabaseBitcask inDatabase,
+    final Iterator<LLDatabaseBitcask.Location> inIterator)
+  {
+    this.database =
+      Objects.requireNonNull(inDatabase, "database");
+    this.iterator =
+      Objects.requireNonNull(inIterator, "iterator");
+  }
+
+  @Override
+  public boolean next()
+    throws IOException
+  {
+    if (this.closed) {
+      throw new IllegalStateException("Cursor is closed.");
+    }
+
+    if (this.iterator.hasNext()) {
+      final var location = this.iterator.next();
+      this.key = LLKeyName.create(location.key());
+      this.value = this.database.readValue(location);
+      return true;
+    }
+
+    this.key = null;
+    this.value = null;
+    return false;
+  }
+
+  @Override
+  public LLKeyName key()
+  {
+    if (this.key == null) {
+      throw new IllegalStateException("Cursor does not point at an entry.");
+    }
+    return this.key;
+  }
+
+  @Override
+  public String value()
+  {
+    if (this.value == null) {
+      throw new IllegalStateException("Cursor does not point at an entry.");
+    }
+    return this.value;
+  }
+
+  @Override
+  public void close()
+  {
+    if (!this.closed) {
+      this.closed = true;
+      this.key = null;
+      this.value = null;
+      this.database.cursorClosed();
+    }
+  }
+}
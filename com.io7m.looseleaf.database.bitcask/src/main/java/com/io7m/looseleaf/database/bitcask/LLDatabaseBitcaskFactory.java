@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.bitcask;
+
+import com.io7m.looseleaf.database.api.LLDatabaseFactoryType;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * A database based on append-only segments and an in-memory key index.
+ */
+
+public final class LLDatabaseBitcaskFactory
+  implements LLDatabaseFactoryType
+{
+  private final LLDatabaseBitcaskConfiguration configuration;
+
+  /**
+   * A database based on append-only segments and an in-memory key index.
+   */
+
+  public LLDatabaseBitcaskFactory()
+  {
+    this(LLDatabaseBitcaskConfiguration.defaults());
+  }
+
+  /**
+   * A database based on append-only segments and an in-memory key index.
+   *
+   * @param inConfiguration The database tuning parameters
+   */
+
+  public LLDatabaseBitcaskFactory(
+    final LLDatabaseBitcaskConfiguration inConfiguration)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+  }
+
+  @Override
+  public String kind()
+  {
+    return "BITCASK";
+  }
+
+  @Override
+  public LLDatabaseType open(
+    final Path file)
+    throws IOException
+  {
+    return LLDatabaseBitcask.open(file, this.configuration);
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.bitcask;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * The files that make up a Bitcask database. Given a database file
+ * {@code f}, the file {@code f} itself identifies the database and is locked
+ * while the database is open, segment {@code s} is stored in
+ * {@code f.s.seg}, and the output of a merge whose newest input is segment
+ * {@code s} is stored in {@code f.s.merge.tmp} while it is being written and
+ * in {@code f.s.merge} once it is complete. Segment numbers are written as
+ * sixteen hexadecimal digits so that segments sort by number.
+ */
+
+final class LLDatabaseBitcaskFiles
+{
+  static final String SEGMENT_SUFFIX = ".seg";
+  static final String MERGE_SUFFIX = ".merge";
+  static final String MERGE_TEMPORARY_SUFFIX = ".merge.tmp";
+
+  private final Path main;
+  private final Path directory;
+  private final String prefix;
+
+  /**
+   * The files that make up a Bitcask database.
+   *
+   * @param file The database file
+   */
+
+  LLDatabaseBitcaskFiles(
+    final Path file)
+  {
+    this.main =
+      Objects.requireNonNull(file, "file").toAbsolutePath();
+    this.directory =
+      this.main.getParent();
+    this.prefix =
+      this.main.getFileName() + ".";
+  }
+
+  /**
+   * @return The main database file
+   */
+
+  Path main()
+  {
+    return this.main;
+  }
+
+  /**
+   * @param id The segment number
+   *
+   * @return The file of the given segment
+   */
+
+  Path segment(
+    final long id)
+  {
+    return this.file(id, SEGMENT_SUFFIX);
+  }
+
+  /**
+   * @param id The number of the newest merged segment
+   *
+   * @return The file used to write the output of a merge
+   */
+
+  Path mergeTemporary(
+    final long id)
+  {
+    return this.file(id, MERGE_TEMPORARY_SUFFIX);
+  }
+
+  /**
+   * @param id The number of the newest merged segment
+   *
+   * @return The file that holds the complete output of a merge
+   */
+
+  Path merge(
+    final long id)
+  {
+    return this.file(id, MERGE_SUFFIX);
+  }
+
+  private Path file(
+    final long id,
+    final String suffix)
+  {
+    return this.directory.resolve(
+      "%s%016x%s".formatted(this.prefix, id, suffix)
+    );
+  }
+
+  /**
+   * @param suffix The file suffix
+   *
+   * @return The existing files with the given suffix, by segment number
+   *
+   * @throws IOException On I/O errors
+   */
+
+  TreeMap<Long, Path> list(
+    final String suffix)
+    throws IOException
+  {
+    final var results = new TreeMap<Long, Path>();
+    try (var stream = Files.list(this.directory)) {
+      for (final var path : stream.toList()) {
+        final var name = path.getFileName().toString();
+        if (!name.startsWith(this.prefix) || !name.endsWith(suffix)) {
+          continue;
+        }
+
+        final var digits =
+          name.substring(this.prefix.length(), name.length() - suffix.length());
+        if (digits.length() != 16) {
+          continue;
+        }
+
+        try {
+          results.put(Long.parseUnsignedLong(digits, 16), path);
+        } catch (final NumberFormatException e) {
+          // Not a database file.
+        }
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Flush the directory containing the database files to stable storage, so
+   * that newly created and renamed files survive a crash. Not all platforms
+   * allow directories to be opened, so failures are ignored.
+   */
+
+  void syncDirectory()
+  {
+    try (var channel = FileChannel.open(this.directory, READ)) {
+      channel.force(true);
+    } catch (final IOException e) {
+      // Not supported on this platform.
+    }
+  }
+}
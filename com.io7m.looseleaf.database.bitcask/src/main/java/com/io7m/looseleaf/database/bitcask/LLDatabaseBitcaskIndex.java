@@ -0,0 +1,453 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.bitcask;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * An off-heap hash table that maps keys to the locations of their current
+ * entries.
+ *
+ * <p>The table uses open addressing with linear probing, and is stored in
+ * pages of direct memory so that it neither occupies the heap nor is limited
+ * by the maximum size of a single buffer. Each slot holds a 64-bit hash of a
+ * key, and the segment, offset, and size of the key's current entry. Keys
+ * themselves are not stored: distinct keys with the same 64-bit hash are
+ * distinguished by the caller, typically by reading the key back from its
+ * entry. Removal uses backward-shift deletion, so the table never contains
+ * tombstones.</p>
+ *
+ * <p>The table must only be modified by one thread at a time. Reads may race
+ * with modifications; such reads may observe inconsistent slots, and callers
+ * are expected to detect this and retry.</p>
+ */
+
+final class LLDatabaseBitcaskIndex
+{
+  private static final int SLOT_SIZE = 24;
+  private static final int PAGE_BITS = 16;
+  private static final long PAGE_MASK = (1L << PAGE_BITS) - 1L;
+  private static final long MAXIMUM_CAPACITY = 1L << 31;
+  private static final double LOAD_FACTOR = 0.75;
+
+  private static final int FIELD_HASH = 0;
+  private static final int FIELD_OFFSET = 8;
+  private static final int FIELD_SEGMENT = 16;
+  private static final int FIELD_SIZE = 20;
+
+  private volatile Table table;
+  private long count;
+
+  /**
+   * A slot table.
+   *
+   * @param pages    The pages of slots
+   * @param capacity The number of slots; always a power of two
+   */
+
+  private record Table(
+    ByteBuffer[] pages,
+    long capacity)
+  {
+    static Table allocate(
+      final long capacity)
+    {
+      final var pageSlots = Math.min(capacity, 1L << PAGE_BITS);
+      final var pageCount = (int) (capacity / pageSlots);
+      final var pages = new ByteBuffer[pageCount];
+      for (int index = 0; index < pageCount; ++index) {
+        pages[index] = ByteBuffer.allocateDirect((int) pageSlots * SLOT_SIZE);
+      }
+      return new Table(pages, capacity);
+    }
+
+    ByteBuffer page(
+      final long slot)
+    {
+      return this.pages[(int) (slot >>> PAGE_BITS)];
+    }
+
+    int position(
+      final long slot)
+    {
+      return (int) (slot & PAGE_MASK) * SLOT_SIZE;
+    }
+
+    long hash(
+      final long slot)
+    {
+      return this.page(slot).getLong(this.position(slot) + FIELD_HASH);
+    }
+
+    int segment(
+      final long slot)
+    {
+      return this.page(slot).getInt(this.position(slot) + FIELD_SEGMENT);
+    }
+
+    void set(
+      final long slot,
+      final long hash,
+      final int segment,
+      final long offset,
+      final int size)
+    {
+      final var page = this.page(slot);
+      final var base = this.position(slot);
+      page.putLong(base + FIELD_HASH, hash);
+      page.putLong(base + FIELD_OFFSET, offset);
+      page.putInt(base + FIELD_SIZE, size);
+      page.putInt(base + FIELD_SEGMENT, segment);
+    }
+
+    void copy(
+      final long from,
+      final long to)
+    {
+      final var source = this.page(from);
+      final var sourceBase = this.position(from);
+      this.set(
+        to,
+        source.getLong(sourceBase + FIELD_HASH),
+        source.getInt(sourceBase + FIELD_SEGMENT),
+        source.getLong(sourceBase + FIELD_OFFSET),
+        source.getInt(sourceBase + FIELD_SIZE)
+      );
+    }
+
+    void clear(
+      final long slot)
+    {
+      this.page(slot).putInt(this.position(slot) + FIELD_SEGMENT, 0);
+    }
+  }
+
+  /**
+   * Distinguishes the key being searched for from other keys with the same
+   * hash.
+   */
+
+  interface KeyCheckType
+  {
+    /**
+     * @return {@code true} if the key is known to be present in the table
+     */
+
+    boolean isPresent();
+
+    /**
+     * @param segment The segment of an entry
+     * @param offset  The offset of an entry
+     * @param size    The size of an entry
+     *
+     * @return {@code true} if the entry belongs to the key
+     *
+     * @throws IOException On I/O errors
+     */
+
+    boolean isKeyOf(
+      int segment,
+      long offset,
+      int size)
+      throws IOException;
+  }
+
+  /**
+   * An off-heap hash table.
+   *
+   * @param initialCapacity The initial number of slots
+   */
+
+  LLDatabaseBitcaskIndex(
+    final long initialCapacity)
+  {
+    this.table = Table.allocate(Long.highestOneBit(Math.max(16L, initialCapacity)));
+  }
+
+  /**
+   * Compute the 64-bit hash of a key.
+   *
+   * @param key The key
+   *
+   * @return The hash
+   */
+
+  static long hashOf(
+    final String key)
+  {
+    long h = 0xcbf29ce484222325L ^ key.length();
+    for (int index = 0; index < key.length(); ++index) {
+      h = (h ^ key.charAt(index)) * 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /**
+   * Find the slot of a key.
+   *
+   * <p>A key that is not present can only be confused with another key if
+   * the two keys have the same 64-bit hash. If exactly one slot has the
+   * hash of the key, then whether that slot belongs to the key is decided by
+   * whether the key is present at all, and no entry needs to be read. Only
+   * if several slots share the hash are entries read to compare keys.</p>
+   *
+   * @param hash  The hash of the key
+   * @param check The means to distinguish the key from other keys
+   *
+   * @return The slot, or {@code -1} if the key is not present
+   *
+   * @throws IOException On I/O errors
+   */
+
+  long find(
+    final long hash,
+    final KeyCheckType check)
+    throws IOException
+  {
+    final var t = this.table;
+    final var mask = t.capacity - 1L;
+
+    long first = -1L;
+    int matches = 0;
+    long slot = hash & mask;
+    for (long probe = 0L; probe < t.capacity; ++probe) {
+      if (t.segment(slot) == 0) {
+        break;
+      }
+      if (t.hash(slot) == hash) {
+        if (first < 0L) {
+          first = slot;
+        }
+        ++matches;
+      }
+      slot = (slot + 1L) & mask;
+    }
+
+    if (matches == 0) {
+      return -1L;
+    }
+    if (matches == 1) {
+      return check.isPresent() ? first : -1L;
+    }
+    return this.findAmongCollisions(t, hash, first, check);
+  }
+
+  private long findAmongCollisions(
+    final Table t,
+    final long hash,
+    final long first,
+    final KeyCheckType check)
+    throws IOException
+  {
+    final var mask = t.capacity - 1L;
+    long slot = first;
+    for (long probe = 0L; probe < t.capacity; ++probe) {
+      final var segment = t.segment(slot);
+      if (segment == 0) {
+        break;
+      }
+      if (t.hash(slot) == hash) {
+        final var page = t.page(slot);
+        final var base = t.position(slot);
+        if (check.isKeyOf(
+          segment,
+          page.getLong(base + FIELD_OFFSET),
+          page.getInt(base + FIELD_SIZE))) {
+          return slot;
+        }
+      }
+      slot = (slot + 1L) & mask;
+    }
+    return -1L;
+  }
+
+  /**
+   * @param slot A slot returned by {@link #find(long, KeyCheckType)}
+   *
+   * @return The segment of the entry in the slot
+   */
+
+  int segment(
+    final long slot)
+  {
+    return this.table.segment(slot);
+  }
+
+  /**
+   * @param slot A slot returned by {@link #find(long, KeyCheckType)}
+   *
+   * @return The offset of the entry in the slot
+   */
+
+  long offset(
+    final long slot)
+  {
+    final var t = this.table;
+    return t.page(slot).getLong(t.position(slot) + FIELD_OFFSET);
+  }
+
+  /**
+   * @param slot A slot returned by {@link #find(long, KeyCheckType)}
+   *
+   * @return The size of the entry in the slot
+   */
+
+  int size(
+    final long slot)
+  {
+    final var t = this.table;
+    return t.page(slot).getInt(t.position(slot) + FIELD_SIZE);
+  }
+
+  /**
+   * @return The number of keys in the table
+   */
+
+  long count()
+  {
+    return this.count;
+  }
+
+  /**
+   * Change the location of the entry in an existing slot.
+   *
+   * @param slot    A slot returned by {@link #find(long, KeyCheckType)}
+   * @param segment The segment of the entry
+   * @param offset  The offset of the entry
+   * @param size    The size of the entry
+   */
+
+  void update(
+    final long slot,
+    final int segment,
+    final long offset,
+    final int size)
+  {
+    final var t = this.table;
+    t.set(slot, t.hash(slot), segment, offset, size);
+  }
+
+  /**
+   * Insert a key that is not present.
+   *
+   * @param hash    The hash of the key
+   * @param segment The segment of the entry
+   * @param offset  The offset of the entry
+   * @param size    The size of the entry
+   *
+   * @throws IOException If the table cannot grow any further
+   */
+
+  void insert(
+    final long hash,
+    final int segment,
+    final long offset,
+    final int size)
+    throws IOException
+  {
+    if (this.count + 1L > (long) (this.table.capacity * LOAD_FACTOR)) {
+      this.grow();
+    }
+    insertInto(this.table, hash, segment, offset, size);
+    ++this.count;
+  }
+
+  private static void insertInto(
+    final Table t,
+    final long hash,
+    final int segment,
+    final long offset,
+    final int size)
+  {
+    final var mask = t.capacity - 1L;
+    long slot = hash & mask;
+    while (t.segment(slot) != 0) {
+      slot = (slot + 1L) & mask;
+    }
+    t.set(slot, hash, segment, offset, size);
+  }
+
+  private void grow()
+    throws IOException
+  {
+    final var current = this.table;
+    final var capacity = current.capacity * 2L;
+    if (capacity > MAXIMUM_CAPACITY) {
+      throw new IOException(
+        "The index cannot hold more than %d keys."
+          .formatted((long) (MAXIMUM_CAPACITY * LOAD_FACTOR)));
+    }
+
+    final var next = Table.allocate(capacity);
+    for (long slot = 0L; slot < current.capacity; ++slot) {
+      final var segment = current.segment(slot);
+      if (segment != 0) {
+        final var page = current.page(slot);
+        final var base = current.position(slot);
+        insertInto(
+          next,
+          page.getLong(base + FIELD_HASH),
+          segment,
+          page.getLong(base + FIELD_OFFSET),
+          page.getInt(base + FIELD_SIZE)
+        );
+      }
+    }
+    this.table = next;
+  }
+
+  /**
+   * Remove the key in a slot. Entries later in the same probe sequence are
+   * shifted back so that every remaining key is still reachable from its
+   * home slot.
+   *
+   * @param slot A slot returned by {@link #find(long, KeyCheckType)}
+   */
+
+  void remove(
+    final long slot)
+  {
+    final var t = this.table;
+    final var mask = t.capacity - 1L;
+
+    long hole = slot;
+    long next = slot;
+    while (true) {
+      next = (next + 1L) & mask;
+      if (t.segment(next) == 0) {
+        break;
+      }
+
+      final var home = t.hash(next) & mask;
+      final var distanceToHole = (hole - home) & mask;
+      final var distanceToNext = (next - home) & mask;
+      if (distanceToHole < distanceToNext) {
+        t.copy(next, hole);
+        hole = next;
+      }
+    }
+
+    t.clear(hole);
+    --this.count;
+  }
+}
@@ -0,0 +1,532 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.bitcask;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A segment file.
+ *
+ * <p>A segment begins with a header containing a magic number and a format
+ * version, followed by zero or more batches. Only the active segment is ever
+ * appended to. Values are read with positional reads, which may be performed
+ * by any number of threads concurrently with an append.</p>
+ *
+ * <p>A file channel is closed if a thread is interrupted while using it, so
+ * the segment transparently reopens its channel if it finds the channel
+ * closed without having been closed itself.</p>
+ */
+
+final class LLDatabaseBitcaskSegment implements AutoCloseable
+{
+  /**
+   * The size of the segment header.
+   */
+
+  static final int HEADER_SIZE = 12;
+
+  private static final long MAGIC = 0x4C4C424353454731L;
+  private static final int VERSION = 1;
+  private static final int SCAN_BUFFER_SIZE = 65536;
+
+  private final long id;
+  private final int number;
+  private final boolean writable;
+  private volatile Path path;
+  private volatile FileChannel channel;
+  private volatile long size;
+  private volatile boolean closed;
+  private long dead;
+  private boolean failed;
+
+  private LLDatabaseBitcaskSegment(
+    final Path inPath,
+    final long inId,
+    final int inNumber,
+    final boolean inWritable,
+    final FileChannel inChannel,
+    final long inSize)
+  {
+    this.path =
+      Objects.requireNonNull(inPath, "path");
+    this.id =
+      inId;
+    this.number =
+      inNumber;
+    this.writable =
+      inWritable;
+    this.channel =
+      Objects.requireNonNull(inChannel, "channel");
+    this.size =
+      inSize;
+  }
+
+  /**
+   * A function that receives each entry in a scanned segment.
+   */
+
+  @FunctionalInterface
+  interface EntryReceiverType
+  {
+    /**
+     * Receive an entry.
+     *
+     * @param entry  The entry, positioned at its first byte
+     * @param offset The offset of the entry within the segment
+     *
+     * @throws IOException On errors
+     */
+
+    void receive(
+      ByteBuffer entry,
+      long offset)
+      throws IOException;
+  }
+
+  /**
+   * The result of scanning a segment.
+   *
+   * @param size The size in bytes of the usable prefix of the segment, or
+   *             {@code 0} if not even the header is usable
+   * @param torn {@code true} if the segment contained unusable data after the
+   *             usable prefix
+   */
+
+  record Scanned(
+    long size,
+    boolean torn)
+  {
+
+  }
+
+  /**
+   * Create a new, empty segment.
+   *
+   * @param path   The segment file
+   * @param id     The segment number used to name the file
+   * @param number The number used to refer to the segment in the index
+   *
+   * @return A new segment
+   *
+   * @throws IOException On I/O errors
+   */
+
+  static LLDatabaseBitcaskSegment create(
+    final Path path,
+    final long id,
+    final int number)
+    throws IOException
+  {
+    final var channel = FileChannel.open(path, CREATE_NEW, READ, WRITE);
+    try {
+      final var header = ByteBuffer.allocate(HEADER_SIZE);
+      header.putLong(MAGIC);
+      header.putInt(VERSION);
+      header.flip();
+      writeFully(channel, header, 0L);
+      channel.force(true);
+      return new LLDatabaseBitcaskSegment(
+        path, id, number, true, channel, HEADER_SIZE);
+    } catch (final IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Open an existing segment, discarding anything after the usable prefix
+   * found by {@link #scan(Path, EntryReceiverType)}.
+   *
+   * @param path     The segment file
+   * @param id       The segment number used to name the file
+   * @param number   The number used to refer to the segment in the index
+   * @param size     The size of the usable prefix of the segment
+   * @param writable {@code true} if the segment will be appended to
+   *
+   * @return A segment
+   *
+   * @throws IOException On I/O errors
+   */
+
+  static LLDatabaseBitcaskSegment open(
+    final Path path,
+    final long id,
+    final int number,
+    final long size,
+    final boolean writable)
+    throws IOException
+  {
+    final var channel =
+      writable ? FileChannel.open(path, READ, WRITE) : FileChannel.open(path, READ);
+    try {
+      if (writable) {
+        channel.truncate(size);
+        channel.force(true);
+      }
+      return new LLDatabaseBitcaskSegment(
+        path, id, number, writable, channel, size);
+    } catch (final IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Scan every usable batch in the given segment. The scan uses its own
+   * file channel, and so may run concurrently with reads and appends.
+   *
+   * @param path     The segment file
+   * @param receiver The receiver of entries
+   *
+   * @return The result of scanning the segment
+   *
+   * @throws IOException On I/O errors, or if the file is not a segment
+   */
+
+  static Scanned scan(
+    final Path path,
+    final EntryReceiverType receiver)
+    throws IOException
+  {
+    try (var scanChannel = FileChannel.open(path, READ)) {
+      final var fileSize = scanChannel.size();
+      if (fileSize < HEADER_SIZE) {
+        return new Scanned(0L, true);
+      }
+
+      final var input =
+        new DataInputStream(
+          new BufferedInputStream(
+            Channels.newInputStream(scanChannel),
+            SCAN_BUFFER_SIZE
+          )
+        );
+
+      checkHeader(path, input.readLong(), input.readInt());
+
+      final var checksum = new CRC32C();
+      long position = HEADER_SIZE;
+      while (position < fileSize) {
+        if (fileSize - position < LLDatabaseBitcaskBatch.HEADER_SIZE) {
+          return new Scanned(position, true);
+        }
+
+        final var length = input.readInt();
+        final var expected = input.readInt();
+        final var payloadStart = position + LLDatabaseBitcaskBatch.HEADER_SIZE;
+        if (length < 4 || length > fileSize - payloadStart) {
+          return new Scanned(position, true);
+        }
+
+        final var payload = ByteBuffer.wrap(input.readNBytes(length));
+        if (payload.remaining() != length) {
+          return new Scanned(position, true);
+        }
+
+        checksum.reset();
+        checksum.update(payload.duplicate());
+        if ((int) checksum.getValue() != expected) {
+          return new Scanned(position, true);
+        }
+
+        deliver(payload, payloadStart, receiver);
+        position = payloadStart + length;
+      }
+      return new Scanned(position, false);
+    } catch (final EOFException e) {
+      throw new IOException("Segment %s is truncated.".formatted(path), e);
+    }
+  }
+
+  private static void deliver(
+    final ByteBuffer payload,
+    final long payloadStart,
+    final EntryReceiverType receiver)
+    throws IOException
+  {
+    final var count = payload.getInt();
+    for (int index = 0; index < count; ++index) {
+      if (!LLDatabaseBitcaskBatch.isWellFormed(payload)) {
+        throw new IOException("Malformed entry in batch.");
+      }
+
+      final var start = payload.position();
+      final var entrySize = LLDatabaseBitcaskBatch.entrySize(payload);
+      final var entry = payload.slice(start, entrySize);
+      receiver.receive(entry, payloadStart + start);
+      payload.position(start + entrySize);
+    }
+  }
+
+  private static void checkHeader(
+    final Path path,
+    final long magic,
+    final int version)
+    throws IOException
+  {
+    if (magic != MAGIC) {
+      throw new IOException(
+        "File %s is not a segment (magic number 0x%x, expected 0x%x)."
+          .formatted(path, magic, MAGIC));
+    }
+    if (version != VERSION) {
+      throw new IOException(
+        "Segment %s has unsupported version %d (expected %d)."
+          .formatted(path, version, VERSION));
+    }
+  }
+
+  private static void readFully(
+    final FileChannel channel,
+    final ByteBuffer buffer,
+    final long position)
+    throws IOException
+  {
+    long offset = position;
+    while (buffer.hasRemaining()) {
+      final var count = channel.read(buffer, offset);
+      if (count < 0) {
+        throw new EOFException();
+      }
+      offset += count;
+    }
+  }
+
+  private static void writeFully(
+    final FileChannel channel,
+    final ByteBuffer buffer,
+    final long position)
+    throws IOException
+  {
+    long offset = position;
+    while (buffer.hasRemaining()) {
+      offset += channel.write(buffer, offset);
+    }
+  }
+
+  private FileChannel reopen(
+    final FileChannel previous)
+    throws IOException
+  {
+    synchronized (this) {
+      if (this.closed) {
+        throw new ClosedChannelException();
+      }
+      if (this.channel == previous) {
+        this.channel = this.writable
+          ? FileChannel.open(this.path, READ, WRITE)
+          : FileChannel.open(this.path, READ);
+      }
+      return this.channel;
+    }
+  }
+
+  /**
+   * Read bytes from the segment.
+   *
+   * @param position The offset of the first byte
+   * @param length   The number of bytes
+   *
+   * @return The bytes
+   *
+   * @throws IOException On I/O errors, or if the bytes are not within the
+   *                     segment
+   */
+
+  ByteBuffer read(
+    final long position,
+    final int length)
+    throws IOException
+  {
+    if (position < HEADER_SIZE || length < 0 || position + length > this.size) {
+      throw new IOException(
+        "Read of %d bytes at offset %d is outside segment %s."
+          .formatted(length, position, this.path));
+    }
+
+    final var buffer = ByteBuffer.allocate(length);
+    final var current = this.channel;
+    try {
+      readFully(current, buffer, position);
+    } catch (final ClosedChannelException e) {
+      if (Thread.currentThread().isInterrupted()) {
+        throw e;
+      }
+      buffer.clear();
+      readFully(this.reopen(current), buffer, position);
+    }
+    return buffer.flip();
+  }
+
+  /**
+   * Append a batch to the segment. If the append fails, the segment is
+   * truncated back to its previous size so that no partial batch is left in
+   * the middle of the segment; if that also fails, the segment refuses all
+   * further appends.
+   *
+   * @param batch       The encoded batch
+   * @param synchronous {@code true} if the batch must be flushed to stable
+   *                    storage before returning
+   *
+   * @return The offset of the batch within the segment
+   *
+   * @throws IOException On I/O errors
+   */
+
+  long append(
+    final ByteBuffer batch,
+    final boolean synchronous)
+    throws IOException
+  {
+    if (this.failed) {
+      throw new IOException(
+        "Segment %s is unusable after an earlier write failure."
+          .formatted(this.path));
+    }
+
+    final var offset = this.size;
+    final var length = batch.remaining();
+    var current = this.channel;
+    if (!current.isOpen()) {
+      current = this.reopen(current);
+    }
+
+    try {
+      writeFully(current, batch.duplicate(), offset);
+      if (synchronous) {
+        current.force(false);
+      }
+    } catch (final IOException e) {
+      try {
+        this.reopen(current).truncate(offset);
+      } catch (final IOException x) {
+        this.failed = true;
+        e.addSuppressed(x);
+      }
+      throw e;
+    }
+
+    this.size = offset + length;
+    return offset;
+  }
+
+  /**
+   * Flush the segment to stable storage.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void force()
+    throws IOException
+  {
+    this.channel.force(true);
+  }
+
+  /**
+   * @return The segment number used to name the file
+   */
+
+  long id()
+  {
+    return this.id;
+  }
+
+  /**
+   * @return The number used to refer to the segment in the index
+   */
+
+  int number()
+  {
+    return this.number;
+  }
+
+  /**
+   * @return The segment file
+   */
+
+  Path path()
+  {
+    return this.path;
+  }
+
+  /**
+   * Record that the segment file has been renamed.
+   *
+   * @param newPath The new segment file
+   */
+
+  void setPath(
+    final Path newPath)
+  {
+    this.path = Objects.requireNonNull(newPath, "path");
+  }
+
+  /**
+   * @return The size of the segment in bytes
+   */
+
+  long size()
+  {
+    return this.size;
+  }
+
+  /**
+   * @return The number of bytes in the segment occupied by entries that
+   * have been superseded
+   */
+
+  long dead()
+  {
+    return this.dead;
+  }
+
+  /**
+   * Record that an entry in this segment has been superseded.
+   *
+   * @param bytes The size of the entry
+   */
+
+  void addDead(
+    final long bytes)
+  {
+    this.dead += bytes;
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    synchronized (this) {
+      this.closed = true;
+      this.channel.close();
+    }
+  }
+}
@@ -0,0 +1,1047 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.lsm;
+
+import com.io7m.looseleaf.database.api.LLDatabaseCursorType;
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.api.LLDatabaseScan;
+import com.io7m.looseleaf.database.api.LLDatabaseScanResult;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+import com.io7m.looseleaf.security.LLKeyName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A database based on a log-structured merge tree.
+ *
+ * <p>Changes are appended to a write-ahead log and then applied to an
+ * in-memory sorted memtable. When the memtable grows beyond the configured
+ * size, it is frozen, a new memtable and log take its place, and a
+ * background thread writes the frozen memtable to an immutable sorted table
+ * file. Each table has a block index and a bloom filter that are held in
+ * memory, so a read of a key skips most tables that do not contain the key,
+ * and reads at most one block from each table that might.</p>
+ *
+ * <p>Tables are compacted by a separate background thread using a tiered
+ * strategy: whenever the configured number of adjacent tables of a similar
+ * size exist, they are merged into a single larger table. Entries that
+ * record the removal of keys are discarded when the compaction includes the
+ * oldest table, as there is then no older entry for them to hide. The set of
+ * tables, and the oldest log that has not yet been written to a table, are
+ * recorded in a manifest that is replaced atomically; on startup, the
+ * database opens the tables in the manifest and replays the logs that
+ * follow it.</p>
+ *
+ * <p>Operations that write are serialized. Each one appends a single
+ * checksummed record of its changes to the log before applying them to the
+ * memtable, so an operation that fails to reach the log has no effect. The
+ * changes are applied under a lock that readers validate against, so
+ * readers never observe a partially applied operation; reads use an
+ * optimistic read that is retried under the read lock if a write or a
+ * flush or compaction overlapped it.</p>
+ */
+
+public final class LLDatabaseLSM
+  implements LLDatabaseType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(LLDatabaseLSM.class);
+
+  private static final int MAXIMUM_TIER = 48;
+
+  private final LLDatabaseLSMFiles files;
+  private final FileChannel lockChannel;
+  private final LLDatabaseLSMConfiguration configuration;
+  private final StampedLock lock;
+  private final ReentrantLock writer;
+  private final ReentrantLock manifestLock;
+  private final AtomicBoolean closed;
+  private final AtomicBoolean compacting;
+  private final AtomicLong nextTableId;
+  private final AtomicLong keyCount;
+  private final AtomicLong dataSize;
+  private final ExecutorService flushExecutor;
+  private final ExecutorService compactionExecutor;
+  private LLDatabaseLSMManifest manifest;
+  private volatile State state;
+
+  /**
+   * The memtables and tables that make up the database at a point in time.
+   *
+   * @param active The memtable receiving changes
+   * @param frozen The memtables waiting to be written to tables, newest first
+   * @param tables The tables, newest first
+   */
+
+  private record State(
+    LLDatabaseLSMMemtable active,
+    List<LLDatabaseLSMMemtable> frozen,
+    List<LLDatabaseLSMTable> tables)
+  {
+    State
+    {
+      frozen = List.copyOf(frozen);
+      tables = List.copyOf(tables);
+    }
+  }
+
+  @FunctionalInterface
+  private interface ReaderType<T>
+  {
+    T read()
+      throws IOException;
+  }
+
+  private LLDatabaseLSM(
+    final LLDatabaseLSMFiles inFiles,
+    final FileChannel inLockChannel,
+    final LLDatabaseLSMConfiguration inConfiguration,
+    final LLDatabaseLSMManifest inManifest,
+    final List<LLDatabaseLSMTable> inTables)
+  {
+    this.files =
+      Objects.requireNonNull(inFiles, "files");
+    this.lockChannel =
+      Objects.requireNonNull(inLockChannel, "lockChannel");
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.manifest =
+      Objects.requireNonNull(inManifest, "manifest");
+    this.state =
+      new State(new LLDatabaseLSMMemtable(null), List.of(), inTables);
+    this.lock =
+      new StampedLock();
+    this.writer =
+      new ReentrantLock();
+    this.manifestLock =
+      new ReentrantLock();
+    this.closed =
+      new AtomicBoolean(false);
+    this.compacting =
+      new AtomicBoolean(false);
+    this.nextTableId =
+      new AtomicLong(inManifest.nextTableId());
+    this.keyCount =
+      new AtomicLong(inManifest.keyCount());
+    this.dataSize =
+      new AtomicLong(inManifest.dataSize());
+
+    this.flushExecutor =
+      Executors.newSingleThreadExecutor(runnable -> {
+        final var thread = new Thread(runnable);
+        thread.setName("com.io7m.looseleaf.database.lsm.flush");
+        thread.setDaemon(true);
+        return thread;
+      });
+    this.compactionExecutor =
+      Executors.newSingleThreadExecutor(runnable -> {
+        final var thread = new Thread(runnable);
+        thread.setName("com.io7m.looseleaf.database.lsm.compaction");
+        thread.setDaemon(true);
+        return thread;
+      });
+  }
+
+  /**
+   * Open a database, recovering its contents from the tables named in its
+   * manifest and the logs that follow them.
+   *
+   * @param file          The database file
+   * @param configuration The database tuning parameters
+   *
+   * @return A database
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static LLDatabaseLSM open(
+    final Path file,
+    final LLDatabaseLSMConfiguration configuration)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(configuration, "configuration");
+
+    final var files = new LLDatabaseLSMFiles(file);
+    final var channel =
+      FileChannel.open(files.lock(), CREATE, READ, WRITE);
+
+    final List<LLDatabaseLSMTable> tables;
+    try {
+      lockFile(files, channel);
+      Files.deleteIfExists(files.manifestTemporary());
+
+      final LLDatabaseLSMManifest manifest;
+      if (Files.exists(files.manifest())) {
+        manifest = LLDatabaseLSMManifest.read(files.manifest());
+      } else {
+        manifest = new LLDatabaseLSMManifest(0L, 0L, 0L, 0L, List.of());
+      }
+
+      deleteUnreferenced(files, manifest);
+      tables = openTables(files, manifest);
+
+      final var database =
+        new LLDatabaseLSM(files, channel, configuration, manifest, tables);
+      try {
+        database.recover();
+      } catch (final IOException e) {
+        database.close();
+        throw e;
+      }
+
+      LOG.debug(
+        "opened {} with {} keys in {} tables",
+        files.manifest(),
+        Long.valueOf(database.keyCount.get()),
+        Integer.valueOf(tables.size())
+      );
+      return database;
+    } catch (final IOException e) {
+      if (channel.isOpen()) {
+        channel.close();
+      }
+      throw e;
+    }
+  }
+
+  private static void lockFile(
+    final LLDatabaseLSMFiles files,
+    final FileChannel channel)
+    throws IOException
+  {
+    try {
+      if (channel.tryLock() != null) {
+        return;
+      }
+    } catch (final OverlappingFileLockException e) {
+      // Held by this process
+    }
+    throw new IOException(
+      "Database %s is already open.".formatted(files.manifest()));
+  }
+
+  private static List<LLDatabaseLSMTable> openTables(
+    final LLDatabaseLSMFiles files,
+    final LLDatabaseLSMManifest manifest)
+    throws IOException
+  {
+    final var tables = new ArrayList<LLDatabaseLSMTable>();
+    try {
+      for (final var id : manifest.tables()) {
+        tables.add(0, LLDatabaseLSMTable.open(files.table(id.longValue()), id.longValue()));
+      }
+    } catch (final IOException e) {
+      tables.forEach(LLDatabaseLSMTable::release);
+      throw e;
+    }
+    return tables;
+  }
+
+  /**
+   * Delete the files left over from flushes and compactions that were
+   * interrupted before their manifest was written, and the logs whose
+   * changes are already in tables.
+   */
+
+  private static void deleteUnreferenced(
+    final LLDatabaseLSMFiles files,
+    final LLDatabaseLSMManifest manifest)
+    throws IOException
+  {
+    for (final var path : files.list(LLDatabaseLSMFiles.TABLE_TEMPORARY_SUFFIX).values()) {
+      Files.delete(path);
+    }
+
+    final var referenced = new HashSet<>(manifest.tables());
+    for (final var entry : files.list(LLDatabaseLSMFiles.TABLE_SUFFIX).entrySet()) {
+      if (!referenced.contains(entry.getKey())) {
+        Files.delete(entry.getValue());
+      }
+    }
+
+    final var logs = files.list(LLDatabaseLSMFiles.LOG_SUFFIX);
+    for (final var path : logs.headMap(Long.valueOf(manifest.logId())).values()) {
+      Files.delete(path);
+    }
+  }
+
+  private void recover()
+    throws IOException
+  {
+    final var recovered = this.state.active();
+    final var logs =
+      this.files.list(LLDatabaseLSMFiles.LOG_SUFFIX)
+        .tailMap(Long.valueOf(this.manifest.logId()), true);
+
+    final LLDatabaseLSMLog.ChangeReceiverType receiver = (key, value) -> {
+      this.apply(recovered, key, value, this.lookup(key));
+    };
+
+    /*
+     * Only the most recent log can end with an incomplete record, because
+     * writes move to a new log only after the last append to the old log
+     * has completed.
+     */
+
+    long nextLogId = this.manifest.logId();
+    for (final var entry : logs.entrySet()) {
+      final var path = entry.getValue();
+      final var replayed = LLDatabaseLSMLog.replay(path, receiver);
+      if (replayed.torn()) {
+        if (!entry.getKey().equals(logs.lastKey())) {
+          throw new IOException(
+            "Log %s is corrupt; only the most recent log may be incomplete."
+              .formatted(path));
+        }
+        LOG.warn(
+          "discarding {} bytes of incomplete data at the end of {}",
+          Long.valueOf(Files.size(path) - replayed.size()),
+          path
+        );
+      }
+      nextLogId = entry.getKey().longValue() + 1L;
+    }
+
+    /*
+     * The recovered changes are written straight to a table, so that the
+     * replayed logs can be deleted.
+     */
+
+    final var tables = new ArrayList<>(this.state.tables());
+    final var ids = new ArrayList<>(this.manifest.tables());
+    if (!recovered.entries().isEmpty()) {
+      final var table = this.writeTable(recovered);
+      tables.add(0, table);
+      ids.add(Long.valueOf(table.id()));
+    }
+
+    this.manifest = new LLDatabaseLSMManifest(
+      nextLogId,
+      this.nextTableId.get(),
+      this.manifest.keyCount() + recovered.keyDelta(),
+      this.manifest.dataSize() + recovered.sizeDelta(),
+      ids
+    );
+    this.manifest.write(this.files);
+
+    for (final var path : logs.values()) {
+      Files.delete(path);
+    }
+
+    final var log =
+      LLDatabaseLSMLog.create(this.files.log(nextLogId), nextLogId);
+    this.files.syncDirectory();
+    this.state = new State(new LLDatabaseLSMMemtable(log), List.of(), tables);
+    this.compactIfNecessary();
+  }
+
+  /**
+   * Look up the most recent entry for a key.
+   *
+   * @return The value, nothing if the key was removed, or {@code null} if
+   * there is no entry for the key
+   */
+
+  private Optional<String> lookup(
+    final String key)
+    throws IOException
+  {
+    final var current = this.state;
+    final var active = current.active().get(key);
+    if (active != null) {
+      return active;
+    }
+    for (final var memtable : current.frozen()) {
+      final var value = memtable.get(key);
+      if (value != null) {
+        return value;
+      }
+    }
+
+    final var hash = LLDatabaseLSMBloomFilter.hashOf(key);
+    for (final var table : current.tables()) {
+      final var value = table.get(key, hash);
+      if (value != null) {
+        return value;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Apply a change to a memtable, given the previous entry for the key.
+   * Must be called by the writer with the write lock held, or during
+   * recovery.
+   */
+
+  private void apply(
+    final LLDatabaseLSMMemtable memtable,
+    final String key,
+    final Optional<String> value,
+    final Optional<String> previous)
+  {
+    final var existed = previous != null && previous.isPresent();
+
+    long keyChange = 0L;
+    long sizeChange = 0L;
+    if (value.isPresent()) {
+      if (existed) {
+        sizeChange = value.get().length() - previous.get().length();
+      } else {
+        keyChange = 1L;
+        sizeChange = value.get().length();
+      }
+    } else if (existed) {
+      keyChange = -1L;
+      sizeChange = -previous.get().length();
+    }
+
+    memtable.put(key, value, keyChange, sizeChange);
+    this.keyCount.addAndGet(keyChange);
+    this.dataSize.addAndGet(sizeChange);
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      try {
+        this.flushExecutor.shutdown();
+        this.compactionExecutor.shutdown();
+        this.flushExecutor.awaitTermination(1L, TimeUnit.HOURS);
+        this.compactionExecutor.awaitTermination(1L, TimeUnit.HOURS);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+
+      this.writer.lock();
+      final var stamp = this.lock.writeLock();
+      try {
+        final var current = this.state;
+        current.tables().forEach(LLDatabaseLSMTable::release);
+        final var log = current.active().log();
+        if (log != null) {
+          log.close();
+        }
+      } finally {
+        this.lock.unlockWrite(stamp);
+        this.writer.unlock();
+        this.lockChannel.close();
+      }
+    }
+  }
+
+  @Override
+  public long dataSizeApproximate()
+  {
+    return this.dataSize.get();
+  }
+
+  @Override
+  public long keyCountApproximate()
+  {
+    return this.keyCount.get();
+  }
+
+  @Override
+  public boolean isClosed()
+  {
+    return this.closed.get();
+  }
+
+  @Override
+  public Map<LLKeyName, String> readUpdateDelete(
+    final LLDatabaseRUD rud)
+    throws IOException
+  {
+    Objects.requireNonNull(rud, "rud");
+
+    final var changes = new TreeMap<String, Optional<String>>();
+    for (final var e : rud.update().entrySet()) {
+      changes.put(e.getKey().value(), Optional.of(e.getValue()));
+    }
+    for (final var key : rud.delete()) {
+      changes.put(key.value(), Optional.empty());
+    }
+    final var record =
+      changes.isEmpty() ? null : LLDatabaseLSMLog.encode(changes);
+
+    this.writer.lock();
+    try {
+      if (this.closed.get()) {
+        throw new IOException("Database is closed.");
+      }
+
+      final var results = new TreeMap<LLKeyName, String>();
+      final var previous = new HashMap<String, Optional<String>>();
+      this.readConsistent(() -> {
+        results.clear();
+        previous.clear();
+        results.putAll(this.lookupMany(rud.read()));
+        for (final var k : changes.keySet()) {
+          previous.put(k, this.lookup(k));
+        }
+        return null;
+      });
+
+      if (record != null) {
+        this.write(record, changes, previous);
+      }
+      return results;
+    } finally {
+      this.writer.unlock();
+    }
+  }
+
+  /**
+   * Append a record to the log and apply its changes. Must be called by the
+   * writer.
+   */
+
+  private void write(
+    final ByteBuffer record,
+    final Map<String, Optional<String>> changes,
+    final Map<String, Optional<String>> previous)
+    throws IOException
+  {
+    final var memtable = this.state.active();
+    memtable.log().append(record, this.configuration.synchronousCommit());
+
+    final var stamp = this.lock.writeLock();
+    try {
+      for (final var e : changes.entrySet()) {
+        final var k = e.getKey();
+        this.apply(memtable, k, e.getValue(), previous.get(k));
+      }
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+    this.rotateIfNecessary();
+  }
+
+  /**
+   * Freeze the active memtable and start a new one if the active memtable
+   * has grown too large. Must be called by the writer. The operation that
+   * triggered the rotation has already committed, so failures here are
+   * logged rather than reported to the caller, and the active memtable
+   * simply continues to grow until a later attempt succeeds.
+   */
+
+  private void rotateIfNecessary()
+  {
+    final var previous = this.state.active();
+    if (previous.bytes() < this.configuration.memtableSize()) {
+      return;
+    }
+
+    final var id = previous.log().id() + 1L;
+    final LLDatabaseLSMLog log;
+    try {
+      log = LLDatabaseLSMLog.create(this.files.log(id), id);
+      this.files.syncDirectory();
+    } catch (final IOException e) {
+      LOG.error("failed to create log {}: ", Long.valueOf(id), e);
+      return;
+    }
+
+    /*
+     * The state is read again under the lock, because a flush or compaction
+     * may have replaced the tables since it was last read.
+     */
+
+    final var stamp = this.lock.writeLock();
+    try {
+      final var current = this.state;
+      final var frozen = new ArrayList<LLDatabaseLSMMemtable>();
+      frozen.add(previous);
+      frozen.addAll(current.frozen());
+      this.state = new State(new LLDatabaseLSMMemtable(log), frozen, current.tables());
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+
+    try {
+      previous.log().close();
+    } catch (final IOException e) {
+      LOG.error("failed to close log {}: ", Long.valueOf(previous.log().id()), e);
+    }
+    try {
+      this.flushExecutor.execute(this::flushFrozen);
+    } catch (final RejectedExecutionException e) {
+      // The database is closing; the log is replayed when it is next opened.
+    }
+  }
+
+  /**
+   * Write the frozen memtables to tables, oldest first. A memtable that
+   * fails to be written is left in place to be retried by the next flush,
+   * and newer memtables are not written before it, because the manifest
+   * can only record that every log older than a given log has been written
+   * to tables.
+   */
+
+  private void flushFrozen()
+  {
+    while (!this.closed.get()) {
+      final var frozen = this.state.frozen();
+      if (frozen.isEmpty()) {
+        break;
+      }
+
+      final var memtable = frozen.get(frozen.size() - 1);
+      try {
+        this.flush(memtable);
+      } catch (final IOException e) {
+        LOG.error("failed to flush log {}: ", Long.valueOf(memtable.log().id()), e);
+        return;
+      }
+      this.compactIfNecessary();
+    }
+  }
+
+  private void flush(
+    final LLDatabaseLSMMemtable memtable)
+    throws IOException
+  {
+    final var table = this.writeTable(memtable);
+
+    this.manifestLock.lock();
+    try {
+      final var ids = new ArrayList<>(this.manifest.tables());
+      ids.add(Long.valueOf(table.id()));
+
+      final var next = new LLDatabaseLSMManifest(
+        memtable.log().id() + 1L,
+        this.nextTableId.get(),
+        this.manifest.keyCount() + memtable.keyDelta(),
+        this.manifest.dataSize() + memtable.sizeDelta(),
+        ids
+      );
+      try {
+        next.write(this.files);
+      } catch (final IOException e) {
+        table.retire();
+        throw e;
+      }
+      this.manifest = next;
+
+      final var stamp = this.lock.writeLock();
+      try {
+        final var current = this.state;
+        final var frozen = new ArrayList<>(current.frozen());
+        frozen.remove(memtable);
+        final var tables = new ArrayList<LLDatabaseLSMTable>();
+        tables.add(table);
+        tables.addAll(current.tables());
+        this.state = new State(current.active(), frozen, tables);
+      } finally {
+        this.lock.unlockWrite(stamp);
+      }
+    } finally {
+      this.manifestLock.unlock();
+    }
+
+    Files.deleteIfExists(memtable.log().path());
+    LOG.debug(
+      "flushed log {} to table {}",
+      Long.valueOf(memtable.log().id()),
+      Long.valueOf(table.id())
+    );
+  }
+
+  private LLDatabaseLSMTable writeTable(
+    final LLDatabaseLSMMemtable memtable)
+    throws IOException
+  {
+    final var entries = memtable.entries();
+    return this.writeTable(
+      new LLDatabaseLSMMapSource(entries.entrySet().iterator()),
+      entries.size()
+    );
+  }
+
+  private LLDatabaseLSMTable writeTable(
+    final LLDatabaseLSMSourceType source,
+    final long expectedKeys)
+    throws IOException
+  {
+    final var id = this.nextTableId.getAndIncrement();
+    final var temporary = this.files.tableTemporary(id);
+    final var path = this.files.table(id);
+    try {
+      LLDatabaseLSMTableWriter.write(temporary, source, expectedKeys, this.configuration);
+      Files.move(temporary, path, ATOMIC_MOVE);
+      this.files.syncDirectory();
+      return LLDatabaseLSMTable.open(path, id);
+    } catch (final IOException e) {
+      Files.deleteIfExists(temporary);
+      Files.deleteIfExists(path);
+      throw e;
+    }
+  }
+
+  private void compactIfNecessary()
+  {
+    if (this.closed.get()) {
+      return;
+    }
+    if (this.selectCompaction(this.state.tables()) == null) {
+      return;
+    }
+    if (this.compacting.compareAndSet(false, true)) {
+      try {
+        this.compactionExecutor.execute(this::compact);
+      } catch (final RejectedExecutionException e) {
+        this.compacting.set(false);
+      }
+    }
+  }
+
+  private int tierOf(
+    final LLDatabaseLSMTable table)
+  {
+    final var fanout = this.configuration.compactionFanout();
+    var limit = this.configuration.memtableSize() * fanout;
+    int tier = 0;
+    while (table.size() >= limit && tier < MAXIMUM_TIER) {
+      ++tier;
+      limit = limit > Long.MAX_VALUE / fanout ? Long.MAX_VALUE : limit * fanout;
+    }
+    return tier;
+  }
+
+  /**
+   * Find a run of adjacent tables in the same size tier that is long enough
+   * to compact. Only adjacent tables are compacted together, so that the
+   * output can take the place of its inputs in the order of tables.
+   *
+   * @param tables The tables, newest first
+   *
+   * @return The tables to compact, newest first, or {@code null} if none
+   */
+
+  private List<LLDatabaseLSMTable> selectCompaction(
+    final List<LLDatabaseLSMTable> tables)
+  {
+    final var fanout = this.configuration.compactionFanout();
+    int start = 0;
+    while (start < tables.size()) {
+      final var tier = this.tierOf(tables.get(start));
+      int end = start + 1;
+      while (end < tables.size() && this.tierOf(tables.get(end)) == tier) {
+        ++end;
+      }
+      if (end - start >= fanout) {
+        return tables.subList(start, end);
+      }
+      start = end;
+    }
+    return null;
+  }
+
+  private void compact()
+  {
+    try {
+      while (!this.closed.get()) {
+        final var current = this.state.tables();
+        final var inputs = this.selectCompaction(current);
+        if (inputs == null) {
+          break;
+        }
+        final var oldest = current.get(current.size() - 1);
+        this.compactTables(List.copyOf(inputs), inputs.contains(oldest));
+      }
+    } catch (final IOException e) {
+      LOG.error("failed to compact tables: ", e);
+    } finally {
+      this.compacting.set(false);
+    }
+  }
+
+  private void compactTables(
+    final List<LLDatabaseLSMTable> inputs,
+    final boolean includesOldest)
+    throws IOException
+  {
+    final var sources = new ArrayList<LLDatabaseLSMSourceType>(inputs.size());
+    long expected = 0L;
+    for (final var input : inputs) {
+      sources.add(input.source(null));
+      expected += input.entries();
+    }
+
+    /*
+     * Removals must be kept unless the oldest table is included, because
+     * an older table might hold an entry that the removal hides.
+     */
+
+    final var output =
+      this.writeTable(new LLDatabaseLSMMergeSource(sources, !includesOldest), expected);
+
+    this.manifestLock.lock();
+    try {
+      final var tables = new ArrayList<LLDatabaseLSMTable>();
+      for (final var table : this.state.tables()) {
+        if (table == inputs.get(0)) {
+          tables.add(output);
+        }
+        if (!inputs.contains(table)) {
+          tables.add(table);
+        }
+      }
+
+      final var ids = new ArrayList<Long>(tables.size());
+      for (int index = tables.size() - 1; index >= 0; --index) {
+        ids.add(Long.valueOf(tables.get(index).id()));
+      }
+
+      final var next = new LLDatabaseLSMManifest(
+        this.manifest.logId(),
+        this.nextTableId.get(),
+        this.manifest.keyCount(),
+        this.manifest.dataSize(),
+        ids
+      );
+      try {
+        next.write(this.files);
+      } catch (final IOException e) {
+        output.retire();
+        throw e;
+      }
+      this.manifest = next;
+
+      final var stamp = this.lock.writeLock();
+      try {
+        final var current = this.state;
+        this.state = new State(current.active(), current.frozen(), tables);
+      } finally {
+        this.lock.unlockWrite(stamp);
+      }
+    } finally {
+      this.manifestLock.unlock();
+    }
+
+    for (final var input : inputs) {
+      input.retire();
+    }
+
+    LOG.debug(
+      "compacted {} tables into table {} ({} bytes)",
+      Integer.valueOf(inputs.size()),
+      Long.valueOf(output.id()),
+      Long.valueOf(output.size())
+    );
+  }
+
+  /**
+   * Evaluate a function that reads several entries, such that the function
+   * observes either all or none of the changes made by each operation. The
+   * function is first evaluated without locking, and is evaluated again
+   * under the read lock if a write was in progress at any point. A failure
+   * during the unlocked evaluation may be the result of a concurrent
+   * compaction deleting a table, and so is only reported if it recurs under
+   * the read lock.
+   */
+
+  private <T> T readConsistent(
+    final ReaderType<T> reader)
+    throws IOException
+  {
+    final var optimistic = this.lock.tryOptimisticRead();
+    if (optimistic != 0L) {
+      try {
+        final var result = reader.read();
+        if (this.lock.validate(optimistic)) {
+          return result;
+        }
+      } catch (final IOException | RuntimeException e) {
+        if (this.lock.validate(optimistic)) {
+          throw e;
+        }
+      }
+    }
+
+    final var stamp = this.lock.readLock();
+    try {
+      if (this.closed.get()) {
+        throw new IOException("Database is closed.");
+      }
+      return reader.read();
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public Optional<String> get(
+    final LLKeyName key)
+    throws IOException
+  {
+    Objects.requireNonNull(key, "key");
+
+    final var value = this.readConsistent(() -> this.lookup(key.value()));
+    return value == null ? Optional.empty() : value;
+  }
+
+  @Override
+  public Map<LLKeyName, String> getMany(
+    final Set<LLKeyName> keys)
+    throws IOException
+  {
+    Objects.requireNonNull(keys, "keys");
+
+    return this.readConsistent(() -> this.lookupMany(keys));
+  }
+
+  private Map<LLKeyName, String> lookupMany(
+    final Set<LLKeyName> keys)
+    throws IOException
+  {
+    final var results = new TreeMap<LLKeyName, String>();
+    for (final var k : keys) {
+      final var v = this.lookup(k.value());
+      if (v != null && v.isPresent()) {
+        results.put(k, v.get());
+      }
+    }
+    return results;
+  }
+
+  @Override
+  public LLDatabaseScanResult scan(
+    final LLDatabaseScan scan)
+    throws IOException
+  {
+    Objects.requireNonNull(scan, "scan");
+    return this.readConsistent(() -> this.scanUnlocked(scan));
+  }
+
+  private LLDatabaseScanResult scanUnlocked(
+    final LLDatabaseScan scan)
+    throws IOException
+  {
+    final var lower = scan.lowerBoundExclusive();
+    final var upper = scan.upperBoundExclusive();
+    final var current = this.state;
+
+    final var sources = new ArrayList<LLDatabaseLSMSourceType>();
+    sources.add(new LLDatabaseLSMMapSource(
+      current.active().entries().tailMap(lower, false).entrySet().iterator()));
+    for (final var memtable : current.frozen()) {
+      sources.add(new LLDatabaseLSMMapSource(
+        memtable.entries().tailMap(lower, false).entrySet().iterator()));
+    }
+    for (final var table : current.tables()) {
+      sources.add(table.source(lower));
+    }
+
+    final var merged = new LLDatabaseLSMMergeSource(sources, false);
+    final var keys = new ArrayList<LLKeyName>(Math.min(scan.limit(), 64));
+    final var values = new HashMap<LLKeyName, String>();
+    while (merged.advance()) {
+      if (merged.key().compareTo(upper) >= 0) {
+        break;
+      }
+      if (keys.size() == scan.limit()) {
+        final var last = keys.get(keys.size() - 1);
+        return new LLDatabaseScanResult(keys, values, Optional.of(last));
+      }
+
+      final var key = LLKeyName.create(merged.key());
+      keys.add(key);
+      if (scan.includeValues()) {
+        values.put(key, merged.value().orElseThrow());
+      }
+    }
+    return new LLDatabaseScanResult(keys, values, Optional.empty());
+  }
+
+  @Override
+  public LLDatabaseCursorType cursor()
+    throws IOException
+  {
+    /*
+     * Frozen memtables and tables never change, so the cursor reads them
+     * directly, holding a reference to each table so that it is not
+     * deleted by a compaction. Only the active memtable must be copied.
+     */
+
+    final var stamp = this.lock.readLock();
+    try {
+      if (this.closed.get()) {
+        throw new IOException("Database is closed.");
+      }
+
+      final var current = this.state;
+      final var sources = new ArrayList<LLDatabaseLSMSourceType>();
+      sources.add(new LLDatabaseLSMMapSource(
+        new TreeMap<>(current.active().entries()).entrySet().iterator()));
+      for (final var memtable : current.frozen()) {
+        sources.add(new LLDatabaseLSMMapSource(memtable.entries().entrySet().iterator()));
+      }
+
+      final var tables = new ArrayList<LLDatabaseLSMTable>();
+      for (final var table : current.tables()) {
+        if (!table.acquire()) {
+          tables.forEach(LLDatabaseLSMTable::release);
+          throw new IOException("Table %d is closed.".formatted(table.id()));
+        }
+        tables.add(table);
+        sources.add(table.source(null));
+      }
+
+      return new LLDatabaseLSMCursor(
+        new LLDatabaseLSMMergeSource(sources, false),
+        tables
+      );
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.lsm;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A bloom filter over the keys of a table. A bloom filter can report that a
+ * key is definitely absent from a table, which allows a read of a key to
+ * skip most of the tables that do not contain the key without reading any
+ * of their blocks.
+ */
+
+final class LLDatabaseLSMBloomFilter
+{
+  private final long[] words;
+  private final int hashCount;
+  private final long bits;
+
+  private LLDatabaseLSMBloomFilter(
+    final long[] inWords,
+    final int inHashCount)
+  {
+    this.words = inWords;
+    this.hashCount = inHashCount;
+    this.bits = (long) inWords.length * 64L;
+  }
+
+  /**
+   * Create an empty bloom filter.
+   *
+   * @param expectedKeys The number of keys that will be added
+   * @param bitsPerKey   The number of bits per key
+   *
+   * @return A bloom filter
+   */
+
+  static LLDatabaseLSMBloomFilter create(
+    final long expectedKeys,
+    final int bitsPerKey)
+  {
+    final var bits =
+      Math.min(Math.max(64L, expectedKeys * bitsPerKey), (long) Integer.MAX_VALUE * 64L);
+    final var hashes =
+      Math.max(1, Math.min(30, (int) Math.round(bitsPerKey * Math.log(2.0))));
+    return new LLDatabaseLSMBloomFilter(new long[(int) ((bits + 63L) / 64L)], hashes);
+  }
+
+  /**
+   * Compute the 64-bit hash of a key.
+   *
+   * @param key The key
+   *
+   * @return The hash
+   */
+
+  static long hashOf(
+    final String key)
+  {
+    long h = 0xcbf29ce484222325L ^ key.length();
+    for (int index = 0; index < key.length(); ++index) {
+      h = (h ^ key.charAt(index)) * 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /**
+   * Add a key to the filter.
+   *
+   * @param hash The hash of the key
+   */
+
+  void add(
+    final long hash)
+  {
+    final var h1 = hash & 0xffffffffL;
+    final var h2 = hash >>> 32;
+    for (int index = 0; index < this.hashCount; ++index) {
+      final var bit = Long.remainderUnsigned(h1 + index * h2, this.bits);
+      this.words[(int) (bit >>> 6)] |= 1L << bit;
+    }
+  }
+
+  /**
+   * @param hash The hash of a key
+   *
+   * @return {@code false} if the key is definitely not in the filter
+   */
+
+  boolean mightContain(
+    final long hash)
+  {
+    final var h1 = hash & 0xffffffffL;
+    final var h2 = hash >>> 32;
+    for (int index = 0; index < this.hashCount; ++index) {
+      final var bit = Long.remainderUnsigned(h1 + index * h2, this.bits);
+      if ((this.words[(int) (bit >>> 6)] & (1L << bit)) == 0L) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return The size of the encoded filter in bytes
+   */
+
+  int encodedSize()
+  {
+    return 8 + this.words.length * 8;
+  }
+
+  /**
+   * Encode the filter.
+   *
+   * @param buffer The output buffer
+   */
+
+  void encode(
+    final ByteBuffer buffer)
+  {
+    buffer.putInt(this.hashCount);
+    buffer.putInt(this.words.length);
+    for (final var word : this.words) {
+      buffer.putLong(word);
+    }
+  }
+
+  /**
+   * Decode a filter.
+   *
+   * @param buffer The input buffer
+   *
+   * @return The filter, or {@code null} if the encoded filter is malformed
+   */
+
+  static LLDatabaseLSMBloomFilter decode(
+    final ByteBuffer buffer)
+  {
+    if (buffer.remaining() < 8) {
+      return null;
+    }
+
+    final var hashCount = buffer.getInt();
+    final var count = buffer.getInt();
+    if (hashCount <= 0 || count <= 0 || (long) count * 8L != buffer.remaining()) {
+      return null;
+    }
+
+    final var words = new long[count];
+    for (int index = 0; index < count; ++index) {
+      words[index] = buffer.getLong();
+    }
+    return new LLDatabaseLSMBloomFilter(words, hashCount);
+  }
+}
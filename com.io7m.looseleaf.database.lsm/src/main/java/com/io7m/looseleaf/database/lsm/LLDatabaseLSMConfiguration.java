@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.lsm;
+
+/**
+ * Tuning parameters for LSM databases.
+ *
+ * @param synchronousCommit {@code true} if each commit must be flushed to
+ *                          stable storage before it completes
+ * @param memtableSize      The approximate size in bytes that the memtable
+ *                          may reach before it is written to a table
+ * @param blockSize         The size in bytes of the blocks in tables
+ * @param bloomBitsPerKey   The number of bloom filter bits per key in
+ *                          tables
+ * @param compactionFanout  The number of tables of similar size that are
+ *                          compacted into a single larger table
+ */
+
+public record LLDatabaseLSMConfiguration(
+  boolean synchronousCommit,
+  long memtableSize,
+  int blockSize,
+  int bloomBitsPerKey,
+  int compactionFanout)
+{
+  /**
+   * Tuning parameters for LSM databases.
+   *
+   * @param synchronousCommit {@code true} if each commit must be flushed to
+   *                          stable storage before it completes
+   * @param memtableSize      The approximate size in bytes that the memtable
+   *                          may reach before it is written to a table
+   * @param blockSize         The size in bytes of the blocks in tables
+   * @param bloomBitsPerKey   The number of bloom filter bits per key in
+   *                          tables
+   * @param compactionFanout  The number of tables of similar size that are
+   *                          compacted into a single larger table
+   */
+
+  public LLDatabaseLSMConfiguration
+  {
+    if (memtableSize <= 0L) {
+      throw new IllegalArgumentException(
+        "Memtable size %d must be positive".formatted(memtableSize));
+    }
+    if (blockSize <= 0) {
+      throw new IllegalArgumentException(
+        "Block size %d must be positive".formatted(blockSize));
+    }
+    if (bloomBitsPerKey <= 0) {
+      throw new IllegalArgumentException(
+        "Bloom filter bits per key %d must be positive"
+          .formatted(bloomBitsPerKey));
+    }
+    if (compactionFanout < 2) {
+      throw new IllegalArgumentException(
+        "Compaction fanout %d must be at least 2".formatted(compactionFanout));
+    }
+  }
+
+  /**
+   * @return The default configuration
+   */
+
+  public static LLDatabaseLSMConfiguration defaults()
+  {
+    return new LLDatabaseLSMConfiguration(
+      true,
+      16_777_216L,
+      4_096,
+      10,
+      4
+    );
+  }
+}
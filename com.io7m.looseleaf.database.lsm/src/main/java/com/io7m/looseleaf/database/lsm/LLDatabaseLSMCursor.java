@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.lsm;
+
+import com.io7m.looseleaf.database.api.LLDatabaseCursorType;
+import com.io7m.looseleaf.security.LLKeyName;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A cursor over the entries of an LSM database at a single point in time.
+ * The cursor holds a reference to each table it reads, so that compactions
+ * do not delete the tables until the cursor is closed.
+ */
+
+final class LLDatabaseLSMCursor implements LLDatabaseCursorType
+{
+  private final LLDatabaseLSMSourceType source;
+  private final List<LLDatabaseLSMTable> tables;
+  private LLKeyName key;
+  private String value;
+  private boolean closed;
+
+  /**
+   * A cursor over the entries of an LSM database.
+   *
+   * @param inSource The source of entries
+   * @param inTables The tables to which the cursor holds references
+   */
+
+  LLDatabaseLSMCursor(
+    final LLDatabaseLSMSourceType inSource,
+    final List<LLDatabaseLSMTable> inTables)
+  {
+    this.source =
+      Objects.requireNonNull(inSource, "source");
+    this.tables =
+      List.copyOf(inTables);
+  }
+
+  @Override
+  public boolean next()
+    throws IOException
+  {
+    if (this.closed) {
+      throw new IllegalStateException("Cursor is closed.");
+    }
+
+    if (this.source.advance()) {
+      this.key = LLKeyName.create(this.source.key());
+      this.value = this.source.value().orElseThrow();
+      return true;
+    }
+
+    this.key = null;
+    this.value = null;
+    return false;
+  }
+
+  @Override
+  public LLKeyName key()
+  {
+    if (this.key == null) {
+      throw new IllegalStateException("Cursor does not point at an entry.");
+    }
+    return this.key;
+  }
+
+  @Override
+  public String value()
+  {
+    if (this.value == null) {
+      throw new IllegalStateException("Cursor does not point at an entry.");
+    }
+    return this.value;
+  }
+
+  @Override
+  public void close()
+  {
+    if (!this.closed) {
+      this.closed = true;
+      this.key = null;
+      this.value = null;
+      for (final var table : this.tables) {
+        table.release();
+      }
+    }
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.lsm;
+
+import com.io7m.looseleaf.database.api.LLDatabaseFactoryType;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * A database based on a log-structured merge tree.
+ */
+
+public final class LLDatabaseLSMFactory
+  implements LLDatabaseFactoryType
+{
+  private final LLDatabaseLSMConfiguration configuration;
+
+  /**
+   * A database based on a log-structured merge tree.
+   */
+
+  public LLDatabaseLSMFactory()
+  {
+    this(LLDatabaseLSMConfiguration.defaults());
+  }
+
+  /**
+   * A database based on a log-structured merge tree.
+   *
+   * @param inConfiguration The database tuning parameters
+   */
+
+  public LLDatabaseLSMFactory(
+    final LLDatabaseLSMConfiguration inConfiguration)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+  }
+
+  @Override
+  public String kind()
+  {
+    return "LSM";
+  }
+
+  @Override
+  public LLDatabaseType open(
+    final Path file)
+    throws IOException
+  {
+    return LLDatabaseLSM.open(file, this.configuration);
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.lsm;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * The files that make up an LSM database. Given a database file {@code f},
+ * the manifest is stored in {@code f} itself and written via
+ * {@code f.tmp}, table {@code t} is stored in {@code f.t.sst} and written via
+ * {@code f.t.sst.tmp}, write-ahead log {@code w} is stored in
+ * {@code f.w.wal}, and {@code f.lock} is locked while the database is open.
+ * Numbers are written as sixteen hexadecimal digits so that files sort by
+ * number.
+ */
+
+final class LLDatabaseLSMFiles
+{
+  static final String TABLE_SUFFIX = ".sst";
+  static final String TABLE_TEMPORARY_SUFFIX = ".sst.tmp";
+  static final String LOG_SUFFIX = ".wal";
+
+  private final Path manifest;
+  private final Path directory;
+  private final String prefix;
+
+  /**
+   * The files that make up an LSM database.
+   *
+   * @param file The database file
+   */
+
+  LLDatabaseLSMFiles(
+    final Path file)
+  {
+    this.manifest =
+      Objects.requireNonNull(file, "file").toAbsolutePath();
+    this.directory =
+      this.manifest.getParent();
+    this.prefix =
+      this.manifest.getFileName() + ".";
+  }
+
+  /**
+   * @return The manifest file
+   */
+
+  Path manifest()
+  {
+    return this.manifest;
+  }
+
+  /**
+   * @return The file used to write a new manifest
+   */
+
+  Path manifestTemporary()
+  {
+    return this.manifest.resolveSibling(this.manifest.getFileName() + ".tmp");
+  }
+
+  /**
+   * @return The file that is locked while the database is open
+   */
+
+  Path lock()
+  {
+    return this.manifest.resolveSibling(this.manifest.getFileName() + ".lock");
+  }
+
+  /**
+   * @param id The table number
+   *
+   * @return The file of the given table
+   */
+
+  Path table(
+    final long id)
+  {
+    return this.file(id, TABLE_SUFFIX);
+  }
+
+  /**
+   * @param id The table number
+   *
+   * @return The file used to write the given table
+   */
+
+  Path tableTemporary(
+    final long id)
+  {
+    return this.file(id, TABLE_TEMPORARY_SUFFIX);
+  }
+
+  /**
+   * @param id The log number
+   *
+   * @return The file of the given write-ahead log
+   */
+
+  Path log(
+    final long id)
+  {
+    return this.file(id, LOG_SUFFIX);
+  }
+
+  private Path file(
+    final long id,
+    final String suffix)
+  {
+    return this.directory.resolve(
+      "%s%016x%s".formatted(this.prefix, id, suffix)
+    );
+  }
+
+  /**
+   * @param suffix The file suffix
+   *
+   * @return The existing files with the given suffix, by number
+   *
+   * @throws IOException On I/O errors
+   */
+
+  TreeMap<Long, Path> list(
+    final String suffix)
+    throws IOException
+  {
+    final var results = new TreeMap<Long, Path>();
+    try (var stream = Files.list(this.directory)) {
+      for (final var path : stream.toList()) {
+        final var name = path.getFileName().toString();
+        if (!name.startsWith(this.prefix) || !name.endsWith(suffix)) {
+          continue;
+        }
+
+        final var digits =
+          name.substring(this.prefix.length(), name.length() - suffix.length());
+        if (digits.length() != 16) {
+          continue;
+        }
+
+        try {
+          results.put(Long.parseUnsignedLong(digits, 16), path);
+        } catch (final NumberFormatException e) {
+          // Not a database file.
+        }
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Flush the directory containing the database files to stable storage, so
+   * that newly created and renamed files survive a crash. Not all platforms
+   * allow directories to be opened, so failures are ignored.
+   */
+
+  void syncDirectory()
+  {
+    try (var channel = FileChannel.open(this.directory, READ)) {
+      channel.force(true);
+    } catch (final IOException e) {
+      // Not supported on this platform.
+    }
+  }
+}
@@ -0,0 +1,413 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.lsm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A write-ahead log holding the changes in a memtable.
+ *
+ * <p>A log begins with a header containing a magic number and a format
+ * version. The header is followed by zero or more records, one per committed
+ * operation. Each record consists of the length of its payload, the CRC32C
+ * checksum of its payload, and the payload itself. The payload is a count of
+ * changes followed by the changes, where each change is either a put of a
+ * value for a key, or a removal of a key.</p>
+ *
+ * <p>A crash in the middle of an append can leave a partial record at the end
+ * of the log. When a log is replayed, a record that is truncated or that fails
+ * its checksum marks the end of the usable log.</p>
+ */
+
+final class LLDatabaseLSMLog implements AutoCloseable
+{
+  private static final long MAGIC = 0x4C4C4C534D574C47L;
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 12;
+  private static final int RECORD_HEADER_SIZE = 8;
+  private static final byte CHANGE_PUT = 1;
+  private static final byte CHANGE_REMOVE = 0;
+
+  private final Path path;
+  private final long id;
+  private final FileChannel channel;
+  private long size;
+  private boolean failed;
+
+  private LLDatabaseLSMLog(
+    final Path inPath,
+    final long inId,
+    final FileChannel inChannel,
+    final long inSize)
+  {
+    this.path =
+      Objects.requireNonNull(inPath, "path");
+    this.id =
+      inId;
+    this.channel =
+      Objects.requireNonNull(inChannel, "channel");
+    this.size =
+      inSize;
+  }
+
+  /**
+   * A function that receives each change in a replayed log.
+   */
+
+  @FunctionalInterface
+  interface ChangeReceiverType
+  {
+    /**
+     * Receive a change.
+     *
+     * @param key   The key
+     * @param value The value, or nothing if the key was removed
+     *
+     * @throws IOException On errors
+     */
+
+    void receive(String key, Optional<String> value)
+      throws IOException;
+  }
+
+  /**
+   * The result of replaying a log.
+   *
+   * @param size The size in bytes of the usable prefix of the log, or
+   *             {@code 0} if not even the header is usable
+   * @param torn {@code true} if the log contained unusable data after the
+   *             usable prefix
+   */
+
+  record Replayed(
+    long size,
+    boolean torn)
+  {
+
+  }
+
+  /**
+   * Create a new, empty log.
+   *
+   * @param path The log file
+   * @param id   The log number
+   *
+   * @return A new log
+   *
+   * @throws IOException On I/O errors
+   */
+
+  static LLDatabaseLSMLog create(
+    final Path path,
+    final long id)
+    throws IOException
+  {
+    final var channel = FileChannel.open(path, CREATE_NEW, WRITE);
+    try {
+      final var header = ByteBuffer.allocate(HEADER_SIZE);
+      header.putLong(MAGIC);
+      header.putInt(VERSION);
+      header.flip();
+      writeFully(channel, header, 0L);
+      channel.force(true);
+      return new LLDatabaseLSMLog(path, id, channel, HEADER_SIZE);
+    } catch (final IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Replay every usable record in the given log.
+   *
+   * @param path     The log file
+   * @param receiver The receiver of changes
+   *
+   * @return The result of replaying the log
+   *
+   * @throws IOException On I/O errors, or if the file is not a log
+   */
+
+  static Replayed replay(
+    final Path path,
+    final ChangeReceiverType receiver)
+    throws IOException
+  {
+    try (var channel = FileChannel.open(path, READ)) {
+      final var fileSize = channel.size();
+      if (fileSize < HEADER_SIZE) {
+        return new Replayed(0L, true);
+      }
+
+      final var header = ByteBuffer.allocate(HEADER_SIZE);
+      readFully(channel, header, 0L);
+      header.flip();
+      checkHeader(path, header);
+
+      final var checksum = new CRC32C();
+      final var recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+      long position = HEADER_SIZE;
+
+      while (position < fileSize) {
+        if (fileSize - position < RECORD_HEADER_SIZE) {
+          return new Replayed(position, true);
+        }
+
+        recordHeader.clear();
+        readFully(channel, recordHeader, position);
+        recordHeader.flip();
+
+        final var length = recordHeader.getInt();
+        final var expected = recordHeader.getInt();
+        final var payloadStart = position + RECORD_HEADER_SIZE;
+        if (length < 0 || length > fileSize - payloadStart) {
+          return new Replayed(position, true);
+        }
+
+        final var payload = ByteBuffer.allocate(length);
+        readFully(channel, payload, payloadStart);
+        payload.flip();
+
+        checksum.reset();
+        checksum.update(payload.duplicate());
+        if ((int) checksum.getValue() != expected) {
+          return new Replayed(position, true);
+        }
+
+        decode(payload, receiver);
+        position = payloadStart + length;
+      }
+      return new Replayed(position, false);
+    }
+  }
+
+  private static void checkHeader(
+    final Path path,
+    final ByteBuffer header)
+    throws IOException
+  {
+    final var magic = header.getLong();
+    if (magic != MAGIC) {
+      throw new IOException(
+        "File %s is not a log (magic number 0x%x, expected 0x%x)."
+          .formatted(path, magic, MAGIC));
+    }
+
+    final var version = header.getInt();
+    if (version != VERSION) {
+      throw new IOException(
+        "Log %s has unsupported version %d (expected %d)."
+          .formatted(path, version, VERSION));
+    }
+  }
+
+  /**
+   * Encode the given changes as a log record.
+   *
+   * @param changes The changes, where nothing indicates a removal
+   *
+   * @return The encoded record
+   */
+
+  static ByteBuffer encode(
+    final Map<String, Optional<String>> changes)
+  {
+    final var encoded = new ArrayList<byte[]>(changes.size() * 2);
+    int length = 4 + changes.size();
+    for (final var entry : changes.entrySet()) {
+      final var k = entry.getKey().getBytes(UTF_8);
+      encoded.add(k);
+      length += 4 + k.length;
+
+      final var value = entry.getValue();
+      if (value.isPresent()) {
+        final var v = value.get().getBytes(UTF_8);
+        encoded.add(v);
+        length += 4 + v.length;
+      }
+    }
+
+    final var record = ByteBuffer.allocate(RECORD_HEADER_SIZE + length);
+    record.position(RECORD_HEADER_SIZE);
+    record.putInt(changes.size());
+
+    final var iterator = encoded.iterator();
+    for (final var value : changes.values()) {
+      if (value.isPresent()) {
+        record.put(CHANGE_PUT);
+        putBytes(record, iterator.next());
+        putBytes(record, iterator.next());
+      } else {
+        record.put(CHANGE_REMOVE);
+        putBytes(record, iterator.next());
+      }
+    }
+
+    final var checksum = new CRC32C();
+    checksum.update(record.array(), RECORD_HEADER_SIZE, length);
+    record.putInt(0, length);
+    record.putInt(4, (int) checksum.getValue());
+    record.flip();
+    return record;
+  }
+
+  private static void putBytes(
+    final ByteBuffer buffer,
+    final byte[] bytes)
+  {
+    buffer.putInt(bytes.length);
+    buffer.put(bytes);
+  }
+
+  private static String getString(
+    final ByteBuffer buffer)
+  {
+    final var length = buffer.getInt();
+    final var slice = buffer.slice(buffer.position(), length);
+    buffer.position(buffer.position() + length);
+    return UTF_8.decode(slice).toString();
+  }
+
+  private static void decode(
+    final ByteBuffer payload,
+    final ChangeReceiverType receiver)
+    throws IOException
+  {
+    final var changes = payload.getInt();
+    for (int index = 0; index < changes; ++index) {
+      final var change = payload.get();
+      final var key = getString(payload);
+      if (change == CHANGE_PUT) {
+        receiver.receive(key, Optional.of(getString(payload)));
+      } else {
+        receiver.receive(key, Optional.empty());
+      }
+    }
+  }
+
+  private static void readFully(
+    final FileChannel channel,
+    final ByteBuffer buffer,
+    final long position)
+    throws IOException
+  {
+    long offset = position;
+    while (buffer.hasRemaining()) {
+      final var count = channel.read(buffer, offset);
+      if (count < 0) {
+        throw new IOException("Unexpected end of file.");
+      }
+      offset += count;
+    }
+  }
+
+  private static void writeFully(
+    final FileChannel channel,
+    final ByteBuffer buffer,
+    final long position)
+    throws IOException
+  {
+    long offset = position;
+    while (buffer.hasRemaining()) {
+      offset += channel.write(buffer, offset);
+    }
+  }
+
+  /**
+   * Append a record to the log. If the append fails, the log is truncated
+   * back to its previous size so that no partial record is left in the
+   * middle of the log; if that also fails, the log refuses all further
+   * appends.
+   *
+   * @param record      The record produced by {@link #encode(Map)}
+   * @param synchronous {@code true} if the record must be flushed to stable
+   *                    storage before returning
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void append(
+    final ByteBuffer record,
+    final boolean synchronous)
+    throws IOException
+  {
+    if (this.failed) {
+      throw new IOException(
+        "Log %s is unusable after an earlier write failure."
+          .formatted(this.path));
+    }
+
+    final var length = record.remaining();
+    try {
+      writeFully(this.channel, record.duplicate(), this.size);
+      if (synchronous) {
+        this.channel.force(false);
+      }
+    } catch (final IOException e) {
+      try {
+        this.channel.truncate(this.size);
+      } catch (final IOException x) {
+        this.failed = true;
+        e.addSuppressed(x);
+      }
+      throw e;
+    }
+    this.size += length;
+  }
+
+  /**
+   * @return The log number
+   */
+
+  long id()
+  {
+    return this.id;
+  }
+
+  /**
+   * @return The log file
+   */
+
+  Path path()
+  {
+    return this.path;
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    try {
+      this.channel.force(true);
+    } finally {
+      this.channel.close();
+    }
+  }
+}
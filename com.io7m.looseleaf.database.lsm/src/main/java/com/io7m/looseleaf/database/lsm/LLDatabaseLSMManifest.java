@@ -0,0 +1,180 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.lsm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * The manifest of an LSM database: the set of tables that hold the data, and
+ * the oldest write-ahead log whose changes are not yet in any table.
+ *
+ * <p>The manifest is the single point at which changes to the set of tables
+ * are committed. A new manifest is written to a temporary file and then
+ * atomically renamed over the old manifest, so after a crash the manifest
+ * always describes either the old or the new set of tables. Tables that
+ * are not named in the manifest are left over from an interrupted flush or
+ * compaction, and may be deleted.</p>
+ *
+ * @param logId       The oldest write-ahead log that must be replayed
+ * @param nextTableId The number of the next table to be created
+ * @param keyCount    The number of keys in the tables
+ * @param dataSize    The total length of the values in the tables
+ * @param tables      The tables, oldest first
+ */
+
+record LLDatabaseLSMManifest(
+  long logId,
+  long nextTableId,
+  long keyCount,
+  long dataSize,
+  List<Long> tables)
+{
+  private static final long MAGIC = 0x4C4C4C534D4D414EL;
+  private static final int VERSION = 1;
+  private static final int FIXED_SIZE = 8 + 4 + 8 + 8 + 8 + 8 + 4;
+
+  /**
+   * The manifest of an LSM database.
+   *
+   * @param logId       The oldest write-ahead log that must be replayed
+   * @param nextTableId The number of the next table to be created
+   * @param keyCount    The number of keys in the tables
+   * @param dataSize    The total length of the values in the tables
+   * @param tables      The tables, oldest first
+   */
+
+  LLDatabaseLSMManifest
+  {
+    tables = List.copyOf(tables);
+  }
+
+  /**
+   * Read a manifest.
+   *
+   * @param path The manifest file
+   *
+   * @return The manifest
+   *
+   * @throws IOException On I/O errors, or if the file is not a valid
+   *                     manifest
+   */
+
+  static LLDatabaseLSMManifest read(
+    final Path path)
+    throws IOException
+  {
+    final var buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+    if (buffer.remaining() < FIXED_SIZE + 4) {
+      throw new IOException(
+        "File %s is not an LSM database manifest.".formatted(path));
+    }
+
+    final var magic = buffer.getLong();
+    if (magic != MAGIC) {
+      throw new IOException(
+        "File %s is not an LSM database manifest (magic number 0x%x, expected 0x%x)."
+          .formatted(path, magic, MAGIC));
+    }
+
+    final var version = buffer.getInt();
+    if (version != VERSION) {
+      throw new IOException(
+        "Manifest %s has unsupported version %d (expected %d)."
+          .formatted(path, version, VERSION));
+    }
+
+    final var checksum = new CRC32C();
+    checksum.update(buffer.array(), 0, buffer.limit() - 4);
+    if ((int) checksum.getValue() != buffer.getInt(buffer.limit() - 4)) {
+      throw new IOException("Manifest %s is corrupt.".formatted(path));
+    }
+
+    final var logId = buffer.getLong();
+    final var nextTableId = buffer.getLong();
+    final var keyCount = buffer.getLong();
+    final var dataSize = buffer.getLong();
+    final var count = buffer.getInt();
+    if (count < 0 || (long) count * 8L != buffer.remaining() - 4L) {
+      throw new IOException("Manifest %s is corrupt.".formatted(path));
+    }
+
+    final var tables = new ArrayList<Long>(count);
+    for (int index = 0; index < count; ++index) {
+      tables.add(Long.valueOf(buffer.getLong()));
+    }
+    return new LLDatabaseLSMManifest(
+      logId, nextTableId, keyCount, dataSize, tables);
+  }
+
+  /**
+   * Durably replace the manifest of a database with this manifest.
+   *
+   * @param files The database files
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void write(
+    final LLDatabaseLSMFiles files)
+    throws IOException
+  {
+    Objects.requireNonNull(files, "files");
+
+    final var buffer = ByteBuffer.allocate(FIXED_SIZE + this.tables.size() * 8 + 4);
+    buffer.putLong(MAGIC);
+    buffer.putInt(VERSION);
+    buffer.putLong(this.logId);
+    buffer.putLong(this.nextTableId);
+    buffer.putLong(this.keyCount);
+    buffer.putLong(this.dataSize);
+    buffer.putInt(this.tables.size());
+    for (final var table : this.tables) {
+      buffer.putLong(table.longValue());
+    }
+
+    final var checksum = new CRC32C();
+    checksum.update(buffer.array(), 0, buffer.position());
+    buffer.putInt((int) checksum.getValue());
+    buffer.flip();
+
+    final var temporary = files.manifestTemporary();
+    try (var channel =
+           FileChannel.open(temporary, CREATE, TRUNCATE_EXISTING, WRITE)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(true);
+    }
+
+    Files.move(temporary, files.manifest(), ATOMIC_MOVE, REPLACE_EXISTING);
+    files.syncDirectory();
+  }
+}
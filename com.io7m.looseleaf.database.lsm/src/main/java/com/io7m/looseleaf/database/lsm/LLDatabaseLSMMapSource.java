@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.lsm;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A source of entries taken from a sorted map, such as a memtable.
+ */
+
+final class LLDatabaseLSMMapSource implements LLDatabaseLSMSourceType
+{
+  private final Iterator<Map.Entry<String, Optional<String>>> iterator;
+  private Map.Entry<String, Optional<String>> current;
+
+  /**
+   * A source of entries taken from a sorted map.
+   *
+   * @param inIterator An iterator over the entries of the map, in key order
+   */
+
+  LLDatabaseLSMMapSource(
+    final Iterator<Map.Entry<String, Optional<String>>> inIterator)
+  {
+    this.iterator =
+      Objects.requireNonNull(inIterator, "iterator");
+  }
+
+  @Override
+  public boolean advance()
+  {
+    if (this.iterator.hasNext()) {
+      this.current = this.iterator.next();
+      return true;
+    }
+    this.current = null;
+    return false;
+  }
+
+  @Override
+  public String key()
+  {
+    return this.current.getKey();
+  }
+
+  @Override
+  public Optional<String> value()
+  {
+    return this.current.getValue();
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.lsm;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * A memtable: the most recent changes to the database, held in memory in key
+ * order. Each memtable other than the one created during recovery has a
+ * write-ahead log holding the same changes. A memtable is modified only by
+ * the writer; once it has been replaced by a new memtable, it never changes
+ * again.
+ */
+
+final class LLDatabaseLSMMemtable
+{
+  private static final int ENTRY_OVERHEAD = 64;
+
+  private final ConcurrentSkipListMap<String, Optional<String>> entries;
+  private final LLDatabaseLSMLog log;
+  private long bytes;
+  private long keyDelta;
+  private long sizeDelta;
+
+  /**
+   * A memtable.
+   *
+   * @param inLog The write-ahead log, or {@code null} if there is none
+   */
+
+  LLDatabaseLSMMemtable(
+    final LLDatabaseLSMLog inLog)
+  {
+    this.entries = new ConcurrentSkipListMap<>();
+    this.log = inLog;
+  }
+
+  /**
+   * Record a change.
+   *
+   * @param key       The key
+   * @param value     The value, or nothing to remove the key
+   * @param keyChange The change in the number of keys in the database
+   * @param sizeChange The change in the size of the database
+   */
+
+  void put(
+    final String key,
+    final Optional<String> value,
+    final long keyChange,
+    final long sizeChange)
+  {
+    this.entries.put(key, value);
+    this.bytes += ENTRY_OVERHEAD + 2L * (key.length() + value.map(String::length).orElse(0));
+    this.keyDelta += keyChange;
+    this.sizeDelta += sizeChange;
+  }
+
+  /**
+   * @param key The key
+   *
+   * @return The value of the entry, nothing if the entry records the removal
+   * of the key, or {@code null} if the memtable has no entry for the key
+   */
+
+  Optional<String> get(
+    final String key)
+  {
+    return this.entries.get(key);
+  }
+
+  /**
+   * @return The entries in the memtable
+   */
+
+  ConcurrentSkipListMap<String, Optional<String>> entries()
+  {
+    return this.entries;
+  }
+
+  /**
+   * @return The write-ahead log, or {@code null} if there is none
+   */
+
+  LLDatabaseLSMLog log()
+  {
+    return this.log;
+  }
+
+  /**
+   * @return The approximate memory used by the memtable
+   */
+
+  long bytes()
+  {
+    return this.bytes;
+  }
+
+  /**
+   * @return The total change in the number of keys caused by the changes in
+   * this memtable
+   */
+
+  long keyDelta()
+  {
+    return this.keyDelta;
+  }
+
+  /**
+   * @return The total change in the size of the database caused by the
+   * changes in this memtable
+   */
+
+  long sizeDelta()
+  {
+    return this.sizeDelta;
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.lsm;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * A source that merges several sources. Where more than one source has an
+ * entry for a key, the entry from the earliest source in the list wins, so
+ * the sources must be given newest first.
+ */
+
+final class LLDatabaseLSMMergeSource implements LLDatabaseLSMSourceType
+{
+  private final List<LLDatabaseLSMSourceType> sources;
+  private final boolean includeRemovals;
+  private final PriorityQueue<Ranked> queue;
+  private boolean started;
+  private String key;
+  private Optional<String> value;
+
+  private record Ranked(
+    LLDatabaseLSMSourceType source,
+    int rank)
+  {
+
+  }
+
+  /**
+   * A source that merges several sources.
+   *
+   * @param inSources         The sources, newest first
+   * @param inIncludeRemovals {@code true} if entries that record the removal
+   *                          of keys should be produced
+   */
+
+  LLDatabaseLSMMergeSource(
+    final List<LLDatabaseLSMSourceType> inSources,
+    final boolean inIncludeRemovals)
+  {
+    this.sources =
+      List.copyOf(Objects.requireNonNull(inSources, "sources"));
+    this.includeRemovals =
+      inIncludeRemovals;
+    this.queue =
+      new PriorityQueue<>(
+        Math.max(1, this.sources.size()),
+        Comparator.comparing((Ranked r) -> r.source().key())
+          .thenComparingInt(Ranked::rank)
+      );
+  }
+
+  @Override
+  public boolean advance()
+    throws IOException
+  {
+    if (!this.started) {
+      this.started = true;
+      for (int index = 0; index < this.sources.size(); ++index) {
+        final var source = this.sources.get(index);
+        if (source.advance()) {
+          this.queue.add(new Ranked(source, index));
+        }
+      }
+    }
+
+    while (!this.queue.isEmpty()) {
+      final var top = this.queue.poll();
+      final var topKey = top.source().key();
+      final var topValue = top.source().value();
+
+      while (!this.queue.isEmpty()
+        && this.queue.peek().source().key().equals(topKey)) {
+        final var shadowed = this.queue.poll();
+        if (shadowed.source().advance()) {
+          this.queue.add(shadowed);
+        }
+      }
+      if (top.source().advance()) {
+        this.queue.add(top);
+      }
+
+      if (topValue.isPresent() || this.includeRemovals) {
+        this.key = topKey;
+        this.value = topValue;
+        return true;
+      }
+    }
+
+    this.key = null;
+    this.value = null;
+    return false;
+  }
+
+  @Override
+  public String key()
+  {
+    return this.key;
+  }
+
+  @Override
+  public Optional<String> value()
+  {
+    return this.value;
+  }
+}
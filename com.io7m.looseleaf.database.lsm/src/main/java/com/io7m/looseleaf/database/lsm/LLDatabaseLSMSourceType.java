@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.lsm;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * A source of entries in ascending key order. A source is initially
+ * positioned before its first entry.
+ */
+
+interface LLDatabaseLSMSourceType
+{
+  /**
+   * Move to the next entry.
+   *
+   * @return {@code false} if there are no more entries
+   *
+   * @throws IOException On I/O errors
+   */
+
+  boolean advance()
+    throws IOException;
+
+  /**
+   * @return The key of the current entry
+   */
+
+  String key();
+
+  /**
+   * @return The value of the current entry, or nothing if the entry records
+   * the removal of the key
+   */
+
+  Optional<String> value();
+}
@@ -0,0 +1,505 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.lsm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32C;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * An immutable, sorted table of entries.
+ *
+ * <p>A table begins with a header containing a magic number and a format
+ * version, followed by the data blocks, the block index, the bloom filter,
+ * and a fixed-size footer. Each block, the index, and the bloom filter are
+ * stored as a section: the length of a payload, the CRC32C checksum of the
+ * payload, and the payload itself. A data block holds entries in ascending
+ * key order, where an entry consists of the length of its key, the length of
+ * its value, the key, and the value; a value length of {@code -1} marks an
+ * entry that records the removal of the key. The index holds the first key,
+ * offset, and size of each block. The footer holds the offsets of the index
+ * and the bloom filter, the number of entries, and the magic number
+ * again.</p>
+ *
+ * <p>The index and the bloom filter are held in memory while the table is
+ * open, so reading a key reads at most one block. Blocks are read with
+ * positional reads, so any number of threads may read a table
+ * concurrently.</p>
+ *
+ * <p>A table is reference counted. The database holds one reference for as
+ * long as the table is part of the database, and each open cursor holds a
+ * reference to each table it reads. Once a table has been replaced by a
+ * compaction and its last reference has been released, its file is
+ * closed and deleted.</p>
+ */
+
+final class LLDatabaseLSMTable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(LLDatabaseLSMTable.class);
+
+  static final long MAGIC = 0x4C4C4C534D535354L;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 12;
+  static final int SECTION_HEADER_SIZE = 8;
+  static final int FOOTER_SIZE = 32;
+
+  private final long id;
+  private final Path path;
+  private final long size;
+  private final long entries;
+  private final String[] firstKeys;
+  private final long[] offsets;
+  private final int[] lengths;
+  private final LLDatabaseLSMBloomFilter bloom;
+  private final AtomicInteger references;
+  private volatile FileChannel channel;
+  private volatile boolean obsolete;
+  private volatile boolean closed;
+
+  private LLDatabaseLSMTable(
+    final long inId,
+    final Path inPath,
+    final FileChannel inChannel,
+    final long inSize,
+    final long inEntries,
+    final String[] inFirstKeys,
+    final long[] inOffsets,
+    final int[] inLengths,
+    final LLDatabaseLSMBloomFilter inBloom)
+  {
+    this.id = inId;
+    this.path = Objects.requireNonNull(inPath, "path");
+    this.channel = Objects.requireNonNull(inChannel, "channel");
+    this.size = inSize;
+    this.entries = inEntries;
+    this.firstKeys = inFirstKeys;
+    this.offsets = inOffsets;
+    this.lengths = inLengths;
+    this.bloom = Objects.requireNonNull(inBloom, "bloom");
+    this.references = new AtomicInteger(1);
+  }
+
+  /**
+   * Open a table.
+   *
+   * @param path The table file
+   * @param id   The table number
+   *
+   * @return The table
+   *
+   * @throws IOException On I/O errors, or if the file is not a valid table
+   */
+
+  static LLDatabaseLSMTable open(
+    final Path path,
+    final long id)
+    throws IOException
+  {
+    final var channel = FileChannel.open(path, READ);
+    try {
+      final var size = channel.size();
+      if (size < HEADER_SIZE + FOOTER_SIZE) {
+        throw corrupt(path);
+      }
+
+      final var header = readFully(channel, 0L, HEADER_SIZE);
+      if (header.getLong() != MAGIC) {
+        throw new IOException("File %s is not a table.".formatted(path));
+      }
+      final var version = header.getInt();
+      if (version != VERSION) {
+        throw new IOException(
+          "Table %s has unsupported version %d (expected %d)."
+            .formatted(path, version, VERSION));
+      }
+
+      final var footer = readFully(channel, size - FOOTER_SIZE, FOOTER_SIZE);
+      final var indexOffset = footer.getLong();
+      final var bloomOffset = footer.getLong();
+      final var entries = footer.getLong();
+      final var footerOk =
+        footer.getLong() == MAGIC
+          && indexOffset >= HEADER_SIZE
+          && indexOffset < bloomOffset
+          && bloomOffset < size - FOOTER_SIZE;
+      if (!footerOk) {
+        throw corrupt(path);
+      }
+
+      final var index =
+        readSection(path, channel, indexOffset, (int) (bloomOffset - indexOffset));
+      final var bloomSection =
+        readSection(path, channel, bloomOffset, (int) (size - FOOTER_SIZE - bloomOffset));
+      final var bloom = LLDatabaseLSMBloomFilter.decode(bloomSection);
+      if (bloom == null) {
+        throw corrupt(path);
+      }
+
+      final var count = index.getInt();
+      if (count < 0) {
+        throw corrupt(path);
+      }
+      final var firstKeys = new String[count];
+      final var offsets = new long[count];
+      final var lengths = new int[count];
+      for (int i = 0; i < count; ++i) {
+        final var keyLength = index.getInt();
+        firstKeys[i] = UTF_8.decode(index.slice(index.position(), keyLength)).toString();
+        index.position(index.position() + keyLength);
+        offsets[i] = index.getLong();
+        lengths[i] = index.getInt();
+      }
+
+      return new LLDatabaseLSMTable(
+        id, path, channel, size, entries, firstKeys, offsets, lengths, bloom);
+    } catch (final IOException e) {
+      channel.close();
+      throw e;
+    } catch (final RuntimeException e) {
+      channel.close();
+      throw new IOException("Table %s is corrupt.".formatted(path), e);
+    }
+  }
+
+  private static IOException corrupt(
+    final Path path)
+  {
+    return new IOException("Table %s is corrupt.".formatted(path));
+  }
+
+  private static ByteBuffer readFully(
+    final FileChannel channel,
+    final long position,
+    final int length)
+    throws IOException
+  {
+    final var buffer = ByteBuffer.allocate(length);
+    long offset = position;
+    while (buffer.hasRemaining()) {
+      final var count = channel.read(buffer, offset);
+      if (count < 0) {
+        throw new IOException("Unexpected end of file.");
+      }
+      offset += count;
+    }
+    return buffer.flip();
+  }
+
+  private static ByteBuffer readSection(
+    final Path path,
+    final FileChannel channel,
+    final long position,
+    final int length)
+    throws IOException
+  {
+    if (length < SECTION_HEADER_SIZE) {
+      throw corrupt(path);
+    }
+
+    final var section = readFully(channel, position, length);
+    final var payloadLength = section.getInt();
+    final var expected = section.getInt();
+    if (payloadLength != length - SECTION_HEADER_SIZE) {
+      throw corrupt(path);
+    }
+
+    final var checksum = new CRC32C();
+    checksum.update(section.duplicate());
+    if ((int) checksum.getValue() != expected) {
+      throw corrupt(path);
+    }
+    return section.slice();
+  }
+
+  private ByteBuffer readBlock(
+    final int block)
+    throws IOException
+  {
+    final var current = this.channel;
+    try {
+      return readSection(this.path, current, this.offsets[block], this.lengths[block]);
+    } catch (final ClosedChannelException e) {
+      if (Thread.currentThread().isInterrupted()) {
+        throw e;
+      }
+      return readSection(this.path, this.reopen(current), this.offsets[block], this.lengths[block]);
+    }
+  }
+
+  /**
+   * A file channel is closed if a thread is interrupted while using it, so
+   * the table transparently reopens its channel if it finds the channel
+   * closed without having been closed itself.
+   */
+
+  private FileChannel reopen(
+    final FileChannel previous)
+    throws IOException
+  {
+    synchronized (this) {
+      if (this.closed) {
+        throw new ClosedChannelException();
+      }
+      if (this.channel == previous) {
+        this.channel = FileChannel.open(this.path, READ);
+      }
+      return this.channel;
+    }
+  }
+
+  /**
+   * @return The index of the last block whose first key is not greater
+   * than the given key, or {@code -1} if there is no such block
+   */
+
+  private int blockFor(
+    final String key)
+  {
+    final var found = Arrays.binarySearch(this.firstKeys, key);
+    return found >= 0 ? found : -found - 2;
+  }
+
+  /**
+   * Look up the entry for a key.
+   *
+   * @param key  The key
+   * @param hash The hash of the key, from
+   *             {@link LLDatabaseLSMBloomFilter#hashOf(String)}
+   *
+   * @return The value of the entry, nothing if the entry records the removal
+   * of the key, or {@code null} if the table has no entry for the key
+   *
+   * @throws IOException On I/O errors
+   */
+
+  Optional<String> get(
+    final String key,
+    final long hash)
+    throws IOException
+  {
+    if (!this.bloom.mightContain(hash)) {
+      return null;
+    }
+
+    final var block = this.blockFor(key);
+    if (block < 0) {
+      return null;
+    }
+
+    final var data = this.readBlock(block);
+    while (data.hasRemaining()) {
+      final var keyLength = data.getInt();
+      final var valueLength = data.getInt();
+      final var entryKey =
+        UTF_8.decode(data.slice(data.position(), keyLength)).toString();
+      data.position(data.position() + keyLength);
+
+      final var order = entryKey.compareTo(key);
+      if (order == 0) {
+        if (valueLength < 0) {
+          return Optional.empty();
+        }
+        return Optional.of(
+          UTF_8.decode(data.slice(data.position(), valueLength)).toString());
+      }
+      if (order > 0) {
+        return null;
+      }
+      data.position(data.position() + Math.max(valueLength, 0));
+    }
+    return null;
+  }
+
+  /**
+   * @param fromExclusive The key after which to start, or {@code null} to
+   *                      start at the first entry
+   *
+   * @return A source of the entries of the table
+   */
+
+  LLDatabaseLSMSourceType source(
+    final String fromExclusive)
+  {
+    return new Source(fromExclusive);
+  }
+
+  private final class Source implements LLDatabaseLSMSourceType
+  {
+    private final String from;
+    private int block;
+    private ByteBuffer data;
+    private String key;
+    private Optional<String> value;
+
+    Source(
+      final String inFrom)
+    {
+      this.from = inFrom;
+      this.block = inFrom == null ? 0 : Math.max(0, LLDatabaseLSMTable.this.blockFor(inFrom));
+    }
+
+    @Override
+    public boolean advance()
+      throws IOException
+    {
+      while (true) {
+        if (this.data == null || !this.data.hasRemaining()) {
+          if (this.block >= LLDatabaseLSMTable.this.firstKeys.length) {
+            this.key = null;
+            this.value = null;
+            return false;
+          }
+          this.data = LLDatabaseLSMTable.this.readBlock(this.block);
+          ++this.block;
+          continue;
+        }
+
+        final var keyLength = this.data.getInt();
+        final var valueLength = this.data.getInt();
+        final var entryKey =
+          UTF_8.decode(this.data.slice(this.data.position(), keyLength)).toString();
+        this.data.position(this.data.position() + keyLength);
+
+        if (valueLength < 0) {
+          this.value = Optional.empty();
+        } else {
+          this.value = Optional.of(
+            UTF_8.decode(this.data.slice(this.data.position(), valueLength)).toString());
+          this.data.position(this.data.position() + valueLength);
+        }
+
+        if (this.from == null || entryKey.compareTo(this.from) > 0) {
+          this.key = entryKey;
+          return true;
+        }
+      }
+    }
+
+    @Override
+    public String key()
+    {
+      return this.key;
+    }
+
+    @Override
+    public Optional<String> value()
+    {
+      return this.value;
+    }
+  }
+
+  /**
+   * @return The table number
+   */
+
+  long id()
+  {
+    return this.id;
+  }
+
+  /**
+   * @return The size of the table file in bytes
+   */
+
+  long size()
+  {
+    return this.size;
+  }
+
+  /**
+   * @return The number of entries in the table
+   */
+
+  long entries()
+  {
+    return this.entries;
+  }
+
+  /**
+   * Acquire a reference to the table.
+   *
+   * @return {@code false} if the table has already been released
+   */
+
+  boolean acquire()
+  {
+    while (true) {
+      final var current = this.references.get();
+      if (current == 0) {
+        return false;
+      }
+      if (this.references.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Release a reference to the table, closing it (and deleting it, if it is
+   * obsolete) if that was the last reference.
+   */
+
+  void release()
+  {
+    if (this.references.decrementAndGet() != 0) {
+      return;
+    }
+
+    synchronized (this) {
+      this.closed = true;
+      try {
+        this.channel.close();
+      } catch (final IOException e) {
+        LOG.error("failed to close table {}: ", this.path, e);
+      }
+    }
+
+    if (this.obsolete) {
+      try {
+        Files.deleteIfExists(this.path);
+      } catch (final IOException e) {
+        LOG.error("failed to delete table {}: ", this.path, e);
+      }
+    }
+  }
+
+  /**
+   * Mark the table as no longer part of the database, and release the
+   * database's reference to it.
+   */
+
+  void retire()
+  {
+    this.obsolete = true;
+    this.release();
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.lsm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.zip.CRC32C;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Functions to write tables. See {@link LLDatabaseLSMTable} for the format.
+ */
+
+final class LLDatabaseLSMTableWriter
+{
+  private final FileChannel channel;
+  private final int blockSize;
+  private final LLDatabaseLSMBloomFilter bloom;
+  private final ArrayList<byte[]> firstKeys;
+  private final ArrayList<long[]> locations;
+  private final CRC32C checksum;
+  private ByteBuffer block;
+  private byte[] blockFirstKey;
+  private long position;
+  private long entries;
+
+  private LLDatabaseLSMTableWriter(
+    final FileChannel inChannel,
+    final int inBlockSize,
+    final LLDatabaseLSMBloomFilter inBloom)
+  {
+    this.channel = inChannel;
+    this.blockSize = inBlockSize;
+    this.bloom = inBloom;
+    this.firstKeys = new ArrayList<>();
+    this.locations = new ArrayList<>();
+    this.checksum = new CRC32C();
+    this.block = ByteBuffer.allocate(inBlockSize + 1024);
+    this.block.position(LLDatabaseLSMTable.SECTION_HEADER_SIZE);
+  }
+
+  /**
+   * Write a table containing every entry of the given source, including
+   * entries that record removals. The table is flushed to stable storage
+   * before returning.
+   *
+   * @param path          The new table file
+   * @param source        The source of entries
+   * @param expectedKeys  The expected number of entries, used to size the
+   *                      bloom filter
+   * @param configuration The database tuning parameters
+   *
+   * @return The number of entries written
+   *
+   * @throws IOException On I/O errors
+   */
+
+  static long write(
+    final Path path,
+    final LLDatabaseLSMSourceType source,
+    final long expectedKeys,
+    final LLDatabaseLSMConfiguration configuration)
+    throws IOException
+  {
+    try (var channel = FileChannel.open(path, CREATE_NEW, WRITE)) {
+      final var writer =
+        new LLDatabaseLSMTableWriter(
+          channel,
+          configuration.blockSize(),
+          LLDatabaseLSMBloomFilter.create(
+            expectedKeys,
+            configuration.bloomBitsPerKey()
+          )
+        );
+      writer.writeHeader();
+      while (source.advance()) {
+        writer.add(source.key(), source.value().orElse(null));
+      }
+      writer.finish();
+      channel.force(true);
+      return writer.entries;
+    }
+  }
+
+  private void writeHeader()
+    throws IOException
+  {
+    final var header = ByteBuffer.allocate(LLDatabaseLSMTable.HEADER_SIZE);
+    header.putLong(LLDatabaseLSMTable.MAGIC);
+    header.putInt(LLDatabaseLSMTable.VERSION);
+    header.flip();
+    this.writeFully(header);
+  }
+
+  private void add(
+    final String key,
+    final String value)
+    throws IOException
+  {
+    final var k = key.getBytes(UTF_8);
+    final var v = value == null ? null : value.getBytes(UTF_8);
+    final var size = 8 + k.length + (v == null ? 0 : v.length);
+
+    if (this.block.remaining() < size) {
+      final var next =
+        ByteBuffer.allocate(Math.max(this.block.capacity() * 2, this.block.position() + size));
+      this.block.flip();
+      next.put(this.block);
+      this.block = next;
+    }
+
+    if (this.blockFirstKey == null) {
+      this.blockFirstKey = k;
+    }
+
+    this.block.putInt(k.length);
+    this.block.putInt(v == null ? -1 : v.length);
+    this.block.put(k);
+    if (v != null) {
+      this.block.put(v);
+    }
+
+    this.bloom.add(LLDatabaseLSMBloomFilter.hashOf(key));
+    ++this.entries;
+
+    if (this.block.position() >= this.blockSize) {
+      this.flushBlock();
+    }
+  }
+
+  private void flushBlock()
+    throws IOException
+  {
+    if (this.blockFirstKey == null) {
+      return;
+    }
+
+    final var start = this.position;
+    final var length = this.writeSection(this.block);
+    this.firstKeys.add(this.blockFirstKey);
+    this.locations.add(new long[]{start, length});
+    this.blockFirstKey = null;
+    this.block.clear();
+    this.block.position(LLDatabaseLSMTable.SECTION_HEADER_SIZE);
+  }
+
+  /**
+   * Write a section whose payload begins after the section header in the
+   * given buffer, filling in the header.
+   */
+
+  private int writeSection(
+    final ByteBuffer section)
+    throws IOException
+  {
+    final var length = section.position() - LLDatabaseLSMTable.SECTION_HEADER_SIZE;
+    this.checksum.reset();
+    this.checksum.update(
+      section.array(),
+      LLDatabaseLSMTable.SECTION_HEADER_SIZE,
+      length
+    );
+    section.putInt(0, length);
+    section.putInt(4, (int) this.checksum.getValue());
+    section.flip();
+    final var total = section.remaining();
+    this.writeFully(section);
+    return total;
+  }
+
+  private void finish()
+    throws IOException
+  {
+    this.flushBlock();
+
+    int indexSize = LLDatabaseLSMTable.SECTION_HEADER_SIZE + 4;
+    for (final var key : this.firstKeys) {
+      indexSize += 4 + key.length + 8 + 4;
+    }
+
+    final var index = ByteBuffer.allocate(indexSize);
+    index.position(LLDatabaseLSMTable.SECTION_HEADER_SIZE);
+    index.putInt(this.firstKeys.size());
+    for (int i = 0; i < this.firstKeys.size(); ++i) {
+      final var key = this.firstKeys.get(i);
+      final var location = this.locations.get(i);
+      index.putInt(key.length);
+      index.put(key);
+      index.putLong(location[0]);
+      index.putInt((int) location[1]);
+    }
+
+    final var indexOffset = this.position;
+    this.writeSection(index);
+
+    final var bloomBuffer =
+      ByteBuffer.allocate(LLDatabaseLSMTable.SECTION_HEADER_SIZE + this.bloom.encodedSize());
+    bloomBuffer.position(LLDatabaseLSMTable.SECTION_HEADER_SIZE);
+    this.bloom.encode(bloomBuffer);
+
+    final var bloomOffset = this.position;
+    this.writeSection(bloomBuffer);
+
+    final var footer = ByteBuffer.allocate(LLDatabaseLSMTable.FOOTER_SIZE);
+    footer.putLong(indexOffset);
+    footer.putLong(bloomOffset);
+    footer.putLong(this.entries);
+    footer.putLong(LLDatabaseLSMTable.MAGIC);
+    footer.flip();
+    this.writeFully(footer);
+  }
+
+  private void writeFully(
+    final ByteBuffer buffer)
+    throws IOException
+  {
+    while (buffer.hasRemaining()) {
+      this.position += this.channel.write(buffer, this.position);
+    }
+  }
+}
@@ -0,0 +1,650 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.memory;
+
+import com.io7m.looseleaf.database.api.LLDatabaseCursorType;
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.api.LLDatabaseScan;
+import com.io7m.looseleaf.database.api.LLDatabaseScanResult;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+import com.io7m.looseleaf.security.LLKeyName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * A database that holds every entry in memory, and persists changes to an
+ * append-only log.
+ *
+ * <p>Entries are held in a concurrent sorted map, so single-key reads never
+ * block. Operations that write are serialized: each operation appends a
+ * checksummed record of its changes to the log before applying the changes
+ * to the map, so an operation that fails to reach the log has no effect.
+ * Operations that read several keys use an optimistic read that is retried
+ * under a read lock if a write overlapped it, so they never observe a
+ * partially applied operation.</p>
+ *
+ * <p>When the log grows beyond the configured size, writes move to a new
+ * log of the next generation, and a background thread writes a snapshot of
+ * the map. The snapshot is taken without stopping writers, so it may contain
+ * changes that are also in the new log; as every change in the log assigns
+ * or removes a whole value, replaying the new log on top of the snapshot
+ * always yields the correct contents. Once the snapshot is complete, the
+ * older logs are deleted. On startup, the database loads the snapshot and
+ * replays the logs that follow it.</p>
+ *
+ * <p>Every operation that writes is assigned a version number, and a cursor
+ * observes the contents of the map as of the version that was current when
+ * the cursor was opened. While any cursor is open, each write first records
+ * the value that it is about to replace in a per-key history, much as an
+ * LSM tree keeps a frozen memtable readable while a new one receives writes.
+ * A cursor reads the live map, and consults the history only for keys that
+ * have changed since it was opened. The history therefore holds only the
+ * changes made while cursors are open, and it is discarded when the last
+ * cursor is closed.</p>
+ */
+
+public final class LLDatabaseMemory
+  implements LLDatabaseType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(LLDatabaseMemory.class);
+
+  private final LLDatabaseMemoryFiles files;
+  private final LLDatabaseMemoryConfiguration configuration;
+  private final ConcurrentSkipListMap<String, String> map;
+  private final StampedLock lock;
+  private final AtomicBoolean closed;
+  private final AtomicBoolean snapshotting;
+  private final AtomicLong keyCount;
+  private final AtomicLong dataSize;
+  private final ExecutorService snapshotExecutor;
+  private final ConcurrentSkipListMap<String, Change> history;
+  private final ConcurrentSkipListMap<Long, Integer> cursorVersions;
+  private LLDatabaseMemoryLog log;
+  private long version;
+
+  private LLDatabaseMemory(
+    final LLDatabaseMemoryFiles inFiles,
+    final LLDatabaseMemoryConfiguration inConfiguration,
+    final ConcurrentSkipListMap<String, String> inMap,
+    final LLDatabaseMemoryLog inLog)
+  {
+    this.files =
+      Objects.requireNonNull(inFiles, "files");
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.map =
+      Objects.requireNonNull(inMap, "map");
+    this.log =
+      Objects.requireNonNull(inLog, "log");
+    this.lock =
+      new StampedLock();
+    this.closed =
+      new AtomicBoolean(false);
+    this.snapshotting =
+      new AtomicBoolean(false);
+
+    this.history =
+      new ConcurrentSkipListMap<>();
+    this.cursorVersions =
+      new ConcurrentSkipListMap<>();
+
+    long size = 0L;
+    for (final var value : inMap.values()) {
+      size += value.length();
+    }
+    this.keyCount =
+      new AtomicLong(inMap.size());
+    this.dataSize =
+      new AtomicLong(size);
+
+    this.snapshotExecutor =
+      Executors.newSingleThreadExecutor(runnable -> {
+        final var thread = new Thread(runnable);
+        thread.setName("com.io7m.looseleaf.database.memory.snapshot");
+        thread.setDaemon(true);
+        return thread;
+      });
+  }
+
+  /**
+   * Open a database, recovering its contents from the most recent snapshot
+   * and the logs that follow it.
+   *
+   * @param file          The database file
+   * @param configuration The database tuning parameters
+   *
+   * @return A database
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static LLDatabaseMemory open(
+    final Path file,
+    final LLDatabaseMemoryConfiguration configuration)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(configuration, "configuration");
+
+    final var files = new LLDatabaseMemoryFiles(file);
+    Files.deleteIfExists(files.snapshotTemporary());
+
+    final var map = new ConcurrentSkipListMap<String, String>();
+    long generation = 0L;
+    if (Files.exists(files.snapshot())) {
+      generation = LLDatabaseMemorySnapshot.read(files.snapshot(), map::put);
+    }
+
+    files.deleteLogsBefore(generation);
+    final var log = recoverLogs(files, generation, map);
+    LOG.debug(
+      "opened {} with {} keys at log generation {}",
+      files.snapshot(),
+      Integer.valueOf(map.size()),
+      Long.valueOf(log.generation())
+    );
+    return new LLDatabaseMemory(files, configuration, map, log);
+  }
+
+  private static LLDatabaseMemoryLog recoverLogs(
+    final LLDatabaseMemoryFiles files,
+    final long generation,
+    final ConcurrentSkipListMap<String, String> map)
+    throws IOException
+  {
+    final var logs = files.logs();
+    if (logs.isEmpty()) {
+      final var log =
+        LLDatabaseMemoryLog.create(files.log(generation), generation);
+      files.syncDirectory();
+      return log;
+    }
+
+    final LLDatabaseMemoryLog.ChangeReceiverType receiver = (key, value) -> {
+      if (value == null) {
+        map.remove(key);
+      } else {
+        map.put(key, value);
+      }
+    };
+
+    /*
+     * Only the most recent log can end with an incomplete record, because
+     * writes move to a new log only after the last append to the old log
+     * has completed.
+     */
+
+    final var last = logs.lastKey();
+    for (final var path : logs.headMap(last).values()) {
+      if (LLDatabaseMemoryLog.replay(path, receiver).torn()) {
+        throw new IOException(
+          "Log %s is corrupt; only the most recent log may be incomplete."
+            .formatted(path));
+      }
+    }
+
+    final var lastPath = logs.get(last);
+    final var replayed = LLDatabaseMemoryLog.replay(lastPath, receiver);
+    if (replayed.torn()) {
+      LOG.warn(
+        "discarding {} bytes of incomplete data at the end of {}",
+        Long.valueOf(Files.size(lastPath) - replayed.size()),
+        lastPath
+      );
+    }
+
+    if (replayed.size() == 0L) {
+      Files.delete(lastPath);
+      return LLDatabaseMemoryLog.create(lastPath, last.longValue());
+    }
+    return LLDatabaseMemoryLog.openForAppend(
+      lastPath,
+      last.longValue(),
+      replayed.size()
+    );
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      final var stamp = this.lock.writeLock();
+      try {
+        this.snapshotExecutor.shutdown();
+        this.snapshotExecutor.awaitTermination(1L, TimeUnit.HOURS);
+        this.log.close();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      } finally {
+        this.lock.unlockWrite(stamp);
+      }
+    }
+  }
+
+  @Override
+  public long dataSizeApproximate()
+  {
+    return this.dataSize.get();
+  }
+
+  @Override
+  public long keyCountApproximate()
+  {
+    return this.keyCount.get();
+  }
+
+  @Override
+  public boolean isClosed()
+  {
+    return this.closed.get();
+  }
+
+  @Override
+  public Map<LLKeyName, String> readUpdateDelete(
+    final LLDatabaseRUD rud)
+    throws IOException
+  {
+    Objects.requireNonNull(rud, "rud");
+
+    final var record = LLDatabaseMemoryLog.encode(rud);
+    final var stamp = this.lock.writeLock();
+    try {
+      if (this.closed.get()) {
+        throw new IOException("Database is closed.");
+      }
+
+      final var results = new TreeMap<LLKeyName, String>();
+      for (final var k : rud.read()) {
+        final var v = this.map.get(k.value());
+        if (v != null) {
+          results.put(k, v);
+        }
+      }
+
+      if (record != null) {
+        this.log.append(record, this.configuration.synchronousCommit());
+        ++this.version;
+        this.apply(rud);
+        this.snapshotIfNecessary();
+      }
+      return results;
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  private void apply(
+    final LLDatabaseRUD rud)
+  {
+    for (final var e : rud.update().entrySet()) {
+      final var k = e.getKey().value();
+      final var v = e.getValue();
+      this.remember(k);
+      final var previous = this.map.put(k, v);
+      if (previous == null) {
+        this.keyCount.incrementAndGet();
+        this.dataSize.addAndGet(v.length());
+      } else {
+        this.dataSize.addAndGet(v.length() - previous.length());
+      }
+    }
+
+    for (final var key : rud.delete()) {
+      final var k = key.value();
+      this.remember(k);
+      final var previous = this.map.remove(k);
+      if (previous != null) {
+        this.keyCount.decrementAndGet();
+        this.dataSize.addAndGet(-previous.length());
+      }
+    }
+  }
+
+  /**
+   * Record the current value of a key in the history before the key is
+   * changed by the current version, if any cursor might need to see it.
+   * Must be called with the write lock held. The history is updated before
+   * the map, so a cursor that observes the new value in the map is
+   * guaranteed to find the replaced value in the history.
+   */
+
+  private void remember(
+    final String key)
+  {
+    if (this.cursorVersions.isEmpty()) {
+      return;
+    }
+    this.history.put(
+      key,
+      new Change(this.version, this.map.get(key), this.history.get(key))
+    );
+  }
+
+  /**
+   * Move writes to a new log and start a snapshot if the current log has
+   * grown too large. Must be called with the write lock held. The operation
+   * that triggered the snapshot has already committed, so failures here are
+   * logged rather than reported to the caller, and the current log simply
+   * continues to grow until a later attempt succeeds.
+   */
+
+  private void snapshotIfNecessary()
+  {
+    if (this.log.size() < this.configuration.snapshotLogSize()) {
+      return;
+    }
+    if (!this.snapshotting.compareAndSet(false, true)) {
+      return;
+    }
+
+    final var generation = this.log.generation() + 1L;
+    try {
+      final var next =
+        LLDatabaseMemoryLog.create(this.files.log(generation), generation);
+      this.files.syncDirectory();
+
+      final var previous = this.log;
+      this.log = next;
+      previous.close();
+    } catch (final IOException e) {
+      LOG.error("failed to start log generation {}: ", Long.valueOf(generation), e);
+      this.snapshotting.set(false);
+      return;
+    }
+
+    this.snapshotExecutor.execute(() -> this.snapshot(generation));
+  }
+
+  private void snapshot(
+    final long generation)
+  {
+    try {
+      final var size =
+        LLDatabaseMemorySnapshot.write(this.files, generation, this.map.entrySet());
+      this.files.deleteLogsBefore(generation);
+      LOG.debug(
+        "wrote snapshot of {} bytes for log generation {}",
+        Long.valueOf(size),
+        Long.valueOf(generation)
+      );
+    } catch (final IOException e) {
+      LOG.error("failed to write snapshot for log generation {}: ", Long.valueOf(generation), e);
+    } finally {
+      this.snapshotting.set(false);
+    }
+  }
+
+  /**
+   * Evaluate a function that reads several entries, such that the function
+   * observes either all or none of the changes made by each operation. The
+   * function is first evaluated without locking, and is evaluated again
+   * under the read lock if a write was in progress at any point.
+   */
+
+  private <T> T readConsistent(
+    final Supplier<T> reader)
+  {
+    final var optimistic = this.lock.tryOptimisticRead();
+    if (optimistic != 0L) {
+      final var result = reader.get();
+      if (this.lock.validate(optimistic)) {
+        return result;
+      }
+    }
+
+    final var stamp = this.lock.readLock();
+    try {
+      return reader.get();
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public Optional<String> get(
+    final LLKeyName key)
+  {
+    Objects.requireNonNull(key, "key");
+    return Optional.ofNullable(this.map.get(key.value()));
+  }
+
+  @Override
+  public Map<LLKeyName, String> getMany(
+    final Set<LLKeyName> keys)
+  {
+    Objects.requireNonNull(keys, "keys");
+
+    return this.readConsistent(() -> {
+      final var results = new TreeMap<LLKeyName, String>();
+      for (final var k : keys) {
+        final var v = this.map.get(k.value());
+        if (v != null) {
+          results.put(k, v);
+        }
+      }
+      return results;
+    });
+  }
+
+  @Override
+  public LLDatabaseScanResult scan(
+    final LLDatabaseScan scan)
+  {
+    Objects.requireNonNull(scan, "scan");
+    return this.readConsistent(() -> this.scanUnlocked(scan));
+  }
+
+  private LLDatabaseScanResult scanUnlocked(
+    final LLDatabaseScan scan)
+  {
+    final var range =
+      this.map.subMap(
+        scan.lowerBoundExclusive(),
+        false,
+        scan.upperBoundExclusive(),
+        false
+      );
+
+    final var keys = new ArrayList<LLKeyName>(Math.min(scan.limit(), 64));
+    final var values = new HashMap<LLKeyName, String>();
+    for (final var entry : range.entrySet()) {
+      if (keys.size() == scan.limit()) {
+        final var last = keys.get(keys.size() - 1);
+        return new LLDatabaseScanResult(keys, values, Optional.of(last));
+      }
+
+      final var key = LLKeyName.create(entry.getKey());
+      keys.add(key);
+      if (scan.includeValues()) {
+        values.put(key, entry.getValue());
+      }
+    }
+    return new LLDatabaseScanResult(keys, values, Optional.empty());
+  }
+
+  @Override
+  public LLDatabaseCursorType cursor()
+  {
+    /*
+     * The version is read and registered under the read lock, so no write
+     * can be in progress, and every later write sees the registration and
+     * records the values that it replaces.
+     */
+
+    final var stamp = this.lock.readLock();
+    try {
+      final var current = this.version;
+      this.cursorVersions.merge(Long.valueOf(current), Integer.valueOf(1), Integer::sum);
+      return new LLDatabaseMemoryCursor(this, current);
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * @param key The previous key
+   *
+   * @return The least key greater than {@code key} that exists now, or that
+   * has existed since the oldest open cursor was opened, or {@code null}
+   */
+
+  String keyAfter(
+    final String key)
+  {
+    final var live = this.map.higherKey(key);
+    final var changed = this.history.higherKey(key);
+    if (live == null) {
+      return changed;
+    }
+    if (changed == null) {
+      return live;
+    }
+    return live.compareTo(changed) <= 0 ? live : changed;
+  }
+
+  /**
+   * @param key       The key
+   * @param atVersion The version
+   *
+   * @return The value of the key as of the given version, or {@code null}
+   */
+
+  String valueAt(
+    final String key,
+    final long atVersion)
+  {
+    /*
+     * The map must be read before the history: a write that has replaced
+     * the value in the map has already recorded the old value.
+     */
+
+    final var current = this.map.get(key);
+    var change = this.history.get(key);
+    Change oldest = null;
+    while (change != null && change.version() > atVersion) {
+      oldest = change;
+      change = change.older();
+    }
+    return oldest == null ? current : oldest.previous();
+  }
+
+  /**
+   * Close a cursor, and discard the parts of the history that no remaining
+   * cursor can observe.
+   *
+   * @param atVersion The version of the cursor
+   */
+
+  void closeCursor(
+    final long atVersion)
+  {
+    final var stamp = this.lock.writeLock();
+    try {
+      this.cursorVersions.computeIfPresent(
+        Long.valueOf(atVersion),
+        (v, count) -> count.intValue() == 1 ? null : Integer.valueOf(count.intValue() - 1)
+      );
+
+      final var oldest = this.cursorVersions.firstEntry();
+      if (oldest == null) {
+        this.history.clear();
+        return;
+      }
+
+      final var minimum = oldest.getKey().longValue();
+      for (final var entry : this.history.entrySet()) {
+        final var pruned = Change.pruneAtOrBefore(entry.getValue(), minimum);
+        if (pruned == null) {
+          this.history.remove(entry.getKey());
+        } else if (pruned != entry.getValue()) {
+          this.history.put(entry.getKey(), pruned);
+        }
+      }
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * A value replaced by a write, and the older changes to the same key.
+   *
+   * @param version  The version of the write that replaced the value
+   * @param previous The replaced value, or {@code null} if the key did not exist
+   * @param older    The older changes, or {@code null}
+   */
+
+  private record Change(
+    long version,
+    String previous,
+    Change older)
+  {
+    /**
+     * Remove the changes made at or before the given version, which no open
+     * cursor can observe. The changes are immutable, so cursors that are
+     * reading the existing chain are unaffected.
+     */
+
+    static Change pruneAtOrBefore(
+      final Change change,
+      final long atVersion)
+    {
+      /*
+       * Versions decrease along the chain, so the changes to keep form a
+       * prefix of the chain. The prefix is copied only if anything follows it.
+       */
+
+      final var kept = new ArrayList<Change>();
+      var current = change;
+      while (current != null && current.version > atVersion) {
+        kept.add(current);
+        current = current.older;
+      }
+      if (current == null) {
+        return change;
+      }
+
+      Change result = null;
+      for (int index = kept.size() - 1; index >= 0; --index) {
+        final var c = kept.get(index);
+        result = new Change(c.version, c.previous, result);
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.memory;
+
+/**
+ * Tuning parameters for in-memory databases.
+ *
+ * @param synchronousCommit {@code true} if each commit must be flushed to
+ *                          stable storage before it completes
+ * @param snapshotLogSize   The size in bytes that the log may reach before a
+ *                          new snapshot is written
+ */
+
+public record LLDatabaseMemoryConfiguration(
+  boolean synchronousCommit,
+  long snapshotLogSize)
+{
+  /**
+   * Tuning parameters for in-memory databases.
+   *
+   * @param synchronousCommit {@code true} if each commit must be flushed to
+   *                          stable storage before it completes
+   * @param snapshotLogSize   The size in bytes that the log may reach before a
+   *                          new snapshot is written
+   */
+
+  public LLDatabaseMemoryConfiguration
+  {
+    if (snapshotLogSize <= 0L) {
+      throw new IllegalArgumentException(
+        "Snapshot log size %d must be positive".formatted(snapshotLogSize));
+    }
+  }
+
+  /**
+   * @return The default configuration
+   */
+
+  public static LLDatabaseMemoryConfiguration defaults()
+  {
+    return new LLDatabaseMemoryConfiguration(
+      true,
+      67_108_864L
+    );
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.memory;
+
+import com.io7m.looseleaf.database.api.LLDatabaseCursorType;
+import com.io7m.looseleaf.security.LLKeyName;
+
+import java.util.Objects;
+
+/**
+ * A cursor over the entries of an in-memory database as of a given version.
+ * The cursor walks the live map in key order, so opening a cursor copies
+ * nothing; values changed after the cursor was opened are recovered from
+ * the database's history.
+ */
+
+final class LLDatabaseMemoryCursor implements LLDatabaseCursorType
+{
+  private final LLDatabaseMemory database;
+  private final long version;
+  private String position;
+  private LLKeyName key;
+  private String value;
+  private boolean closed;
+
+  /**
+   * A cursor over the entries of an in-memory database as of a given version.
+   *
+   * @param inDatabase The database
+   * @param inVersion  The version
+   */
+
+  LLDatabaseMemoryCursor(
+    final LLDatabaseMemory inDatabase,
+    final long inVersion)
+  {
+    this.database =
+      Objects.requireNonNull(inDatabase, "database");
+    this.version =
+      inVersion;
+    this.position =
+      "";
+  }
+
+  @Override
+  public boolean next()
+  {
+    if (this.closed) {
+      throw new IllegalStateException("Cursor is closed.");
+    }
+
+    while (this.position != null) {
+      this.position = this.database.keyAfter(this.position);
+      if (this.position != null) {
+        final var v = this.database.valueAt(this.position, this.version);
+        if (v != null) {
+          this.key = LLKeyName.create(this.position);
+          this.value = v;
+          return true;
+        }
+      }
+    }
+
+    this.key = null;
+    this.value = null;
+    return false;
+  }
+
+  @Override
+  public LLKeyName key()
+  {
+    if (this.key == null) {
+      throw new IllegalStateException("Cursor does not point at an entry.");
+    }
+    return this.key;
+  }
+
+  @Override
+  public String value()
+  {
+    if (this.value == null) {
+      throw new IllegalStateException("Cursor does not point at an entry.");
+    }
+    return this.value;
+  }
+
+  @Override
+  public void close()
+  {
+    if (!this.closed) {
+      this.closed = true;
+      this.key = null;
+      this.value = null;
+      this.database.closeCursor(this.version);
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.memory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * The files that make up an in-memory database. Given a database file
+ * {@code f}, the most recent snapshot is stored in {@code f} itself, a
+ * snapshot that is being written is stored in {@code f.tmp}, and the log of
+ * generation {@code g} is stored in {@code f.g.log}, where {@code g} is
+ * written as sixteen hexadecimal digits so that logs sort by generation.
+ */
+
+final class LLDatabaseMemoryFiles
+{
+  private final Path snapshot;
+  private final Path snapshotTemporary;
+  private final Path directory;
+  private final String logPrefix;
+
+  /**
+   * The files that make up an in-memory database.
+   *
+   * @param file The database file
+   */
+
+  LLDatabaseMemoryFiles(
+    final Path file)
+  {
+    this.snapshot =
+      Objects.requireNonNull(file, "file").toAbsolutePath();
+    this.directory =
+      this.snapshot.getParent();
+    this.snapshotTemporary =
+      this.directory.resolve(this.snapshot.getFileName() + ".tmp");
+    this.logPrefix =
+      this.snapshot.getFileName() + ".";
+  }
+
+  /**
+   * @return The snapshot file
+   */
+
+  Path snapshot()
+  {
+    return this.snapshot;
+  }
+
+  /**
+   * @return The file used to write a new snapshot
+   */
+
+  Path snapshotTemporary()
+  {
+    return this.snapshotTemporary;
+  }
+
+  /**
+   * @param generation The log generation
+   *
+   * @return The log file for the given generation
+   */
+
+  Path log(
+    final long generation)
+  {
+    return this.directory.resolve(
+      "%s%016x.log".formatted(this.logPrefix, generation)
+    );
+  }
+
+  /**
+   * @return The existing log files, by generation
+   *
+   * @throws IOException On I/O errors
+   */
+
+  TreeMap<Long, Path> logs()
+    throws IOException
+  {
+    final var results = new TreeMap<Long, Path>();
+    try (var stream = Files.list(this.directory)) {
+      for (final var path : stream.toList()) {
+        final var name = path.getFileName().toString();
+        if (!name.startsWith(this.logPrefix) || !name.endsWith(".log")) {
+          continue;
+        }
+
+        final var digits =
+          name.substring(this.logPrefix.length(), name.length() - 4);
+        if (digits.length() != 16) {
+          continue;
+        }
+
+        try {
+          results.put(Long.parseUnsignedLong(digits, 16), path);
+        } catch (final NumberFormatException e) {
+          // Not a log file.
+        }
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Delete every log file older than the given generation.
+   *
+   * @param generation The oldest generation to keep
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void deleteLogsBefore(
+    final long generation)
+    throws IOException
+  {
+    for (final var path : this.logs().headMap(generation).values()) {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  /**
+   * Flush the directory containing the database files to stable storage, so
+   * that newly created and renamed files survive a crash. Not all platforms
+   * allow directories to be opened, so failures are ignored.
+   */
+
+  void syncDirectory()
+  {
+    try (var channel = FileChannel.open(this.directory, READ)) {
+      channel.force(true);
+    } catch (final IOException e) {
+      // Not supported on this platform.
+    }
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.memory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Snapshots of the contents of an in-memory database.
+ *
+ * <p>A snapshot begins with a header containing a magic number, a format
+ * version, and the generation of the first log that must be replayed on top
+ * of the snapshot. The header is followed by the entries, each preceded by a
+ * nonzero marker byte, and then a zero byte, the number of entries, and the
+ * CRC32C checksum of everything that precedes the checksum.</p>
+ *
+ * <p>Snapshots are written to a temporary file that atomically replaces the
+ * previous snapshot once it is complete, so a crash while a snapshot is
+ * being written leaves the previous snapshot intact.</p>
+ */
+
+final class LLDatabaseMemorySnapshot
+{
+  private static final long MAGIC = 0x4C4C4D454D534E50L;
+  private static final int VERSION = 1;
+  private static final int BUFFER_SIZE = 65536;
+
+  private LLDatabaseMemorySnapshot()
+  {
+
+  }
+
+  /**
+   * A function that receives each entry in a snapshot.
+   */
+
+  @FunctionalInterface
+  interface EntryReceiverType
+  {
+    /**
+     * Receive an entry.
+     *
+     * @param key   The key
+     * @param value The value
+     */
+
+    void receive(String key, String value);
+  }
+
+  /**
+   * Write a snapshot.
+   *
+   * @param files      The database files
+   * @param generation The generation of the first log to replay on top of
+   *                   the snapshot
+   * @param entries    The entries
+   *
+   * @return The size of the snapshot in bytes
+   *
+   * @throws IOException On I/O errors
+   */
+
+  static long write(
+    final LLDatabaseMemoryFiles files,
+    final long generation,
+    final Iterable<Map.Entry<String, String>> entries)
+    throws IOException
+  {
+    final var temporary = files.snapshotTemporary();
+    try (var channel =
+           FileChannel.open(temporary, CREATE, TRUNCATE_EXISTING, WRITE)) {
+      final var checked =
+        new CheckedOutputStream(
+          new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE),
+          new CRC32C()
+        );
+      final var output = new DataOutputStream(checked);
+      output.writeLong(MAGIC);
+      output.writeInt(VERSION);
+      output.writeLong(generation);
+
+      long count = 0L;
+      for (final var entry : entries) {
+        output.writeByte(1);
+        writeString(output, entry.getKey());
+        writeString(output, entry.getValue());
+        ++count;
+      }
+
+      output.writeByte(0);
+      output.writeLong(count);
+      output.writeInt((int) checked.getChecksum().getValue());
+      output.flush();
+      channel.force(true);
+    }
+
+    final var size = Files.size(temporary);
+    Files.move(temporary, files.snapshot(), ATOMIC_MOVE, REPLACE_EXISTING);
+    files.syncDirectory();
+    return size;
+  }
+
+  /**
+   * Read a snapshot.
+   *
+   * @param file     The snapshot file
+   * @param receiver The receiver of entries
+   *
+   * @return The generation of the first log to replay on top of the snapshot
+   *
+   * @throws IOException On I/O errors, or if the snapshot is corrupt
+   */
+
+  static long read(
+    final Path file,
+    final EntryReceiverType receiver)
+    throws IOException
+  {
+    try (var stream = Files.newInputStream(file)) {
+      final var checked =
+        new CheckedInputStream(
+          new BufferedInputStream(stream, BUFFER_SIZE),
+          new CRC32C()
+        );
+      final var input = new DataInputStream(checked);
+
+      try {
+        final var magic = input.readLong();
+        if (magic != MAGIC) {
+          throw new IOException(
+            "File %s is not a snapshot (magic number 0x%x, expected 0x%x)."
+              .formatted(file, magic, MAGIC));
+        }
+        final var version = input.readInt();
+        if (version != VERSION) {
+          throw new IOException(
+            "Snapshot %s has unsupported version %d (expected %d)."
+              .formatted(file, version, VERSION));
+        }
+
+        final var generation = input.readLong();
+        long count = 0L;
+        while (input.readByte() != 0) {
+          receiver.receive(readString(input), readString(input));
+          ++count;
+        }
+
+        final var expectedCount = input.readLong();
+        final var actual = (int) checked.getChecksum().getValue();
+        final var expected = input.readInt();
+        if (actual != expected || count != expectedCount) {
+          throw new IOException(
+            "Snapshot %s is corrupt (checksum 0x%08x, expected 0x%08x)."
+              .formatted(file, actual, expected));
+        }
+        return generation;
+      } catch (final EOFException e) {
+        throw new IOException(
+          "Snapshot %s is truncated.".formatted(file), e);
+      }
+    }
+  }
+
+  private static void writeString(
+    final DataOutputStream output,
+    final String text)
+    throws IOException
+  {
+    final var bytes = text.getBytes(UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readString(
+    final DataInputStream input)
+    throws IOException
+  {
+    final var length = input.readInt();
+    if (length < 0) {
+      throw new IOException("Negative string length %d.".formatted(length));
+    }
+    final var bytes = input.readNBytes(length);
+    if (bytes.length != length) {
+      throw new EOFException();
+    }
+    return UTF_8.decode(ByteBuffer.wrap(bytes)).toString();
+  }
+}
@@ -17,7 +17,10 @@
 
 package com.io7m.looseleaf.database.mvstore;
 
+import com.io7m.looseleaf.database.api.LLDatabaseCursorType;
 import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.api.LLDatabaseScan;
+import com.io7m.looseleaf.database.api.LLDatabaseScanResult;
 import com.io7m.looseleaf.database.api.LLDatabaseType;
 import com.io7m.looseleaf.security.LLKeyName;
 import org.h2.engine.IsolationLevel;
@@ -26,11 +29,15 @@ import org.h2.mvstore.MVStoreException;
 import org.h2.mvstore.tx.TransactionStore;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.h2.mvstore.type.StringDataType.INSTANCE;
 
@@ -48,6 +55,7 @@ public final class LLDatabaseMVStore
   private final MVStore store;
   private final TransactionStore txStore;
   private final AtomicBoolean closed;
+  private final AtomicLong keyCount;
 
   /**
    * A database based on the H2 MVStore class.
@@ -66,6 +74,21 @@ public final class LLDatabaseMVStore
       Objects.requireNonNull(inTXStore, "txStore");
     this.closed =
       new AtomicBoolean(false);
+    this.keyCount =
+      new AtomicLong(this.countKeys());
+  }
+
+  private long countKeys()
+  {
+    final var tx = this.txStore.begin();
+
+    try {
+      final var m =
+        tx.openMap("values", INSTANCE, INSTANCE);
+      return m.sizeAsLong();
+    } finally {
+      tx.rollback();
+    }
   }
 
   @Override
@@ -91,21 +114,7 @@ public final class LLDatabaseMVStore
   @Override
   public long keyCountApproximate()
   {
-    final var tx =
-      this.txStore.begin(
-        ROLLBACK_NO_LISTENER,
-        10,
-        0,
-        IsolationLevel.READ_COMMITTED
-      );
-
-    try {
-      final var m = tx.openMap("values", INSTANCE, INSTANCE);
-      return m.sizeAsLong();
-    } catch (final Exception e) {
-      tx.rollback();
-      throw e;
-    }
+    return this.keyCount.get();
   }
 
   @Override
@@ -156,16 +165,28 @@ public final class LLDatabaseMVStore
         }
       }
 
+      /*
+       * The key count is maintained incrementally: the previous value
+       * returned by each put or remove indicates whether a key was created
+       * or destroyed, and the total change is published on commit.
+       */
+
+      long keyDelta = 0L;
       for (final var e : rud.update().entrySet()) {
         final var k = e.getKey();
-        m.put(k.value(), e.getValue());
+        if (m.put(k.value(), e.getValue()) == null) {
+          ++keyDelta;
+        }
       }
 
       for (final var k : rud.delete()) {
-        m.remove(k.value());
+        if (m.remove(k.value()) != null) {
+          --keyDelta;
+        }
       }
 
       tx.commit();
+      this.keyCount.addAndGet(keyDelta);
       return results;
     } catch (final Exception e) {
       tx.rollback();
@@ -191,27 +212,94 @@ public final class LLDatabaseMVStore
   }
 
   @Override
-  public Map<LLKeyName, String> getAll()
+  public Map<LLKeyName, String> getMany(
+    final Set<LLKeyName> keys)
   {
+    Objects.requireNonNull(keys, "keys");
+
+    final var tx = this.txStore.begin();
+
+    try {
+      final var m =
+        tx.openMap("values", INSTANCE, INSTANCE);
+
+      final var results = new TreeMap<LLKeyName, String>();
+      for (final var k : keys) {
+        final var v = m.get(k.value());
+        if (v != null) {
+          results.put(k, v);
+        }
+      }
+      return results;
+    } finally {
+      tx.rollback();
+    }
+  }
+
+  @Override
+  public LLDatabaseScanResult scan(
+    final LLDatabaseScan scan)
+  {
+    Objects.requireNonNull(scan, "scan");
+
+    final var lower = scan.lowerBoundExclusive();
+    final var upper = scan.upperBoundExclusive();
+    final var tx = this.txStore.begin();
+
+    try {
+      final var m =
+        tx.openMap("values", INSTANCE, INSTANCE);
+
+      final var keys = new ArrayList<LLKeyName>(scan.limit());
+      final var values = new HashMap<LLKeyName, String>();
+      final var iterator = m.entryIterator(lower, null);
+
+      while (iterator.hasNext()) {
+        final var entry = iterator.next();
+        final var name = entry.getKey();
+        if (name.equals(lower)) {
+          continue;
+        }
+        if (name.compareTo(upper) >= 0) {
+          break;
+        }
+        if (keys.size() == scan.limit()) {
+          final var last = keys.get(keys.size() - 1);
+          return new LLDatabaseScanResult(keys, values, Optional.of(last));
+        }
+
+        final var key = LLKeyName.create(name);
+        keys.add(key);
+        if (scan.includeValues()) {
+          values.put(key, entry.getValue());
+        }
+      }
+      return new LLDatabaseScanResult(keys, values, Optional.empty());
+    } finally {
+      tx.rollback();
+    }
+  }
+
+  @Override
+  public LLDatabaseCursorType cursor()
+  {
+    /*
+     * A snapshot transaction sees the map as it was when the transaction
+     * began, regardless of any commits made while the cursor is open.
+     */
+
     final var tx =
       this.txStore.begin(
         ROLLBACK_NO_LISTENER,
         10,
         0,
-        IsolationLevel.READ_COMMITTED
+        IsolationLevel.SNAPSHOT
       );
 
     try {
       final var m =
         tx.openMap("values", INSTANCE, INSTANCE);
-
-      final var results = new TreeMap<LLKeyName, String>();
-      for (final var e : m.entrySet()) {
-        results.put(LLKeyName.create(e.getKey()), e.getValue());
-      }
-
-      tx.rollback();
-      return results;
+      return new LLDatabaseMVStoreCursor(tx, m.entryIterator(null, null));
     } catch (final Exception e) {
       tx.rollback();
       throw e;
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.mvstore;
+
+import com.io7m.looseleaf.database.api.LLDatabaseCursorType;
+import com.io7m.looseleaf.security.LLKeyName;
+import org.h2.mvstore.tx.Transaction;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A cursor over a lazily-evaluated MVStore map iterator. The cursor holds
+ * an open transaction, and therefore the snapshot of the map that the
+ * transaction sees, until it is closed.
+ */
+
+final class LLDatabaseMVStoreCursor implements LLDatabaseCursorType
+{
+  private final Transaction transaction;
+  private final Iterator<Map.Entry<String, String>> iterator;
+  private LLKeyName key;
+  private String value;
+  private boolean closed;
+
+  /**
+   * A cursor over an MVStore map iterator.
+   *
+   * @param inTransaction The transaction that owns the iterator
+   * @param inIterator    The iterator
+   */
+
+  LLDatabaseMVStoreCursor(
+    final Transaction inTransaction,
+    final Iterator<Map.Entry<String, String>> inIterator)
+  {
+    this.transaction =
+      Objects.requireNonNull(inTransaction, "transaction");
+    this.iterator =
+      Objects.requireNonNull(inIterator, "iterator");
+  }
+
+  @Override
+  public boolean next()
+  {
+    if (this.closed) {
+      throw new IllegalStateException("Cursor is closed.");
+    }
+
+    if (this.iterator.hasNext()) {
+      final var entry = this.iterator.next();
+      this.key = LLKeyName.create(entry.getKey());
+      this.value = entry.getValue();
+      return true;
+    }
+
+    this.key = null;
+    this.value = null;
+    return false;
+  }
+
+  @Override
+  public LLKeyName key()
+  {
+    if (this.key == null) {
+      throw new IllegalStateException("Cursor does not point at an entry.");
+    }
+    return this.key;
+  }
+
+  @Override
+  public String value()
+  {
+    if (this.value == null) {
+      throw new IllegalStateException("Cursor does not point at an entry.");
+    }
+    return this.value;
+  }
+
+  @Override
+  public void close()
+  {
+    if (this.closed) {
+      return;
+    }
+
+    this.closed = true;
+    this.key = null;
+    this.value = null;
+    this.transaction.rollback();
+  }
+}
@@ -28,4 +28,7 @@ module com.io7m.looseleaf.database.mvstore
   requires com.h2database.mvstore;
 
   exports com.io7m.looseleaf.database.mvstore;
+
+  provides com.io7m.looseleaf.database.api.LLDatabaseFactoryType
+    with com.io7m.looseleaf.database.mvstore.LLDatabaseMVStoreFactory;
 }
@@ -0,0 +1,628 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.sharded;
+
+import com.io7m.looseleaf.database.api.LLDatabaseCursorType;
+import com.io7m.looseleaf.database.api.LLDatabaseFactoryType;
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.api.LLDatabaseScan;
+import com.io7m.looseleaf.database.api.LLDatabaseScanResult;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+import com.io7m.looseleaf.security.LLKeyName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A database that partitions keys by hash over a number of databases of
+ * another kind, each stored in its own file.
+ *
+ * <p>Each shard has its own lock. An operation that touches a single shard
+ * holds only that shard's lock, so operations on different shards proceed in
+ * parallel, each limited only by the database of its shard. An operation that
+ * changes several shards takes the locks of all of them in ascending order of
+ * shard, so that such operations cannot deadlock, and records its changes in
+ * an intent log before applying them to the shards; if the server crashes
+ * before every shard has been changed, the changes are applied again when the
+ * database is next opened. Reads of several shards take the read locks of the
+ * shards in the same order, so they observe either all or none of the changes
+ * of each operation. Reads of single keys go directly to the shard.</p>
+ *
+ * <p>Changes to several shards survive a crash atomically only if the
+ * shards themselves commit synchronously.</p>
+ */
+
+public final class LLDatabaseSharded
+  implements LLDatabaseType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(LLDatabaseSharded.class);
+
+  private final List<LLDatabaseType> shards;
+  private final ReentrantReadWriteLock[] locks;
+  private final LLDatabaseShardedIntentLog intents;
+  private final AtomicBoolean closed;
+  private volatile boolean failed;
+
+  private LLDatabaseSharded(
+    final List<LLDatabaseType> inShards,
+    final LLDatabaseShardedIntentLog inIntents)
+  {
+    this.shards =
+      List.copyOf(inShards);
+    this.intents =
+      Objects.requireNonNull(inIntents, "intents");
+    this.closed =
+      new AtomicBoolean(false);
+    this.locks =
+      new ReentrantReadWriteLock[this.shards.size()];
+    for (int index = 0; index < this.locks.length; ++index) {
+      this.locks[index] = new ReentrantReadWriteLock();
+    }
+  }
+
+  /**
+   * Read the configuration of an existing sharded database.
+   *
+   * @param file The database file
+   *
+   * @return The configuration with which the database was created
+   *
+   * @throws IOException On I/O errors, or if the file is not a sharded
+   *                     database
+   */
+
+  public static LLDatabaseShardedConfiguration readConfiguration(
+    final Path file)
+    throws IOException
+  {
+    return LLDatabaseShardedManifest.read(Objects.requireNonNull(file, "file"));
+  }
+
+  /**
+   * Open a database, completing any operation that was interrupted while
+   * changing several shards.
+   *
+   * @param file          The database file
+   * @param configuration The database parameters
+   * @param shardFactory  The factory used to open each shard
+   *
+   * @return A database
+   *
+   * @throws IOException On I/O errors, or if the database was created with a
+   *                     different configuration
+   */
+
+  public static LLDatabaseSharded open(
+    final Path file,
+    final LLDatabaseShardedConfiguration configuration,
+    final LLDatabaseFactoryType shardFactory)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(configuration, "configuration");
+    Objects.requireNonNull(shardFactory, "shardFactory");
+
+    if (!Objects.equals(shardFactory.kind(), configuration.kind())) {
+      throw new IllegalArgumentException(
+        "Shard factory kind %s does not match the configured kind %s"
+          .formatted(shardFactory.kind(), configuration.kind()));
+    }
+
+    final var path = file.toAbsolutePath();
+    checkManifest(path, configuration);
+
+    final var shards = new ArrayList<LLDatabaseType>(configuration.shards());
+    try {
+      for (int index = 0; index < configuration.shards(); ++index) {
+        shards.add(shardFactory.open(shardFile(path, index)));
+      }
+
+      final var outstanding = new ArrayList<LLDatabaseShardedIntentLog.Intent>();
+      final var intents =
+        LLDatabaseShardedIntentLog.open(
+          path.resolveSibling(path.getFileName() + ".intents"),
+          outstanding
+        );
+
+      final var database = new LLDatabaseSharded(shards, intents);
+      try {
+        for (final var intent : outstanding) {
+          database.applyChanges(intent.rud());
+        }
+        intents.reset();
+      } catch (final IOException e) {
+        database.close();
+        throw e;
+      }
+
+      if (!outstanding.isEmpty()) {
+        LOG.warn(
+          "completed {} interrupted operations in {}",
+          Integer.valueOf(outstanding.size()),
+          path
+        );
+      }
+      LOG.debug(
+        "opened {} with {} shards of kind {}",
+        path,
+        Integer.valueOf(configuration.shards()),
+        configuration.kind()
+      );
+      return database;
+    } catch (final IOException e) {
+      closeShards(shards, e);
+      throw e;
+    }
+  }
+
+  /**
+   * Check that an existing database was created with the given
+   * configuration, or create a new database.
+   */
+
+  private static void checkManifest(
+    final Path path,
+    final LLDatabaseShardedConfiguration configuration)
+    throws IOException
+  {
+    if (!Files.exists(path) || Files.size(path) == 0L) {
+      LLDatabaseShardedManifest.create(path, configuration);
+      return;
+    }
+
+    final var existing = LLDatabaseShardedManifest.read(path);
+    if (!Objects.equals(existing, configuration)) {
+      throw new IOException(
+        "Database %s has %d shards of kind %s, but %d shards of kind %s are configured; it must be resharded."
+          .formatted(
+            path,
+            Integer.valueOf(existing.shards()),
+            existing.kind(),
+            Integer.valueOf(configuration.shards()),
+            configuration.kind()));
+    }
+  }
+
+  private static void closeShards(
+    final List<LLDatabaseType> shards,
+    final IOException e)
+  {
+    for (final var shard : shards) {
+      if (!shard.isClosed()) {
+        try {
+          shard.close();
+        } catch (final IOException x) {
+          e.addSuppressed(x);
+        }
+      }
+    }
+  }
+
+  private static Path shardFile(
+    final Path file,
+    final int index)
+  {
+    return file.resolveSibling("%s.shard-%04d".formatted(file.getFileName(), index));
+  }
+
+  /**
+   * Determine the shard that holds a key. The hash is a 64-bit FNV-1a hash
+   * of the characters of the key, finished with a mixing function so that
+   * every bit of the hash affects the choice of shard. The hash must never
+   * change, because it determines where existing keys are stored.
+   *
+   * @param key    The key
+   * @param shards The number of shards
+   *
+   * @return The index of the shard
+   */
+
+  static int shardOf(
+    final String key,
+    final int shards)
+  {
+    long hash = 0xcbf29ce484222325L;
+    for (int index = 0; index < key.length(); ++index) {
+      hash ^= key.charAt(index);
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    return (int) Long.remainderUnsigned(hash, shards);
+  }
+
+  private int shardOf(
+    final LLKeyName key)
+  {
+    return shardOf(key.value(), this.shards.size());
+  }
+
+  @Override
+  public long dataSizeApproximate()
+    throws IOException
+  {
+    long size = 0L;
+    for (final var shard : this.shards) {
+      size += shard.dataSizeApproximate();
+    }
+    return size;
+  }
+
+  @Override
+  public long keyCountApproximate()
+    throws IOException
+  {
+    long count = 0L;
+    for (final var shard : this.shards) {
+      count += shard.keyCountApproximate();
+    }
+    return count;
+  }
+
+  @Override
+  public boolean isClosed()
+  {
+    return this.closed.get();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      final var all = new BitSet();
+      all.set(0, this.shards.size());
+      this.lockWrite(all);
+
+      IOException failure = null;
+      try {
+        for (final var shard : this.shards) {
+          try {
+            shard.close();
+          } catch (final IOException e) {
+            failure = addFailure(failure, e);
+          }
+        }
+        try {
+          this.intents.close();
+        } catch (final IOException e) {
+          failure = addFailure(failure, e);
+        }
+      } finally {
+        this.unlockWrite(all);
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    }
+  }
+
+  private static IOException addFailure(
+    final IOException failure,
+    final IOException e)
+  {
+    if (failure == null) {
+      return e;
+    }
+    failure.addSuppressed(e);
+    return failure;
+  }
+
+  private void checkOpen()
+    throws IOException
+  {
+    if (this.closed.get()) {
+      throw new IOException("Database is closed.");
+    }
+  }
+
+  private void lockRead(
+    final BitSet involved)
+  {
+    for (int i = involved.nextSetBit(0); i >= 0; i = involved.nextSetBit(i + 1)) {
+      this.locks[i].readLock().lock();
+    }
+  }
+
+  private void unlockRead(
+    final BitSet involved)
+  {
+    for (int i = involved.nextSetBit(0); i >= 0; i = involved.nextSetBit(i + 1)) {
+      this.locks[i].readLock().unlock();
+    }
+  }
+
+  private void lockWrite(
+    final BitSet involved)
+  {
+    for (int i = involved.nextSetBit(0); i >= 0; i = involved.nextSetBit(i + 1)) {
+      this.locks[i].writeLock().lock();
+    }
+  }
+
+  private void unlockWrite(
+    final BitSet involved)
+  {
+    for (int i = involved.nextSetBit(0); i >= 0; i = involved.nextSetBit(i + 1)) {
+      this.locks[i].writeLock().unlock();
+    }
+  }
+
+  private BitSet shardsOf(
+    final Set<LLKeyName> keys)
+  {
+    final var involved = new BitSet(this.shards.size());
+    for (final var key : keys) {
+      involved.set(this.shardOf(key));
+    }
+    return involved;
+  }
+
+  @Override
+  public Map<LLKeyName, String> readUpdateDelete(
+    final LLDatabaseRUD rud)
+    throws IOException
+  {
+    Objects.requireNonNull(rud, "rud");
+
+    final var involved = this.shardsOf(rud.read());
+    involved.or(this.shardsOf(rud.update().keySet()));
+    involved.or(this.shardsOf(rud.delete()));
+    if (involved.isEmpty()) {
+      this.checkOpen();
+      return Map.of();
+    }
+
+    this.lockWrite(involved);
+    try {
+      this.checkOpen();
+      if (this.failed) {
+        throw new IOException(
+          "An operation on several shards failed; the database must be reopened to complete it.");
+      }
+
+      if (involved.cardinality() == 1) {
+        return this.shards.get(involved.nextSetBit(0)).readUpdateDelete(rud);
+      }
+
+      final var results = this.getManyUnlocked(rud.read());
+      final var changes =
+        new LLDatabaseRUD(Set.of(), rud.update(), rud.delete());
+      if (rud.update().isEmpty() && rud.delete().isEmpty()) {
+        return results;
+      }
+
+      /*
+       * Once the intent is recorded, the operation will be applied again
+       * when the database is next opened unless it is also recorded as
+       * complete. No further changes can be allowed until then, because
+       * applying the operation again would overwrite them.
+       */
+
+      final var sequence = this.intents.begin(changes);
+      try {
+        this.applyChanges(changes);
+        this.intents.complete(sequence);
+      } catch (final IOException | RuntimeException e) {
+        this.failed = true;
+        throw e;
+      }
+      return results;
+    } finally {
+      this.unlockWrite(involved);
+    }
+  }
+
+  /**
+   * Apply the changes of an operation to each shard that it touches. The
+   * changes are split by shard, so each shard applies its part atomically.
+   */
+
+  private void applyChanges(
+    final LLDatabaseRUD rud)
+    throws IOException
+  {
+    final var updates = new HashMap<Integer, Map<LLKeyName, String>>();
+    final var deletes = new HashMap<Integer, Set<LLKeyName>>();
+    for (final var e : rud.update().entrySet()) {
+      updates.computeIfAbsent(Integer.valueOf(this.shardOf(e.getKey())), i -> new HashMap<>())
+        .put(e.getKey(), e.getValue());
+    }
+    for (final var key : rud.delete()) {
+      deletes.computeIfAbsent(Integer.valueOf(this.shardOf(key)), i -> new HashSet<>())
+        .add(key);
+    }
+
+    final var involved = new HashSet<>(updates.keySet());
+    involved.addAll(deletes.keySet());
+    for (final var index : involved) {
+      this.shards.get(index.intValue()).readUpdateDelete(
+        new LLDatabaseRUD(
+          Set.of(),
+          updates.getOrDefault(index, Map.of()),
+          deletes.getOrDefault(index, Set.of())
+        )
+      );
+    }
+  }
+
+  @Override
+  public Optional<String> get(
+    final LLKeyName key)
+    throws IOException
+  {
+    Objects.requireNonNull(key, "key");
+    this.checkOpen();
+    return this.shards.get(this.shardOf(key)).get(key);
+  }
+
+  @Override
+  public Map<LLKeyName, String> getMany(
+    final Set<LLKeyName> keys)
+    throws IOException
+  {
+    Objects.requireNonNull(keys, "keys");
+
+    final var involved = this.shardsOf(keys);
+    if (involved.cardinality() <= 1) {
+      this.checkOpen();
+      if (involved.isEmpty()) {
+        return Map.of();
+      }
+      return this.shards.get(involved.nextSetBit(0)).getMany(keys);
+    }
+
+    this.lockRead(involved);
+    try {
+      this.checkOpen();
+      return this.getManyUnlocked(keys);
+    } finally {
+      this.unlockRead(involved);
+    }
+  }
+
+  private Map<LLKeyName, String> getManyUnlocked(
+    final Set<LLKeyName> keys)
+    throws IOException
+  {
+    final var byShard = new HashMap<Integer, Set<LLKeyName>>();
+    for (final var key : keys) {
+      byShard.computeIfAbsent(Integer.valueOf(this.shardOf(key)), i -> new HashSet<>())
+        .add(key);
+    }
+
+    final var results = new TreeMap<LLKeyName, String>();
+    for (final var e : byShard.entrySet()) {
+      results.putAll(this.shards.get(e.getKey().intValue()).getMany(e.getValue()));
+    }
+    return results;
+  }
+
+  @Override
+  public LLDatabaseScanResult scan(
+    final LLDatabaseScan scan)
+    throws IOException
+  {
+    Objects.requireNonNull(scan, "scan");
+
+    if (this.shards.size() == 1) {
+      this.checkOpen();
+      return this.shards.get(0).scan(scan);
+    }
+
+    final var all = new BitSet();
+    all.set(0, this.shards.size());
+    this.lockRead(all);
+    try {
+      this.checkOpen();
+      return this.scanUnlocked(scan);
+    } finally {
+      this.unlockRead(all);
+    }
+  }
+
+  /**
+   * Scan every shard with the same parameters, and merge the results. Each
+   * shard returns at most the requested number of keys, so the first keys of
+   * the merged results are the first keys of the database.
+   */
+
+  private LLDatabaseScanResult scanUnlocked(
+    final LLDatabaseScan scan)
+    throws IOException
+  {
+    final var merged = new TreeMap<LLKeyName, String>();
+    final var values = new HashMap<LLKeyName, String>();
+    boolean more = false;
+    for (final var shard : this.shards) {
+      final var result = shard.scan(scan);
+      for (final var key : result.keys()) {
+        merged.put(key, "");
+      }
+      values.putAll(result.values());
+      more |= result.next().isPresent();
+    }
+
+    final var keys = new ArrayList<LLKeyName>(Math.min(merged.size(), scan.limit()));
+    final var keptValues = new HashMap<LLKeyName, String>();
+    for (final var key : merged.keySet()) {
+      if (keys.size() == scan.limit()) {
+        more = true;
+        break;
+      }
+      keys.add(key);
+      final var value = values.get(key);
+      if (value != null) {
+        keptValues.put(key, value);
+      }
+    }
+
+    final Optional<LLKeyName> next;
+    if (more && !keys.isEmpty()) {
+      next = Optional.of(keys.get(keys.size() - 1));
+    } else {
+      next = Optional.empty();
+    }
+    return new LLDatabaseScanResult(keys, keptValues, next);
+  }
+
+  @Override
+  public LLDatabaseCursorType cursor()
+    throws IOException
+  {
+    final var all = new BitSet();
+    all.set(0, this.shards.size());
+    this.lockRead(all);
+    try {
+      this.checkOpen();
+
+      final var cursors = new ArrayList<LLDatabaseCursorType>(this.shards.size());
+      try {
+        for (final var shard : this.shards) {
+          cursors.add(shard.cursor());
+        }
+      } catch (final IOException e) {
+        try {
+          LLDatabaseShardedCursor.closeAll(cursors);
+        } catch (final IOException x) {
+          e.addSuppressed(x);
+        }
+        throw e;
+      }
+      return new LLDatabaseShardedCursor(cursors);
+    } finally {
+      this.unlockRead(all);
+    }
+  }
+}
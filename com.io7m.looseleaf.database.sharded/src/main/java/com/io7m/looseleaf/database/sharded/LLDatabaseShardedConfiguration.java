@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.sharded;
+
+import java.util.Objects;
+
+/**
+ * Parameters for sharded databases.
+ *
+ * @param kind   The kind of database used for each shard (such as "SQLITE")
+ * @param shards The number of shards
+ */
+
+public record LLDatabaseShardedConfiguration(
+  String kind,
+  int shards)
+{
+  /**
+   * The largest supported number of shards.
+   */
+
+  public static final int MAXIMUM_SHARDS = 4096;
+
+  /**
+   * Parameters for sharded databases.
+   *
+   * @param kind   The kind of database used for each shard (such as "SQLITE")
+   * @param shards The number of shards
+   */
+
+  public LLDatabaseShardedConfiguration
+  {
+    Objects.requireNonNull(kind, "kind");
+    if (Objects.equals(kind, LLDatabaseShardedFactory.KIND)) {
+      throw new IllegalArgumentException(
+        "Shards cannot themselves be of kind %s".formatted(kind));
+    }
+    if (shards <= 0 || shards > MAXIMUM_SHARDS) {
+      throw new IllegalArgumentException(
+        "Shard count %d must be in the range [1, %d]"
+          .formatted(shards, MAXIMUM_SHARDS));
+    }
+  }
+
+  /**
+   * @return The default configuration
+   */
+
+  public static LLDatabaseShardedConfiguration defaults()
+  {
+    return new LLDatabaseShardedConfiguration("MVSTORE", 8);
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.sharded;
+
+import com.io7m.looseleaf.database.api.LLDatabaseCursorType;
+import com.io7m.looseleaf.security.LLKeyName;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A cursor over the entries of a sharded database, merging the cursors of
+ * the shards so that entries are returned in key order. The shard cursors are
+ * all opened together, so the cursor observes the whole database at a single
+ * point in time. Each key is held by exactly one shard, so the merge never
+ * encounters duplicate keys.
+ */
+
+final class LLDatabaseShardedCursor implements LLDatabaseCursorType
+{
+  private final List<LLDatabaseCursorType> cursors;
+  private final PriorityQueue<LLDatabaseCursorType> queue;
+  private LLDatabaseCursorType current;
+  private boolean started;
+  private boolean closed;
+
+  /**
+   * A cursor over the entries of a sharded database.
+   *
+   * @param inCursors The cursors of the shards
+   */
+
+  LLDatabaseShardedCursor(
+    final List<LLDatabaseCursorType> inCursors)
+  {
+    this.cursors =
+      List.copyOf(inCursors);
+    this.queue =
+      new PriorityQueue<>(
+        Math.max(1, this.cursors.size()),
+        Comparator.comparing(c -> c.key().value())
+      );
+  }
+
+  @Override
+  public boolean next()
+    throws IOException
+  {
+    if (this.closed) {
+      throw new IllegalStateException("Cursor is closed.");
+    }
+
+    if (!this.started) {
+      this.started = true;
+      for (final var cursor : this.cursors) {
+        if (cursor.next()) {
+          this.queue.add(cursor);
+        }
+      }
+    } else if (this.current != null && this.current.next()) {
+      this.queue.add(this.current);
+    }
+
+    this.current = this.queue.poll();
+    return this.current != null;
+  }
+
+  private LLDatabaseCursorType current()
+  {
+    if (this.closed || this.current == null) {
+      throw new IllegalStateException("Cursor does not point at an entry.");
+    }
+    return this.current;
+  }
+
+  @Override
+  public LLKeyName key()
+  {
+    return this.current().key();
+  }
+
+  @Override
+  public String value()
+  {
+    return this.current().value();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (!this.closed) {
+      this.closed = true;
+      closeAll(this.cursors);
+    }
+  }
+
+  /**
+   * Close every cursor, even if closing one fails.
+   *
+   * @param cursors The cursors
+   *
+   * @throws IOException If closing any cursor fails
+   */
+
+  static void closeAll(
+    final List<LLDatabaseCursorType> cursors)
+    throws IOException
+  {
+    IOException failure = null;
+    for (final var cursor : cursors) {
+      try {
+        cursor.close();
+      } catch (final IOException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.sharded;
+
+import com.io7m.looseleaf.database.api.LLDatabaseFactoryType;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A database that partitions keys over a number of databases of another
+ * kind.
+ */
+
+public final class LLDatabaseShardedFactory
+  implements LLDatabaseFactoryType
+{
+  /**
+   * The kind of sharded databases.
+   */
+
+  public static final String KIND = "SHARDED";
+
+  private final LLDatabaseShardedConfiguration configuration;
+  private final List<LLDatabaseFactoryType> factories;
+
+  /**
+   * A database that partitions keys over a number of databases of another
+   * kind.
+   *
+   * @param inConfiguration The database parameters
+   * @param inFactories     The factories from which the factory for shards is
+   *                        selected by kind
+   */
+
+  public LLDatabaseShardedFactory(
+    final LLDatabaseShardedConfiguration inConfiguration,
+    final List<LLDatabaseFactoryType> inFactories)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.factories =
+      List.copyOf(Objects.requireNonNull(inFactories, "factories"));
+  }
+
+  @Override
+  public String kind()
+  {
+    return KIND;
+  }
+
+  @Override
+  public LLDatabaseType open(
+    final Path file)
+    throws IOException
+  {
+    final var shardKind = this.configuration.kind();
+    final var shardFactory =
+      this.factories.stream()
+        .filter(f -> Objects.equals(f.kind(), shardKind))
+        .findFirst()
+        .orElseThrow(() -> {
+          return new UnsupportedOperationException(
+            "No database implementation available with kind '%s'"
+              .formatted(shardKind)
+          );
+        });
+
+    return LLDatabaseSharded.open(file, this.configuration, shardFactory);
+  }
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.sharded;
+
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.security.LLKeyName;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A log of the operations that change more than one shard.
+ *
+ * <p>Before an operation changes any shard, an intent record holding all of
+ * its changes is appended to the log and flushed to stable storage. Once
+ * every shard has been changed, a completion record is appended and flushed.
+ * If the server crashes in between, the operation is applied again to every
+ * shard when the database is next opened. Applying an operation again is
+ * harmless, because its changes set or remove keys rather than depending on
+ * their previous values, and no other operation can have changed the same
+ * shards in the meantime, because the shards remain locked until the
+ * completion record is stable.</p>
+ *
+ * <p>Each record is {@code [int length][int crc32c][payload]}. The log is
+ * truncated whenever it grows beyond a small size or is closed, and no
+ * operation is outstanding.</p>
+ */
+
+final class LLDatabaseShardedIntentLog
+  implements Closeable
+{
+  private static final byte RECORD_INTENT = 1;
+  private static final byte RECORD_COMPLETE = 2;
+  private static final int RECORD_HEADER_SIZE = 8;
+  private static final long TRUNCATE_SIZE = 1_048_576L;
+
+  private final Path path;
+  private final FileChannel channel;
+  private final Set<Long> outstanding;
+  private long nextSequence;
+
+  private LLDatabaseShardedIntentLog(
+    final Path inPath,
+    final FileChannel inChannel)
+  {
+    this.path =
+      Objects.requireNonNull(inPath, "path");
+    this.channel =
+      Objects.requireNonNull(inChannel, "channel");
+    this.outstanding =
+      new HashSet<>();
+  }
+
+  /**
+   * An operation whose intent record has no matching completion record.
+   *
+   * @param rud The changes made by the operation
+   */
+
+  record Intent(LLDatabaseRUD rud)
+  {
+
+  }
+
+  /**
+   * Open the log, returning the operations that were not completed. The
+   * caller must apply them and then call {@link #reset()}.
+   *
+   * @param path    The log file
+   * @param intents The list to which incomplete operations are added, in order
+   *
+   * @return The log
+   *
+   * @throws IOException On I/O errors, or if a record is corrupt
+   */
+
+  static LLDatabaseShardedIntentLog open(
+    final Path path,
+    final List<Intent> intents)
+    throws IOException
+  {
+    final var channel = FileChannel.open(path, CREATE, READ, WRITE);
+    try {
+      final var found = new LinkedHashMap<Long, Intent>();
+      final var size = channel.size();
+      long position = 0L;
+      while (position < size) {
+        final var record = readRecord(channel, position, size);
+        if (record == null) {
+          break;
+        }
+        decode(path, record, found);
+        position += RECORD_HEADER_SIZE + record.capacity();
+      }
+
+      /*
+       * A record that is incomplete or fails its checksum can only be the
+       * last record written before a crash. Its operation did not change
+       * any shard, because shards are only changed once the record is
+       * stable.
+       */
+
+      intents.addAll(found.values());
+      return new LLDatabaseShardedIntentLog(path, channel);
+    } catch (final IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private static ByteBuffer readRecord(
+    final FileChannel channel,
+    final long position,
+    final long size)
+    throws IOException
+  {
+    if (size - position < RECORD_HEADER_SIZE) {
+      return null;
+    }
+    final var header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+    readFully(channel, header, position);
+    final var length = header.getInt(0);
+    final var expected = header.getInt(4);
+    if (length <= 0 || length > size - position - RECORD_HEADER_SIZE) {
+      return null;
+    }
+
+    final var payload = ByteBuffer.allocate(length);
+    readFully(channel, payload, position + RECORD_HEADER_SIZE);
+    final var checksum = new CRC32C();
+    checksum.update(payload.array());
+    if ((int) checksum.getValue() != expected) {
+      return null;
+    }
+    return payload;
+  }
+
+  private static void readFully(
+    final FileChannel channel,
+    final ByteBuffer buffer,
+    final long position)
+    throws IOException
+  {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of file.");
+      }
+    }
+    buffer.flip();
+  }
+
+  private static void decode(
+    final Path path,
+    final ByteBuffer record,
+    final Map<Long, Intent> found)
+    throws IOException
+  {
+    try {
+      final var sequence = Long.valueOf(record.getLong());
+      final var type = record.get();
+      switch (type) {
+        case RECORD_INTENT -> {
+          final var updates = new HashMap<LLKeyName, String>();
+          final var updateCount = record.getInt();
+          for (int index = 0; index < updateCount; ++index) {
+            updates.put(LLKeyName.create(getString(record)), getString(record));
+          }
+          final var deletes = new HashSet<LLKeyName>();
+          final var deleteCount = record.getInt();
+          for (int index = 0; index < deleteCount; ++index) {
+            deletes.add(LLKeyName.create(getString(record)));
+          }
+          found.put(sequence, new Intent(new LLDatabaseRUD(Set.of(), updates, deletes)));
+        }
+        case RECORD_COMPLETE -> {
+          found.remove(sequence);
+        }
+        default -> {
+          throw new IOException(
+            "Intent log %s contains a record of unrecognized type %d."
+              .formatted(path, Byte.valueOf(type)));
+        }
+      }
+    } catch (final BufferUnderflowException
+                   | IndexOutOfBoundsException
+                   | IllegalArgumentException e) {
+      throw new IOException("Intent log %s is corrupt.".formatted(path), e);
+    }
+  }
+
+  private static String getString(
+    final ByteBuffer record)
+  {
+    final var length = record.getInt();
+    final var text = UTF_8.decode(record.slice(record.position(), length));
+    record.position(record.position() + length);
+    return text.toString();
+  }
+
+  /**
+   * Discard the contents of the log. Must only be called when no operation
+   * is outstanding.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  synchronized void reset()
+    throws IOException
+  {
+    this.channel.truncate(0L);
+    this.channel.force(true);
+    this.outstanding.clear();
+  }
+
+  /**
+   * Record the intent to apply an operation, and flush the record to stable
+   * storage.
+   *
+   * @param rud The changes made by the operation
+   *
+   * @return The sequence number to pass to {@link #complete(long)}
+   *
+   * @throws IOException On I/O errors
+   */
+
+  long begin(
+    final LLDatabaseRUD rud)
+    throws IOException
+  {
+    final var encoded = new ArrayList<byte[]>();
+    int length = 8 + 1 + 4 + 4;
+    for (final var e : rud.update().entrySet()) {
+      final var k = e.getKey().value().getBytes(UTF_8);
+      final var v = e.getValue().getBytes(UTF_8);
+      encoded.add(k);
+      encoded.add(v);
+      length += 4 + k.length + 4 + v.length;
+    }
+    for (final var key : rud.delete()) {
+      final var k = key.value().getBytes(UTF_8);
+      encoded.add(k);
+      length += 4 + k.length;
+    }
+
+    final var payload = ByteBuffer.allocate(length);
+    payload.putLong(0L);
+    payload.put(RECORD_INTENT);
+    final var iterator = encoded.iterator();
+    payload.putInt(rud.update().size());
+    for (int index = 0; index < rud.update().size(); ++index) {
+      putBytes(payload, iterator.next());
+      putBytes(payload, iterator.next());
+    }
+    payload.putInt(rud.delete().size());
+    while (iterator.hasNext()) {
+      putBytes(payload, iterator.next());
+    }
+
+    synchronized (this) {
+      final var sequence = this.nextSequence;
+      this.nextSequence = sequence + 1L;
+      payload.putLong(0, sequence);
+      this.append(payload);
+      this.outstanding.add(Long.valueOf(sequence));
+      return sequence;
+    }
+  }
+
+  /**
+   * Record that an operation has been applied to every shard, and flush the
+   * record to stable storage.
+   *
+   * @param sequence The sequence number returned by {@link #begin}
+   *
+   * @throws IOException On I/O errors
+   */
+
+  synchronized void complete(
+    final long sequence)
+    throws IOException
+  {
+    final var payload = ByteBuffer.allocate(8 + 1);
+    payload.putLong(sequence);
+    payload.put(RECORD_COMPLETE);
+    this.append(payload);
+    this.outstanding.remove(Long.valueOf(sequence));
+
+    if (this.outstanding.isEmpty() && this.channel.size() > TRUNCATE_SIZE) {
+      this.reset();
+    }
+  }
+
+  private static void putBytes(
+    final ByteBuffer buffer,
+    final byte[] bytes)
+  {
+    buffer.putInt(bytes.length);
+    buffer.put(bytes);
+  }
+
+  private void append(
+    final ByteBuffer payload)
+    throws IOException
+  {
+    final var checksum = new CRC32C();
+    checksum.update(payload.array(), 0, payload.capacity());
+
+    final var record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.capacity());
+    record.putInt(payload.capacity());
+    record.putInt((int) checksum.getValue());
+    record.put(payload.array());
+    record.flip();
+
+    /*
+     * If the append fails, the log is truncated back to its previous size
+     * so that a partial record cannot precede later records.
+     */
+
+    final var position = this.channel.size();
+    try {
+      while (record.hasRemaining()) {
+        this.channel.write(record, position + record.position());
+      }
+      this.channel.force(false);
+    } catch (final IOException e) {
+      try {
+        this.channel.truncate(position);
+      } catch (final IOException x) {
+        e.addSuppressed(x);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * @return The log file
+   */
+
+  Path path()
+  {
+    return this.path;
+  }
+
+  /**
+   * Close the log, discarding its contents if no operation is outstanding.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Override
+  public synchronized void close()
+    throws IOException
+  {
+    try {
+      if (this.channel.isOpen() && this.outstanding.isEmpty()) {
+        this.channel.truncate(0L);
+        this.channel.force(true);
+      }
+    } finally {
+      this.channel.close();
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.sharded;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * The main file of a sharded database, recording the kind and number of
+ * its shards. The number of shards determines which shard holds each key,
+ * so a database can only be opened with the configuration it was created
+ * with, and must otherwise be resharded.
+ */
+
+final class LLDatabaseShardedManifest
+{
+  private static final long MAGIC = 0x4C4C534841524453L;
+  private static final int VERSION = 1;
+
+  private LLDatabaseShardedManifest()
+  {
+
+  }
+
+  /**
+   * Read the configuration recorded in a manifest.
+   *
+   * @param path The manifest file
+   *
+   * @return The configuration
+   *
+   * @throws IOException On I/O errors, or if the file is not a manifest
+   */
+
+  static LLDatabaseShardedConfiguration read(
+    final Path path)
+    throws IOException
+  {
+    final var buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+    try {
+      final var magic = buffer.getLong();
+      if (magic != MAGIC) {
+        throw new IOException(
+          "File %s is not a sharded database (magic number 0x%x, expected 0x%x)."
+            .formatted(path, magic, MAGIC));
+      }
+      final var version = buffer.getInt();
+      if (version != VERSION) {
+        throw new IOException(
+          "Sharded database %s has unsupported version %d (expected %d)."
+            .formatted(path, version, VERSION));
+      }
+
+      final var shards = buffer.getInt();
+      final var kindLength = buffer.getInt();
+      final var kind = UTF_8.decode(buffer.slice(buffer.position(), kindLength)).toString();
+      buffer.position(buffer.position() + kindLength);
+
+      final var checksum = new CRC32C();
+      checksum.update(buffer.array(), 0, buffer.position());
+      if ((int) checksum.getValue() != buffer.getInt() || buffer.hasRemaining()) {
+        throw new IOException("Sharded database %s is corrupt.".formatted(path));
+      }
+      return new LLDatabaseShardedConfiguration(kind, shards);
+    } catch (final BufferUnderflowException
+                   | IndexOutOfBoundsException
+                   | IllegalArgumentException e) {
+      throw new IOException("File %s is not a sharded database.".formatted(path), e);
+    }
+  }
+
+  /**
+   * Create a manifest. The manifest is written to a temporary file and then
+   * renamed, so that a crash cannot leave a partial manifest.
+   *
+   * @param path          The manifest file
+   * @param configuration The configuration
+   *
+   * @throws IOException On I/O errors
+   */
+
+  static void create(
+    final Path path,
+    final LLDatabaseShardedConfiguration configuration)
+    throws IOException
+  {
+    final var kindBytes = configuration.kind().getBytes(UTF_8);
+    final var buffer = ByteBuffer.allocate(8 + 4 + 4 + 4 + kindBytes.length + 4);
+    buffer.putLong(MAGIC);
+    buffer.putInt(VERSION);
+    buffer.putInt(configuration.shards());
+    buffer.putInt(kindBytes.length);
+    buffer.put(kindBytes);
+
+    final var checksum = new CRC32C();
+    checksum.update(buffer.array(), 0, buffer.position());
+    buffer.putInt((int) checksum.getValue());
+    buffer.flip();
+
+    final var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    Files.deleteIfExists(temporary);
+    try (var channel = FileChannel.open(temporary, CREATE_NEW, WRITE)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(true);
+    }
+    Files.move(temporary, path, ATOMIC_MOVE);
+  }
+}
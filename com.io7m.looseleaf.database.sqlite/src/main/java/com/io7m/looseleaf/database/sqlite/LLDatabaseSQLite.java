@@ -18,7 +18,10 @@
 package com.io7m.looseleaf.database.sqlite;
 
 import com.io7m.anethum.api.ParsingException;
+import com.io7m.looseleaf.database.api.LLDatabaseCursorType;
 import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.api.LLDatabaseScan;
+import com.io7m.looseleaf.database.api.LLDatabaseScanResult;
 import com.io7m.looseleaf.database.api.LLDatabaseType;
 import com.io7m.looseleaf.security.LLKeyName;
 import com.io7m.trasco.api.TrArguments;
@@ -43,10 +46,13 @@ import java.net.URI;
 import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.io7m.trasco.api.TrExecutorUpgrade.PERFORM_UPGRADES;
@@ -68,14 +74,83 @@ public final class LLDatabaseSQLite
   private static final int DATABASE_SQLITE_ID =
     0x4C454146;
 
-  private final SQLiteDataSource dataSource;
+  private static final int WRITER_CONNECTIONS =
+    1;
+
+  private static final int WRITER_BATCH_MAXIMUM =
+    256;
+
+  private static final String QUERY_GET =
+    "SELECT kv.kv_value FROM key_value_store AS kv WHERE kv.kv_name = ?";
+
+  /*
+   * Multi-key lookups are answered in fixed-size chunks using a single
+   * statement text, so that each connection only ever prepares one such
+   * statement. Short chunks are padded by repeating the final key.
+   */
+
+  private static final int QUERY_GET_MANY_CHUNK =
+    128;
+
+  private static final String QUERY_GET_MANY =
+    "SELECT kv.kv_name, kv.kv_value FROM key_value_store AS kv WHERE kv.kv_name IN (%s)"
+      .formatted(String.join(",", Collections.nCopies(QUERY_GET_MANY_CHUNK, "?")));
+
+  private static final String QUERY_SCAN_NAMES = """
+    SELECT kv.kv_name FROM key_value_store AS kv
+      WHERE kv.kv_name > ? AND kv.kv_name < ?
+      ORDER BY kv.kv_name
+      LIMIT ?
+          """;
+
+  private static final String QUERY_SCAN_VALUES = """
+    SELECT kv.kv_name, kv.kv_value FROM key_value_store AS kv
+      WHERE kv.kv_name > ? AND kv.kv_name < ?
+      ORDER BY kv.kv_name
+      LIMIT ?
+          """;
+
+  private static final String QUERY_ALL = """
+    SELECT kv.kv_name, kv.kv_value FROM key_value_store AS kv
+      ORDER BY kv.kv_name
+          """;
+
+  private static final String QUERY_UPDATE = """
+    INSERT INTO key_value_store
+      VALUES(?, ?)
+      ON CONFLICT(kv_name)
+      DO UPDATE SET kv_value = ?;
+          """;
+
+  private static final String QUERY_DELETE = """
+    DELETE FROM key_value_store AS kv
+    WHERE kv.kv_name = ?
+          """;
+
+  private final LLDatabaseSQLiteConnectionPool writePool;
+  private final LLDatabaseSQLiteConnectionPool readPool;
+  private final LLDatabaseSQLiteStatistics statistics;
+  private final LLDatabaseSQLiteWriter writer;
   private final AtomicBoolean closed;
 
   private LLDatabaseSQLite(
-    final SQLiteDataSource inDataSource)
+    final LLDatabaseSQLiteConnectionPool inWritePool,
+    final LLDatabaseSQLiteConnectionPool inReadPool,
+    final LLDatabaseSQLiteStatistics inStatistics)
   {
-    this.dataSource =
-      Objects.requireNonNull(inDataSource, "dataSource");
+    this.writePool =
+      Objects.requireNonNull(inWritePool, "writePool");
+    this.readPool =
+      Objects.requireNonNull(inReadPool, "readPool");
+    this.statistics =
+      Objects.requireNonNull(inStatistics, "statistics");
+    this.writer =
+      new LLDatabaseSQLiteWriter(
+        inWritePool,
+        LLDatabaseSQLite::executeRUD,
+        inStatistics,
+        WRITER_BATCH_MAXIMUM
+      );
     this.closed =
       new AtomicBoolean(false);
   }
@@ -148,7 +223,7 @@ public final class LLDatabaseSQLite
   }
 
   /**
-   * Open an SQLite database.
+   * Open an SQLite database with the default configuration.
    *
    * @param file The database file
    *
@@ -161,31 +236,96 @@ public final class LLDatabaseSQLite
     final Path file)
     throws IOException
   {
+    return open(file, LLDatabaseSQLiteConfiguration.defaults());
+  }
+
+  /**
+   * Open an SQLite database.
+   *
+   * @param file          The database file
+   * @param configuration The database tuning parameters
+   *
+   * @return The database
+   *
+   * @throws IOException On errors
+   */
+
+  public static LLDatabaseType open(
+    final Path file,
+    final LLDatabaseSQLiteConfiguration configuration)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(configuration, "configuration");
+
     try {
       final var absFile = file.toAbsolutePath();
       createOrUpgrade(absFile);
-      return doOpen(absFile);
+      return doOpen(absFile, configuration);
     } catch (final Exception e) {
       throw new IOException(e);
     }
   }
 
   private static LLDatabaseType doOpen(
-    final Path file)
+    final Path file,
+    final LLDatabaseSQLiteConfiguration configuration)
+    throws SQLException
   {
     final var url = new StringBuilder(128);
     url.append("jdbc:sqlite:");
     url.append(file);
 
-    final var config = new SQLiteConfig();
-    config.setApplicationId(DATABASE_SQLITE_ID);
-    config.enforceForeignKeys(true);
-    config.setLockingMode(SQLiteConfig.LockingMode.NORMAL);
-    config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+    final var writeConfig = new SQLiteConfig();
+    writeConfig.setApplicationId(DATABASE_SQLITE_ID);
+    writeConfig.enforceForeignKeys(true);
+    writeConfig.setLockingMode(SQLiteConfig.LockingMode.NORMAL);
+    writeConfig.setJournalMode(SQLiteConfig.JournalMode.WAL);
+
+    final var writeSource = new SQLiteDataSource(writeConfig);
+    writeSource.setUrl(url.toString());
+
+    /*
+     * Reads are served by a separate set of read-only connections. Under WAL,
+     * readers never block the writer (and vice versa), and memory-mapping the
+     * database file avoids copying pages into each connection's page cache.
+     * A negative cache size is interpreted by SQLite as a size in kibibytes.
+     */
+
+    final var readConfig = new SQLiteConfig();
+    readConfig.setReadOnly(true);
+    readConfig.setLockingMode(SQLiteConfig.LockingMode.NORMAL);
+    readConfig.setCacheSize((int) -configuration.cacheSizeKiB());
+    readConfig.setPragma(
+      SQLiteConfig.Pragma.MMAP_SIZE,
+      Long.toString(configuration.mmapSize())
+    );
+
+    final var readSource = new SQLiteDataSource(readConfig);
+    readSource.setUrl(url.toString());
+
+    final var writePool =
+      new LLDatabaseSQLiteConnectionPool(
+        writeSource, WRITER_CONNECTIONS, false);
+    final var readPool =
+      new LLDatabaseSQLiteConnectionPool(
+        readSource, configuration.readConnections(), true);
+
+    /*
+     * After this initial load, the statistics are only ever refreshed by
+     * the writer, as nothing else can change them.
+     */
+
+    final var statistics = new LLDatabaseSQLiteStatistics();
+    try (var conn = readPool.acquire()) {
+      statistics.load(conn);
+    } catch (final SQLException e) {
+      readPool.close();
+      writePool.close();
+      throw e;
+    }
 
-    final var dataSource = new SQLiteDataSource(config);
-    dataSource.setUrl(url.toString());
-    return new LLDatabaseSQLite(dataSource);
+    return new LLDatabaseSQLite(writePool, readPool, statistics);
   }
 
   private static void setWALMode(
@@ -263,52 +403,14 @@ public final class LLDatabaseSQLite
 
   @Override
   public long dataSizeApproximate()
-    throws IOException
-  {
-    try (var conn = this.connection()) {
-      try (var st = conn.prepareStatement(
-        "SELECT sum(length(kv.kv_value)) FROM key_value_store AS kv")) {
-        try (var rs = st.executeQuery()) {
-          while (rs.next()) {
-            return rs.getLong(1);
-          }
-          return 0L;
-        }
-      }
-    } catch (final SQLException e) {
-      throw new IOException(e);
-    }
-  }
-
-  private Connection connection()
-    throws SQLException
   {
-    final var connection = this.dataSource.getConnection();
-    setWALMode(connection);
-    connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
-    connection.setAutoCommit(false);
-    return connection;
+    return this.statistics.dataSize();
   }
 
   @Override
   public long keyCountApproximate()
-    throws IOException
   {
-    final var query =
-      "SELECT count(kv.kv_name) FROM key_value_store AS kv";
-
-    try (var conn = this.connection()) {
-      try (var st = conn.prepareStatement(query)) {
-        try (var rs = st.executeQuery()) {
-          while (rs.next()) {
-            return rs.getLong(1);
-          }
-          return 0L;
-        }
-      }
-    } catch (final SQLException e) {
-      throw new IOException(e);
-    }
+    return this.statistics.keyCount();
   }
 
   @Override
@@ -322,99 +424,146 @@ public final class LLDatabaseSQLite
     final LLDatabaseRUD rud)
     throws IOException
   {
-    try (var conn = this.connection()) {
-      final var r = read(conn, rud);
-      update(conn, rud);
-      delete(conn, rud);
-      conn.commit();
-      return r;
-    } catch (final SQLException e) {
-      throw new IOException(e);
-    }
+    return this.writer.execute(rud);
+  }
+
+  private static Map<LLKeyName, String> executeRUD(
+    final LLDatabaseSQLiteConnection conn,
+    final LLDatabaseRUD rud)
+    throws SQLException
+  {
+    final var r = read(conn, rud);
+    update(conn, rud);
+    delete(conn, rud);
+    return r;
   }
 
   private static void delete(
-    final Connection conn,
+    final LLDatabaseSQLiteConnection conn,
     final LLDatabaseRUD rud)
     throws SQLException
   {
-    final var query = """
-      DELETE FROM key_value_store AS kv
-      WHERE kv.kv_name = ?
-            """;
-
-    try (var st = conn.prepareStatement(query)) {
-      for (final var r : rud.delete()) {
-        st.setString(1, r.value());
-        st.addBatch();
-      }
-      st.executeBatch();
+    if (rud.delete().isEmpty()) {
+      return;
     }
+
+    final var st = conn.prepare(QUERY_DELETE);
+    for (final var r : rud.delete()) {
+      st.setString(1, r.value());
+      st.addBatch();
+    }
+    st.executeBatch();
   }
 
   private static void update(
-    final Connection conn,
+    final LLDatabaseSQLiteConnection conn,
     final LLDatabaseRUD rud)
     throws SQLException
   {
-    final var query = """
-      INSERT INTO key_value_store
-        VALUES(?, ?)
-        ON CONFLICT(kv_name)
-        DO UPDATE SET kv_value = ?;
-            """;
-
-    try (var st = conn.prepareStatement(query)) {
-      for (final var entry : rud.update().entrySet()) {
-        st.setString(1, entry.getKey().value());
-        st.setString(2, entry.getValue());
-        st.setString(3, entry.getValue());
-        st.addBatch();
-      }
-      st.executeBatch();
+    if (rud.update().isEmpty()) {
+      return;
     }
+
+    final var st = conn.prepare(QUERY_UPDATE);
+    for (final var entry : rud.update().entrySet()) {
+      st.setString(1, entry.getKey().value());
+      st.setString(2, entry.getValue());
+      st.setString(3, entry.getValue());
+      st.addBatch();
+    }
+    st.executeBatch();
   }
 
   private static Map<LLKeyName, String> read(
-    final Connection conn,
+    final LLDatabaseSQLiteConnection conn,
     final LLDatabaseRUD rud)
     throws SQLException
   {
-    final var query =
-      "SELECT kv.kv_value FROM key_value_store AS kv WHERE kv.kv_name = ?";
-
-    final var r = new HashMap<LLKeyName, String>();
-    try (var st = conn.prepareStatement(query)) {
-      for (final var rr : rud.read()) {
-        st.setString(1, rr.value());
-        try (var rs = st.executeQuery()) {
-          if (rs.next()) {
-            r.put(rr, rs.getString(1));
-          }
+    return readMany(conn, rud.read());
+  }
+
+  private static Map<LLKeyName, String> readMany(
+    final LLDatabaseSQLiteConnection conn,
+    final Set<LLKeyName> keys)
+    throws SQLException
+  {
+    if (keys.isEmpty()) {
+      return Map.of();
+    }
+
+    final var r = new HashMap<LLKeyName, String>(keys.size());
+    if (keys.size() == 1) {
+      final var key = keys.iterator().next();
+      final var st = conn.prepare(QUERY_GET);
+      st.setString(1, key.value());
+      try (var rs = st.executeQuery()) {
+        if (rs.next()) {
+          r.put(key, rs.getString(1));
+        }
+      }
+      return Map.copyOf(r);
+    }
+
+    final var st =
+      conn.prepare(QUERY_GET_MANY);
+    final var chunk =
+      new HashMap<String, LLKeyName>(QUERY_GET_MANY_CHUNK);
+    final var iterator =
+      keys.iterator();
+
+    while (iterator.hasNext()) {
+      chunk.clear();
+
+      String last = null;
+      int index = 1;
+      while (index <= QUERY_GET_MANY_CHUNK && iterator.hasNext()) {
+        final var key = iterator.next();
+        last = key.value();
+        chunk.put(last, key);
+        st.setString(index, last);
+        ++index;
+      }
+      for (; index <= QUERY_GET_MANY_CHUNK; ++index) {
+        st.setString(index, last);
+      }
+
+      try (var rs = st.executeQuery()) {
+        while (rs.next()) {
+          r.put(chunk.get(rs.getString(1)), rs.getString(2));
         }
       }
     }
     return Map.copyOf(r);
   }
 
+  @Override
+  public Map<LLKeyName, String> getMany(
+    final Set<LLKeyName> keys)
+    throws IOException
+  {
+    Objects.requireNonNull(keys, "keys");
+
+    try (var conn = this.readPool.acquire()) {
+      return readMany(conn, keys);
+    } catch (final SQLException e) {
+      throw new IOException(e);
+    }
+  }
+
   @Override
   public Optional<String> get(
     final LLKeyName key)
     throws IOException
   {
-    final var query =
-      "SELECT kv.kv_value FROM key_value_store AS kv WHERE kv.kv_name = ?";
-
-    try (var conn = this.connection()) {
-      try (var st = conn.prepareStatement(query)) {
-        st.setString(1, key.value());
+    try (var conn = this.readPool.acquire()) {
+      final var st = conn.prepare(QUERY_GET);
+      st.setString(1, key.value());
 
-        try (var rs = st.executeQuery()) {
-          while (rs.next()) {
-            return Optional.of(rs.getString(1));
-          }
-          return Optional.empty();
+      try (var rs = st.executeQuery()) {
+        while (rs.next()) {
+          return Optional.of(rs.getString(1));
         }
+        return Optional.empty();
       }
     } catch (final SQLException e) {
       throw new IOException(e);
@@ -422,35 +571,76 @@ public final class LLDatabaseSQLite
   }
 
   @Override
-  public Map<LLKeyName, String> getAll()
+  public LLDatabaseScanResult scan(
+    final LLDatabaseScan scan)
     throws IOException
   {
+    Objects.requireNonNull(scan, "scan");
+
     final var query =
-      "SELECT kv.kv_name, kv.kv_value FROM key_value_store AS kv";
-
-    final HashMap<LLKeyName, String> r = new HashMap<>();
-    try (var conn = this.connection()) {
-      try (var st = conn.prepareStatement(query)) {
-        try (var rs = st.executeQuery()) {
-          while (rs.next()) {
-            r.put(
-              LLKeyName.create(rs.getString(1)),
-              rs.getString(2)
-            );
+      scan.includeValues() ? QUERY_SCAN_VALUES : QUERY_SCAN_NAMES;
+
+    try (var conn = this.readPool.acquire()) {
+      final var st = conn.prepare(query);
+      st.setString(1, scan.lowerBoundExclusive());
+      st.setString(2, scan.upperBoundExclusive());
+      st.setInt(3, scan.limit() + 1);
+
+      final var keys = new ArrayList<LLKeyName>(scan.limit());
+      final var values = new HashMap<LLKeyName, String>();
+      try (var rs = st.executeQuery()) {
+        while (rs.next()) {
+          if (keys.size() == scan.limit()) {
+            final var last = keys.get(keys.size() - 1);
+            return new LLDatabaseScanResult(keys, values, Optional.of(last));
+          }
+
+          final var key = LLKeyName.create(rs.getString(1));
+          keys.add(key);
+          if (scan.includeValues()) {
+            values.put(key, rs.getString(2));
           }
         }
       }
+      return new LLDatabaseScanResult(keys, values, Optional.empty());
     } catch (final SQLException e) {
       throw new IOException(e);
     }
-    return Map.copyOf(r);
+  }
+
+  @Override
+  public LLDatabaseCursorType cursor()
+    throws IOException
+  {
+    final LLDatabaseSQLiteConnection conn;
+    try {
+      conn = this.readPool.acquire();
+    } catch (final SQLException e) {
+      throw new IOException(e);
+    }
+
+    /*
+     * The connection is not returned to the pool until the cursor is
+     * closed; the open read transaction gives the cursor a stable snapshot
+     * of the database.
+     */
+
+    try {
+      final var st = conn.prepare(QUERY_ALL);
+      return new LLDatabaseSQLiteCursor(conn, st.executeQuery());
+    } catch (final SQLException e) {
+      conn.close();
+      throw new IOException(e);
+    }
   }
 
   @Override
   public void close()
   {
     if (this.closed.compareAndSet(false, true)) {
-      // Nothing to close, currently
+      this.writer.close();
+      this.readPool.close();
+      this.writePool.close();
     }
   }
 }
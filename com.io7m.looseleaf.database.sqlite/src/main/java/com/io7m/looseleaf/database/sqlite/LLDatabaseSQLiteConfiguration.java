@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.sqlite;
+
+/**
+ * Tuning parameters for SQLite databases.
+ *
+ * @param readConnections The maximum number of read-only connections
+ * @param mmapSize        The maximum number of bytes of the database file
+ *                        that read-only connections will memory-map
+ * @param cacheSizeKiB    The page cache size of each read-only connection,
+ *                        in kibibytes
+ */
+
+public record LLDatabaseSQLiteConfiguration(
+  int readConnections,
+  long mmapSize,
+  long cacheSizeKiB)
+{
+  /**
+   * Tuning parameters for SQLite databases.
+   *
+   * @param readConnections The maximum number of read-only connections
+   * @param mmapSize        The maximum number of bytes of the database file
+   *                        that read-only connections will memory-map
+   * @param cacheSizeKiB    The page cache size of each read-only connection,
+   *                        in kibibytes
+   */
+
+  public LLDatabaseSQLiteConfiguration
+  {
+    if (readConnections <= 0) {
+      throw new IllegalArgumentException(
+        "Read connections %d must be positive".formatted(readConnections));
+    }
+    if (mmapSize < 0L) {
+      throw new IllegalArgumentException(
+        "Memory map size %d must be non-negative".formatted(mmapSize));
+    }
+    if (cacheSizeKiB <= 0L || cacheSizeKiB > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(
+        "Cache size %d must be in the range [1, %d]"
+          .formatted(cacheSizeKiB, Integer.MAX_VALUE));
+    }
+  }
+
+  /**
+   * @return The default configuration
+   */
+
+  public static LLDatabaseSQLiteConfiguration defaults()
+  {
+    return new LLDatabaseSQLiteConfiguration(
+      8,
+      268_435_456L,
+      8_192L
+    );
+  }
+}
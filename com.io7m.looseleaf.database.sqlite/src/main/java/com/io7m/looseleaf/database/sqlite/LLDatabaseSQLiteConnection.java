@@ -0,0 +1,181 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.sqlite;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * A pooled SQLite connection with a cache of prepared statements. A
+ * connection is only ever used by one thread at a time. Closing the
+ * connection rolls back any uncommitted work and returns the connection
+ * to the pool.
+ */
+
+final class LLDatabaseSQLiteConnection implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(LLDatabaseSQLiteConnection.class);
+
+  private final LLDatabaseSQLiteConnectionPool pool;
+  private final Connection connection;
+  private final HashMap<String, PreparedStatement> statements;
+
+  /**
+   * A pooled SQLite connection.
+   *
+   * @param inPool       The owning pool
+   * @param inConnection The underlying connection
+   */
+
+  LLDatabaseSQLiteConnection(
+    final LLDatabaseSQLiteConnectionPool inPool,
+    final Connection inConnection)
+  {
+    this.pool =
+      Objects.requireNonNull(inPool, "pool");
+    this.connection =
+      Objects.requireNonNull(inConnection, "connection");
+    this.statements =
+      new HashMap<>();
+  }
+
+  /**
+   * Retrieve a prepared statement for the given SQL text, preparing it if
+   * this connection has not already done so. The returned statement is
+   * owned by the connection and must not be closed by the caller.
+   *
+   * @param text The statement text
+   *
+   * @return A prepared statement
+   *
+   * @throws SQLException On errors
+   */
+
+  PreparedStatement prepare(
+    final String text)
+    throws SQLException
+  {
+    final var existing = this.statements.get(text);
+    if (existing != null) {
+      return existing;
+    }
+
+    final var statement = this.connection.prepareStatement(text);
+    this.statements.put(text, statement);
+    return statement;
+  }
+
+  /**
+   * Commit the current transaction.
+   *
+   * @throws SQLException On errors
+   */
+
+  void commit()
+    throws SQLException
+  {
+    this.connection.commit();
+  }
+
+  /**
+   * Create a savepoint in the current transaction.
+   *
+   * @return The savepoint
+   *
+   * @throws SQLException On errors
+   */
+
+  Savepoint setSavepoint()
+    throws SQLException
+  {
+    return this.connection.setSavepoint();
+  }
+
+  /**
+   * Release the given savepoint, keeping the work done since it was created.
+   *
+   * @param savepoint The savepoint
+   *
+   * @throws SQLException On errors
+   */
+
+  void releaseSavepoint(
+    final Savepoint savepoint)
+    throws SQLException
+  {
+    this.connection.releaseSavepoint(savepoint);
+  }
+
+  /**
+   * Undo all work done since the given savepoint was created.
+   *
+   * @param savepoint The savepoint
+   *
+   * @throws SQLException On errors
+   */
+
+  void rollback(
+    final Savepoint savepoint)
+    throws SQLException
+  {
+    this.connection.rollback(savepoint);
+  }
+
+  /**
+   * Close the underlying connection, discarding all prepared statements.
+   */
+
+  void closeConnection()
+  {
+    try {
+      for (final var statement : this.statements.values()) {
+        statement.close();
+      }
+      this.statements.clear();
+      this.connection.close();
+    } catch (final SQLException e) {
+      LOG.error("failed to close connection: ", e);
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    /*
+     * Rolling back ends any read transaction left open by a query, so that
+     * the next user of the connection sees the latest committed state.
+     */
+
+    boolean healthy;
+    try {
+      this.connection.rollback();
+      healthy = true;
+    } catch (final SQLException e) {
+      LOG.error("failed to roll back connection: ", e);
+      healthy = false;
+    }
+    this.pool.release(this, healthy);
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.sqlite;
+
+import org.sqlite.SQLiteDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A bounded pool of SQLite connections. Connections are opened lazily, are
+ * configured exactly once when opened, and keep their prepared statements
+ * for as long as they remain in the pool.
+ */
+
+final class LLDatabaseSQLiteConnectionPool implements AutoCloseable
+{
+  private final SQLiteDataSource dataSource;
+  private final boolean readOnly;
+  private final Semaphore permits;
+  private final ConcurrentLinkedQueue<LLDatabaseSQLiteConnection> idle;
+  private final AtomicBoolean closed;
+
+  /**
+   * A bounded pool of SQLite connections.
+   *
+   * @param inDataSource  The data source used to open connections
+   * @param inMaximumSize The maximum number of open connections
+   * @param inReadOnly    {@code true} if the data source opens read-only
+   *                      connections
+   */
+
+  LLDatabaseSQLiteConnectionPool(
+    final SQLiteDataSource inDataSource,
+    final int inMaximumSize,
+    final boolean inReadOnly)
+  {
+    this.dataSource =
+      Objects.requireNonNull(inDataSource, "dataSource");
+    this.readOnly =
+      inReadOnly;
+
+    if (inMaximumSize <= 0) {
+      throw new IllegalArgumentException(
+        "Maximum size %d must be positive".formatted(inMaximumSize));
+    }
+
+    this.permits =
+      new Semaphore(inMaximumSize, true);
+    this.idle =
+      new ConcurrentLinkedQueue<>();
+    this.closed =
+      new AtomicBoolean(false);
+  }
+
+  /**
+   * Acquire a connection, opening a new one if no idle connections are
+   * available, and waiting if the pool is exhausted. The connection is
+   * returned to the pool when it is closed.
+   *
+   * @return A connection
+   *
+   * @throws SQLException On errors
+   */
+
+  LLDatabaseSQLiteConnection acquire()
+    throws SQLException
+  {
+    this.checkNotClosed();
+
+    try {
+      this.permits.acquire();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException(e);
+    }
+
+    try {
+      this.checkNotClosed();
+      final var existing = this.idle.poll();
+      if (existing != null) {
+        return existing;
+      }
+      return new LLDatabaseSQLiteConnection(this, this.open());
+    } catch (final SQLException e) {
+      this.permits.release();
+      throw e;
+    }
+  }
+
+  private void checkNotClosed()
+    throws SQLException
+  {
+    if (this.closed.get()) {
+      throw new SQLException("Connection pool is closed.");
+    }
+  }
+
+  private Connection open()
+    throws SQLException
+  {
+    final var connection = this.dataSource.getConnection();
+    try {
+      if (!this.readOnly) {
+        try (var st = connection.createStatement()) {
+          st.execute("PRAGMA journal_mode=WAL;");
+        }
+      }
+      connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+      connection.setAutoCommit(false);
+      return connection;
+    } catch (final SQLException e) {
+      connection.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Return a connection to the pool.
+   *
+   * @param connection The connection
+   * @param healthy    {@code false} if the connection should be discarded
+   */
+
+  void release(
+    final LLDatabaseSQLiteConnection connection,
+    final boolean healthy)
+  {
+    try {
+      if (healthy && !this.closed.get()) {
+        this.idle.add(connection);
+
+        /*
+         * The pool may have been closed concurrently; make sure the
+         * connection is not stranded.
+         */
+
+        if (this.closed.get()) {
+          this.closeIdle();
+        }
+      } else {
+        connection.closeConnection();
+      }
+    } finally {
+      this.permits.release();
+    }
+  }
+
+  private void closeIdle()
+  {
+    while (true) {
+      final var connection = this.idle.poll();
+      if (connection == null) {
+        return;
+      }
+      connection.closeConnection();
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      this.closeIdle();
+    }
+  }
+}
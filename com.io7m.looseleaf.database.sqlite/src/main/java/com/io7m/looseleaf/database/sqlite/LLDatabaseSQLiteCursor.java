@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.sqlite;
+
+import com.io7m.looseleaf.database.api.LLDatabaseCursorType;
+import com.io7m.looseleaf.security.LLKeyName;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * A cursor over a SQLite result set. The cursor holds a pooled read
+ * connection, and the read transaction on that connection, until it is
+ * closed. SQLite steps through the result set lazily, so only the current
+ * row is held in memory.
+ */
+
+final class LLDatabaseSQLiteCursor implements LLDatabaseCursorType
+{
+  private final LLDatabaseSQLiteConnection connection;
+  private final ResultSet results;
+  private LLKeyName key;
+  private String value;
+  private boolean closed;
+
+  /**
+   * A cursor over a SQLite result set.
+   *
+   * @param inConnection The connection that owns the result set
+   * @param inResults    The result set
+   */
+
+  LLDatabaseSQLiteCursor(
+    final LLDatabaseSQLiteConnection inConnection,
+    final ResultSet inResults)
+  {
+    this.connection =
+      Objects.requireNonNull(inConnection, "connection");
+    this.results =
+      Objects.requireNonNull(inResults, "results");
+  }
+
+  @Override
+  public boolean next()
+    throws IOException
+  {
+    if (this.closed) {
+      throw new IllegalStateException("Cursor is closed.");
+    }
+
+    try {
+      if (this.results.next()) {
+        this.key = LLKeyName.create(this.results.getString(1));
+        this.value = this.results.getString(2);
+        return true;
+      }
+    } catch (final SQLException e) {
+      throw new IOException(e);
+    }
+
+    this.key = null;
+    this.value = null;
+    return false;
+  }
+
+  @Override
+  public LLKeyName key()
+  {
+    if (this.key == null) {
+      throw new IllegalStateException("Cursor does not point at an entry.");
+    }
+    return this.key;
+  }
+
+  @Override
+  public String value()
+  {
+    if (this.value == null) {
+      throw new IllegalStateException("Cursor does not point at an entry.");
+    }
+    return this.value;
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.closed) {
+      return;
+    }
+
+    this.closed = true;
+    this.key = null;
+    this.value = null;
+
+    try {
+      this.results.close();
+    } catch (final SQLException e) {
+      throw new IOException(e);
+    } finally {
+      this.connection.close();
+    }
+  }
+}
@@ -22,6 +22,7 @@ import com.io7m.looseleaf.database.api.LLDatabaseType;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Objects;
 
 /**
  * A database based on SQLite.
@@ -30,13 +31,28 @@ import java.nio.file.Path;
 public final class LLDatabaseSQLiteFactory
   implements LLDatabaseFactoryType
 {
+  private final LLDatabaseSQLiteConfiguration configuration;
+
   /**
    * A database based on SQLite.
    */
 
   public LLDatabaseSQLiteFactory()
   {
+    this(LLDatabaseSQLiteConfiguration.defaults());
+  }
 
+  /**
+   * A database based on SQLite.
+   *
+   * @param inConfiguration The database tuning parameters
+   */
+
+  public LLDatabaseSQLiteFactory(
+    final LLDatabaseSQLiteConfiguration inConfiguration)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
   }
 
   @Override
@@ -50,6 +66,6 @@ public final class LLDatabaseSQLiteFactory
     final Path file)
     throws IOException
   {
-    return LLDatabaseSQLite.open(file);
+    return LLDatabaseSQLite.open(file, this.configuration);
   }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.sqlite;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The in-memory copy of the database statistics. The statistics table is
+ * maintained by triggers inside each write transaction, and this copy is
+ * refreshed by the writer after each commit, so reading the statistics
+ * never touches the database.
+ */
+
+final class LLDatabaseSQLiteStatistics
+{
+  private static final String QUERY_STATISTICS =
+    "SELECT kvs.kvs_count, kvs.kvs_size FROM key_value_statistics AS kvs";
+
+  private final AtomicLong keyCount;
+  private final AtomicLong dataSize;
+
+  /**
+   * The in-memory copy of the database statistics.
+   */
+
+  LLDatabaseSQLiteStatistics()
+  {
+    this.keyCount =
+      new AtomicLong(0L);
+    this.dataSize =
+      new AtomicLong(0L);
+  }
+
+  /**
+   * Load the statistics from the database using the given connection.
+   *
+   * @param connection The connection
+   *
+   * @throws SQLException On errors
+   */
+
+  void load(
+    final LLDatabaseSQLiteConnection connection)
+    throws SQLException
+  {
+    final var st = connection.prepare(QUERY_STATISTICS);
+    try (var rs = st.executeQuery()) {
+      if (rs.next()) {
+        this.keyCount.set(rs.getLong(1));
+        this.dataSize.set(rs.getLong(2));
+      }
+    }
+  }
+
+  /**
+   * @return The number of keys as of the most recent load
+   */
+
+  long keyCount()
+  {
+    return this.keyCount.get();
+  }
+
+  /**
+   * @return The total length of all values as of the most recent load
+   */
+
+  long dataSize()
+  {
+    return this.dataSize.get();
+  }
+}
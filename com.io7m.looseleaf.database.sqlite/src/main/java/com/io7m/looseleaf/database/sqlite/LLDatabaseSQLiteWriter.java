@@ -0,0 +1,273 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.database.sqlite;
+
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.security.LLKeyName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A single writer thread that executes all RUD operations. Operations that
+ * are queued while a transaction is in progress are packed together into
+ * the next transaction (group commit), so that a burst of concurrent writers
+ * pays for a single commit. Each operation executes inside its own savepoint,
+ * so a failing operation is rolled back and reported to its caller without
+ * affecting the other operations in the same transaction.
+ */
+
+final class LLDatabaseSQLiteWriter implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(LLDatabaseSQLiteWriter.class);
+
+  private static final Request STOP =
+    new Request(null, null);
+
+  private final LLDatabaseSQLiteConnectionPool pool;
+  private final OperationType operation;
+  private final LLDatabaseSQLiteStatistics statistics;
+  private final int batchMaximum;
+  private final LinkedBlockingQueue<Request> queue;
+  private final AtomicBoolean closed;
+  private final Thread thread;
+
+  /**
+   * An operation executed by the writer.
+   */
+
+  @FunctionalInterface
+  interface OperationType
+  {
+    /**
+     * Execute the given RUD operation on the given connection. The operation
+     * must not commit.
+     *
+     * @param connection The connection
+     * @param rud        The operation
+     *
+     * @return The read keys
+     *
+     * @throws SQLException On errors
+     */
+
+    Map<LLKeyName, String> execute(
+      LLDatabaseSQLiteConnection connection,
+      LLDatabaseRUD rud)
+      throws SQLException;
+  }
+
+  private record Request(
+    LLDatabaseRUD rud,
+    CompletableFuture<Map<LLKeyName, String>> future)
+  {
+
+  }
+
+  private record Completed(
+    Request request,
+    Map<LLKeyName, String> result)
+  {
+
+  }
+
+  /**
+   * A single writer thread that executes all RUD operations.
+   *
+   * @param inPool         The connection pool
+   * @param inOperation    The operation used to execute each RUD
+   * @param inStatistics   The statistics refreshed after each commit
+   * @param inBatchMaximum The maximum number of operations per transaction
+   */
+
+  LLDatabaseSQLiteWriter(
+    final LLDatabaseSQLiteConnectionPool inPool,
+    final OperationType inOperation,
+    final LLDatabaseSQLiteStatistics inStatistics,
+    final int inBatchMaximum)
+  {
+    this.pool =
+      Objects.requireNonNull(inPool, "pool");
+    this.operation =
+      Objects.requireNonNull(inOperation, "operation");
+    this.statistics =
+      Objects.requireNonNull(inStatistics, "statistics");
+
+    if (inBatchMaximum <= 0) {
+      throw new IllegalArgumentException(
+        "Batch maximum %d must be positive".formatted(inBatchMaximum));
+    }
+
+    this.batchMaximum =
+      inBatchMaximum;
+    this.queue =
+      new LinkedBlockingQueue<>();
+    this.closed =
+      new AtomicBoolean(false);
+
+    this.thread = new Thread(this::run);
+    this.thread.setName("com.io7m.looseleaf.database.sqlite.writer");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Submit an operation and wait for it to complete.
+   *
+   * @param rud The operation
+   *
+   * @return The read keys
+   *
+   * @throws IOException On errors
+   */
+
+  Map<LLKeyName, String> execute(
+    final LLDatabaseRUD rud)
+    throws IOException
+  {
+    Objects.requireNonNull(rud, "rud");
+
+    if (this.closed.get()) {
+      throw new IOException("Database is closed.");
+    }
+
+    final var request = new Request(rud, new CompletableFuture<>());
+    this.queue.add(request);
+
+    /*
+     * The writer may have been closed concurrently, in which case nothing
+     * will ever take the request from the queue.
+     */
+
+    if (this.closed.get() && this.queue.remove(request)) {
+      throw new IOException("Database is closed.");
+    }
+
+    try {
+      return request.future().get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (final ExecutionException e) {
+      throw new IOException(e.getCause());
+    }
+  }
+
+  private void run()
+  {
+    final var batch = new ArrayList<Request>(this.batchMaximum);
+
+    while (!this.closed.get() || !this.queue.isEmpty()) {
+      try {
+        batch.clear();
+        final var first = this.queue.take();
+        if (first == STOP) {
+          continue;
+        }
+
+        batch.add(first);
+        this.queue.drainTo(batch, this.batchMaximum - 1);
+        batch.removeIf(r -> r == STOP);
+        this.executeBatch(batch);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (final Throwable e) {
+        LOG.error("writer: ", e);
+        for (final var request : batch) {
+          request.future().completeExceptionally(e);
+        }
+      }
+    }
+  }
+
+  private void executeBatch(
+    final List<Request> batch)
+  {
+    final var completed = new ArrayList<Completed>(batch.size());
+
+    try (var connection = this.pool.acquire()) {
+      for (final var request : batch) {
+        final var savepoint = connection.setSavepoint();
+        try {
+          final var result =
+            this.operation.execute(connection, request.rud());
+          connection.releaseSavepoint(savepoint);
+          completed.add(new Completed(request, result));
+        } catch (final SQLException e) {
+          connection.rollback(savepoint);
+          request.future().completeExceptionally(e);
+        }
+      }
+      connection.commit();
+      this.refreshStatistics(connection);
+    } catch (final SQLException e) {
+      for (final var request : batch) {
+        request.future().completeExceptionally(e);
+      }
+      return;
+    }
+
+    for (final var c : completed) {
+      c.request().future().complete(c.result());
+    }
+  }
+
+  private void refreshStatistics(
+    final LLDatabaseSQLiteConnection connection)
+  {
+    try {
+      this.statistics.load(connection);
+    } catch (final SQLException e) {
+      LOG.error("failed to refresh statistics: ", e);
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      this.queue.add(STOP);
+
+      try {
+        this.thread.join();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+
+      while (true) {
+        final var request = this.queue.poll();
+        if (request == null) {
+          break;
+        }
+        request.future().completeExceptionally(
+          new IOException("Database is closed."));
+      }
+    }
+  }
+}
@@ -31,4 +31,7 @@ module com.io7m.looseleaf.database.sqlite
   requires org.xerial.sqlitejdbc;
 
   exports com.io7m.looseleaf.database.sqlite;
+
+  provides com.io7m.looseleaf.database.api.LLDatabaseFactoryType
+    with com.io7m.looseleaf.database.sqlite.LLDatabaseSQLiteFactory;
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.protocol.v1;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A page of key names produced by a prefix listing.
+ *
+ * @param keyNames  The key names, in ascending order
+ * @param keyValues The values of the keys, if values were requested
+ * @param next      The cursor from which to continue the listing, or
+ *                  {@code null} if the listing is complete
+ */
+
+@JsonDeserialize
+@JsonSerialize
+public record LLv1Listing(
+  @JsonProperty(value = "keyNames", required = true)
+  List<String> keyNames,
+  @JsonProperty(value = "keyValues", required = true)
+  Map<String, String> keyValues,
+  @JsonProperty(value = "next", required = false)
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  String next)
+  implements LLv1MessageType
+{
+  /**
+   * A page of key names produced by a prefix listing.
+   *
+   * @param keyNames  The key names, in ascending order
+   * @param keyValues The values of the keys, if values were requested
+   * @param next      The cursor from which to continue the listing, or
+   *                  {@code null} if the listing is complete
+   */
+
+  public LLv1Listing
+  {
+    Objects.requireNonNull(keyNames, "keyNames");
+    Objects.requireNonNull(keyValues, "keyValues");
+  }
+}
@@ -32,17 +32,26 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
     @JsonSubTypes.Type(
       value = LLv1Errors.class,
       name = "LLv1Errors"),
+    @JsonSubTypes.Type(
+      value = LLv1Listing.class,
+      name = "LLv1Listing"),
     @JsonSubTypes.Type(
       value = LLv1RUD.class,
       name = "LLv1RUD"),
+    @JsonSubTypes.Type(
+      value = LLv1ReadMany.class,
+      name = "LLv1ReadMany"),
     @JsonSubTypes.Type(
       value = LLv1Result.class,
-      name = "LLv1Result")
+      name = "LLv1Result"),
+    @JsonSubTypes.Type(
+      value = LLv1Token.class,
+      name = "LLv1Token")
   }
 )
 @JsonTypeInfo(use = JsonTypeInfo.Id.DEDUCTION, visible = false)
 public sealed interface LLv1MessageType
-  permits LLv1Error, LLv1Errors, LLv1RUD, LLv1Result
+  permits LLv1Error, LLv1Errors, LLv1Listing, LLv1RUD, LLv1ReadMany, LLv1Result, LLv1Token
 {
 
 }
@@ -49,12 +49,16 @@ public final class LLv1Messages
       DmJsonRestrictedDeserializers.builder()
         .allowClass(LLv1Error.class)
         .allowClass(LLv1Errors.class)
+        .allowClass(LLv1Listing.class)
         .allowClass(LLv1MessageType.class)
         .allowClass(LLv1RUD.class)
+        .allowClass(LLv1ReadMany.class)
         .allowClass(LLv1Result.class)
+        .allowClass(LLv1Token.class)
         .allowClass(String.class)
         .allowClassName(
           "java.util.List<com.io7m.looseleaf.protocol.v1.LLv1Error>")
+        .allowClassName("java.util.List<java.lang.String>")
         .allowClassName("java.util.Map<java.lang.String,java.lang.String>")
         .allowClassName("java.util.Set<java.lang.String>")
         .build();
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.protocol.v1;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Objects;
+
+/**
+ * A bearer session token.
+ *
+ * @param token   The opaque token text
+ * @param expires The time at which the token expires (RFC 3339)
+ */
+
+@JsonDeserialize
+@JsonSerialize
+public record LLv1Token(
+  @JsonProperty(value = "token", required = true)
+  String token,
+  @JsonProperty(value = "expires", required = true)
+  String expires)
+  implements LLv1MessageType
+{
+  /**
+   * A bearer session token.
+   *
+   * @param token   The opaque token text
+   * @param expires The time at which the token expires (RFC 3339)
+   */
+
+  public LLv1Token
+  {
+    Objects.requireNonNull(token, "token");
+    Objects.requireNonNull(expires, "expires");
+  }
+}
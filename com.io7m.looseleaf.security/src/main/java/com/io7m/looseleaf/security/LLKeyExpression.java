@@ -17,7 +17,6 @@
 package com.io7m.looseleaf.security;
 
 import java.util.Objects;
-import java.util.regex.Pattern;
 
 /**
  * A key expression that defines a set of keys.
@@ -25,11 +24,9 @@ import java.util.regex.Pattern;
 
 public final class LLKeyExpression
 {
-  private static final Pattern SLASHES =
-    Pattern.compile("/+");
-
   private final String value;
   private final boolean wildcard;
+  private final int hash;
 
   private LLKeyExpression(
     final String inValue)
@@ -37,7 +34,7 @@ public final class LLKeyExpression
     Objects.requireNonNull(inValue, "value");
 
     final var normalized =
-      SLASHES.matcher(inValue).replaceAll("/");
+      LLKeyNormalization.collapseSlashes(inValue);
 
     if (!normalized.startsWith("/")) {
       throw new IllegalArgumentException(
@@ -49,7 +46,7 @@ public final class LLKeyExpression
         "Key expressions must not equal /");
     }
 
-    this.wildcard = normalized.contains("*");
+    this.wildcard = normalized.indexOf('*') != -1;
     if (this.wildcard && !normalized.endsWith("*")) {
       throw new IllegalArgumentException(
         "Wildcards can only appear at the end of key expressions (received '%s')"
@@ -57,7 +54,9 @@ public final class LLKeyExpression
       );
     }
 
-    this.value = normalized.replace("*", "");
+    this.value =
+      this.wildcard ? normalized.replace("*", "") : normalized;
+    this.hash = this.value.hashCode();
   }
 
   /**
@@ -90,7 +89,7 @@ public final class LLKeyExpression
   @Override
   public int hashCode()
   {
-    return Objects.hash(this.value);
+    return this.hash;
   }
 
   /**
@@ -102,6 +101,16 @@ public final class LLKeyExpression
     return this.value;
   }
 
+  /**
+   * @return {@code true} if this expression ends with a wildcard, and
+   * therefore matches every key that begins with {@link #value()}
+   */
+
+  public boolean isWildcard()
+  {
+    return this.wildcard;
+  }
+
   @Override
   public String toString()
   {
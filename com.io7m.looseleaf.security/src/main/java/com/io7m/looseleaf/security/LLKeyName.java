@@ -17,7 +17,6 @@
 package com.io7m.looseleaf.security;
 
 import java.util.Objects;
-import java.util.regex.Pattern;
 
 /**
  * The name of a key.
@@ -25,12 +24,8 @@ import java.util.regex.Pattern;
 
 public final class LLKeyName implements Comparable<LLKeyName>
 {
-  private static final Pattern SLASHES =
-    Pattern.compile("/+");
-  private static final Pattern SLASHES_END =
-    Pattern.compile("/+$");
-
   private final String value;
+  private final int hash;
 
   private LLKeyName(
     final String inValue)
@@ -38,7 +33,7 @@ public final class LLKeyName implements Comparable<LLKeyName>
     Objects.requireNonNull(inValue, "value");
 
     final var normalized =
-      SLASHES.matcher(inValue).replaceAll("/");
+      LLKeyNormalization.collapseSlashes(inValue);
 
     if (!normalized.startsWith("/")) {
       throw new IllegalArgumentException(
@@ -50,7 +45,18 @@ public final class LLKeyName implements Comparable<LLKeyName>
         "Key expressions must not equal /");
     }
 
-    this.value = SLASHES_END.matcher(normalized).replaceAll("");
+    /*
+     * Runs of slashes have already been collapsed, so there can be at most
+     * one trailing slash.
+     */
+
+    final var last = normalized.length() - 1;
+    if (normalized.charAt(last) == '/') {
+      this.value = normalized.substring(0, last);
+    } else {
+      this.value = normalized;
+    }
+    this.hash = this.value.hashCode();
   }
 
   /**
@@ -80,7 +86,7 @@ public final class LLKeyName implements Comparable<LLKeyName>
       return false;
     }
     final LLKeyName that = (LLKeyName) o;
-    return this.value.equals(that.value);
+    return this.hash == that.hash && this.value.equals(that.value);
   }
 
   @Override
@@ -92,7 +98,7 @@ public final class LLKeyName implements Comparable<LLKeyName>
   @Override
   public int hashCode()
   {
-    return Objects.hash(this.value);
+    return this.hash;
   }
 
   /**
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.security;
+
+/**
+ * Functions to normalize key names and key expressions.
+ */
+
+final class LLKeyNormalization
+{
+  private LLKeyNormalization()
+  {
+
+  }
+
+  /**
+   * Replace each run of consecutive slashes in the given text with a single
+   * slash. The text is returned unchanged, without copying, if it contains
+   * no such runs.
+   *
+   * @param text The text
+   *
+   * @return The normalized text
+   */
+
+  static String collapseSlashes(
+    final String text)
+  {
+    final var length = text.length();
+    final var first = text.indexOf("//");
+    if (first == -1) {
+      return text;
+    }
+
+    final var result = new StringBuilder(length - 1);
+    result.append(text, 0, first + 1);
+
+    var previousSlash = true;
+    for (int index = first + 2; index < length; ++index) {
+      final var c = text.charAt(index);
+      final var slash = c == '/';
+      if (!(slash && previousSlash)) {
+        result.append(c);
+      }
+      previousSlash = slash;
+    }
+    return result.toString();
+  }
+}
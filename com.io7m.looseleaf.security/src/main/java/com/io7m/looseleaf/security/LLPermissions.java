@@ -0,0 +1,213 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.security;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The grants of a set of roles, compiled into an index that answers
+ * permission checks without examining each grant. For each action, exact
+ * key expressions are held in a hash set, and wildcard key expressions are
+ * held in a prefix trie. A check therefore costs time proportional to the
+ * length of the key, regardless of the number of roles and grants.
+ */
+
+public final class LLPermissions
+{
+  private static final Node EMPTY_NODE =
+    new Node(new char[0], new Node[0], false);
+
+  private final EnumMap<LLAction, Set<String>> exact;
+  private final EnumMap<LLAction, Node> prefixes;
+
+  private LLPermissions(
+    final EnumMap<LLAction, Set<String>> inExact,
+    final EnumMap<LLAction, Node> inPrefixes)
+  {
+    this.exact =
+      Objects.requireNonNull(inExact, "exact");
+    this.prefixes =
+      Objects.requireNonNull(inPrefixes, "prefixes");
+  }
+
+  /**
+   * Compile the grants of the given roles.
+   *
+   * @param roles The roles
+   *
+   * @return The compiled permissions
+   */
+
+  public static LLPermissions compile(
+    final Collection<LLRole> roles)
+  {
+    Objects.requireNonNull(roles, "roles");
+
+    final var exact =
+      new EnumMap<LLAction, Set<String>>(LLAction.class);
+    final var prefixes =
+      new EnumMap<LLAction, Node>(LLAction.class);
+
+    for (final var action : LLAction.values()) {
+      final var exactNames = new HashSet<String>();
+      final var trie = new NodeBuilder();
+
+      for (final var role : roles) {
+        for (final var grant : role.grants()) {
+          if (grant.action() != action) {
+            continue;
+          }
+
+          final var keys = grant.keys();
+          if (keys.isWildcard()) {
+            trie.add(keys.value());
+          } else {
+            exactNames.add(keys.value());
+          }
+        }
+      }
+
+      exact.put(action, Set.copyOf(exactNames));
+      prefixes.put(action, trie.build());
+    }
+
+    return new LLPermissions(exact, prefixes);
+  }
+
+  /**
+   * Determine if the given action is allowed on the given key.
+   *
+   * @param action  The action
+   * @param keyName The key
+   *
+   * @return {@code true} if the action is allowed
+   */
+
+  public boolean allows(
+    final LLAction action,
+    final LLKeyName keyName)
+  {
+    Objects.requireNonNull(action, "action");
+    Objects.requireNonNull(keyName, "keyName");
+
+    final var name = keyName.value();
+    if (this.exact.get(action).contains(name)) {
+      return true;
+    }
+
+    /*
+     * Walk the trie along the key; reaching any node that terminates a
+     * wildcard prefix means that the prefix is a prefix of the key.
+     */
+
+    var node = this.prefixes.get(action);
+    final var length = name.length();
+    for (int index = 0; index < length; ++index) {
+      if (node.terminal) {
+        return true;
+      }
+      node = node.child(name.charAt(index));
+      if (node == null) {
+        return false;
+      }
+    }
+    return node.terminal;
+  }
+
+  private static final class Node
+  {
+    private final char[] labels;
+    private final Node[] children;
+    private final boolean terminal;
+
+    Node(
+      final char[] inLabels,
+      final Node[] inChildren,
+      final boolean inTerminal)
+    {
+      this.labels = inLabels;
+      this.children = inChildren;
+      this.terminal = inTerminal;
+    }
+
+    Node child(
+      final char c)
+    {
+      final var index = Arrays.binarySearch(this.labels, c);
+      if (index < 0) {
+        return null;
+      }
+      return this.children[index];
+    }
+  }
+
+  private static final class NodeBuilder
+  {
+    private final TreeMap<Character, NodeBuilder> children;
+    private boolean terminal;
+
+    NodeBuilder()
+    {
+      this.children = new TreeMap<>();
+    }
+
+    void add(
+      final String prefix)
+    {
+      var node = this;
+      for (int index = 0; index < prefix.length(); ++index) {
+        node = node.children.computeIfAbsent(
+          Character.valueOf(prefix.charAt(index)),
+          c -> new NodeBuilder()
+        );
+      }
+      node.terminal = true;
+    }
+
+    Node build()
+    {
+      if (this.children.isEmpty() && !this.terminal) {
+        return EMPTY_NODE;
+      }
+
+      /*
+       * Nothing below a terminal node can change the result of a check,
+       * so terminal nodes are built without children.
+       */
+
+      if (this.terminal) {
+        return new Node(new char[0], new Node[0], true);
+      }
+
+      final var labels = new char[this.children.size()];
+      final var nodes = new Node[this.children.size()];
+      int index = 0;
+      for (final var entry : this.children.entrySet()) {
+        labels[index] = entry.getKey().charValue();
+        nodes[index] = entry.getValue().build();
+        ++index;
+      }
+      return new Node(labels, nodes, false);
+    }
+  }
+}
@@ -60,7 +60,11 @@ public record LLRole(
     Objects.requireNonNull(action, "action");
     Objects.requireNonNull(keyName, "keyName");
 
-    return this.grants.stream()
-      .anyMatch(grant -> grant.action() == action && grant.matches(keyName));
+    for (final var grant : this.grants) {
+      if (grant.action() == action && grant.matches(keyName)) {
+        return true;
+      }
+    }
+    return false;
   }
 }
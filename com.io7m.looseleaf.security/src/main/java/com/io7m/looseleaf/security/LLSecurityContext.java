@@ -32,15 +32,19 @@ public final class LLSecurityContext
 {
   private final Map<LLRoleName, LLRole> roles;
   private final Map<LLUserName, LLUser> users;
+  private final Map<LLUserName, LLPermissions> permissions;
 
   private LLSecurityContext(
     final Map<LLRoleName, LLRole> inRoles,
-    final Map<LLUserName, LLUser> inUsers)
+    final Map<LLUserName, LLUser> inUsers,
+    final Map<LLUserName, LLPermissions> inPermissions)
   {
     this.roles =
       Objects.requireNonNull(inRoles, "roles");
     this.users =
       Objects.requireNonNull(inUsers, "users");
+    this.permissions =
+      Objects.requireNonNull(inPermissions, "permissions");
   }
 
   /**
@@ -70,6 +74,32 @@ public final class LLSecurityContext
     return this.users;
   }
 
+  /**
+   * Obtain the compiled permissions of a user. The grants of each user in
+   * the context are compiled once when the context is built; the grants of
+   * any other user are compiled on each call.
+   *
+   * @param user The user
+   *
+   * @return The user's compiled permissions
+   */
+
+  public LLPermissions permissionsOf(
+    final LLUser user)
+  {
+    Objects.requireNonNull(user, "user");
+
+    /*
+     * Users obtained from this context are the same instances, so an
+     * identity check avoids comparing every grant of every role.
+     */
+
+    if (this.users.get(user.name()) == user) {
+      return this.permissions.get(user.name());
+    }
+    return LLPermissions.compile(user.roles().values());
+  }
+
   /**
    * A mutable security context builder.
    */
@@ -170,9 +200,18 @@ public final class LLSecurityContext
 
     public LLSecurityContext build()
     {
+      final var permissions = new HashMap<LLUserName, LLPermissions>();
+      for (final var user : this.users.values()) {
+        permissions.put(
+          user.name(),
+          LLPermissions.compile(user.roles().values())
+        );
+      }
+
       return new LLSecurityContext(
         Map.copyOf(this.roles),
-        Map.copyOf(this.users)
+        Map.copyOf(this.users),
+        Map.copyOf(permissions)
       );
     }
   }
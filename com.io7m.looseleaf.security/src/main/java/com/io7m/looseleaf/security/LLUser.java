@@ -44,12 +44,14 @@ public record LLUser(
   {
     Objects.requireNonNull(name, "name");
     Objects.requireNonNull(password, "password");
-    Objects.requireNonNull(roles, "roles");
+    roles = Map.copyOf(Objects.requireNonNull(roles, "roles"));
   }
 
   /**
    * Determine if the user is permitted to perform the given action on the given
-   * key.
+   * key. This examines each grant of each role; code that checks many keys
+   * should use the compiled permissions held by
+   * {@link LLSecurityContext#permissionsOf(LLUser)} instead.
    *
    * @param action  The action
    * @param keyName The key
@@ -64,8 +66,11 @@ public record LLUser(
     Objects.requireNonNull(action, "action");
     Objects.requireNonNull(keyName, "keyName");
 
-    return this.roles.values()
-      .stream()
-      .anyMatch(r -> r.allows(action, keyName));
+    for (final var role : this.roles.values()) {
+      if (role.allows(action, keyName)) {
+        return true;
+      }
+    }
+    return false;
   }
 }
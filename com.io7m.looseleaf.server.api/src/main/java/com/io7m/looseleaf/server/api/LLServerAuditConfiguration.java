@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.api;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Objects;
+
+/**
+ * Audit configuration.
+ *
+ * @param sampleRate The fraction of requests that produce audit records,
+ *                   in the range {@code [0, 1]}
+ * @param detail     The level of detail recorded for each request
+ */
+
+@JsonDeserialize
+@JsonSerialize
+public record LLServerAuditConfiguration(
+  @JsonProperty(value = "sampleRate", required = true)
+  double sampleRate,
+  @JsonProperty(value = "detail", required = true)
+  LLServerAuditDetail detail)
+{
+  /**
+   * Audit configuration.
+   *
+   * @param sampleRate The fraction of requests that produce audit records,
+   *                   in the range {@code [0, 1]}
+   * @param detail     The level of detail recorded for each request
+   */
+
+  public LLServerAuditConfiguration
+  {
+    Objects.requireNonNull(detail, "detail");
+
+    if (!(sampleRate >= 0.0 && sampleRate <= 1.0)) {
+      throw new IllegalArgumentException(
+        "Sample rate %f must be in the range [0, 1]".formatted(sampleRate));
+    }
+  }
+
+  /**
+   * @return The default configuration, which records every request with
+   * key names
+   */
+
+  public static LLServerAuditConfiguration defaults()
+  {
+    return new LLServerAuditConfiguration(1.0, LLServerAuditDetail.KEYS);
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.api;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.Duration;
+
+/**
+ * Authentication configuration.
+ *
+ * @param credentialCacheSize              The maximum number of successful
+ *                                         password verifications held in the
+ *                                         credential cache
+ * @param credentialCacheTimeToLiveSeconds The number of seconds for which a
+ *                                         cached verification remains valid
+ * @param sessionTokenTimeToLiveSeconds    The number of seconds for which a
+ *                                         session token remains valid
+ */
+
+@JsonDeserialize
+@JsonSerialize
+public record LLServerAuthenticationConfiguration(
+  @JsonProperty(value = "credentialCacheSize", required = true)
+  int credentialCacheSize,
+  @JsonProperty(value = "credentialCacheTimeToLiveSeconds", required = true)
+  long credentialCacheTimeToLiveSeconds,
+  @JsonProperty(value = "sessionTokenTimeToLiveSeconds", required = true)
+  long sessionTokenTimeToLiveSeconds)
+{
+  /**
+   * Authentication configuration.
+   *
+   * @param credentialCacheSize              The maximum number of successful
+   *                                         password verifications held in the
+   *                                         credential cache
+   * @param credentialCacheTimeToLiveSeconds The number of seconds for which a
+   *                                         cached verification remains valid
+   * @param sessionTokenTimeToLiveSeconds    The number of seconds for which a
+   *                                         session token remains valid
+   */
+
+  public LLServerAuthenticationConfiguration
+  {
+    if (credentialCacheSize <= 0) {
+      throw new IllegalArgumentException(
+        "Credential cache size %d must be positive"
+          .formatted(credentialCacheSize));
+    }
+    if (credentialCacheTimeToLiveSeconds <= 0L) {
+      throw new IllegalArgumentException(
+        "Credential cache time to live %d must be positive"
+          .formatted(credentialCacheTimeToLiveSeconds));
+    }
+    if (sessionTokenTimeToLiveSeconds <= 0L) {
+      throw new IllegalArgumentException(
+        "Session token time to live %d must be positive"
+          .formatted(sessionTokenTimeToLiveSeconds));
+    }
+  }
+
+  /**
+   * @return The default configuration, which caches up to 4096
+   * verifications for five minutes, and issues session tokens that are
+   * valid for fifteen minutes
+   */
+
+  public static LLServerAuthenticationConfiguration defaults()
+  {
+    return new LLServerAuthenticationConfiguration(4096, 300L, 900L);
+  }
+
+  /**
+   * @return The length of time a cached verification remains valid
+   */
+
+  public Duration credentialCacheTimeToLive()
+  {
+    return Duration.ofSeconds(this.credentialCacheTimeToLiveSeconds);
+  }
+
+  /**
+   * @return The length of time a session token remains valid
+   */
+
+  public Duration sessionTokenTimeToLive()
+  {
+    return Duration.ofSeconds(this.sessionTokenTimeToLiveSeconds);
+  }
+}
@@ -26,6 +26,7 @@ import com.io7m.looseleaf.security.LLSecurityContext;
 import com.io7m.looseleaf.security.LLUserName;
 
 import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -41,6 +42,16 @@ import java.util.Optional;
  * @param users          The set of users
  * @param telemetry      The telemetry configuration
  * @param faultInjection The fault injection configuration
+ * @param sqlite         The SQLITE database tuning parameters
+ * @param readCache      The read cache configuration
+ * @param audit          The audit configuration
+ * @param metrics        The metrics configuration
+ * @param memory         The MEMORY database tuning parameters
+ * @param bitcask        The BITCASK database tuning parameters
+ * @param lsm            The LSM database tuning parameters
+ * @param sharded        The SHARDED database parameters
+ * @param mounts         The databases that hold keys with given prefixes
+ * @param authentication The authentication configuration
  */
 
 @JsonDeserialize
@@ -61,7 +72,27 @@ public record LLServerConfiguration(
   @JsonProperty(value = "telemetry", required = false)
   Optional<LLTelemetryConfiguration> telemetry,
   @JsonProperty(value = "faultInjection", required = false)
-  Optional<LLFaultInjection> faultInjection)
+  Optional<LLFaultInjection> faultInjection,
+  @JsonProperty(value = "sqlite", required = false)
+  Optional<LLServerSQLiteConfiguration> sqlite,
+  @JsonProperty(value = "readCache", required = false)
+  Optional<LLServerReadCacheConfiguration> readCache,
+  @JsonProperty(value = "audit", required = false)
+  Optional<LLServerAuditConfiguration> audit,
+  @JsonProperty(value = "metrics", required = false)
+  Optional<LLServerMetricsConfiguration> metrics,
+  @JsonProperty(value = "memory", required = false)
+  Optional<LLServerMemoryConfiguration> memory,
+  @JsonProperty(value = "bitcask", required = false)
+  Optional<LLServerBitcaskConfiguration> bitcask,
+  @JsonProperty(value = "lsm", required = false)
+  Optional<LLServerLSMConfiguration> lsm,
+  @JsonProperty(value = "sharded", required = false)
+  Optional<LLServerShardedConfiguration> sharded,
+  @JsonProperty(value = "mounts", required = false)
+  List<LLServerMount> mounts,
+  @JsonProperty(value = "authentication", required = false)
+  Optional<LLServerAuthenticationConfiguration> authentication)
 {
   /**
    * A server configuration.
@@ -74,6 +105,16 @@ public record LLServerConfiguration(
    * @param users          The set of users
    * @param telemetry      The telemetry configuration
    * @param faultInjection The fault injection configuration
+   * @param sqlite         The SQLITE database tuning parameters
+   * @param readCache      The read cache configuration
+   * @param audit          The audit configuration
+   * @param metrics        The metrics configuration
+   * @param memory         The MEMORY database tuning parameters
+   * @param bitcask        The BITCASK database tuning parameters
+   * @param lsm            The LSM database tuning parameters
+   * @param sharded        The SHARDED database parameters
+   * @param mounts         The databases that hold keys with given prefixes
+   * @param authentication The authentication configuration
    */
 
   public LLServerConfiguration
@@ -84,6 +125,40 @@ public record LLServerConfiguration(
     Objects.requireNonNull(users, "users");
     Objects.requireNonNull(telemetry, "telemetry");
     Objects.requireNonNull(faultInjection, "faultInjection");
+    Objects.requireNonNull(sqlite, "sqlite");
+    Objects.requireNonNull(readCache, "readCache");
+    Objects.requireNonNull(audit, "audit");
+    Objects.requireNonNull(metrics, "metrics");
+    Objects.requireNonNull(memory, "memory");
+    Objects.requireNonNull(bitcask, "bitcask");
+    Objects.requireNonNull(lsm, "lsm");
+    Objects.requireNonNull(sharded, "sharded");
+    Objects.requireNonNull(authentication, "authentication");
+
+    mounts = mounts == null ? List.of() : List.copyOf(mounts);
+    checkMounts(databaseFile, mounts);
+  }
+
+  private static void checkMounts(
+    final Path databaseFile,
+    final List<LLServerMount> mounts)
+  {
+    final var prefixes = new HashSet<String>();
+    final var files = new HashSet<Path>();
+    files.add(databaseFile.toAbsolutePath().normalize());
+
+    for (final var mount : mounts) {
+      if (!prefixes.add(mount.prefix())) {
+        throw new IllegalArgumentException(
+          "Mount prefix '%s' is specified more than once"
+            .formatted(mount.prefix()));
+      }
+      if (!files.add(mount.databaseFile().toAbsolutePath().normalize())) {
+        throw new IllegalArgumentException(
+          "Database file '%s' of mount '%s' is used by another database"
+            .formatted(mount.databaseFile(), mount.prefix()));
+      }
+    }
   }
 
   /**
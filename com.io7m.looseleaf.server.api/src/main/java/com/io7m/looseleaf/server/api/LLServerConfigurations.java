@@ -53,14 +53,22 @@ public final class LLServerConfigurations
       DmJsonRestrictedDeserializers.builder()
         .allowClass(LLServerAction.class)
         .allowClass(LLServerAddress.class)
+        .allowClass(LLServerAuditConfiguration.class)
+        .allowClass(LLServerAuditDetail.class)
+        .allowClass(LLServerAuthenticationConfiguration.class)
         .allowClass(LLServerConfiguration.class)
         .allowClass(LLServerGrant.class)
         .allowClass(LLServerHashedPassword.class)
+        .allowClass(LLServerMetricsConfiguration.class)
+        .allowClass(LLServerReadCacheConfiguration.class)
         .allowClass(LLServerRole.class)
+        .allowClass(LLServerSQLiteConfiguration.class)
         .allowClass(LLServerUser.class)
+        .allowClass(LLTelemetryConfiguration.LLBatchExport.class)
         .allowClass(LLTelemetryConfiguration.LLLogs.class)
         .allowClass(LLTelemetryConfiguration.LLMetrics.class)
         .allowClass(LLTelemetryConfiguration.LLOTLPProtocol.class)
+        .allowClass(LLTelemetryConfiguration.LLTraceSampling.class)
         .allowClass(LLTelemetryConfiguration.LLTraces.class)
         .allowClass(LLTelemetryConfiguration.class)
         .allowClass(LLFaultInjection.class)
@@ -69,11 +77,31 @@ public final class LLServerConfigurations
         .allowClass(String.class)
         .allowClass(URI.class)
         .allowClass(int.class)
+        .allowClass(long.class)
+        .allowClass(Long.class)
+        .allowClass(boolean.class)
         .allowClass(double.class)
+        .allowClass(Double.class)
         .allowClassName(
           "java.util.Optional<com.io7m.looseleaf.server.api.LLFaultInjection>")
+        .allowClassName(
+          "java.util.Optional<com.io7m.looseleaf.server.api.LLServerAuditConfiguration>")
+        .allowClassName(
+          "java.util.Optional<com.io7m.looseleaf.server.api.LLServerAuthenticationConfiguration>")
+        .allowClassName(
+          "java.util.Optional<com.io7m.looseleaf.server.api.LLServerAddress>")
+        .allowClassName(
+          "java.util.Optional<com.io7m.looseleaf.server.api.LLServerMetricsConfiguration>")
+        .allowClassName(
+          "java.util.Optional<com.io7m.looseleaf.server.api.LLServerReadCacheConfiguration>")
+        .allowClassName(
+          "java.util.Optional<com.io7m.looseleaf.server.api.LLServerSQLiteConfiguration>")
         .allowClassName(
           "java.util.Optional<com.io7m.looseleaf.server.api.LLTelemetryConfiguration>")
+        .allowClassName(
+          "java.util.Optional<java.lang.Long>")
+        .allowClassName(
+          "java.util.List<java.lang.Double>")
         .allowClassName(
           "java.util.List<java.lang.String>")
         .allowClassName(
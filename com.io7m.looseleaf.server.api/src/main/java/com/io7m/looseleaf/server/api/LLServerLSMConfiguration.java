@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.api;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Tuning parameters for the LSM database.
+ *
+ * @param synchronousCommit {@code true} if each commit must be flushed to
+ *                          stable storage before it completes
+ * @param memtableSize      The approximate size in bytes that the in-memory
+ *                          table may reach before it is written to a table
+ *                          file
+ * @param blockSize         The approximate size in bytes of the blocks in
+ *                          table files
+ * @param bloomBitsPerKey   The number of bloom filter bits per key in table
+ *                          files
+ * @param compactionFanout  The number of tables of a similar size that are
+ *                          compacted together
+ */
+
+@JsonDeserialize
+@JsonSerialize
+public record LLServerLSMConfiguration(
+  @JsonProperty(value = "synchronousCommit", required = true)
+  boolean synchronousCommit,
+  @JsonProperty(value = "memtableSize", required = true)
+  long memtableSize,
+  @JsonProperty(value = "blockSize", required = true)
+  int blockSize,
+  @JsonProperty(value = "bloomBitsPerKey", required = true)
+  int bloomBitsPerKey,
+  @JsonProperty(value = "compactionFanout", required = true)
+  int compactionFanout)
+{
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.api;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Metrics configuration.
+ *
+ * @param latencyBuckets The upper bounds (in milliseconds) of the buckets
+ *                       used for latency histograms, in strictly increasing
+ *                       order
+ * @param scrapeAddress  The address on which to serve metrics in OpenMetrics
+ *                       format, if any
+ */
+
+@JsonDeserialize
+@JsonSerialize
+public record LLServerMetricsConfiguration(
+  @JsonProperty(value = "latencyBuckets", required = true)
+  List<Double> latencyBuckets,
+  @JsonProperty(value = "scrapeAddress", required = false)
+  Optional<LLServerAddress> scrapeAddress)
+{
+  /**
+   * Metrics configuration.
+   *
+   * @param latencyBuckets The upper bounds (in milliseconds) of the buckets
+   *                       used for latency histograms, in strictly increasing
+   *                       order
+   * @param scrapeAddress  The address on which to serve metrics in OpenMetrics
+   *                       format, if any
+   */
+
+  public LLServerMetricsConfiguration
+  {
+    Objects.requireNonNull(latencyBuckets, "latencyBuckets");
+    Objects.requireNonNull(scrapeAddress, "scrapeAddress");
+    latencyBuckets = List.copyOf(latencyBuckets);
+
+    var previous = Double.NEGATIVE_INFINITY;
+    for (final var bound : latencyBuckets) {
+      if (!Double.isFinite(bound) || bound <= 0.0) {
+        throw new IllegalArgumentException(
+          "Latency bucket bound %s must be finite and positive"
+            .formatted(bound));
+      }
+      if (bound <= previous) {
+        throw new IllegalArgumentException(
+          "Latency bucket bounds must be strictly increasing (%s follows %s)"
+            .formatted(bound, previous));
+      }
+      previous = bound;
+    }
+  }
+
+  /**
+   * @return The default configuration, with buckets spanning 100
+   * microseconds to 10 seconds, and no scrape endpoint
+   */
+
+  public static LLServerMetricsConfiguration defaults()
+  {
+    return new LLServerMetricsConfiguration(
+      List.of(
+        0.1, 0.25, 0.5,
+        1.0, 2.5, 5.0,
+        10.0, 25.0, 50.0,
+        100.0, 250.0, 500.0,
+        1000.0, 2500.0, 5000.0,
+        10000.0
+      ),
+      Optional.empty()
+    );
+  }
+}
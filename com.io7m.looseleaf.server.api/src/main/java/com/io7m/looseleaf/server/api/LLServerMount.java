@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.api;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * A mount: a database that holds every key beginning with a given prefix,
+ * instead of the server's main database.
+ *
+ * @param prefix       The key prefix, such as "/cache/"
+ * @param databaseFile The database file
+ * @param databaseKind The database kind (such as "SQLITE"); the database is
+ *                     tuned by the configuration section of that kind
+ */
+
+@JsonDeserialize
+@JsonSerialize
+public record LLServerMount(
+  @JsonProperty(value = "prefix", required = true)
+  String prefix,
+  @JsonProperty(value = "databaseFile", required = true)
+  Path databaseFile,
+  @JsonProperty(value = "databaseKind", required = true)
+  String databaseKind)
+{
+  /**
+   * A mount: a database that holds every key beginning with a given prefix,
+   * instead of the server's main database.
+   *
+   * @param prefix       The key prefix, such as "/cache/"
+   * @param databaseFile The database file
+   * @param databaseKind The database kind (such as "SQLITE"); the database is
+   *                     tuned by the configuration section of that kind
+   */
+
+  public LLServerMount
+  {
+    Objects.requireNonNull(prefix, "prefix");
+    Objects.requireNonNull(databaseFile, "databaseFile");
+    Objects.requireNonNull(databaseKind, "databaseKind");
+
+    if (prefix.length() < 3 || !prefix.startsWith("/") || !prefix.endsWith("/")) {
+      throw new IllegalArgumentException(
+        "Mount prefix '%s' must begin and end with '/', and must not be '/'"
+          .formatted(prefix));
+    }
+  }
+}
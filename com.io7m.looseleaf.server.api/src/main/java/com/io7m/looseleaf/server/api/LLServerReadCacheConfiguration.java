@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.api;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Configuration for the in-process read cache.
+ *
+ * @param maximumBytes The approximate maximum number of bytes held by the
+ *                     cache
+ */
+
+@JsonDeserialize
+@JsonSerialize
+public record LLServerReadCacheConfiguration(
+  @JsonProperty(value = "maximumBytes", required = true)
+  long maximumBytes)
+{
+  /**
+   * Configuration for the in-process read cache.
+   *
+   * @param maximumBytes The approximate maximum number of bytes held by the
+   *                     cache
+   */
+
+  public LLServerReadCacheConfiguration
+  {
+    if (maximumBytes <= 0L) {
+      throw new IllegalArgumentException(
+        "Maximum bytes %d must be positive".formatted(maximumBytes));
+    }
+  }
+}
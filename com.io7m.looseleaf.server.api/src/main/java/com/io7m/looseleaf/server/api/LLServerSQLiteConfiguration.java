@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.api;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Tuning parameters for the SQLITE database.
+ *
+ * @param readConnections The maximum number of read-only connections
+ * @param mmapSize        The maximum number of bytes of the database file
+ *                        that read-only connections will memory-map
+ * @param cacheSizeKiB    The page cache size of each read-only connection,
+ *                        in kibibytes
+ */
+
+@JsonDeserialize
+@JsonSerialize
+public record LLServerSQLiteConfiguration(
+  @JsonProperty(value = "readConnections", required = true)
+  int readConnections,
+  @JsonProperty(value = "mmapSize", required = true)
+  long mmapSize,
+  @JsonProperty(value = "cacheSizeKiB", required = true)
+  long cacheSizeKiB)
+{
+
+}
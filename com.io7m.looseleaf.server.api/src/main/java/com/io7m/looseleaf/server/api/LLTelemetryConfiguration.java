@@ -86,8 +86,11 @@ public record LLTelemetryConfiguration(
   /**
    * Metrics configuration.
    *
-   * @param endpoint The endpoint to which OTLP metrics data will be sent.
-   * @param protocol The protocol used to deliver OpenTelemetry data.
+   * @param endpoint                   The endpoint to which OTLP metrics data
+   *                                   will be sent.
+   * @param protocol                   The protocol used to deliver
+   *                                   OpenTelemetry data.
+   * @param exportIntervalMilliseconds The interval between metric exports
    */
 
   @JsonDeserialize
@@ -96,7 +99,9 @@ public record LLTelemetryConfiguration(
     @JsonProperty("endpoint")
     URI endpoint,
     @JsonProperty("protocol")
-    LLOTLPProtocol protocol)
+    LLOTLPProtocol protocol,
+    @JsonProperty(value = "exportIntervalMilliseconds", required = false)
+    Optional<Long> exportIntervalMilliseconds)
   {
     /**
      * Metrics configuration.
@@ -106,6 +111,15 @@ public record LLTelemetryConfiguration(
     {
       Objects.requireNonNull(endpoint, "endpoint");
       Objects.requireNonNull(protocol, "protocol");
+      Objects.requireNonNull(
+        exportIntervalMilliseconds, "exportIntervalMilliseconds");
+
+      exportIntervalMilliseconds.ifPresent(ms -> {
+        if (ms.longValue() <= 0L) {
+          throw new IllegalArgumentException(
+            "Export interval %d must be positive".formatted(ms));
+        }
+      });
     }
   }
 
@@ -114,6 +128,8 @@ public record LLTelemetryConfiguration(
    *
    * @param endpoint The endpoint to which OTLP trace data will be sent.
    * @param protocol The protocol used to deliver OpenTelemetry data.
+   * @param sampling The trace sampling configuration
+   * @param batch    The export batching configuration
    */
 
   @JsonDeserialize
@@ -122,7 +138,11 @@ public record LLTelemetryConfiguration(
     @JsonProperty("endpoint")
     URI endpoint,
     @JsonProperty("protocol")
-    LLOTLPProtocol protocol)
+    LLOTLPProtocol protocol,
+    @JsonProperty(value = "sampling", required = false)
+    Optional<LLTraceSampling> sampling,
+    @JsonProperty(value = "batch", required = false)
+    Optional<LLBatchExport> batch)
   {
     /**
      * Trace configuration.
@@ -132,6 +152,8 @@ public record LLTelemetryConfiguration(
     {
       Objects.requireNonNull(endpoint, "endpoint");
       Objects.requireNonNull(protocol, "protocol");
+      Objects.requireNonNull(sampling, "sampling");
+      Objects.requireNonNull(batch, "batch");
     }
   }
 
@@ -140,6 +162,7 @@ public record LLTelemetryConfiguration(
    *
    * @param endpoint The endpoint to which OTLP log data will be sent.
    * @param protocol The protocol used to deliver OpenTelemetry data.
+   * @param batch    The export batching configuration
    */
 
   @JsonDeserialize
@@ -148,7 +171,9 @@ public record LLTelemetryConfiguration(
     @JsonProperty("endpoint")
     URI endpoint,
     @JsonProperty("protocol")
-    LLOTLPProtocol protocol)
+    LLOTLPProtocol protocol,
+    @JsonProperty(value = "batch", required = false)
+    Optional<LLBatchExport> batch)
   {
     /**
      * Log configuration.
@@ -158,6 +183,101 @@ public record LLTelemetryConfiguration(
     {
       Objects.requireNonNull(endpoint, "endpoint");
       Objects.requireNonNull(protocol, "protocol");
+      Objects.requireNonNull(batch, "batch");
+    }
+  }
+
+  /**
+   * Trace sampling configuration. Requests are sampled at the start of
+   * processing with the given ratio; requests that were not sampled may
+   * still produce a trace if they fail or turn out to be slow.
+   *
+   * @param ratio                   The fraction of requests that are traced,
+   *                                in the range {@code [0, 1]}
+   * @param parentBased             Whether a sampling decision made by a
+   *                                caller (propagated in the request's trace
+   *                                context) takes precedence over the ratio
+   * @param alwaysSampleErrors      Whether requests that fail are always
+   *                                traced
+   * @param slowRequestMilliseconds Requests taking at least this long are
+   *                                always traced
+   */
+
+  @JsonDeserialize
+  @JsonSerialize
+  public record LLTraceSampling(
+    @JsonProperty(value = "ratio", required = true)
+    double ratio,
+    @JsonProperty(value = "parentBased", required = true)
+    boolean parentBased,
+    @JsonProperty(value = "alwaysSampleErrors", required = true)
+    boolean alwaysSampleErrors,
+    @JsonProperty(value = "slowRequestMilliseconds", required = false)
+    Optional<Long> slowRequestMilliseconds)
+  {
+    /**
+     * Trace sampling configuration.
+     */
+
+    public LLTraceSampling
+    {
+      Objects.requireNonNull(
+        slowRequestMilliseconds, "slowRequestMilliseconds");
+
+      if (!(ratio >= 0.0 && ratio <= 1.0)) {
+        throw new IllegalArgumentException(
+          "Sampling ratio %f must be in the range [0, 1]".formatted(ratio));
+      }
+      slowRequestMilliseconds.ifPresent(ms -> {
+        if (ms.longValue() <= 0L) {
+          throw new IllegalArgumentException(
+            "Slow request threshold %d must be positive".formatted(ms));
+        }
+      });
+    }
+  }
+
+  /**
+   * Export batching configuration.
+   *
+   * @param maxQueueSize              The maximum number of items queued for
+   *                                  export; items are dropped when the
+   *                                  queue is full
+   * @param maxExportBatchSize        The maximum number of items sent in a
+   *                                  single export
+   * @param scheduleDelayMilliseconds The delay between exports
+   */
+
+  @JsonDeserialize
+  @JsonSerialize
+  public record LLBatchExport(
+    @JsonProperty(value = "maxQueueSize", required = true)
+    int maxQueueSize,
+    @JsonProperty(value = "maxExportBatchSize", required = true)
+    int maxExportBatchSize,
+    @JsonProperty(value = "scheduleDelayMilliseconds", required = true)
+    long scheduleDelayMilliseconds)
+  {
+    /**
+     * Export batching configuration.
+     */
+
+    public LLBatchExport
+    {
+      if (maxQueueSize <= 0) {
+        throw new IllegalArgumentException(
+          "Queue size %d must be positive".formatted(maxQueueSize));
+      }
+      if (maxExportBatchSize <= 0 || maxExportBatchSize > maxQueueSize) {
+        throw new IllegalArgumentException(
+          "Export batch size %d must be in the range [1, %d]"
+            .formatted(maxExportBatchSize, maxQueueSize));
+      }
+      if (scheduleDelayMilliseconds <= 0L) {
+        throw new IllegalArgumentException(
+          "Schedule delay %d must be positive"
+            .formatted(scheduleDelayMilliseconds));
+      }
     }
   }
 }
@@ -20,18 +20,21 @@ import com.io7m.jdeferthrow.core.ExceptionTracker;
 import com.io7m.jmulticlose.core.CloseableCollection;
 import com.io7m.looseleaf.database.api.LLDatabaseFactoryType;
 import com.io7m.looseleaf.database.api.LLDatabaseType;
-import com.io7m.looseleaf.database.mvstore.LLDatabaseMVStoreFactory;
-import com.io7m.looseleaf.database.sqlite.LLDatabaseSQLiteFactory;
 import com.io7m.looseleaf.security.LLSecurityContext;
 import com.io7m.looseleaf.server.api.LLServerAddress;
+import com.io7m.looseleaf.server.api.LLServerAuditConfiguration;
+import com.io7m.looseleaf.server.api.LLServerAuthenticationConfiguration;
 import com.io7m.looseleaf.server.api.LLServerConfiguration;
 import com.io7m.looseleaf.server.api.LLServerFactoryType;
+import com.io7m.looseleaf.server.api.LLServerMetricsConfiguration;
 import com.io7m.looseleaf.server.api.LLServerType;
 import com.io7m.looseleaf.server.internal.LLConfigurationService;
+import com.io7m.looseleaf.server.internal.LLDatabaseFactories;
 import com.io7m.looseleaf.server.internal.LLDatabaseService;
 import com.io7m.looseleaf.server.internal.LLErrorHandler;
 import com.io7m.looseleaf.server.internal.LLHealth;
 import com.io7m.looseleaf.server.internal.LLMetricsService;
+import com.io7m.looseleaf.server.internal.LLPrefixRoutedDatabase;
 import com.io7m.looseleaf.server.internal.LLRequestLogger;
 import com.io7m.looseleaf.server.internal.LLServer;
 import com.io7m.looseleaf.server.internal.LLServerClock;
@@ -41,14 +44,22 @@ import com.io7m.looseleaf.server.internal.LLServletHolders;
 import com.io7m.looseleaf.server.internal.LLStrings;
 import com.io7m.looseleaf.server.internal.LLVersions;
 import com.io7m.looseleaf.server.internal.LLv1MessagesService;
+import com.io7m.looseleaf.server.internal.audit.LLAuditService;
 import com.io7m.looseleaf.server.internal.auth.LLBasicAuthenticator;
+import com.io7m.looseleaf.server.internal.auth.LLCredentialCache;
 import com.io7m.looseleaf.server.internal.auth.LLLoginService;
+import com.io7m.looseleaf.server.internal.auth.LLSessionTokens;
+import com.io7m.looseleaf.server.internal.telemetry.LLOpenMetricsReader;
+import com.io7m.looseleaf.server.internal.telemetry.LLOpenMetricsServlet;
 import com.io7m.looseleaf.server.internal.telemetry.LLTelemetryServiceType;
 import com.io7m.looseleaf.server.internal.telemetry.LLTelemetryServices;
 import com.io7m.looseleaf.server.internal.v1.LLCheckAuthServlet;
 import com.io7m.looseleaf.server.internal.v1.LLDeleteServlet;
+import com.io7m.looseleaf.server.internal.v1.LLListServlet;
 import com.io7m.looseleaf.server.internal.v1.LLRUDServlet;
+import com.io7m.looseleaf.server.internal.v1.LLReadManyServlet;
 import com.io7m.looseleaf.server.internal.v1.LLReadServlet;
+import com.io7m.looseleaf.server.internal.v1.LLTokenServlet;
 import com.io7m.looseleaf.server.internal.v1.LLUpdateServlet;
 import com.io7m.repetoir.core.RPServiceDirectory;
 import com.io7m.repetoir.core.RPServiceDirectoryType;
@@ -57,16 +68,19 @@ import org.eclipse.jetty.security.ConstraintSecurityHandler;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
 import org.eclipse.jetty.util.security.Constraint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.nio.file.Path;
 import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
@@ -82,7 +96,7 @@ public final class LLServers implements LLServerFactoryType
   private static final Logger LOG =
     LoggerFactory.getLogger(LLServers.class);
 
-  private final List<LLDatabaseFactoryType> databases;
+  private static final int AUDIT_BUFFER_CAPACITY = 8192;
 
   /**
    * A server factory.
@@ -90,23 +104,23 @@ public final class LLServers implements LLServerFactoryType
 
   public LLServers()
   {
-    this.databases = List.of(
-      new LLDatabaseMVStoreFactory(),
-      new LLDatabaseSQLiteFactory()
-    );
+
   }
 
   private static ConstraintSecurityHandler createSecurityHandler(
     final LLTelemetryServiceType telemetry,
     final LLSecurityContext context,
-    final LLMetricsService metrics)
+    final LLMetricsService metrics,
+    final LLCredentialCache credentialCache,
+    final LLSessionTokens sessionTokens,
+    final LLServerClock clock)
   {
-    final var loginService = new LLLoginService(context);
+    final var loginService = new LLLoginService(context, credentialCache);
     loginService.setName("looseleaf");
 
     final var securityHandler = new ConstraintSecurityHandler();
     securityHandler.setAuthenticator(
-      new LLBasicAuthenticator(telemetry, metrics)
+      new LLBasicAuthenticator(telemetry, metrics, sessionTokens, context, clock)
     );
     securityHandler.setRealmName("looseleaf");
     securityHandler.setLoginService(loginService);
@@ -148,8 +162,18 @@ public final class LLServers implements LLServerFactoryType
 
     final var services =
       new RPServiceDirectory();
+    final var metricsConfiguration =
+      configuration.metrics()
+        .orElseGet(LLServerMetricsConfiguration::defaults);
+    final var scrapeAddress =
+      metricsConfiguration.scrapeAddress();
+    final var scrapeReader =
+      scrapeAddress.map(address -> new LLOpenMetricsReader());
     final var telemetry =
-      LLTelemetryServices.createOptional(configuration.telemetry());
+      LLTelemetryServices.createOptional(
+        configuration.telemetry(),
+        scrapeReader
+      );
 
     services.register(
       LLConfigurationService.class,
@@ -157,19 +181,49 @@ public final class LLServers implements LLServerFactoryType
     );
 
     services.register(LLTelemetryServiceType.class, telemetry);
-    services.register(
-      LLServerClock.class,
-      new LLServerClock(Clock.systemUTC()));
+    final var clock = new LLServerClock(Clock.systemUTC());
+    services.register(LLServerClock.class, clock);
 
-    final var databaseService = new LLDatabaseService(database);
+    final var databaseService =
+      new LLDatabaseService(database, configuration.readCache());
     services.register(LLDatabaseService.class, databaseService);
 
     services.register(LLv1MessagesService.class, new LLv1MessagesService());
     services.register(LLStrings.class, new LLStrings(Locale.getDefault()));
 
+    final var metrics =
+      new LLMetricsService(databaseService, telemetry, metricsConfiguration);
+    services.register(LLMetricsService.class, metrics);
+
+    final var audit =
+      resources.add(
+        new LLAuditService(
+          telemetry,
+          configuration.audit()
+            .orElseGet(LLServerAuditConfiguration::defaults),
+          AUDIT_BUFFER_CAPACITY
+        )
+      );
+    services.register(LLAuditService.class, audit);
+
+    final var authentication =
+      configuration.authentication()
+        .orElseGet(LLServerAuthenticationConfiguration::defaults);
+
     services.register(
-      LLMetricsService.class,
-      new LLMetricsService(databaseService, telemetry)
+      LLCredentialCache.class,
+      new LLCredentialCache(
+        metrics,
+        authentication.credentialCacheSize(),
+        authentication.credentialCacheTimeToLive())
+    );
+
+    services.register(
+      LLSessionTokens.class,
+      new LLSessionTokens(
+        securityContext,
+        clock,
+        authentication.sessionTokenTimeToLive())
     );
 
     final var servers = new ArrayList<Server>();
@@ -184,6 +238,17 @@ public final class LLServers implements LLServerFactoryType
       }
     }
 
+    if (scrapeAddress.isPresent()) {
+      try {
+        final var server =
+          createScrapeServer(scrapeReader.orElseThrow(), scrapeAddress.get());
+        resources.add(server::stop);
+        servers.add(server);
+      } catch (final Exception e) {
+        exceptions.addException(new IOException(e));
+      }
+    }
+
     exceptions.throwIfNecessary();
     return new LLServer(resources, servers, services);
   }
@@ -192,12 +257,65 @@ public final class LLServers implements LLServerFactoryType
     final LLServerConfiguration configuration)
     throws IOException
   {
-    final var databaseKind =
-      configuration.databaseKind()
-        .orElse("MVSTORE");
+    final var factories =
+      LLDatabaseFactories.create(configuration);
+    final var root =
+      openDatabaseOfKind(
+        factories,
+        configuration.databaseKind().orElse("MVSTORE"),
+        configuration.databaseFile()
+      );
+
+    if (configuration.mounts().isEmpty()) {
+      return root;
+    }
+
+    final var mounts = new HashMap<String, LLDatabaseType>();
+    try {
+      for (final var mount : configuration.mounts()) {
+        mounts.put(
+          mount.prefix(),
+          openDatabaseOfKind(
+            factories,
+            mount.databaseKind(),
+            mount.databaseFile())
+        );
+        LOG.info(
+          "mounted {} database {} at {}",
+          mount.databaseKind(),
+          mount.databaseFile(),
+          mount.prefix()
+        );
+      }
+    } catch (final IOException | RuntimeException e) {
+      for (final var database : mounts.values()) {
+        closeSuppressing(database, e);
+      }
+      closeSuppressing(root, e);
+      throw e;
+    }
+    return new LLPrefixRoutedDatabase(root, mounts);
+  }
+
+  private static void closeSuppressing(
+    final LLDatabaseType database,
+    final Exception e)
+  {
+    try {
+      database.close();
+    } catch (final IOException x) {
+      e.addSuppressed(x);
+    }
+  }
 
+  private static LLDatabaseType openDatabaseOfKind(
+    final List<LLDatabaseFactoryType> factories,
+    final String databaseKind,
+    final Path databaseFile)
+    throws IOException
+  {
     final var factory =
-      this.databases.stream()
+      factories.stream()
         .filter(f -> Objects.equals(f.kind(), databaseKind))
         .findFirst()
         .orElseThrow(() -> {
@@ -211,7 +329,34 @@ public final class LLServers implements LLServerFactoryType
       LOG.warn("The MVSTORE database is deprecated; please migrate to SQLITE.");
     }
 
-    return factory.open(configuration.databaseFile());
+    return factory.open(databaseFile);
+  }
+
+  private static Server createScrapeServer(
+    final LLOpenMetricsReader reader,
+    final LLServerAddress address)
+    throws Exception
+  {
+    final var server =
+      new Server(new InetSocketAddress(address.host(), address.port()));
+
+    final var servlets =
+      new ServletContextHandler();
+
+    servlets.addServlet(
+      new ServletHolder(new LLOpenMetricsServlet(reader)),
+      "/metrics"
+    );
+
+    server.setErrorHandler(new LLErrorHandler());
+    server.setHandler(servlets);
+    server.start();
+    LOG.info(
+      "[{}:{}] metrics scrape server started",
+      address.host(),
+      address.port()
+    );
+    return server;
   }
 
   private Server createServer(
@@ -236,7 +381,10 @@ public final class LLServers implements LLServerFactoryType
       createSecurityHandler(
         services.requireService(LLTelemetryServiceType.class),
         securityContext,
-        services.requireService(LLMetricsService.class))
+        services.requireService(LLMetricsService.class),
+        services.requireService(LLCredentialCache.class),
+        services.requireService(LLSessionTokens.class),
+        services.requireService(LLServerClock.class))
     );
 
     servlets.addServlet(
@@ -264,6 +412,14 @@ public final class LLServers implements LLServerFactoryType
       servletHolders.create(LLReadServlet.class, LLReadServlet::new),
       "/v1/read/*"
     );
+    servlets.addServlet(
+      servletHolders.create(LLReadManyServlet.class, LLReadManyServlet::new),
+      "/v1/read-many"
+    );
+    servlets.addServlet(
+      servletHolders.create(LLListServlet.class, LLListServlet::new),
+      "/v1/list/*"
+    );
     servlets.addServlet(
       servletHolders.create(LLDeleteServlet.class, LLDeleteServlet::new),
       "/v1/delete/*"
@@ -272,6 +428,10 @@ public final class LLServers implements LLServerFactoryType
       servletHolders.create(LLCheckAuthServlet.class, LLCheckAuthServlet::new),
       "/v1/check-auth"
     );
+    servlets.addServlet(
+      servletHolders.create(LLTokenServlet.class, LLTokenServlet::new),
+      "/v1/token"
+    );
 
     /*
      * Add a handler that tracks request/response time.
@@ -0,0 +1,122 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal;
+
+import com.io7m.looseleaf.database.api.LLDatabaseFactoryType;
+import com.io7m.looseleaf.database.bitcask.LLDatabaseBitcaskConfiguration;
+import com.io7m.looseleaf.database.bitcask.LLDatabaseBitcaskFactory;
+import com.io7m.looseleaf.database.lsm.LLDatabaseLSMConfiguration;
+import com.io7m.looseleaf.database.lsm.LLDatabaseLSMFactory;
+import com.io7m.looseleaf.database.memory.LLDatabaseMemoryConfiguration;
+import com.io7m.looseleaf.database.memory.LLDatabaseMemoryFactory;
+import com.io7m.looseleaf.database.mvstore.LLDatabaseMVStoreFactory;
+import com.io7m.looseleaf.database.sharded.LLDatabaseShardedConfiguration;
+import com.io7m.looseleaf.database.sharded.LLDatabaseShardedFactory;
+import com.io7m.looseleaf.database.sqlite.LLDatabaseSQLiteConfiguration;
+import com.io7m.looseleaf.database.sqlite.LLDatabaseSQLiteFactory;
+import com.io7m.looseleaf.server.api.LLServerConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The database implementations available to the server.
+ */
+
+public final class LLDatabaseFactories
+{
+  private LLDatabaseFactories()
+  {
+
+  }
+
+  /**
+   * Create a factory for each supported kind of database, configured from
+   * the given server configuration.
+   *
+   * @param configuration The server configuration
+   *
+   * @return The database factories
+   */
+
+  public static List<LLDatabaseFactoryType> create(
+    final LLServerConfiguration configuration)
+  {
+    final var sqliteConfiguration =
+      configuration.sqlite()
+        .map(c -> {
+          return new LLDatabaseSQLiteConfiguration(
+            c.readConnections(),
+            c.mmapSize(),
+            c.cacheSizeKiB()
+          );
+        })
+        .orElseGet(LLDatabaseSQLiteConfiguration::defaults);
+
+    final var memoryConfiguration =
+      configuration.memory()
+        .map(c -> {
+          return new LLDatabaseMemoryConfiguration(
+            c.synchronousCommit(),
+            c.snapshotLogSize()
+          );
+        })
+        .orElseGet(LLDatabaseMemoryConfiguration::defaults);
+
+    final var bitcaskConfiguration =
+      configuration.bitcask()
+        .map(c -> {
+          return new LLDatabaseBitcaskConfiguration(
+            c.synchronousCommit(),
+            c.segmentSize(),
+            c.mergeThreshold()
+          );
+        })
+        .orElseGet(LLDatabaseBitcaskConfiguration::defaults);
+
+    final var lsmConfiguration =
+      configuration.lsm()
+        .map(c -> {
+          return new LLDatabaseLSMConfiguration(
+            c.synchronousCommit(),
+            c.memtableSize(),
+            c.blockSize(),
+            c.bloomBitsPerKey(),
+            c.compactionFanout()
+          );
+        })
+        .orElseGet(LLDatabaseLSMConfiguration::defaults);
+
+    final var unsharded =
+      List.<LLDatabaseFactoryType>of(
+        new LLDatabaseMVStoreFactory(),
+        new LLDatabaseSQLiteFactory(sqliteConfiguration),
+        new LLDatabaseMemoryFactory(memoryConfiguration),
+        new LLDatabaseBitcaskFactory(bitcaskConfiguration),
+        new LLDatabaseLSMFactory(lsmConfiguration)
+      );
+
+    final var shardedConfiguration =
+      configuration.sharded()
+        .map(c -> new LLDatabaseShardedConfiguration(c.kind(), c.shards()))
+        .orElseGet(LLDatabaseShardedConfiguration::defaults);
+
+    final var factories = new ArrayList<>(unsharded);
+    factories.add(new LLDatabaseShardedFactory(shardedConfiguration, unsharded));
+    return List.copyOf(factories);
+  }
+}
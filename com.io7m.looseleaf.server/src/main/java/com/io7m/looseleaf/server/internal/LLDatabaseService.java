@@ -17,12 +17,15 @@
 
 package com.io7m.looseleaf.server.internal;
 
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
 import com.io7m.looseleaf.database.api.LLDatabaseType;
+import com.io7m.looseleaf.server.api.LLServerReadCacheConfiguration;
 import com.io7m.repetoir.core.RPServiceType;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * A service that exposes a database.
@@ -31,17 +34,38 @@ import java.util.Objects;
 public final class LLDatabaseService implements RPServiceType, Closeable
 {
   private final LLDatabaseType database;
+  private final Optional<LLReadCachingDatabase> readCache;
+  private final Optional<LLPrefixRoutedDatabase> routed;
 
   /**
    * A service that exposes a database.
    *
-   * @param inDatabase The database
+   * @param inDatabase  The database
+   * @param inReadCache The read cache configuration, if the cache is enabled
    */
 
   public LLDatabaseService(
-    final LLDatabaseType inDatabase)
+    final LLDatabaseType inDatabase,
+    final Optional<LLServerReadCacheConfiguration> inReadCache)
   {
-    this.database = Objects.requireNonNull(inDatabase, "database");
+    Objects.requireNonNull(inDatabase, "database");
+    Objects.requireNonNull(inReadCache, "readCache");
+
+    if (inDatabase instanceof final LLPrefixRoutedDatabase r) {
+      this.routed = Optional.of(r);
+    } else {
+      this.routed = Optional.empty();
+    }
+    if (inReadCache.isPresent()) {
+      final var cache =
+        new LLReadCachingDatabase(
+          inDatabase, inReadCache.get().maximumBytes());
+      this.readCache = Optional.of(cache);
+      this.database = cache;
+    } else {
+      this.readCache = Optional.empty();
+      this.database = inDatabase;
+    }
   }
 
   @Override
@@ -51,7 +75,7 @@ public final class LLDatabaseService implements RPServiceType, Closeable
   }
 
   /**
-   * @return The database
+   * @return The database, which is the read cache if the cache is enabled
    */
 
   public LLDatabaseType database()
@@ -59,6 +83,34 @@ public final class LLDatabaseService implements RPServiceType, Closeable
     return this.database;
   }
 
+  /**
+   * @return The read cache, if the cache is enabled
+   */
+
+  public Optional<LLReadCachingDatabase> readCache()
+  {
+    return this.readCache;
+  }
+
+  /**
+   * Determine whether an operation writes to keys held by more than one
+   * mounted database. Such operations cannot be executed atomically and are
+   * rejected by the database.
+   *
+   * @param rud The operation
+   *
+   * @return {@code true} if the operation writes to more than one database
+   */
+
+  public boolean writesSpanMounts(
+    final LLDatabaseRUD rud)
+  {
+    if (this.routed.isPresent()) {
+      return this.routed.get().writesSpanMounts(rud);
+    }
+    return false;
+  }
+
   @Override
   public String toString()
   {
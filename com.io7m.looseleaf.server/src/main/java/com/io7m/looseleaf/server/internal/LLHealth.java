@@ -61,6 +61,7 @@ public final class LLHealth extends HttpServlet
     obj.put("reads", this.metrics.reads());
     obj.put("writes", this.metrics.writes());
     obj.put("deletes", this.metrics.deletes());
+    obj.put("errors", this.metrics.errors());
 
     final var data = this.mapper.writeValueAsBytes(obj);
     response.setContentLength(data.length + 2);
@@ -21,18 +21,22 @@ import com.io7m.looseleaf.security.LLUser;
 import com.io7m.looseleaf.security.LLUserName;
 import com.io7m.looseleaf.server.internal.telemetry.LLTelemetryServiceType;
 import com.io7m.repetoir.core.RPServiceType;
+import com.io7m.looseleaf.server.api.LLServerMetricsConfiguration;
 import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.logs.Logger;
+import io.opentelemetry.api.metrics.DoubleHistogram;
 import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.ObservableDoubleGauge;
+import io.opentelemetry.api.metrics.ObservableLongCounter;
 import io.opentelemetry.api.metrics.ObservableLongGauge;
 
 import java.io.IOException;
-import java.time.Duration;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static io.opentelemetry.api.common.AttributeKey.stringKey;
 import static io.opentelemetry.api.logs.Severity.ERROR;
-import static io.opentelemetry.api.logs.Severity.INFO;
 
 /**
  * A metrics service.
@@ -42,56 +46,79 @@ public final class LLMetricsService implements RPServiceType
 {
   private static final AttributeKey<String> USER =
     stringKey("looseleaf.user");
-  private static final AttributeKey<String> KEY =
-    stringKey("looseleaf.key");
   private static final AttributeKey<String> OPERATION =
     stringKey("looseleaf.operation");
   private static final AttributeKey<String> REMOTE_ADDRESS =
     stringKey("looseleaf.remoteAddress");
 
+  /**
+   * The maximum number of users that receive their own counters. Requests
+   * from any further users are counted in a shared overflow bucket so that
+   * the number of distinct series stays bounded.
+   */
+
+  private static final int USER_BUCKETS_MAXIMUM = 128;
+  private static final String USER_BUCKET_OTHER = "*other*";
+  private static final double NANOS_PER_MILLISECOND = 1_000_000.0;
+
   private final LongCounter reads;
-  private final ObservableLongGauge dbTimeGauge;
+  private final DoubleHistogram dbTime;
+  private final ConcurrentHashMap<String, Attributes> dbTimeAttributes;
   private final LongCounter errors;
   private final Logger logger;
   private final LongCounter authErrors;
+  private final LongCounter authCacheHits;
+  private final LongCounter authCacheMisses;
   private final LLDatabaseType database;
   private final ObservableLongGauge dbSizeGauge;
   private final ObservableLongGauge dbKeysGauge;
-  private final ObservableLongGauge httpTimeGauge;
+  private final DoubleHistogram httpTime;
+  private final DoubleHistogram authTime;
   private final LongCounter httpError400;
   private final LongCounter httpError500;
   private final LongCounter httpCount;
   private final ObservableLongGauge up;
-  private volatile long readsV;
+  private final ObservableLongCounter readCacheHits;
+  private final ObservableLongCounter readCacheMisses;
+  private final ObservableLongCounter readCacheEvictions;
+  private final ObservableLongGauge readCacheSize;
+  private final ObservableDoubleGauge readCacheHitRatio;
   private final LongCounter writes;
-  private volatile long writesV;
   private final LongCounter deletes;
-  private volatile long deletesV;
-  private volatile Duration dbTime;
-  private volatile long errorsV;
-  private volatile long httpTime;
-  private volatile long http400;
-  private volatile long http500;
+  private final ConcurrentHashMap<String, LLUserCounters> userCounters;
+  private final LLUserCounters userCountersOther;
 
   /**
    * A metrics service.
    *
-   * @param inDatabase The database service
-   * @param telemetry  The telemetry service
+   * @param inDatabase    The database service
+   * @param telemetry     The telemetry service
+   * @param configuration The metrics configuration
    */
 
   public LLMetricsService(
     final LLDatabaseService inDatabase,
-    final LLTelemetryServiceType telemetry)
+    final LLTelemetryServiceType telemetry,
+    final LLServerMetricsConfiguration configuration)
   {
+    final var buckets =
+      configuration.latencyBuckets();
+
     this.database =
       inDatabase.database();
 
+    final var readCache =
+      inDatabase.readCache();
+
     this.logger =
       telemetry.logger();
 
-    this.dbTime =
-      Duration.ZERO;
+    this.dbTimeAttributes =
+      new ConcurrentHashMap<>();
+    this.userCounters =
+      new ConcurrentHashMap<>();
+    this.userCountersOther =
+      new LLUserCounters(USER_BUCKET_OTHER);
 
     this.reads =
       telemetry.meter()
@@ -117,19 +144,34 @@ public final class LLMetricsService implements RPServiceType
         .setDescription("The number of failed authentication attempts.")
         .build();
 
+    this.authCacheHits =
+      telemetry.meter()
+        .counterBuilder("looseleaf_auth_cache_hits")
+        .setDescription(
+          "The number of password verifications answered from the cache.")
+        .build();
+
+    this.authCacheMisses =
+      telemetry.meter()
+        .counterBuilder("looseleaf_auth_cache_misses")
+        .setDescription(
+          "The number of password verifications that required hashing.")
+        .build();
+
     this.deletes =
       telemetry.meter()
         .counterBuilder("looseleaf_db_deletes")
         .setDescription("The number of database deletes performed.")
         .build();
 
-    this.dbTimeGauge =
+    this.dbTime =
       telemetry.meter()
-        .gaugeBuilder("looseleaf_db_time")
+        .histogramBuilder("looseleaf_db_time")
         .setDescription(
-          "The length of time the most recent database operation took (nanoseconds).")
-        .ofLongs()
-        .buildWithCallback(m -> m.record(this.dbTime.toNanos()));
+          "The length of time database operations take (milliseconds).")
+        .setUnit("ms")
+        .setExplicitBucketBoundariesAdvice(buckets)
+        .build();
 
     this.dbKeysGauge =
       telemetry.meter()
@@ -157,13 +199,23 @@ public final class LLMetricsService implements RPServiceType
           }
         });
 
-    this.httpTimeGauge =
+    this.httpTime =
       telemetry.meter()
-        .gaugeBuilder("looseleaf_http_request_time")
+        .histogramBuilder("looseleaf_http_request_time")
         .setDescription(
-          "The length of time requests are taking to process (nanoseconds).")
-        .ofLongs()
-        .buildWithCallback(m -> m.record(this.httpTime));
+          "The length of time requests take to process (milliseconds).")
+        .setUnit("ms")
+        .setExplicitBucketBoundariesAdvice(buckets)
+        .build();
+
+    this.authTime =
+      telemetry.meter()
+        .histogramBuilder("looseleaf_auth_time")
+        .setDescription(
+          "The length of time request authentication takes (milliseconds).")
+        .setUnit("ms")
+        .setExplicitBucketBoundariesAdvice(buckets)
+        .build();
 
     this.httpError400 =
       telemetry.meter()
@@ -190,6 +242,56 @@ public final class LLMetricsService implements RPServiceType
           "The looseleaf server is up.")
         .ofLongs()
         .buildWithCallback(m -> m.record(1L));
+
+    this.readCacheHits =
+      telemetry.meter()
+        .counterBuilder("looseleaf_read_cache_hits")
+        .setDescription("The number of reads answered from the read cache.")
+        .buildWithCallback(m -> {
+          readCache.ifPresent(c -> m.record(c.hits()));
+        });
+
+    this.readCacheMisses =
+      telemetry.meter()
+        .counterBuilder("looseleaf_read_cache_misses")
+        .setDescription("The number of reads that missed the read cache.")
+        .buildWithCallback(m -> {
+          readCache.ifPresent(c -> m.record(c.misses()));
+        });
+
+    this.readCacheEvictions =
+      telemetry.meter()
+        .counterBuilder("looseleaf_read_cache_evictions")
+        .setDescription(
+          "The number of entries evicted from the read cache.")
+        .buildWithCallback(m -> {
+          readCache.ifPresent(c -> m.record(c.evictions()));
+        });
+
+    this.readCacheSize =
+      telemetry.meter()
+        .gaugeBuilder("looseleaf_read_cache_size")
+        .setDescription(
+          "The approximate number of bytes held by the read cache.")
+        .ofLongs()
+        .buildWithCallback(m -> {
+          readCache.ifPresent(c -> m.record(c.sizeBytes()));
+        });
+
+    this.readCacheHitRatio =
+      telemetry.meter()
+        .gaugeBuilder("looseleaf_read_cache_hit_ratio")
+        .setDescription(
+          "The fraction of reads answered from the read cache.")
+        .buildWithCallback(m -> {
+          readCache.ifPresent(c -> {
+            final var hits = c.hits();
+            final var total = hits + c.misses();
+            if (total > 0L) {
+              m.record((double) hits / (double) total);
+            }
+          });
+        });
   }
 
   @Override
@@ -204,7 +306,11 @@ public final class LLMetricsService implements RPServiceType
 
   public long reads()
   {
-    return this.readsV;
+    long sum = this.userCountersOther.reads().sum();
+    for (final var c : this.userCounters.values()) {
+      sum += c.reads().sum();
+    }
+    return sum;
   }
 
   /**
@@ -213,7 +319,11 @@ public final class LLMetricsService implements RPServiceType
 
   public long writes()
   {
-    return this.writesV;
+    long sum = this.userCountersOther.writes().sum();
+    for (final var c : this.userCounters.values()) {
+      sum += c.writes().sum();
+    }
+    return sum;
   }
 
   /**
@@ -222,7 +332,45 @@ public final class LLMetricsService implements RPServiceType
 
   public long deletes()
   {
-    return this.deletesV;
+    long sum = this.userCountersOther.deletes().sum();
+    for (final var c : this.userCounters.values()) {
+      sum += c.deletes().sum();
+    }
+    return sum;
+  }
+
+  /**
+   * @return The number of database errors so far
+   */
+
+  public long errors()
+  {
+    long sum = this.userCountersOther.errors().sum();
+    for (final var c : this.userCounters.values()) {
+      sum += c.errors().sum();
+    }
+    return sum;
+  }
+
+  private LLUserCounters countersFor(
+    final LLUser user)
+  {
+    final var name = user.name().name();
+    final var existing = this.userCounters.get(name);
+    if (existing != null) {
+      return existing;
+    }
+
+    /*
+     * The size check is racy, so the map may briefly exceed the limit by
+     * the number of threads concurrently registering new users. This keeps
+     * the common path lock-free while still bounding cardinality.
+     */
+
+    if (this.userCounters.size() >= USER_BUCKETS_MAXIMUM) {
+      return this.userCountersOther;
+    }
+    return this.userCounters.computeIfAbsent(name, LLUserCounters::new);
   }
 
   @Override
@@ -235,15 +383,41 @@ public final class LLMetricsService implements RPServiceType
   }
 
   /**
-   * Set the most recent DB time.
+   * Record the time taken by a database operation.
    *
-   * @param time The time
+   * @param operation The operation (such as "read")
+   * @param nanos     The elapsed time in nanoseconds
    */
 
   public void addDBTime(
-    final Duration time)
+    final String operation,
+    final long nanos)
   {
-    this.dbTime = Objects.requireNonNull(time, "time");
+    Objects.requireNonNull(operation, "operation");
+
+    final var attributes =
+      this.dbTimeAttributes.computeIfAbsent(
+        operation, o -> Attributes.of(OPERATION, o));
+
+    this.dbTime.record(toMilliseconds(nanos), attributes);
+  }
+
+  /**
+   * Record the time taken to authenticate a request.
+   *
+   * @param nanos The elapsed time in nanoseconds
+   */
+
+  public void logAuthTime(
+    final long nanos)
+  {
+    this.authTime.record(toMilliseconds(nanos));
+  }
+
+  private static double toMilliseconds(
+    final long nanos)
+  {
+    return (double) nanos / NANOS_PER_MILLISECOND;
   }
 
   /**
@@ -263,77 +437,60 @@ public final class LLMetricsService implements RPServiceType
       .setSeverity(ERROR)
       .emit();
 
-    this.errors.add(1L);
-    this.errorsV += 1L;
+    final var counters = this.countersFor(user);
+    this.errors.add(1L, counters.attributes());
+    counters.errors().increment();
   }
 
   /**
-   * Log a read operation.
+   * Count keys that were read. Audit records for the reads are written
+   * separately by the audit service.
    *
-   * @param user The user
-   * @param key  The database key
+   * @param user  The user
+   * @param count The number of keys
    */
 
-  public void logRead(
+  public void countReads(
     final LLUser user,
-    final String key)
+    final long count)
   {
-    this.logger.logRecordBuilder()
-      .setBody("read " + key)
-      .setAttribute(OPERATION, "read")
-      .setAttribute(KEY, key)
-      .setAttribute(USER, user.name().name())
-      .setSeverity(INFO)
-      .emit();
-
-    this.reads.add(1L);
-    this.readsV += 1L;
+    final var counters = this.countersFor(user);
+    this.reads.add(count, counters.attributes());
+    counters.reads().add(count);
   }
 
   /**
-   * Log a write operation.
+   * Count keys that were written. Audit records for the writes are written
+   * separately by the audit service.
    *
-   * @param user The user
-   * @param key  The  database key
+   * @param user  The user
+   * @param count The number of keys
    */
 
-  public void logUpdate(
+  public void countWrites(
     final LLUser user,
-    final String key)
+    final long count)
   {
-    this.logger.logRecordBuilder()
-      .setBody("update " + key)
-      .setAttribute(OPERATION, "update")
-      .setAttribute(KEY, key)
-      .setAttribute(USER, user.name().name())
-      .setSeverity(INFO)
-      .emit();
-
-    this.writes.add(1L);
-    this.writesV += 1L;
+    final var counters = this.countersFor(user);
+    this.writes.add(count, counters.attributes());
+    counters.writes().add(count);
   }
 
   /**
-   * Log a delete operation.
+   * Count keys that were deleted. Audit records for the deletes are written
+   * separately by the audit service.
    *
-   * @param user The user
-   * @param key  The  database key
+   * @param user  The user
+   * @param count The number of keys
    */
 
-  public void logDelete(
+  public void countDeletes(
     final LLUser user,
-    final String key)
+    final long count)
   {
-    this.logger.logRecordBuilder()
-      .setBody("delete " + key)
-      .setAttribute(OPERATION, "delete")
-      .setAttribute(KEY, key)
-      .setAttribute(USER, user.name().name())
-      .setSeverity(INFO)
-      .emit();
-
-    this.deletes.add(1L);
-    this.deletesV += 1L;
+    final var counters = this.countersFor(user);
+    this.deletes.add(count, counters.attributes());
+    counters.deletes().add(count);
   }
 
   /**
@@ -378,15 +535,33 @@ public final class LLMetricsService implements RPServiceType
   }
 
   /**
-   * Log a request time.
+   * Log a password verification that was answered from the credential cache.
+   */
+
+  public void logAuthCacheHit()
+  {
+    this.authCacheHits.add(1L);
+  }
+
+  /**
+   * Log a password verification that missed the credential cache.
+   */
+
+  public void logAuthCacheMiss()
+  {
+    this.authCacheMisses.add(1L);
+  }
+
+  /**
+   * Record the time taken to process a request.
    *
-   * @param time The time
+   * @param nanos The elapsed time in nanoseconds
    */
 
   public void logRequestTime(
-    final Duration time)
+    final long nanos)
   {
-    this.httpTime = time.toNanos();
+    this.httpTime.record(toMilliseconds(nanos));
   }
 
   /**
@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal;
+
+import com.io7m.jdeferthrow.core.ExceptionTracker;
+import com.io7m.looseleaf.database.api.LLDatabaseCursorType;
+import com.io7m.looseleaf.security.LLKeyName;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.ToIntFunction;
+
+/**
+ * A cursor that merges the cursors of several databases, returning entries
+ * in key order. The cursor at index i only produces the keys that are
+ * routed to database i, so keys left behind in a database that no longer
+ * holds them are skipped. Each cursor reads its own database's snapshot, so
+ * the merged cursor is consistent within each database but not across them.
+ */
+
+final class LLPrefixRoutedCursor implements LLDatabaseCursorType
+{
+  private final List<LLDatabaseCursorType> cursors;
+  private final ToIntFunction<LLKeyName> routes;
+  private final PriorityQueue<Source> queue;
+  private Source current;
+  private boolean started;
+  private boolean closed;
+
+  private record Source(
+    int route,
+    LLDatabaseCursorType cursor)
+  {
+
+  }
+
+  LLPrefixRoutedCursor(
+    final List<LLDatabaseCursorType> inCursors,
+    final ToIntFunction<LLKeyName> inRoutes)
+  {
+    this.cursors =
+      List.copyOf(inCursors);
+    this.routes =
+      Objects.requireNonNull(inRoutes, "routes");
+    this.queue =
+      new PriorityQueue<>(
+        Math.max(1, this.cursors.size()),
+        Comparator.comparing(s -> s.cursor().key().value())
+      );
+  }
+
+  private void advance(
+    final Source source)
+    throws IOException
+  {
+    final var cursor = source.cursor();
+    while (cursor.next()) {
+      if (this.routes.applyAsInt(cursor.key()) == source.route()) {
+        this.queue.add(source);
+        return;
+      }
+    }
+  }
+
+  @Override
+  public boolean next()
+    throws IOException
+  {
+    if (this.closed) {
+      throw new IllegalStateException("Cursor is closed.");
+    }
+
+    if (!this.started) {
+      this.started = true;
+      for (int index = 0; index < this.cursors.size(); ++index) {
+        this.advance(new Source(index, this.cursors.get(index)));
+      }
+    } else if (this.current != null) {
+      this.advance(this.current);
+    }
+
+    this.current = this.queue.poll();
+    return this.current != null;
+  }
+
+  private LLDatabaseCursorType current()
+  {
+    if (this.closed || this.current == null) {
+      throw new IllegalStateException("Cursor does not point at an entry.");
+    }
+    return this.current.cursor();
+  }
+
+  @Override
+  public LLKeyName key()
+  {
+    return this.current().key();
+  }
+
+  @Override
+  public String value()
+  {
+    return this.current().value();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (!this.closed) {
+      this.closed = true;
+      closeAll(this.cursors);
+    }
+  }
+
+  static void closeAll(
+    final List<LLDatabaseCursorType> cursors)
+    throws IOException
+  {
+    final var exceptions = new ExceptionTracker<IOException>();
+    for (final var cursor : cursors) {
+      try {
+        cursor.close();
+      } catch (final IOException e) {
+        exceptions.addException(e);
+      }
+    }
+    exceptions.throwIfNecessary();
+  }
+}
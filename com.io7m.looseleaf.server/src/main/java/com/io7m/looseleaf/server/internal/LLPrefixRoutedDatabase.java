@@ -0,0 +1,404 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal;
+
+import com.io7m.jdeferthrow.core.ExceptionTracker;
+import com.io7m.looseleaf.database.api.LLDatabaseCursorType;
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.api.LLDatabaseScan;
+import com.io7m.looseleaf.database.api.LLDatabaseScanResult;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+import com.io7m.looseleaf.security.LLKeyName;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * A database that routes each key to one of several databases by the
+ * longest mount prefix that the key begins with. Keys that do not begin
+ * with any mount prefix are held by the root database.
+ *
+ * <p>An operation whose reads and writes all fall into one database is
+ * passed to that database unchanged, and so is exactly as atomic as that
+ * database makes it. An operation may read from several databases, but may
+ * write to only one, because no atomicity can be guaranteed across
+ * databases of different kinds. Scans and cursors merge the keys of every
+ * database that may hold keys with the requested prefix.</p>
+ *
+ * <p>Routing is decided purely by the configured prefixes; keys that were
+ * written to the root database before a mount was added for their prefix
+ * are no longer visible, and must be migrated into the mounted database
+ * beforehand.</p>
+ */
+
+public final class LLPrefixRoutedDatabase implements LLDatabaseType
+{
+  private final LLDatabaseType root;
+  private final List<String> prefixes;
+  private final List<LLDatabaseType> databases;
+
+  /**
+   * A database that routes each key to one of several databases.
+   *
+   * @param inRoot   The database that holds keys matching no mount
+   * @param inMounts The databases that hold keys beginning with each prefix
+   */
+
+  public LLPrefixRoutedDatabase(
+    final LLDatabaseType inRoot,
+    final Map<String, LLDatabaseType> inMounts)
+  {
+    this.root =
+      Objects.requireNonNull(inRoot, "root");
+    Objects.requireNonNull(inMounts, "mounts");
+
+    /*
+     * Mounts are ordered longest prefix first, so that the first matching
+     * prefix is the most specific. Index 0 of the database list is the
+     * root, and index i + 1 is the database of prefix i.
+     */
+
+    this.prefixes =
+      inMounts.keySet()
+        .stream()
+        .sorted(Comparator.comparingInt(String::length).reversed()
+                  .thenComparing(Comparator.naturalOrder()))
+        .toList();
+
+    final var all = new ArrayList<LLDatabaseType>(this.prefixes.size() + 1);
+    all.add(this.root);
+    for (final var prefix : this.prefixes) {
+      all.add(Objects.requireNonNull(inMounts.get(prefix), "database"));
+    }
+    this.databases = List.copyOf(all);
+  }
+
+  private int routeOf(
+    final String name)
+  {
+    for (int index = 0; index < this.prefixes.size(); ++index) {
+      if (name.startsWith(this.prefixes.get(index))) {
+        return index + 1;
+      }
+    }
+    return 0;
+  }
+
+  private int routeOf(
+    final LLKeyName key)
+  {
+    return this.routeOf(key.value());
+  }
+
+  private BitSet routesOf(
+    final Set<LLKeyName> keys)
+  {
+    final var routes = new BitSet(this.databases.size());
+    for (final var key : keys) {
+      routes.set(this.routeOf(key));
+    }
+    return routes;
+  }
+
+  private Map<Integer, Set<LLKeyName>> partition(
+    final Set<LLKeyName> keys)
+  {
+    final var byRoute = new HashMap<Integer, Set<LLKeyName>>();
+    for (final var key : keys) {
+      byRoute.computeIfAbsent(Integer.valueOf(this.routeOf(key)), i -> new HashSet<>())
+        .add(key);
+    }
+    return byRoute;
+  }
+
+  private BitSet writeRoutesOf(
+    final LLDatabaseRUD rud)
+  {
+    final var routes = this.routesOf(rud.update().keySet());
+    routes.or(this.routesOf(rud.delete()));
+    return routes;
+  }
+
+  /**
+   * Determine whether an operation writes to keys held by more than one
+   * database. Such operations are rejected.
+   *
+   * @param rud The operation
+   *
+   * @return {@code true} if the operation writes to more than one database
+   */
+
+  public boolean writesSpanMounts(
+    final LLDatabaseRUD rud)
+  {
+    Objects.requireNonNull(rud, "rud");
+    return this.writeRoutesOf(rud).cardinality() > 1;
+  }
+
+  @Override
+  public long dataSizeApproximate()
+    throws IOException
+  {
+    long size = 0L;
+    for (final var database : this.databases) {
+      size += database.dataSizeApproximate();
+    }
+    return size;
+  }
+
+  @Override
+  public long keyCountApproximate()
+    throws IOException
+  {
+    long count = 0L;
+    for (final var database : this.databases) {
+      count += database.keyCountApproximate();
+    }
+    return count;
+  }
+
+  @Override
+  public boolean isClosed()
+  {
+    return this.root.isClosed();
+  }
+
+  @Override
+  public Map<LLKeyName, String> readUpdateDelete(
+    final LLDatabaseRUD rud)
+    throws IOException
+  {
+    Objects.requireNonNull(rud, "rud");
+
+    final var writeRoutes = this.writeRoutesOf(rud);
+    if (writeRoutes.cardinality() > 1) {
+      throw new IOException(
+        "An operation cannot write to keys held by more than one mounted database.");
+    }
+
+    final var routes = this.routesOf(rud.read());
+    routes.or(writeRoutes);
+    if (routes.cardinality() <= 1) {
+      final var route = Math.max(0, routes.nextSetBit(0));
+      return this.databases.get(route).readUpdateDelete(rud);
+    }
+
+    /*
+     * The writes, and the reads that fall into the same database, are
+     * executed together as a single operation. The remaining reads are
+     * served by the other databases.
+     */
+
+    final var byRoute = this.partition(rud.read());
+    final var results = new HashMap<LLKeyName, String>();
+    final var writeRoute = writeRoutes.nextSetBit(0);
+    if (writeRoute >= 0) {
+      final var reads =
+        byRoute.getOrDefault(Integer.valueOf(writeRoute), Set.of());
+      results.putAll(
+        this.databases.get(writeRoute).readUpdateDelete(
+          new LLDatabaseRUD(reads, rud.update(), rud.delete())
+        )
+      );
+      byRoute.remove(Integer.valueOf(writeRoute));
+    }
+
+    for (final var e : byRoute.entrySet()) {
+      results.putAll(this.databases.get(e.getKey().intValue()).getMany(e.getValue()));
+    }
+    return results;
+  }
+
+  @Override
+  public Optional<String> get(
+    final LLKeyName key)
+    throws IOException
+  {
+    Objects.requireNonNull(key, "key");
+    return this.databases.get(this.routeOf(key)).get(key);
+  }
+
+  @Override
+  public Map<LLKeyName, String> getMany(
+    final Set<LLKeyName> keys)
+    throws IOException
+  {
+    Objects.requireNonNull(keys, "keys");
+
+    final var byRoute = this.partition(keys);
+    if (byRoute.size() == 1) {
+      final var route = byRoute.keySet().iterator().next();
+      return this.databases.get(route.intValue()).getMany(keys);
+    }
+
+    final var results = new HashMap<LLKeyName, String>(keys.size());
+    for (final var e : byRoute.entrySet()) {
+      results.putAll(this.databases.get(e.getKey().intValue()).getMany(e.getValue()));
+    }
+    return results;
+  }
+
+  /**
+   * Determine the databases that may hold keys beginning with the given
+   * prefix: the database that holds the prefix itself, and the databases
+   * of any mounts beneath it.
+   */
+
+  private BitSet routesBeneath(
+    final String prefix)
+  {
+    final var routes = new BitSet(this.databases.size());
+    routes.set(this.routeOf(prefix));
+    for (int index = 0; index < this.prefixes.size(); ++index) {
+      if (this.prefixes.get(index).startsWith(prefix)) {
+        routes.set(index + 1);
+      }
+    }
+    return routes;
+  }
+
+  @Override
+  public LLDatabaseScanResult scan(
+    final LLDatabaseScan scan)
+    throws IOException
+  {
+    Objects.requireNonNull(scan, "scan");
+
+    final var routes = this.routesBeneath(scan.prefix());
+    if (routes.cardinality() == 1) {
+      return this.databases.get(routes.nextSetBit(0)).scan(scan);
+    }
+
+    return this.scanMerged(scan, routes);
+  }
+
+  /**
+   * Scan several databases with the same parameters, and merge the results.
+   *
+   * <p>A database that has more keys than it returned has only been seen up
+   * to the last key that it returned, including any key that is dropped
+   * because it is routed to another database. The merged page therefore
+   * ends at the smallest such key over all databases, and the next page
+   * starts after it, even if the page itself is empty.</p>
+   */
+
+  private LLDatabaseScanResult scanMerged(
+    final LLDatabaseScan scan,
+    final BitSet routes)
+    throws IOException
+  {
+    final var merged = new TreeMap<LLKeyName, String>();
+    LLKeyName cut = null;
+
+    for (int i = routes.nextSetBit(0); i >= 0; i = routes.nextSetBit(i + 1)) {
+      final var result = this.databases.get(i).scan(scan);
+      for (final var key : result.keys()) {
+        if (this.routeOf(key) == i) {
+          merged.put(key, result.values().get(key));
+        }
+      }
+
+      if (result.next().isPresent()) {
+        final var last = lastSeen(result);
+        if (cut == null || last.compareTo(cut) < 0) {
+          cut = last;
+        }
+      }
+    }
+
+    if (cut == null) {
+      return page(scan, merged, Optional.empty());
+    }
+    return page(scan, merged.headMap(cut, true), Optional.of(cut));
+  }
+
+  private static LLKeyName lastSeen(
+    final LLDatabaseScanResult result)
+  {
+    final var keys = result.keys();
+    if (keys.isEmpty()) {
+      return result.next().orElseThrow();
+    }
+    return keys.get(keys.size() - 1);
+  }
+
+  private static LLDatabaseScanResult page(
+    final LLDatabaseScan scan,
+    final SortedMap<LLKeyName, String> candidates,
+    final Optional<LLKeyName> cut)
+  {
+    final var keys = new ArrayList<LLKeyName>(Math.min(candidates.size(), scan.limit()));
+    final var values = new HashMap<LLKeyName, String>();
+    for (final var e : candidates.entrySet()) {
+      if (keys.size() == scan.limit()) {
+        return new LLDatabaseScanResult(
+          keys, values, Optional.of(keys.get(keys.size() - 1)));
+      }
+      keys.add(e.getKey());
+      if (e.getValue() != null) {
+        values.put(e.getKey(), e.getValue());
+      }
+    }
+    return new LLDatabaseScanResult(keys, values, cut);
+  }
+
+  @Override
+  public LLDatabaseCursorType cursor()
+    throws IOException
+  {
+    final var cursors = new ArrayList<LLDatabaseCursorType>(this.databases.size());
+    try {
+      for (final var database : this.databases) {
+        cursors.add(database.cursor());
+      }
+    } catch (final IOException e) {
+      try {
+        LLPrefixRoutedCursor.closeAll(cursors);
+      } catch (final IOException x) {
+        e.addSuppressed(x);
+      }
+      throw e;
+    }
+    return new LLPrefixRoutedCursor(cursors, this::routeOf);
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    final var exceptions = new ExceptionTracker<IOException>();
+    for (final var database : this.databases) {
+      try {
+        database.close();
+      } catch (final IOException e) {
+        exceptions.addException(e);
+      }
+    }
+    exceptions.throwIfNecessary();
+  }
+}
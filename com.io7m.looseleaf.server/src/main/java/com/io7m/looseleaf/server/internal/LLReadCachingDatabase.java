@@ -0,0 +1,403 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal;
+
+import com.io7m.looseleaf.database.api.LLDatabaseCursorType;
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.api.LLDatabaseScan;
+import com.io7m.looseleaf.database.api.LLDatabaseScanResult;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+import com.io7m.looseleaf.security.LLKeyName;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A database that caches the results of single-key reads in memory. Values
+ * are held already encoded as UTF-8, and keys that do not exist are cached
+ * as negative entries. The cache is divided into segments, each of which is
+ * an independent LRU list bounded by an equal share of the maximum size.
+ *
+ * <p>Writes invalidate the written keys both before and after the underlying
+ * operation executes, and no reader may populate the cache while any write
+ * is in progress, or with a value that was read before a write began. A
+ * read that begins after a write completes therefore never observes a value
+ * from before the write.</p>
+ */
+
+public final class LLReadCachingDatabase implements LLDatabaseType
+{
+  private static final int SEGMENT_COUNT = 16;
+
+  /*
+   * An estimate of the per-entry overhead of the map entry, the entry
+   * record, the array header, and the key object.
+   */
+
+  private static final long ENTRY_OVERHEAD = 96L;
+
+  private final LLDatabaseType database;
+  private final Segment[] segments;
+  private final long segmentMaximumBytes;
+  private final AtomicLong generation;
+  private final AtomicInteger writers;
+  private final AtomicLong sizeBytes;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder evictions;
+
+  private record Entry(
+    byte[] value,
+    long weight)
+  {
+
+  }
+
+  private static final class Segment
+  {
+    private final LinkedHashMap<LLKeyName, Entry> entries;
+    private long bytes;
+
+    Segment()
+    {
+      this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+  }
+
+  /**
+   * A database that caches the results of single-key reads in memory.
+   *
+   * @param inDatabase     The underlying database
+   * @param inMaximumBytes The approximate maximum size of the cache
+   */
+
+  public LLReadCachingDatabase(
+    final LLDatabaseType inDatabase,
+    final long inMaximumBytes)
+  {
+    this.database =
+      Objects.requireNonNull(inDatabase, "database");
+
+    if (inMaximumBytes <= 0L) {
+      throw new IllegalArgumentException(
+        "Maximum bytes %d must be positive".formatted(inMaximumBytes));
+    }
+
+    this.segmentMaximumBytes =
+      Math.max(1L, inMaximumBytes / SEGMENT_COUNT);
+    this.segments =
+      new Segment[SEGMENT_COUNT];
+    for (int index = 0; index < SEGMENT_COUNT; ++index) {
+      this.segments[index] = new Segment();
+    }
+
+    this.generation =
+      new AtomicLong(0L);
+    this.writers =
+      new AtomicInteger(0);
+    this.sizeBytes =
+      new AtomicLong(0L);
+    this.hits =
+      new LongAdder();
+    this.misses =
+      new LongAdder();
+    this.evictions =
+      new LongAdder();
+  }
+
+  private static String decode(
+    final byte[] value)
+  {
+    // CHECKSTYLE:OFF
+    return new String(value, UTF_8);
+    // CHECKSTYLE:ON
+  }
+
+  private Segment segmentFor(
+    final LLKeyName key)
+  {
+    final var h = key.hashCode();
+    return this.segments[(h ^ (h >>> 16)) & (SEGMENT_COUNT - 1)];
+  }
+
+  /**
+   * @return The number of reads answered from the cache
+   */
+
+  public long hits()
+  {
+    return this.hits.sum();
+  }
+
+  /**
+   * @return The number of reads that had to consult the database
+   */
+
+  public long misses()
+  {
+    return this.misses.sum();
+  }
+
+  /**
+   * @return The number of entries evicted to stay within the size bound
+   */
+
+  public long evictions()
+  {
+    return this.evictions.sum();
+  }
+
+  /**
+   * @return The approximate number of bytes currently held by the cache
+   */
+
+  public long sizeBytes()
+  {
+    return this.sizeBytes.get();
+  }
+
+  /**
+   * Get the value associated with the given key, if any, encoded as UTF-8.
+   * The returned array is shared with the cache and must not be modified.
+   *
+   * @param key The key
+   *
+   * @return The encoded value, if any
+   *
+   * @throws IOException On errors
+   */
+
+  public Optional<byte[]> getEncoded(
+    final LLKeyName key)
+    throws IOException
+  {
+    Objects.requireNonNull(key, "key");
+
+    final var segment = this.segmentFor(key);
+    synchronized (segment) {
+      final var existing = segment.entries.get(key);
+      if (existing != null) {
+        this.hits.increment();
+        return Optional.ofNullable(existing.value());
+      }
+    }
+
+    this.misses.increment();
+    final var generationThen = this.generation.get();
+    final var value =
+      this.database.get(key)
+        .map(v -> v.getBytes(UTF_8))
+        .orElse(null);
+
+    this.populate(key, value, generationThen);
+    return Optional.ofNullable(value);
+  }
+
+  private void populate(
+    final LLKeyName key,
+    final byte[] value,
+    final long generationThen)
+  {
+    final var weight =
+      ENTRY_OVERHEAD
+      + (2L * key.value().length())
+      + (value == null ? 0L : value.length);
+
+    if (weight > this.segmentMaximumBytes) {
+      return;
+    }
+
+    final var segment = this.segmentFor(key);
+    synchronized (segment) {
+      if (this.writers.get() != 0 || this.generation.get() != generationThen) {
+        return;
+      }
+
+      final var previous =
+        segment.entries.put(key, new Entry(value, weight));
+      if (previous != null) {
+        this.adjustSize(segment, -previous.weight());
+      }
+      this.adjustSize(segment, weight);
+
+      final var iterator = segment.entries.values().iterator();
+      while (segment.bytes > this.segmentMaximumBytes && iterator.hasNext()) {
+        final var eldest = iterator.next();
+        iterator.remove();
+        this.adjustSize(segment, -eldest.weight());
+        this.evictions.increment();
+      }
+    }
+  }
+
+  private void adjustSize(
+    final Segment segment,
+    final long delta)
+  {
+    segment.bytes += delta;
+    this.sizeBytes.addAndGet(delta);
+  }
+
+  private void invalidate(
+    final Set<LLKeyName> keys)
+  {
+    for (final var key : keys) {
+      final var segment = this.segmentFor(key);
+      synchronized (segment) {
+        final var removed = segment.entries.remove(key);
+        if (removed != null) {
+          this.adjustSize(segment, -removed.weight());
+        }
+      }
+    }
+  }
+
+  @Override
+  public long dataSizeApproximate()
+    throws IOException
+  {
+    return this.database.dataSizeApproximate();
+  }
+
+  @Override
+  public long keyCountApproximate()
+    throws IOException
+  {
+    return this.database.keyCountApproximate();
+  }
+
+  @Override
+  public boolean isClosed()
+  {
+    return this.database.isClosed();
+  }
+
+  @Override
+  public Map<LLKeyName, String> readUpdateDelete(
+    final LLDatabaseRUD rud)
+    throws IOException
+  {
+    Objects.requireNonNull(rud, "rud");
+
+    if (rud.update().isEmpty() && rud.delete().isEmpty()) {
+      return this.database.readUpdateDelete(rud);
+    }
+
+    final var written =
+      new HashSet<LLKeyName>(rud.update().size() + rud.delete().size());
+    written.addAll(rud.update().keySet());
+    written.addAll(rud.delete());
+
+    this.writers.incrementAndGet();
+    this.generation.incrementAndGet();
+    this.invalidate(written);
+
+    try {
+      return this.database.readUpdateDelete(rud);
+    } finally {
+      this.invalidate(written);
+      this.generation.incrementAndGet();
+      this.writers.decrementAndGet();
+    }
+  }
+
+  @Override
+  public Optional<String> get(
+    final LLKeyName key)
+    throws IOException
+  {
+    return this.getEncoded(key)
+      .map(LLReadCachingDatabase::decode);
+  }
+
+  @Override
+  public Map<LLKeyName, String> getMany(
+    final Set<LLKeyName> keys)
+    throws IOException
+  {
+    Objects.requireNonNull(keys, "keys");
+
+    final var results = new HashMap<LLKeyName, String>(keys.size());
+    final var missing = new HashSet<LLKeyName>();
+
+    for (final var key : keys) {
+      final var segment = this.segmentFor(key);
+      synchronized (segment) {
+        final var existing = segment.entries.get(key);
+        if (existing == null) {
+          missing.add(key);
+          continue;
+        }
+        this.hits.increment();
+        if (existing.value() != null) {
+          results.put(key, decode(existing.value()));
+        }
+      }
+    }
+
+    if (missing.isEmpty()) {
+      return results;
+    }
+
+    this.misses.add(missing.size());
+    final var generationThen = this.generation.get();
+    final var found = this.database.getMany(missing);
+    for (final var key : missing) {
+      final var value = found.get(key);
+      if (value != null) {
+        results.put(key, value);
+        this.populate(key, value.getBytes(UTF_8), generationThen);
+      } else {
+        this.populate(key, null, generationThen);
+      }
+    }
+    return results;
+  }
+
+  @Override
+  public LLDatabaseScanResult scan(
+    final LLDatabaseScan scan)
+    throws IOException
+  {
+    return this.database.scan(scan);
+  }
+
+  @Override
+  public LLDatabaseCursorType cursor()
+    throws IOException
+  {
+    return this.database.cursor();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    this.database.close();
+  }
+}
@@ -67,6 +67,18 @@ public final class LLServerClock implements RPServiceType
     return OffsetDateTime.now(this.clock);
   }
 
+  /**
+   * @return The current value of a monotonic time source, in nanoseconds.
+   * The value is only meaningful when compared against other values
+   * returned by this method; it should be used for measuring elapsed time,
+   * never for wall-clock time.
+   */
+
+  public long nanoTime()
+  {
+    return System.nanoTime();
+  }
+
   @Override
   public String toString()
   {
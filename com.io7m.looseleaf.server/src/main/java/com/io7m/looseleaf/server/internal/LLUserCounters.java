@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal;
+
+import io.opentelemetry.api.common.Attributes;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+/**
+ * The in-process counters for a single user (or for the shared overflow
+ * bucket). Each counter is a striped {@link LongAdder}, so request threads
+ * incrementing the same counter do not contend on a single cache line.
+ */
+
+final class LLUserCounters
+{
+  private final Attributes attributes;
+  private final LongAdder reads;
+  private final LongAdder writes;
+  private final LongAdder deletes;
+  private final LongAdder errors;
+
+  /**
+   * The in-process counters for a single user.
+   *
+   * @param inName The user (or bucket) name
+   */
+
+  LLUserCounters(
+    final String inName)
+  {
+    this.attributes =
+      Attributes.of(
+        stringKey("looseleaf.user"),
+        Objects.requireNonNull(inName, "name"));
+    this.reads =
+      new LongAdder();
+    this.writes =
+      new LongAdder();
+    this.deletes =
+      new LongAdder();
+    this.errors =
+      new LongAdder();
+  }
+
+  /**
+   * @return The telemetry attributes identifying this bucket
+   */
+
+  Attributes attributes()
+  {
+    return this.attributes;
+  }
+
+  /**
+   * @return The read counter
+   */
+
+  LongAdder reads()
+  {
+    return this.reads;
+  }
+
+  /**
+   * @return The write counter
+   */
+
+  LongAdder writes()
+  {
+    return this.writes;
+  }
+
+  /**
+   * @return The delete counter
+   */
+
+  LongAdder deletes()
+  {
+    return this.deletes;
+  }
+
+  /**
+   * @return The error counter
+   */
+
+  LongAdder errors()
+  {
+    return this.errors;
+  }
+}
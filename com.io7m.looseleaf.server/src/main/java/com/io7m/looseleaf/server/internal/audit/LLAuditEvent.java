@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal.audit;
+
+import com.io7m.looseleaf.security.LLKeyName;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * A summary of a single request, to be written to the audit log.
+ *
+ * @param user       The name of the user that made the request
+ * @param operation  The operation (such as "read" or "rud")
+ * @param reads      The number of keys read
+ * @param updates    The number of keys updated
+ * @param deletes    The number of keys deleted
+ * @param readKeys   The keys read, if key names are being recorded
+ * @param updateKeys The keys updated, if key names are being recorded
+ * @param deleteKeys The keys deleted, if key names are being recorded
+ */
+
+public record LLAuditEvent(
+  String user,
+  String operation,
+  int reads,
+  int updates,
+  int deletes,
+  Collection<LLKeyName> readKeys,
+  Collection<LLKeyName> updateKeys,
+  Collection<LLKeyName> deleteKeys)
+{
+  /**
+   * A summary of a single request, to be written to the audit log.
+   *
+   * @param user       The name of the user that made the request
+   * @param operation  The operation (such as "read" or "rud")
+   * @param reads      The number of keys read
+   * @param updates    The number of keys updated
+   * @param deletes    The number of keys deleted
+   * @param readKeys   The keys read, if key names are being recorded
+   * @param updateKeys The keys updated, if key names are being recorded
+   * @param deleteKeys The keys deleted, if key names are being recorded
+   */
+
+  public LLAuditEvent
+  {
+    Objects.requireNonNull(user, "user");
+    Objects.requireNonNull(operation, "operation");
+    Objects.requireNonNull(readKeys, "readKeys");
+    Objects.requireNonNull(updateKeys, "updateKeys");
+    Objects.requireNonNull(deleteKeys, "deleteKeys");
+  }
+}
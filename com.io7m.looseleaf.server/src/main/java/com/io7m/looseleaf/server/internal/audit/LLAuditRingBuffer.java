@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free, multi-producer single-consumer ring buffer. Each
+ * slot carries a sequence number that tells producers and the consumer
+ * whether the slot is free or full for the current lap around the ring, so
+ * producers only contend on a single compare-and-set of the head position,
+ * and never wait for each other or for the consumer.
+ */
+
+public final class LLAuditRingBuffer
+{
+  private final AtomicReferenceArray<LLAuditEvent> slots;
+  private final AtomicLongArray sequences;
+  private final AtomicLong head;
+  private final int mask;
+  private long tail;
+
+  /**
+   * A bounded, lock-free, multi-producer single-consumer ring buffer.
+   *
+   * @param capacity The capacity, which must be a power of two
+   */
+
+  public LLAuditRingBuffer(
+    final int capacity)
+  {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException(
+        "Capacity %d must be a positive power of two".formatted(capacity));
+    }
+
+    this.slots = new AtomicReferenceArray<>(capacity);
+    this.sequences = new AtomicLongArray(capacity);
+    for (int index = 0; index < capacity; ++index) {
+      this.sequences.set(index, index);
+    }
+    this.head = new AtomicLong(0L);
+    this.mask = capacity - 1;
+    this.tail = 0L;
+  }
+
+  /**
+   * Add an event to the buffer. This method may be called from any thread.
+   *
+   * @param event The event
+   *
+   * @return {@code false} if the buffer is full and the event was discarded
+   */
+
+  public boolean offer(
+    final LLAuditEvent event)
+  {
+    var position = this.head.get();
+    while (true) {
+      final var index = (int) (position & this.mask);
+      final var difference = this.sequences.get(index) - position;
+
+      if (difference == 0L) {
+        if (this.head.compareAndSet(position, position + 1L)) {
+          this.slots.set(index, event);
+          this.sequences.set(index, position + 1L);
+          return true;
+        }
+        position = this.head.get();
+      } else if (difference < 0L) {
+        return false;
+      } else {
+        position = this.head.get();
+      }
+    }
+  }
+
+  /**
+   * Remove an event from the buffer. This method must only be called from
+   * the single consumer thread.
+   *
+   * @return The oldest event, or {@code null} if the buffer is empty
+   */
+
+  public LLAuditEvent poll()
+  {
+    final var position = this.tail;
+    final var index = (int) (position & this.mask);
+    if (this.sequences.get(index) != position + 1L) {
+      return null;
+    }
+
+    final var event = this.slots.get(index);
+    this.slots.set(index, null);
+    this.sequences.set(index, position + this.mask + 1L);
+    this.tail = position + 1L;
+    return event;
+  }
+}
@@ -0,0 +1,356 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal.audit;
+
+import com.io7m.looseleaf.security.LLKeyName;
+import com.io7m.looseleaf.security.LLUser;
+import com.io7m.looseleaf.server.api.LLServerAuditConfiguration;
+import com.io7m.looseleaf.server.api.LLServerAuditDetail;
+import com.io7m.looseleaf.server.internal.telemetry.LLTelemetryServiceType;
+import com.io7m.repetoir.core.RPServiceType;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.logs.Logger;
+import io.opentelemetry.api.metrics.ObservableLongCounter;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringArrayKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static io.opentelemetry.api.logs.Severity.INFO;
+
+/**
+ * The audit service. Request threads submit one summary event per request
+ * to a lock-free ring buffer, and a single background thread drains the
+ * buffer in batches and writes the audit records. Requests are sampled
+ * before any event is created, and key names are only retained when the
+ * configured level of detail requires them, so the cost to a request
+ * thread does not depend on the number of keys in the request. If the
+ * buffer is full, events are discarded and counted rather than blocking
+ * the request thread.
+ */
+
+public final class LLAuditService implements RPServiceType, Closeable
+{
+  private static final org.slf4j.Logger LOG =
+    LoggerFactory.getLogger(LLAuditService.class);
+
+  private static final AttributeKey<String> USER =
+    stringKey("looseleaf.user");
+  private static final AttributeKey<String> OPERATION =
+    stringKey("looseleaf.operation");
+  private static final AttributeKey<Long> READS =
+    longKey("looseleaf.reads");
+  private static final AttributeKey<Long> UPDATES =
+    longKey("looseleaf.updates");
+  private static final AttributeKey<Long> DELETES =
+    longKey("looseleaf.deletes");
+  private static final AttributeKey<List<String>> READ_KEYS =
+    stringArrayKey("looseleaf.keys.read");
+  private static final AttributeKey<List<String>> UPDATE_KEYS =
+    stringArrayKey("looseleaf.keys.update");
+  private static final AttributeKey<List<String>> DELETE_KEYS =
+    stringArrayKey("looseleaf.keys.delete");
+
+  private static final int BATCH_MAXIMUM = 256;
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10L);
+
+  private final Logger logger;
+  private final double sampleRate;
+  private final boolean recordKeys;
+  private final LLAuditRingBuffer buffer;
+  private final LongAdder dropped;
+  private final ObservableLongCounter droppedCounter;
+  private final AtomicBoolean closed;
+  private final Thread thread;
+
+  /**
+   * The audit service.
+   *
+   * @param telemetry     The telemetry service
+   * @param configuration The audit configuration
+   * @param capacity      The capacity of the event buffer, which must be a
+   *                      power of two
+   */
+
+  public LLAuditService(
+    final LLTelemetryServiceType telemetry,
+    final LLServerAuditConfiguration configuration,
+    final int capacity)
+  {
+    Objects.requireNonNull(telemetry, "telemetry");
+    Objects.requireNonNull(configuration, "configuration");
+
+    this.logger =
+      telemetry.logger();
+    this.sampleRate =
+      configuration.sampleRate();
+    this.recordKeys =
+      configuration.detail() == LLServerAuditDetail.KEYS;
+    this.buffer =
+      new LLAuditRingBuffer(capacity);
+    this.dropped =
+      new LongAdder();
+    this.closed =
+      new AtomicBoolean(false);
+
+    this.droppedCounter =
+      telemetry.meter()
+        .counterBuilder("looseleaf_audit_dropped")
+        .setDescription(
+          "The number of audit records discarded because the audit buffer was full.")
+        .buildWithCallback(m -> m.record(this.dropped.sum()));
+
+    this.thread = new Thread(this::run);
+    this.thread.setName("com.io7m.looseleaf.server.audit");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * @return The number of audit records discarded because the buffer was full
+   */
+
+  public long dropped()
+  {
+    return this.dropped.sum();
+  }
+
+  /**
+   * Record a request that read a single key.
+   *
+   * @param user The user
+   * @param key  The key
+   */
+
+  public void recordRead(
+    final LLUser user,
+    final LLKeyName key)
+  {
+    this.record(user, "read", List.of(key), List.of(), List.of());
+  }
+
+  /**
+   * Record a request that updated a single key.
+   *
+   * @param user The user
+   * @param key  The key
+   */
+
+  public void recordUpdate(
+    final LLUser user,
+    final LLKeyName key)
+  {
+    this.record(user, "update", List.of(), List.of(key), List.of());
+  }
+
+  /**
+   * Record a request that deleted a single key.
+   *
+   * @param user The user
+   * @param key  The key
+   */
+
+  public void recordDelete(
+    final LLUser user,
+    final LLKeyName key)
+  {
+    this.record(user, "delete", List.of(), List.of(), List.of(key));
+  }
+
+  /**
+   * Record a request. The given collections must not be modified after
+   * this method is called, as they may be read later on the audit thread.
+   *
+   * @param user      The user
+   * @param operation The operation
+   * @param reads     The keys read
+   * @param updates   The keys updated
+   * @param deletes   The keys deleted
+   */
+
+  public void record(
+    final LLUser user,
+    final String operation,
+    final Collection<LLKeyName> reads,
+    final Collection<LLKeyName> updates,
+    final Collection<LLKeyName> deletes)
+  {
+    if (this.sampleRate < 1.0
+        && ThreadLocalRandom.current().nextDouble() >= this.sampleRate) {
+      return;
+    }
+
+    final LLAuditEvent event;
+    if (this.recordKeys) {
+      event = new LLAuditEvent(
+        user.name().name(),
+        operation,
+        reads.size(),
+        updates.size(),
+        deletes.size(),
+        reads,
+        updates,
+        deletes
+      );
+    } else {
+      event = new LLAuditEvent(
+        user.name().name(),
+        operation,
+        reads.size(),
+        updates.size(),
+        deletes.size(),
+        List.of(),
+        List.of(),
+        List.of()
+      );
+    }
+
+    if (!this.buffer.offer(event)) {
+      this.dropped.increment();
+    }
+  }
+
+  private void run()
+  {
+    final var batch = new ArrayList<LLAuditEvent>(BATCH_MAXIMUM);
+
+    while (true) {
+      batch.clear();
+      while (batch.size() < BATCH_MAXIMUM) {
+        final var event = this.buffer.poll();
+        if (event == null) {
+          break;
+        }
+        batch.add(event);
+      }
+
+      if (batch.isEmpty()) {
+        if (this.closed.get()) {
+          return;
+        }
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+        continue;
+      }
+
+      for (final var event : batch) {
+        try {
+          this.write(event);
+        } catch (final Exception e) {
+          LOG.error("failed to write audit record: ", e);
+        }
+      }
+    }
+  }
+
+  private void write(
+    final LLAuditEvent event)
+  {
+    final var record =
+      this.logger.logRecordBuilder()
+        .setBody(event.operation())
+        .setAttribute(OPERATION, event.operation())
+        .setAttribute(USER, event.user())
+        .setAttribute(READS, Long.valueOf(event.reads()))
+        .setAttribute(UPDATES, Long.valueOf(event.updates()))
+        .setAttribute(DELETES, Long.valueOf(event.deletes()))
+        .setSeverity(INFO);
+
+    MDC.put("user", event.user());
+    try {
+      if (this.recordKeys) {
+        final var readKeys = names(event.readKeys());
+        final var updateKeys = names(event.updateKeys());
+        final var deleteKeys = names(event.deleteKeys());
+
+        record.setAttribute(READ_KEYS, readKeys)
+          .setAttribute(UPDATE_KEYS, updateKeys)
+          .setAttribute(DELETE_KEYS, deleteKeys);
+
+        LOG.info(
+          "{} read={} update={} delete={}",
+          event.operation(),
+          readKeys,
+          updateKeys,
+          deleteKeys
+        );
+      } else {
+        LOG.info(
+          "{} reads={} updates={} deletes={}",
+          event.operation(),
+          Integer.valueOf(event.reads()),
+          Integer.valueOf(event.updates()),
+          Integer.valueOf(event.deletes())
+        );
+      }
+    } finally {
+      MDC.remove("user");
+    }
+
+    record.emit();
+  }
+
+  private static List<String> names(
+    final Collection<LLKeyName> keys)
+  {
+    final var names = new ArrayList<String>(keys.size());
+    for (final var key : keys) {
+      names.add(key.value());
+    }
+    return names;
+  }
+
+  @Override
+  public String description()
+  {
+    return "Audit service.";
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[%s 0x%s]".formatted(
+      this.getClass().getSimpleName(),
+      Long.toUnsignedString(this.hashCode(), 16)
+    );
+  }
+
+  @Override
+  public void close()
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      LockSupport.unpark(this.thread);
+      try {
+        this.thread.join();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      this.droppedCounter.close();
+    }
+  }
+}
@@ -16,10 +16,12 @@
 
 package com.io7m.looseleaf.server.internal.auth;
 
+import com.io7m.looseleaf.security.LLSecurityContext;
 import com.io7m.looseleaf.security.LLUserName;
 import com.io7m.looseleaf.server.internal.LLMetricsService;
+import com.io7m.looseleaf.server.internal.LLServerClock;
+import com.io7m.looseleaf.server.internal.telemetry.LLRequestSpan;
 import com.io7m.looseleaf.server.internal.telemetry.LLTelemetryServiceType;
-import io.opentelemetry.api.trace.SpanKind;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,31 +30,27 @@ import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.security.Authenticator;
 import org.eclipse.jetty.security.IdentityService;
 import org.eclipse.jetty.security.LoginService;
+import org.eclipse.jetty.security.RolePrincipal;
 import org.eclipse.jetty.security.ServerAuthException;
 import org.eclipse.jetty.security.UserAuthentication;
 import org.eclipse.jetty.security.authentication.DeferredAuthentication;
 import org.eclipse.jetty.server.Authentication;
 import org.eclipse.jetty.util.security.Constraint;
+import org.eclipse.jetty.util.security.Credential;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import javax.security.auth.Subject;
 import java.io.IOException;
-import java.time.Instant;
 import java.util.Base64;
 import java.util.Objects;
 
-import static com.io7m.looseleaf.server.internal.LLServerRequestDecoration.requestIdFor;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_CLIENT_IP;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_METHOD;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_REQUEST_CONTENT_LENGTH;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_STATUS_CODE;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_URL;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_USER_AGENT;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
- * An authenticator for basic authentication.
+ * An authenticator for basic authentication. Requests may alternatively
+ * present a bearer session token previously issued by {@link LLSessionTokens}.
  */
 
 public final class LLBasicAuthenticator implements Authenticator
@@ -62,24 +60,46 @@ public final class LLBasicAuthenticator implements Authenticator
 
   private final LLTelemetryServiceType telemetry;
   private final LLMetricsService metrics;
+  private final LLSessionTokens sessionTokens;
+  private final LLSecurityContext context;
+  private final LLServerClock clock;
   private IdentityService identityService;
   private LoginService loginService;
 
+  /**
+   * The authentication method reported for requests authenticated with
+   * bearer session tokens.
+   */
+
+  public static final String BEARER_AUTH = "BEARER";
+
   /**
    * An authenticator for basic authentication.
    *
-   * @param inTelemetry The telemetry service
-   * @param inMetrics   The metrics service
+   * @param inTelemetry     The telemetry service
+   * @param inMetrics       The metrics service
+   * @param inSessionTokens The session token service
+   * @param inContext       The server security context
+   * @param inClock         The clock
    */
 
   public LLBasicAuthenticator(
     final LLTelemetryServiceType inTelemetry,
-    final LLMetricsService inMetrics)
+    final LLMetricsService inMetrics,
+    final LLSessionTokens inSessionTokens,
+    final LLSecurityContext inContext,
+    final LLServerClock inClock)
   {
     this.telemetry =
       Objects.requireNonNull(inTelemetry, "telemetry");
     this.metrics =
       Objects.requireNonNull(inMetrics, "metrics");
+    this.sessionTokens =
+      Objects.requireNonNull(inSessionTokens, "sessionTokens");
+    this.context =
+      Objects.requireNonNull(inContext, "context");
+    this.clock =
+      Objects.requireNonNull(inClock, "clock");
   }
 
   private static String decodeBase64String(
@@ -133,33 +153,20 @@ public final class LLBasicAuthenticator implements Authenticator
     final HttpServletResponse response =
       (HttpServletResponse) res;
 
-    final var span =
-      this.telemetry.tracer()
-        .spanBuilder("Authenticate")
-        .setStartTimestamp(Instant.now())
-        .setSpanKind(SpanKind.SERVER)
-        .setAttribute(HTTP_CLIENT_IP, request.getRemoteAddr())
-        .setAttribute(HTTP_METHOD, request.getMethod())
-        .setAttribute(
-          HTTP_REQUEST_CONTENT_LENGTH,
-          request.getContentLengthLong()
-        )
-        .setAttribute(HTTP_USER_AGENT, request.getHeader("User-Agent"))
-        .setAttribute(HTTP_URL, request.getRequestURI())
-        .setAttribute("http.request_id", requestIdFor(request).toString())
-        .startSpan();
-
-    try (var ignored = span.makeCurrent()) {
-      return this.validateRequestInSpan(
-        (HttpServletRequest) req,
-        (HttpServletResponse) res,
-        mandatory);
-    } catch (final Exception e) {
-      span.recordException(e);
-      throw e;
+    final var timeThen = this.clock.nanoTime();
+    try (var span =
+           LLRequestSpan.start(
+             this.telemetry, "Authenticate", request, response)) {
+      try {
+        return this.validateRequestInSpan(request, response, mandatory);
+      } catch (final Exception e) {
+        span.recordException(e);
+        throw e;
+      }
     } finally {
-      span.setAttribute(HTTP_STATUS_CODE, response.getStatus());
-      span.end();
+      if (mandatory) {
+        this.metrics.logAuthTime(this.clock.nanoTime() - timeThen);
+      }
     }
   }
 
@@ -238,10 +245,44 @@ public final class LLBasicAuthenticator implements Authenticator
           return this.logIn(request, username, password);
         }
       }
+      if ("bearer".equalsIgnoreCase(method)) {
+        return this.logInWithToken(credentials.substring(space + 1).trim());
+      }
     }
     return null;
   }
 
+  private UserAuthentication logInWithToken(
+    final String token)
+  {
+    final var userOpt = this.sessionTokens.verify(token);
+    if (userOpt.isEmpty()) {
+      return null;
+    }
+
+    final var user =
+      userOpt.get();
+    final var principal =
+      new LLUserPrincipal(
+        user.name().name(),
+        user,
+        this.context.permissionsOf(user),
+        new LLSessionTokenCredential(token));
+
+    final var subject = new Subject();
+    principal.configureSubject(subject);
+    new RolePrincipal("user").configureForSubject(subject);
+    subject.setReadOnly();
+
+    final var identity =
+      this.identityService.newUserIdentity(
+        subject,
+        principal,
+        new String[]{"user"});
+
+    return new UserAuthentication(BEARER_AUTH, identity);
+  }
+
   private UserAuthentication logIn(
     final HttpServletRequest request,
     final String username,
@@ -270,4 +311,23 @@ public final class LLBasicAuthenticator implements Authenticator
   {
     return true;
   }
+
+  private static final class LLSessionTokenCredential extends Credential
+  {
+    private final String token;
+
+    LLSessionTokenCredential(
+      final String inToken)
+    {
+      this.token = Objects.requireNonNull(inToken, "token");
+    }
+
+    @Override
+    public boolean check(
+      final Object credentials)
+    {
+      return credentials instanceof String text
+        && stringEquals(this.token, text);
+    }
+  }
 }
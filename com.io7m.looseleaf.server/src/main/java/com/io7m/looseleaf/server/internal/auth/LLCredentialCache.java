@@ -0,0 +1,250 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal.auth;
+
+import com.io7m.looseleaf.security.LLPassword;
+import com.io7m.looseleaf.security.LLPasswordException;
+import com.io7m.looseleaf.security.LLUserName;
+import com.io7m.looseleaf.server.internal.LLMetricsService;
+import com.io7m.repetoir.core.RPServiceType;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A bounded cache of successful password verifications. Password hashing
+ * algorithms are deliberately expensive, and clients typically present the
+ * same credentials on every request. Entries are keyed by a keyed digest of
+ * the user name and password, so plain text passwords are never retained.
+ * The cache is divided into segments, each of which is an independent LRU
+ * list bounded by an equal share of the maximum size.
+ *
+ * <p>Each entry records the hashed password against which the verification
+ * succeeded, and an entry is only used if that hashed password is equal to
+ * the user's current hashed password. A verification made against a
+ * password that has since been changed is therefore never reused, and no
+ * explicit invalidation is required.</p>
+ */
+
+public final class LLCredentialCache implements RPServiceType
+{
+  private static final String DIGEST_ALGORITHM = "HmacSHA256";
+  private static final int SEGMENT_COUNT = 16;
+
+  private final Segment[] segments;
+  private final ThreadLocal<Mac> digests;
+  private final LLMetricsService metrics;
+  private final int segmentMaximumSize;
+  private final long timeToLiveNanos;
+
+  private record Entry(
+    LLPassword password,
+    long expiresAt)
+  {
+
+  }
+
+  private static final class Segment
+  {
+    private final LinkedHashMap<String, Entry> entries;
+
+    Segment()
+    {
+      this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+  }
+
+  /**
+   * A bounded cache of successful password verifications.
+   *
+   * @param inMetrics     The metrics service
+   * @param inMaximumSize The maximum number of cached verifications
+   * @param inTimeToLive  The length of time a verification remains valid
+   */
+
+  public LLCredentialCache(
+    final LLMetricsService inMetrics,
+    final int inMaximumSize,
+    final Duration inTimeToLive)
+  {
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "metrics");
+    Objects.requireNonNull(inTimeToLive, "timeToLive");
+
+    if (inMaximumSize <= 0) {
+      throw new IllegalArgumentException(
+        "Maximum size %d must be positive".formatted(inMaximumSize));
+    }
+
+    final var segmentCount =
+      Math.min(SEGMENT_COUNT, inMaximumSize);
+
+    this.segmentMaximumSize =
+      inMaximumSize / segmentCount;
+    this.timeToLiveNanos =
+      inTimeToLive.toNanos();
+    this.segments =
+      new Segment[segmentCount];
+    for (int index = 0; index < segmentCount; ++index) {
+      this.segments[index] = new Segment();
+    }
+
+    final var key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    final var keySpec = new SecretKeySpec(key, DIGEST_ALGORITHM);
+
+    this.digests = ThreadLocal.withInitial(() -> {
+      try {
+        final var mac = Mac.getInstance(DIGEST_ALGORITHM);
+        mac.init(keySpec);
+        return mac;
+      } catch (final GeneralSecurityException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+  }
+
+  private String keyFor(
+    final String userName,
+    final String passwordText)
+  {
+    final var mac = this.digests.get();
+    mac.update(userName.getBytes(UTF_8));
+    mac.update((byte) 0);
+    mac.update(passwordText.getBytes(UTF_8));
+    return HexFormat.of().formatHex(mac.doFinal());
+  }
+
+  private Segment segmentFor(
+    final String key)
+  {
+    final var h = key.hashCode();
+    return this.segments[Math.floorMod(h ^ (h >>> 16), this.segments.length)];
+  }
+
+  /**
+   * Check the given plain text password against the given hashed password,
+   * consulting the cache first. Only successful verifications are cached.
+   *
+   * @param userName     The user name
+   * @param password     The user's current hashed password
+   * @param passwordText The received plain text password
+   *
+   * @return {@code true} if the password matches
+   *
+   * @throws LLPasswordException On password algorithm errors
+   */
+
+  public boolean check(
+    final LLUserName userName,
+    final LLPassword password,
+    final String passwordText)
+    throws LLPasswordException
+  {
+    Objects.requireNonNull(userName, "userName");
+    Objects.requireNonNull(password, "password");
+    Objects.requireNonNull(passwordText, "passwordText");
+
+    final var key =
+      this.keyFor(userName.name(), passwordText);
+    final var segment =
+      this.segmentFor(key);
+
+    synchronized (segment) {
+      final var existing = segment.entries.get(key);
+      if (existing != null) {
+        if (existing.password().equals(password)
+            && System.nanoTime() - existing.expiresAt() < 0L) {
+          this.metrics.logAuthCacheHit();
+          return true;
+        }
+        segment.entries.remove(key);
+      }
+    }
+
+    this.metrics.logAuthCacheMiss();
+    if (!password.check(passwordText)) {
+      return false;
+    }
+
+    final var entry =
+      new Entry(password, System.nanoTime() + this.timeToLiveNanos);
+
+    synchronized (segment) {
+      segment.entries.put(key, entry);
+
+      final var iterator = segment.entries.values().iterator();
+      while (segment.entries.size() > this.segmentMaximumSize
+             && iterator.hasNext()) {
+        iterator.next();
+        iterator.remove();
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Discard all cached verifications.
+   */
+
+  public void clear()
+  {
+    for (final var segment : this.segments) {
+      synchronized (segment) {
+        segment.entries.clear();
+      }
+    }
+  }
+
+  /**
+   * @return The number of cached verifications
+   */
+
+  public int size()
+  {
+    var size = 0;
+    for (final var segment : this.segments) {
+      synchronized (segment) {
+        size += segment.entries.size();
+      }
+    }
+    return size;
+  }
+
+  @Override
+  public String description()
+  {
+    return "Credential verification cache.";
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[%s 0x%s]".formatted(
+      this.getClass().getSimpleName(),
+      Long.toUnsignedString(this.hashCode(), 16)
+    );
+  }
+}
@@ -32,18 +32,23 @@ import java.util.Objects;
 public final class LLLoginService extends AbstractLoginService
 {
   private final LLSecurityContext context;
+  private final LLCredentialCache cache;
 
   /**
    * A Jetty login service.
    *
    * @param inContext The server security context
+   * @param inCache   The credential verification cache
    */
 
   public LLLoginService(
-    final LLSecurityContext inContext)
+    final LLSecurityContext inContext,
+    final LLCredentialCache inCache)
   {
     this.context =
       Objects.requireNonNull(inContext, "context");
+    this.cache =
+      Objects.requireNonNull(inCache, "cache");
   }
 
   @Override
@@ -66,7 +71,8 @@ public final class LLLoginService extends AbstractLoginService
         return new LLUserPrincipal(
           username,
           user,
-          new LLPasswordAsCredential(user.password())
+          this.context.permissionsOf(user),
+          new LLPasswordAsCredential(user.name(), user.password(), this.cache)
         );
       }
       return null;
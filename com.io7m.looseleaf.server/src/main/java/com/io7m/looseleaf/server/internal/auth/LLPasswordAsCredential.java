@@ -19,6 +19,7 @@ package com.io7m.looseleaf.server.internal.auth;
 
 import com.io7m.looseleaf.security.LLPassword;
 import com.io7m.looseleaf.security.LLPasswordException;
+import com.io7m.looseleaf.security.LLUserName;
 import org.eclipse.jetty.util.security.Credential;
 
 import java.util.Objects;
@@ -29,18 +30,26 @@ import java.util.Objects;
 
 public final class LLPasswordAsCredential extends Credential
 {
+  private final LLUserName userName;
   private final LLPassword password;
+  private final LLCredentialCache cache;
 
   /**
    * A credential implementation that contains a hashed looseleaf password.
    *
+   * @param inUserName The name of the user that owns the password
    * @param inPassword The password
+   * @param inCache    The credential verification cache
    */
 
   public LLPasswordAsCredential(
-    final LLPassword inPassword)
+    final LLUserName inUserName,
+    final LLPassword inPassword,
+    final LLCredentialCache inCache)
   {
+    this.userName = Objects.requireNonNull(inUserName, "userName");
     this.password = Objects.requireNonNull(inPassword, "password");
+    this.cache = Objects.requireNonNull(inCache, "cache");
   }
 
   @Override
@@ -49,7 +58,7 @@ public final class LLPasswordAsCredential extends Credential
   {
     if (credentials instanceof String text) {
       try {
-        return this.password.check(text);
+        return this.cache.check(this.userName, this.password, text);
       } catch (final LLPasswordException e) {
         return false;
       }
@@ -0,0 +1,193 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal.auth;
+
+import com.io7m.looseleaf.security.LLSecurityContext;
+import com.io7m.looseleaf.security.LLUser;
+import com.io7m.looseleaf.security.LLUserName;
+import com.io7m.looseleaf.server.internal.LLServerClock;
+import com.io7m.repetoir.core.RPServiceType;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A service that issues and verifies short-lived bearer session tokens. A
+ * token names a user and an expiry time, and is signed with a key that is
+ * generated randomly each time the server starts. Verifying a token costs a
+ * single HMAC rather than a full password hash.
+ */
+
+public final class LLSessionTokens implements RPServiceType
+{
+  private static final String DIGEST_ALGORITHM = "HmacSHA256";
+
+  private final LLSecurityContext context;
+  private final LLServerClock clock;
+  private final Duration timeToLive;
+  private final ThreadLocal<Mac> digests;
+
+  /**
+   * A service that issues and verifies short-lived bearer session tokens.
+   *
+   * @param inContext    The server security context
+   * @param inClock      The server clock
+   * @param inTimeToLive The length of time a token remains valid
+   */
+
+  public LLSessionTokens(
+    final LLSecurityContext inContext,
+    final LLServerClock inClock,
+    final Duration inTimeToLive)
+  {
+    this.context =
+      Objects.requireNonNull(inContext, "context");
+    this.clock =
+      Objects.requireNonNull(inClock, "clock");
+    this.timeToLive =
+      Objects.requireNonNull(inTimeToLive, "timeToLive");
+
+    if (inTimeToLive.isNegative() || inTimeToLive.isZero()) {
+      throw new IllegalArgumentException(
+        "Time to live %s must be positive".formatted(inTimeToLive));
+    }
+
+    final var key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    final var keySpec = new SecretKeySpec(key, DIGEST_ALGORITHM);
+
+    this.digests = ThreadLocal.withInitial(() -> {
+      try {
+        final var mac = Mac.getInstance(DIGEST_ALGORITHM);
+        mac.init(keySpec);
+        return mac;
+      } catch (final GeneralSecurityException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+  }
+
+  private byte[] sign(
+    final byte[] payload)
+  {
+    return this.digests.get().doFinal(payload);
+  }
+
+  /**
+   * Issue a new token for the given user.
+   *
+   * @param user The user
+   *
+   * @return A new token
+   */
+
+  public LLSessionToken issue(
+    final LLUser user)
+  {
+    Objects.requireNonNull(user, "user");
+
+    final var expires =
+      this.clock.now().plus(this.timeToLive);
+    final var payload =
+      "%s:%d".formatted(user.name().name(), expires.toEpochSecond())
+        .getBytes(UTF_8);
+
+    final var encoder = Base64.getUrlEncoder().withoutPadding();
+    final var text =
+      encoder.encodeToString(payload)
+      + "."
+      + encoder.encodeToString(this.sign(payload));
+
+    return new LLSessionToken(text, expires);
+  }
+
+  /**
+   * Verify the given token text.
+   *
+   * @param text The token text
+   *
+   * @return The user named by the token, if the token is valid and unexpired
+   */
+
+  public Optional<LLUser> verify(
+    final String text)
+  {
+    Objects.requireNonNull(text, "text");
+
+    try {
+      final var dot = text.indexOf('.');
+      if (dot <= 0) {
+        return Optional.empty();
+      }
+
+      final var decoder = Base64.getUrlDecoder();
+      final var payload =
+        decoder.decode(text.substring(0, dot));
+      final var signature =
+        decoder.decode(text.substring(dot + 1));
+
+      if (!MessageDigest.isEqual(this.sign(payload), signature)) {
+        return Optional.empty();
+      }
+
+      // CHECKSTYLE:OFF
+      final var payloadText = new String(payload, UTF_8);
+      // CHECKSTYLE:ON
+      final var colon = payloadText.lastIndexOf(':');
+      if (colon <= 0) {
+        return Optional.empty();
+      }
+
+      final var expires =
+        Long.parseLong(payloadText.substring(colon + 1));
+      if (this.clock.nowPrecise().toEpochSecond() >= expires) {
+        return Optional.empty();
+      }
+
+      final var userName =
+        new LLUserName(payloadText.substring(0, colon));
+
+      return Optional.ofNullable(this.context.users().get(userName));
+    } catch (final IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public String description()
+  {
+    return "Session token service.";
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[%s 0x%s]".formatted(
+      this.getClass().getSimpleName(),
+      Long.toUnsignedString(this.hashCode(), 16)
+    );
+  }
+}
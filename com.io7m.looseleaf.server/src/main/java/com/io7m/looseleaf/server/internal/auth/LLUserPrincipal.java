@@ -16,8 +16,10 @@
 
 package com.io7m.looseleaf.server.internal.auth;
 
+import com.io7m.looseleaf.security.LLPermissions;
 import com.io7m.looseleaf.security.LLUser;
 import org.eclipse.jetty.security.UserPrincipal;
+import org.eclipse.jetty.util.security.Credential;
 
 import java.util.Objects;
 
@@ -28,24 +30,27 @@ import java.util.Objects;
 public final class LLUserPrincipal extends UserPrincipal
 {
   private final LLUser user;
-
+  private final LLPermissions permissions;
 
   /**
    * A user principal containing information from the looseleaf security
    * context.
    *
-   * @param inName       The user name
-   * @param inUser       The user
-   * @param inCredential The password
+   * @param inName        The user name
+   * @param inUser        The user
+   * @param inPermissions The user's compiled permissions
+   * @param inCredential  The credential
    */
 
   public LLUserPrincipal(
     final String inName,
     final LLUser inUser,
-    final LLPasswordAsCredential inCredential)
+    final LLPermissions inPermissions,
+    final Credential inCredential)
   {
     super(inName, inCredential);
     this.user = Objects.requireNonNull(inUser, "user");
+    this.permissions = Objects.requireNonNull(inPermissions, "permissions");
   }
 
   /**
@@ -56,4 +61,13 @@ public final class LLUserPrincipal extends UserPrincipal
   {
     return this.user;
   }
+
+  /**
+   * @return The looseleaf user's compiled permissions
+   */
+
+  public LLPermissions permissions()
+  {
+    return this.permissions;
+  }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal.telemetry;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.CollectionRegistration;
+import io.opentelemetry.sdk.metrics.export.MetricReader;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A pull-based metric reader. Unlike a periodic reader, no work is done
+ * until a client explicitly asks for the current metrics, so the reader
+ * costs nothing when nobody is scraping.
+ */
+
+public final class LLOpenMetricsReader implements MetricReader
+{
+  private volatile CollectionRegistration registration;
+  private volatile boolean shutdown;
+
+  /**
+   * A pull-based metric reader.
+   */
+
+  public LLOpenMetricsReader()
+  {
+    this.registration = CollectionRegistration.noop();
+  }
+
+  /**
+   * Collect the current value of every metric.
+   *
+   * @return The collected metrics
+   */
+
+  public Collection<MetricData> collect()
+  {
+    if (this.shutdown) {
+      return List.of();
+    }
+    return this.registration.collectAllMetrics();
+  }
+
+  @Override
+  public void register(
+    final CollectionRegistration inRegistration)
+  {
+    this.registration =
+      Objects.requireNonNull(inRegistration, "registration");
+  }
+
+  @Override
+  public CompletableResultCode forceFlush()
+  {
+    return CompletableResultCode.ofSuccess();
+  }
+
+  @Override
+  public CompletableResultCode shutdown()
+  {
+    this.shutdown = true;
+    return CompletableResultCode.ofSuccess();
+  }
+
+  @Override
+  public AggregationTemporality getAggregationTemporality(
+    final InstrumentType instrumentType)
+  {
+    return AggregationTemporality.CUMULATIVE;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[%s 0x%s]".formatted(
+      this.getClass().getSimpleName(),
+      Long.toUnsignedString(this.hashCode(), 16)
+    );
+  }
+}
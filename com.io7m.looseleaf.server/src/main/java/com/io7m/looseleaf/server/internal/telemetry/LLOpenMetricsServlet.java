@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal.telemetry;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A servlet that serves metrics in OpenMetrics text format.
+ */
+
+public final class LLOpenMetricsServlet extends HttpServlet
+{
+  private static final String CONTENT_TYPE =
+    "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+  private final LLOpenMetricsReader reader;
+
+  /**
+   * A servlet that serves metrics in OpenMetrics text format.
+   *
+   * @param inReader The metric reader
+   */
+
+  public LLOpenMetricsServlet(
+    final LLOpenMetricsReader inReader)
+  {
+    this.reader =
+      Objects.requireNonNull(inReader, "reader");
+  }
+
+  @Override
+  protected void doGet(
+    final HttpServletRequest request,
+    final HttpServletResponse response)
+    throws IOException
+  {
+    final var data =
+      LLOpenMetricsWriter.write(this.reader.collect())
+        .getBytes(UTF_8);
+
+    response.setContentType(CONTENT_TYPE);
+    response.setStatus(200);
+    response.setContentLength(data.length);
+
+    try (var output = response.getOutputStream()) {
+      output.write(data);
+    }
+  }
+}
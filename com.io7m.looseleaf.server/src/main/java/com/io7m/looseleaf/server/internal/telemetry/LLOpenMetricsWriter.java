@@ -0,0 +1,334 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal.telemetry;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Functions to serialize metrics in the OpenMetrics text format.
+ */
+
+final class LLOpenMetricsWriter
+{
+  private LLOpenMetricsWriter()
+  {
+
+  }
+
+  /**
+   * Serialize the given metrics.
+   *
+   * @param metrics The metrics
+   *
+   * @return The metrics in OpenMetrics text format
+   */
+
+  static String write(
+    final Collection<MetricData> metrics)
+  {
+    final var families =
+      new TreeMap<String, List<MetricData>>();
+
+    for (final var metric : metrics) {
+      if (familyType(metric) == null) {
+        continue;
+      }
+      families.computeIfAbsent(familyName(metric), k -> new ArrayList<>())
+        .add(metric);
+    }
+
+    final var text = new StringBuilder(4096);
+    for (final Map.Entry<String, List<MetricData>> e : families.entrySet()) {
+      writeFamily(text, e.getKey(), e.getValue());
+    }
+    text.append("# EOF\n");
+    return text.toString();
+  }
+
+  private static void writeFamily(
+    final StringBuilder text,
+    final String name,
+    final List<MetricData> metrics)
+  {
+    final var first = metrics.get(0);
+    final var type = familyType(first);
+
+    text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    if (!unitSuffix(first.getUnit()).isEmpty()) {
+      text.append("# UNIT ")
+        .append(name)
+        .append(' ')
+        .append(unitSuffix(first.getUnit()))
+        .append('\n');
+    }
+    if (!first.getDescription().isEmpty()) {
+      text.append("# HELP ")
+        .append(name)
+        .append(' ')
+        .append(escape(first.getDescription()))
+        .append('\n');
+    }
+
+    for (final var metric : metrics) {
+      if (!type.equals(familyType(metric))) {
+        continue;
+      }
+      writeSamples(text, name, metric);
+    }
+  }
+
+  private static void writeSamples(
+    final StringBuilder text,
+    final String name,
+    final MetricData metric)
+  {
+    switch (metric.getType()) {
+      case LONG_GAUGE -> {
+        for (final var p : metric.getLongGaugeData().getPoints()) {
+          writeLong(text, name, p);
+        }
+      }
+      case DOUBLE_GAUGE -> {
+        for (final var p : metric.getDoubleGaugeData().getPoints()) {
+          writeDouble(text, name, p);
+        }
+      }
+      case LONG_SUM -> {
+        final var data = metric.getLongSumData();
+        final var sample = data.isMonotonic() ? name + "_total" : name;
+        for (final var p : data.getPoints()) {
+          writeLong(text, sample, p);
+        }
+      }
+      case DOUBLE_SUM -> {
+        final var data = metric.getDoubleSumData();
+        final var sample = data.isMonotonic() ? name + "_total" : name;
+        for (final var p : data.getPoints()) {
+          writeDouble(text, sample, p);
+        }
+      }
+      case HISTOGRAM -> {
+        for (final var p : metric.getHistogramData().getPoints()) {
+          writeHistogram(text, name, p);
+        }
+      }
+      case SUMMARY, EXPONENTIAL_HISTOGRAM -> {
+        // Not produced by the server's instruments.
+      }
+    }
+  }
+
+  private static void writeHistogram(
+    final StringBuilder text,
+    final String name,
+    final HistogramPointData p)
+  {
+    final var boundaries = p.getBoundaries();
+    final var counts = p.getCounts();
+
+    long cumulative = 0L;
+    for (int index = 0; index < counts.size(); ++index) {
+      cumulative += counts.get(index).longValue();
+
+      final String bound;
+      if (index < boundaries.size()) {
+        bound = formatDouble(boundaries.get(index).doubleValue());
+      } else {
+        bound = "+Inf";
+      }
+
+      text.append(name).append("_bucket");
+      writeAttributes(text, p.getAttributes(), bound);
+      text.append(' ').append(cumulative).append('\n');
+    }
+
+    text.append(name).append("_count");
+    writeAttributes(text, p.getAttributes(), null);
+    text.append(' ').append(p.getCount()).append('\n');
+
+    text.append(name).append("_sum");
+    writeAttributes(text, p.getAttributes(), null);
+    text.append(' ').append(formatDouble(p.getSum())).append('\n');
+  }
+
+  private static void writeLong(
+    final StringBuilder text,
+    final String name,
+    final LongPointData p)
+  {
+    text.append(name);
+    writeAttributes(text, p.getAttributes(), null);
+    text.append(' ').append(p.getValue()).append('\n');
+  }
+
+  private static void writeDouble(
+    final StringBuilder text,
+    final String name,
+    final DoublePointData p)
+  {
+    text.append(name);
+    writeAttributes(text, p.getAttributes(), null);
+    text.append(' ').append(formatDouble(p.getValue())).append('\n');
+  }
+
+  private static void writeAttributes(
+    final StringBuilder text,
+    final Attributes attributes,
+    final String bucketBound)
+  {
+    if (attributes.isEmpty() && bucketBound == null) {
+      return;
+    }
+
+    final var labels = new TreeMap<String, String>();
+    attributes.forEach((key, value) -> {
+      labels.put(sanitize(key.getKey()), String.valueOf(value));
+    });
+
+    text.append('{');
+    var first = true;
+    for (final var label : labels.entrySet()) {
+      if (!first) {
+        text.append(',');
+      }
+      text.append(label.getKey())
+        .append("=\"")
+        .append(escape(label.getValue()))
+        .append('"');
+      first = false;
+    }
+    if (bucketBound != null) {
+      if (!first) {
+        text.append(',');
+      }
+      text.append("le=\"")
+        .append(bucketBound)
+        .append('"');
+    }
+    text.append('}');
+  }
+
+  private static String familyType(
+    final MetricData metric)
+  {
+    return switch (metric.getType()) {
+      case LONG_GAUGE, DOUBLE_GAUGE -> "gauge";
+      case LONG_SUM -> metric.getLongSumData().isMonotonic()
+        ? "counter" : "gauge";
+      case DOUBLE_SUM -> metric.getDoubleSumData().isMonotonic()
+        ? "counter" : "gauge";
+      case HISTOGRAM -> "histogram";
+      case SUMMARY, EXPONENTIAL_HISTOGRAM -> null;
+    };
+  }
+
+  private static String familyName(
+    final MetricData metric)
+  {
+    var name = sanitize(metric.getName());
+
+    final var suffix = unitSuffix(metric.getUnit());
+    if (!suffix.isEmpty() && !name.endsWith("_" + suffix)) {
+      name = name + "_" + suffix;
+    }
+
+    /*
+     * Counter samples are written with a _total suffix, and OpenMetrics
+     * forbids the family name itself from carrying it.
+     */
+
+    if (name.endsWith("_total")) {
+      name = name.substring(0, name.length() - "_total".length());
+    }
+    return name;
+  }
+
+  private static String unitSuffix(
+    final String unit)
+  {
+    return switch (unit) {
+      case "", "1" -> "";
+      case "ns" -> "nanoseconds";
+      case "us" -> "microseconds";
+      case "ms" -> "milliseconds";
+      case "s" -> "seconds";
+      case "By" -> "bytes";
+      default -> unit.startsWith("{") ? "" : sanitize(unit);
+    };
+  }
+
+  private static String sanitize(
+    final String name)
+  {
+    final var text = new StringBuilder(name.length() + 1);
+    for (int index = 0; index < name.length(); ++index) {
+      final var c = name.charAt(index);
+      text.append(isNameCharacter(c) ? c : '_');
+    }
+    if (!text.isEmpty() && Character.isDigit(text.charAt(0))) {
+      text.insert(0, '_');
+    }
+    return text.toString();
+  }
+
+  private static boolean isNameCharacter(
+    final char c)
+  {
+    if (c == '_' || (c >= '0' && c <= '9')) {
+      return true;
+    }
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static String escape(
+    final String text)
+  {
+    if (text.indexOf('\\') < 0
+        && text.indexOf('"') < 0
+        && text.indexOf('\n') < 0) {
+      return text;
+    }
+    return text.replace("\\", "\\\\")
+      .replace("\"", "\\\"")
+      .replace("\n", "\\n");
+  }
+
+  private static String formatDouble(
+    final double value)
+  {
+    if (Double.isNaN(value)) {
+      return "NaN";
+    }
+    if (value == Double.POSITIVE_INFINITY) {
+      return "+Inf";
+    }
+    if (value == Double.NEGATIVE_INFINITY) {
+      return "-Inf";
+    }
+    return Double.toString(value);
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal.telemetry;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import static com.io7m.looseleaf.server.internal.LLServerRequestDecoration.requestIdFor;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_CLIENT_IP;
+import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_METHOD;
+import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_REQUEST_CONTENT_LENGTH;
+import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_STATUS_CODE;
+import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_URL;
+import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_USER_AGENT;
+
+/**
+ * A server span covering the processing of a single HTTP request. The span
+ * is made current for as long as it is open.
+ *
+ * Request attributes are only constructed for spans that are actually
+ * recorded. A request that was not sampled when it started may still be
+ * traced when it finishes, if the telemetry service's
+ * {@link LLTraceRetention} policy asks for failed or slow requests to be
+ * kept; in that case a replacement span is created after the fact with the
+ * original start time.
+ */
+
+public final class LLRequestSpan implements AutoCloseable
+{
+  private final LLTelemetryServiceType telemetry;
+  private final String name;
+  private final HttpServletRequest request;
+  private final HttpServletResponse response;
+  private final Context parent;
+  private final long startNanos;
+  private final Span span;
+  private final Scope scope;
+  private Throwable failure;
+
+  private LLRequestSpan(
+    final LLTelemetryServiceType inTelemetry,
+    final String inName,
+    final HttpServletRequest inRequest,
+    final HttpServletResponse inResponse,
+    final Context inParent,
+    final long inStartNanos,
+    final Span inSpan)
+  {
+    this.telemetry =
+      Objects.requireNonNull(inTelemetry, "telemetry");
+    this.name =
+      Objects.requireNonNull(inName, "name");
+    this.request =
+      Objects.requireNonNull(inRequest, "request");
+    this.response =
+      Objects.requireNonNull(inResponse, "response");
+    this.parent =
+      Objects.requireNonNull(inParent, "parent");
+    this.startNanos =
+      inStartNanos;
+    this.span =
+      Objects.requireNonNull(inSpan, "span");
+    this.scope =
+      this.span.makeCurrent();
+  }
+
+  /**
+   * Start a span for the given request, and make it current.
+   *
+   * @param telemetry The telemetry service
+   * @param name      The span name
+   * @param request   The request
+   * @param response  The response
+   *
+   * @return The open span
+   */
+
+  public static LLRequestSpan start(
+    final LLTelemetryServiceType telemetry,
+    final String name,
+    final HttpServletRequest request,
+    final HttpServletResponse response)
+  {
+    final var startNanos =
+      System.nanoTime();
+    final var parent =
+      Context.current();
+
+    final var span =
+      telemetry.tracer()
+        .spanBuilder(name)
+        .setParent(parent)
+        .setSpanKind(SpanKind.SERVER)
+        .startSpan();
+
+    if (span.isRecording()) {
+      span.setAllAttributes(requestAttributes(request));
+    }
+
+    return new LLRequestSpan(
+      telemetry,
+      name,
+      request,
+      response,
+      parent,
+      startNanos,
+      span
+    );
+  }
+
+  private static Attributes requestAttributes(
+    final HttpServletRequest request)
+  {
+    final var builder =
+      Attributes.builder()
+        .put(HTTP_CLIENT_IP, request.getRemoteAddr())
+        .put(HTTP_METHOD, request.getMethod())
+        .put(HTTP_REQUEST_CONTENT_LENGTH, request.getContentLengthLong())
+        .put(HTTP_URL, request.getRequestURI())
+        .put(stringKey("http.request_id"), requestIdFor(request).toString());
+
+    final var userAgent = request.getHeader("User-Agent");
+    if (userAgent != null) {
+      builder.put(HTTP_USER_AGENT, userAgent);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Record an exception that caused processing to fail.
+   *
+   * @param e The exception
+   */
+
+  public void recordException(
+    final Throwable e)
+  {
+    this.failure = Objects.requireNonNull(e, "e");
+    if (this.span.isRecording()) {
+      this.span.recordException(e);
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    this.scope.close();
+
+    if (this.span.isRecording()) {
+      this.span.setAttribute(HTTP_STATUS_CODE, this.response.getStatus());
+      this.span.end();
+      return;
+    }
+
+    this.span.end();
+
+    final var retention = this.telemetry.traceRetention();
+    if (!retention.isEnabled()) {
+      return;
+    }
+
+    final var elapsed =
+      System.nanoTime() - this.startNanos;
+    final var failed =
+      this.failure != null || this.response.getStatus() >= 500;
+
+    if ((retention.errors() && failed) || elapsed >= retention.slowNanos()) {
+      this.retain(elapsed);
+    }
+  }
+
+  private void retain(
+    final long elapsed)
+  {
+    final var startTime =
+      Instant.now().minusNanos(elapsed);
+
+    final var retained =
+      this.telemetry.tracer()
+        .spanBuilder(this.name)
+        .setParent(this.parent)
+        .setSpanKind(SpanKind.SERVER)
+        .setStartTimestamp(startTime)
+        .setAllAttributes(requestAttributes(this.request))
+        .setAttribute(LLTraceSampler.RETAINED, Boolean.TRUE)
+        .setAttribute(HTTP_STATUS_CODE, this.response.getStatus())
+        .startSpan();
+
+    if (this.failure != null) {
+      retained.recordException(this.failure);
+    }
+    retained.end(startTime.plusNanos(elapsed));
+  }
+}
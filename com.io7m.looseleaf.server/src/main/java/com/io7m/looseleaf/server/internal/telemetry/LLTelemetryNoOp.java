@@ -82,6 +82,12 @@ public final class LLTelemetryNoOp
     return this.logger;
   }
 
+  @Override
+  public LLTraceRetention traceRetention()
+  {
+    return LLTraceRetention.none();
+  }
+
   @Override
   public String toString()
   {
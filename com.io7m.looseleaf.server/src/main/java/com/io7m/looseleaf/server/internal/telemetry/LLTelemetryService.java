@@ -32,19 +32,22 @@ public final class LLTelemetryService
   private final Tracer tracer;
   private final Meter meter;
   private final Logger logger;
+  private final LLTraceRetention traceRetention;
 
   /**
    * An OpenTelemetry service.
    *
-   * @param inTracer The tracer instance
-   * @param inMeter  The meter instance
-   * @param inLogger The logger instance
+   * @param inTracer         The tracer instance
+   * @param inMeter          The meter instance
+   * @param inLogger         The logger instance
+   * @param inTraceRetention The policy for tracing unsampled requests
    */
 
   public LLTelemetryService(
     final Tracer inTracer,
     final Meter inMeter,
-    final Logger inLogger)
+    final Logger inLogger,
+    final LLTraceRetention inTraceRetention)
   {
     this.tracer =
       Objects.requireNonNull(inTracer, "tracer");
@@ -52,6 +55,8 @@ public final class LLTelemetryService
       Objects.requireNonNull(inMeter, "meter");
     this.logger =
       Objects.requireNonNull(inLogger, "logger");
+    this.traceRetention =
+      Objects.requireNonNull(inTraceRetention, "traceRetention");
   }
 
   @Override
@@ -69,6 +74,12 @@ public final class LLTelemetryService
     return this.logger;
   }
 
+  @Override
+  public LLTraceRetention traceRetention()
+  {
+    return this.traceRetention;
+  }
+
   @Override
   public Tracer tracer()
   {
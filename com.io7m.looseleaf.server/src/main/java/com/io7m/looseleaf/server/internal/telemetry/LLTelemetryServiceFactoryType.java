@@ -30,12 +30,28 @@ public interface LLTelemetryServiceFactoryType
    * Create a telemetry service.
    *
    * @param configuration The telemetry configuration
+   * @param scrapeReader  The reader used to serve scraped metrics, if any
    *
    * @return A telemetry service
    */
 
   LLTelemetryServiceType create(
-    LLTelemetryConfiguration configuration);
+    LLTelemetryConfiguration configuration,
+    Optional<LLOpenMetricsReader> scrapeReader);
+
+  /**
+   * Create a telemetry service.
+   *
+   * @param configuration The telemetry configuration
+   *
+   * @return A telemetry service
+   */
+
+  default LLTelemetryServiceType create(
+    final LLTelemetryConfiguration configuration)
+  {
+    return this.create(configuration, Optional.empty());
+  }
 
   /**
    * Create a telemetry service.
@@ -48,7 +64,38 @@ public interface LLTelemetryServiceFactoryType
   default LLTelemetryServiceType create(
     final Optional<LLTelemetryConfiguration> configuration)
   {
-    return configuration.map(this::create)
-      .orElseGet(LLTelemetryNoOp::noop);
+    return this.create(configuration, Optional.empty());
+  }
+
+  /**
+   * Create a telemetry service. If no telemetry configuration is provided
+   * but a scrape reader is, a service is created that only produces
+   * metrics for the scrape reader.
+   *
+   * @param configuration The telemetry configuration
+   * @param scrapeReader  The reader used to serve scraped metrics, if any
+   *
+   * @return A telemetry service
+   */
+
+  default LLTelemetryServiceType create(
+    final Optional<LLTelemetryConfiguration> configuration,
+    final Optional<LLOpenMetricsReader> scrapeReader)
+  {
+    if (configuration.isEmpty() && scrapeReader.isEmpty()) {
+      return LLTelemetryNoOp.noop();
+    }
+
+    return this.create(
+      configuration.orElseGet(() -> {
+        return new LLTelemetryConfiguration(
+          "looseleaf",
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty()
+        );
+      }),
+      scrapeReader
+    );
   }
 }
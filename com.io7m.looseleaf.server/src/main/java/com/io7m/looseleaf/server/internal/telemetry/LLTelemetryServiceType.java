@@ -45,4 +45,10 @@ public interface LLTelemetryServiceType
    */
 
   Logger logger();
+
+  /**
+   * @return The policy for tracing requests that were not sampled
+   */
+
+  LLTraceRetention traceRetention();
 }
@@ -32,23 +32,26 @@ import io.opentelemetry.exporter.otlp.trace.OtlpGrpcSpanExporter;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
 import io.opentelemetry.sdk.logs.SdkLoggerProvider;
 import io.opentelemetry.sdk.logs.export.BatchLogRecordProcessor;
+import io.opentelemetry.sdk.logs.export.LogRecordExporter;
 import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
 import io.opentelemetry.sdk.metrics.export.PeriodicMetricReader;
 import io.opentelemetry.sdk.resources.Resource;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
 import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 
 import static com.io7m.looseleaf.server.api.LLTelemetryConfiguration.LLLogs;
 import static com.io7m.looseleaf.server.api.LLTelemetryConfiguration.LLMetrics;
 import static com.io7m.looseleaf.server.api.LLTelemetryConfiguration.LLTraces;
 import static io.opentelemetry.semconv.resource.attributes.ResourceAttributes.SERVICE_NAME;
 import static io.opentelemetry.semconv.resource.attributes.ResourceAttributes.SERVICE_VERSION;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * An OpenTelemetry service factory.
@@ -60,6 +63,8 @@ public final class LLTelemetryServices
   private static final Logger LOG =
     LoggerFactory.getLogger(LLTelemetryServices.class);
 
+  private static final long DEFAULT_METRICS_INTERVAL_MS = 1000L;
+
   /**
    * An OpenTelemetry service factory.
    */
@@ -84,19 +89,40 @@ public final class LLTelemetryServices
       .create(configuration);
   }
 
+  /**
+   * Create a telemetry service.
+   *
+   * @param configuration The optional configuration
+   * @param scrapeReader  The reader used to serve scraped metrics, if any
+   *
+   * @return The service
+   */
+
+  public static LLTelemetryServiceType createOptional(
+    final Optional<LLTelemetryConfiguration> configuration,
+    final Optional<LLOpenMetricsReader> scrapeReader)
+  {
+    return new LLTelemetryServices()
+      .create(configuration, scrapeReader);
+  }
+
   /**
    * Create a telemetry service.
    *
    * @param telemetryConfiguration The server configuration
+   * @param scrapeReader           The reader used to serve scraped metrics,
+   *                               if any
    *
    * @return The service
    */
 
   @Override
   public LLTelemetryServiceType create(
-    final LLTelemetryConfiguration telemetryConfiguration)
+    final LLTelemetryConfiguration telemetryConfiguration,
+    final Optional<LLOpenMetricsReader> scrapeReader)
   {
     Objects.requireNonNull(telemetryConfiguration, "configuration");
+    Objects.requireNonNull(scrapeReader, "scrapeReader");
 
     final var metricsOpt =
       telemetryConfiguration.metrics();
@@ -105,7 +131,10 @@ public final class LLTelemetryServices
     final var logsOpt =
       telemetryConfiguration.logs();
 
-    if (metricsOpt.isEmpty() && tracesOpt.isEmpty() && logsOpt.isEmpty()) {
+    if (metricsOpt.isEmpty()
+        && tracesOpt.isEmpty()
+        && logsOpt.isEmpty()
+        && scrapeReader.isEmpty()) {
       LOG.warn(
         "No metrics, trace, or log configurations were provided; no telemetry will be sent!");
       return LLTelemetryNoOp.noop();
@@ -123,9 +152,10 @@ public final class LLTelemetryServices
     final var builder =
       OpenTelemetrySdk.builder();
 
-    metricsOpt.ifPresent(metrics -> {
-      builder.setMeterProvider(createMeterProvider(resource, metrics));
-    });
+    if (metricsOpt.isPresent() || scrapeReader.isPresent()) {
+      builder.setMeterProvider(
+        createMeterProvider(resource, metricsOpt, scrapeReader));
+    }
 
     tracesOpt.ifPresent(traces -> {
       builder.setTracerProvider(createTracerProvider(resource, traces));
@@ -142,11 +172,15 @@ public final class LLTelemetryServices
       builder.setPropagators(contextPropagators)
         .build();
 
+    /*
+     * If traces are not being exported, use a no-op tracer rather than the
+     * SDK's default (which records every span and then discards it).
+     */
+
     final var tracer =
-      openTelemetry.getTracer(
-        "com.io7m.certusine",
-        LLVersion.MAIN_VERSION
-      );
+      tracesOpt.isPresent()
+        ? openTelemetry.getTracer("com.io7m.certusine", LLVersion.MAIN_VERSION)
+        : OpenTelemetry.noop().getTracer("noop");
 
     final var meter =
       openTelemetry.getMeter(
@@ -157,10 +191,16 @@ public final class LLTelemetryServices
       openTelemetry.getLogsBridge()
         .get("com.io7m.certusine");
 
+    final var traceRetention =
+      tracesOpt.flatMap(LLTraces::sampling)
+        .map(LLTraceRetention::of)
+        .orElseGet(LLTraceRetention::none);
+
     return new LLTelemetryService(
       tracer,
       meter,
-      logger
+      logger,
+      traceRetention
     );
   }
 
@@ -189,18 +229,60 @@ public final class LLTelemetryServices
         }
       };
 
-    final var processor =
-      BatchLogRecordProcessor.builder(logExporter)
-        .build();
-
     return SdkLoggerProvider.builder()
-      .addLogRecordProcessor(processor)
+      .addLogRecordProcessor(createLogRecordProcessor(logs, logExporter))
       .setResource(resource)
       .build();
   }
 
+  /**
+   * Create a processor that exports log records in batches, using the
+   * batch settings in the given configuration.
+   *
+   * @param logs     The log configuration
+   * @param exporter The exporter
+   *
+   * @return A log record processor
+   */
+
+  public static BatchLogRecordProcessor createLogRecordProcessor(
+    final LLLogs logs,
+    final LogRecordExporter exporter)
+  {
+    final var processorBuilder =
+      BatchLogRecordProcessor.builder(exporter);
+
+    logs.batch().ifPresent(batch -> {
+      processorBuilder.setMaxQueueSize(batch.maxQueueSize())
+        .setMaxExportBatchSize(batch.maxExportBatchSize())
+        .setScheduleDelay(batch.scheduleDelayMilliseconds(), MILLISECONDS);
+    });
+
+    return processorBuilder.build();
+  }
+
   private static SdkMeterProvider createMeterProvider(
     final Resource resource,
+    final Optional<LLMetrics> metricsOpt,
+    final Optional<LLOpenMetricsReader> scrapeReader)
+  {
+    final var builder =
+      SdkMeterProvider.builder()
+        .setResource(resource);
+
+    metricsOpt.ifPresent(metrics -> {
+      builder.registerMetricReader(createPeriodicReader(metrics));
+    });
+
+    scrapeReader.ifPresent(reader -> {
+      LOG.info("metrics data will be made available for scraping");
+      builder.registerMetricReader(reader);
+    });
+
+    return builder.build();
+  }
+
+  private static PeriodicMetricReader createPeriodicReader(
     final LLMetrics metrics)
   {
     final var endpoint = metrics.endpoint().toString();
@@ -224,14 +306,30 @@ public final class LLTelemetryServices
         }
       };
 
-    final var periodicMetricReader =
-      PeriodicMetricReader.builder(metricExporter)
-        .setInterval(1L, TimeUnit.SECONDS)
-        .build();
+    return createPeriodicReader(metrics, metricExporter);
+  }
 
-    return SdkMeterProvider.builder()
-      .registerMetricReader(periodicMetricReader)
-      .setResource(resource)
+  /**
+   * Create a reader that exports metrics periodically, using the export
+   * interval in the given configuration.
+   *
+   * @param metrics  The metrics configuration
+   * @param exporter The exporter
+   *
+   * @return A metric reader
+   */
+
+  public static PeriodicMetricReader createPeriodicReader(
+    final LLMetrics metrics,
+    final MetricExporter exporter)
+  {
+    final var interval =
+      metrics.exportIntervalMilliseconds()
+        .orElse(Long.valueOf(DEFAULT_METRICS_INTERVAL_MS))
+        .longValue();
+
+    return PeriodicMetricReader.builder(exporter)
+      .setInterval(interval, MILLISECONDS)
       .build();
   }
 
@@ -260,13 +358,36 @@ public final class LLTelemetryServices
         }
       };
 
-    final var batchSpanProcessor =
-      BatchSpanProcessor.builder(spanExporter)
-        .build();
-
     return SdkTracerProvider.builder()
-      .addSpanProcessor(batchSpanProcessor)
+      .addSpanProcessor(createSpanProcessor(traces, spanExporter))
+      .setSampler(LLTraceSampler.create(traces.sampling()))
       .setResource(resource)
       .build();
   }
+
+  /**
+   * Create a processor that exports spans in batches, using the batch
+   * settings in the given configuration.
+   *
+   * @param traces   The trace configuration
+   * @param exporter The exporter
+   *
+   * @return A span processor
+   */
+
+  public static BatchSpanProcessor createSpanProcessor(
+    final LLTraces traces,
+    final SpanExporter exporter)
+  {
+    final var processorBuilder =
+      BatchSpanProcessor.builder(exporter);
+
+    traces.batch().ifPresent(batch -> {
+      processorBuilder.setMaxQueueSize(batch.maxQueueSize())
+        .setMaxExportBatchSize(batch.maxExportBatchSize())
+        .setScheduleDelay(batch.scheduleDelayMilliseconds(), MILLISECONDS);
+    });
+
+    return processorBuilder.build();
+  }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal.telemetry;
+
+import java.util.Objects;
+
+import static com.io7m.looseleaf.server.api.LLTelemetryConfiguration.LLTraceSampling;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * The policy for retaining traces of requests that were not sampled when
+ * they started.
+ *
+ * @param errors    Requests that fail are traced
+ * @param slowNanos Requests taking at least this many nanoseconds are traced
+ */
+
+public record LLTraceRetention(
+  boolean errors,
+  long slowNanos)
+{
+  /**
+   * @return A policy that never retains unsampled requests
+   */
+
+  public static LLTraceRetention none()
+  {
+    return new LLTraceRetention(false, Long.MAX_VALUE);
+  }
+
+  /**
+   * @param sampling The sampling configuration
+   *
+   * @return The retention policy described by the sampling configuration
+   */
+
+  public static LLTraceRetention of(
+    final LLTraceSampling sampling)
+  {
+    Objects.requireNonNull(sampling, "sampling");
+
+    return new LLTraceRetention(
+      sampling.alwaysSampleErrors(),
+      sampling.slowRequestMilliseconds()
+        .map(ms -> Long.valueOf(MILLISECONDS.toNanos(ms.longValue())))
+        .orElse(Long.valueOf(Long.MAX_VALUE))
+        .longValue()
+    );
+  }
+
+  /**
+   * @return {@code true} if this policy may retain unsampled requests
+   */
+
+  public boolean isEnabled()
+  {
+    return this.errors || this.slowNanos != Long.MAX_VALUE;
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal.telemetry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.io7m.looseleaf.server.api.LLTelemetryConfiguration.LLTraceSampling;
+import static io.opentelemetry.api.common.AttributeKey.booleanKey;
+
+/**
+ * The server's trace sampler. Spans carrying the {@link #RETAINED}
+ * attribute are always sampled; every other span is passed to the
+ * configured delegate sampler.
+ */
+
+public final class LLTraceSampler implements Sampler
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(LLTraceSampler.class);
+
+  /**
+   * The attribute that marks a span as having been retained after the fact
+   * by the {@link LLTraceRetention} policy.
+   */
+
+  public static final AttributeKey<Boolean> RETAINED =
+    booleanKey("looseleaf.trace.retained");
+
+  private final Sampler delegate;
+
+  /**
+   * The server's trace sampler.
+   *
+   * @param inDelegate The sampler used for ordinary spans
+   */
+
+  LLTraceSampler(
+    final Sampler inDelegate)
+  {
+    this.delegate =
+      Objects.requireNonNull(inDelegate, "delegate");
+  }
+
+  /**
+   * Create a sampler for the given sampling configuration. If no sampling
+   * configuration is provided, every span is sampled unless its parent was
+   * not.
+   *
+   * @param samplingOpt The sampling configuration
+   *
+   * @return A sampler
+   */
+
+  public static Sampler create(
+    final Optional<LLTraceSampling> samplingOpt)
+  {
+    Objects.requireNonNull(samplingOpt, "samplingOpt");
+
+    if (samplingOpt.isEmpty()) {
+      return Sampler.parentBased(Sampler.alwaysOn());
+    }
+
+    final var sampling =
+      samplingOpt.get();
+    final var ratio =
+      Sampler.traceIdRatioBased(sampling.ratio());
+    final var root =
+      sampling.parentBased() ? Sampler.parentBased(ratio) : ratio;
+
+    LOG.info("traces will be sampled using {}", root.getDescription());
+    return new LLTraceSampler(root);
+  }
+
+  @Override
+  public SamplingResult shouldSample(
+    final Context parentContext,
+    final String traceId,
+    final String name,
+    final SpanKind spanKind,
+    final Attributes attributes,
+    final List<LinkData> parentLinks)
+  {
+    if (Boolean.TRUE.equals(attributes.get(RETAINED))) {
+      return SamplingResult.recordAndSample();
+    }
+
+    return this.delegate.shouldSample(
+      parentContext,
+      traceId,
+      name,
+      spanKind,
+      attributes,
+      parentLinks
+    );
+  }
+
+  @Override
+  public String getDescription()
+  {
+    return "LLTraceSampler{%s}".formatted(this.delegate.getDescription());
+  }
+}
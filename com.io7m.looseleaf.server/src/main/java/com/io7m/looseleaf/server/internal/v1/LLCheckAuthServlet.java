@@ -57,6 +57,7 @@ public final class LLCheckAuthServlet extends HttpServlet
       this.telemetry,
       "CheckAuth",
       request,
+      response,
       () -> {
         response.setStatus(200);
         response.setContentLength(0);
@@ -22,6 +22,7 @@ import com.io7m.looseleaf.database.api.LLDatabaseType;
 import com.io7m.looseleaf.protocol.v1.LLv1Error;
 import com.io7m.looseleaf.protocol.v1.LLv1Errors;
 import com.io7m.looseleaf.security.LLKeyName;
+import com.io7m.looseleaf.security.LLPermissions;
 import com.io7m.looseleaf.security.LLUser;
 import com.io7m.looseleaf.server.api.LLFaultInjection;
 import com.io7m.looseleaf.server.api.LLServerConfiguration;
@@ -32,6 +33,7 @@ import com.io7m.looseleaf.server.internal.LLMetricsService;
 import com.io7m.looseleaf.server.internal.LLServerClock;
 import com.io7m.looseleaf.server.internal.LLStrings;
 import com.io7m.looseleaf.server.internal.LLv1MessagesService;
+import com.io7m.looseleaf.server.internal.audit.LLAuditService;
 import com.io7m.looseleaf.server.internal.auth.LLUserPrincipal;
 import com.io7m.looseleaf.server.internal.telemetry.LLTelemetryServiceType;
 import com.io7m.repetoir.core.RPServiceDirectoryType;
@@ -39,12 +41,9 @@ import io.opentelemetry.api.trace.Span;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
 import java.io.IOException;
-import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -58,13 +57,11 @@ import static com.io7m.looseleaf.server.internal.v1.LLWithTelemetry.withTelemetr
 
 public final class LLDeleteServlet extends HttpServlet
 {
-  private static final Logger LOG =
-    LoggerFactory.getLogger(LLDeleteServlet.class);
-
   private final LLv1MessagesService messages;
   private final LLDatabaseType database;
   private final LLStrings strings;
   private final LLMetricsService metrics;
+  private final LLAuditService audit;
   private final LLTelemetryServiceType telemetry;
   private final LLServerClock clock;
   private final LLServerConfiguration configuration;
@@ -86,6 +83,8 @@ public final class LLDeleteServlet extends HttpServlet
       inServices.requireService(LLStrings.class);
     this.metrics =
       inServices.requireService(LLMetricsService.class);
+    this.audit =
+      inServices.requireService(LLAuditService.class);
     this.telemetry =
       inServices.requireService(LLTelemetryServiceType.class);
     this.clock =
@@ -105,6 +104,7 @@ public final class LLDeleteServlet extends HttpServlet
       this.telemetry,
       "Delete",
       request,
+      response,
       () -> {
         final var userPrincipal =
           (LLUserPrincipal) request.getUserPrincipal();
@@ -117,7 +117,7 @@ public final class LLDeleteServlet extends HttpServlet
             "client",
             "%s:%d".formatted(request.getRemoteAddr(), request.getRemotePort())
           );
-          this.doProcessMessage(request, response, user);
+          this.doProcessMessage(request, response, user, userPrincipal.permissions());
         } finally {
           MDC.remove("user");
           MDC.remove("client");
@@ -129,7 +129,8 @@ public final class LLDeleteServlet extends HttpServlet
   private void doProcessMessage(
     final HttpServletRequest request,
     final HttpServletResponse response,
-    final LLUser user)
+    final LLUser user,
+    final LLPermissions permissions)
     throws IOException
   {
     final var v1Messages = this.messages.messages();
@@ -138,7 +139,7 @@ public final class LLDeleteServlet extends HttpServlet
       final var keyName =
         LLKeyName.create(request.getPathInfo());
 
-      if (!user.allows(WRITE, keyName)) {
+      if (!permissions.allows(WRITE, keyName)) {
         throw new LLHTTPErrorStatusException(
           400,
           "operation-not-permitted",
@@ -149,7 +150,7 @@ public final class LLDeleteServlet extends HttpServlet
         );
       }
 
-      final var timeThen = this.clock.nowPrecise();
+      final var timeThen = this.clock.nanoTime();
 
       try {
         this.configuration.faultInjection()
@@ -169,11 +170,11 @@ public final class LLDeleteServlet extends HttpServlet
         throw e;
       }
 
-      final var timeNow = this.clock.nowPrecise();
-      this.metrics.logDelete(user, keyName.value());
-      this.metrics.addDBTime(Duration.between(timeThen, timeNow));
+      final var timeNow = this.clock.nanoTime();
+      this.metrics.countDeletes(user, 1L);
+      this.metrics.addDBTime("delete", timeNow - timeThen);
 
-      LOG.info("delete {}", keyName.value());
+      this.audit.recordDelete(user, keyName);
       response.setStatus(200);
       response.setContentLength(0);
     } catch (final LLHTTPErrorStatusException e) {
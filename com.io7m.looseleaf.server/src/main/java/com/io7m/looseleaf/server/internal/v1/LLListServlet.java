@@ -0,0 +1,332 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal.v1;
+
+import com.io7m.looseleaf.database.api.LLDatabaseScan;
+import com.io7m.looseleaf.database.api.LLDatabaseScanResult;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+import com.io7m.looseleaf.protocol.v1.LLv1Error;
+import com.io7m.looseleaf.protocol.v1.LLv1Errors;
+import com.io7m.looseleaf.protocol.v1.LLv1Listing;
+import com.io7m.looseleaf.protocol.v1.LLv1MessageType;
+import com.io7m.looseleaf.protocol.v1.LLv1Messages;
+import com.io7m.looseleaf.security.LLKeyName;
+import com.io7m.looseleaf.security.LLPermissions;
+import com.io7m.looseleaf.security.LLUser;
+import com.io7m.looseleaf.server.api.LLFaultInjection;
+import com.io7m.looseleaf.server.api.LLServerConfiguration;
+import com.io7m.looseleaf.server.internal.LLConfigurationService;
+import com.io7m.looseleaf.server.internal.LLDatabaseService;
+import com.io7m.looseleaf.server.internal.LLHTTPErrorStatusException;
+import com.io7m.looseleaf.server.internal.LLMetricsService;
+import com.io7m.looseleaf.server.internal.LLServerClock;
+import com.io7m.looseleaf.server.internal.LLStrings;
+import com.io7m.looseleaf.server.internal.LLv1MessagesService;
+import com.io7m.looseleaf.server.internal.audit.LLAuditService;
+import com.io7m.looseleaf.server.internal.auth.LLUserPrincipal;
+import com.io7m.looseleaf.server.internal.telemetry.LLTelemetryServiceType;
+import com.io7m.repetoir.core.RPServiceDirectoryType;
+import io.opentelemetry.api.trace.Span;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+
+import static com.io7m.looseleaf.security.LLAction.READ;
+import static com.io7m.looseleaf.server.internal.v1.LLWithTelemetry.withTelemetry;
+
+/**
+ * The v1 "list" servlet.
+ */
+
+public final class LLListServlet extends HttpServlet
+{
+  private static final int LIMIT_DEFAULT = 100;
+  private static final int LIMIT_MAXIMUM = 1000;
+
+  /*
+   * Keys that the caller is not permitted to read are filtered out of the
+   * listing. To bound the work done for callers that can read very little
+   * of a large subtree, at most this many times the requested number of keys
+   * are scanned before a partial page is returned.
+   */
+
+  private static final int SCAN_FACTOR = 10;
+
+  private final LLv1MessagesService messages;
+  private final LLDatabaseType database;
+  private final LLStrings strings;
+  private final LLMetricsService metrics;
+  private final LLAuditService audit;
+  private final LLTelemetryServiceType telemetry;
+  private final LLServerClock clock;
+  private final LLServerConfiguration configuration;
+
+  /**
+   * The v1 "list" servlet.
+   *
+   * @param inServices The service directory
+   */
+
+  public LLListServlet(
+    final RPServiceDirectoryType inServices)
+  {
+    this.clock =
+      inServices.requireService(LLServerClock.class);
+    this.messages =
+      inServices.requireService(LLv1MessagesService.class);
+    this.database =
+      inServices.requireService(LLDatabaseService.class).database();
+    this.strings =
+      inServices.requireService(LLStrings.class);
+    this.metrics =
+      inServices.requireService(LLMetricsService.class);
+    this.audit =
+      inServices.requireService(LLAuditService.class);
+    this.telemetry =
+      inServices.requireService(LLTelemetryServiceType.class);
+    this.configuration =
+      inServices.requireService(LLConfigurationService.class)
+        .configuration();
+  }
+
+  private static void send(
+    final LLv1MessageType message,
+    final HttpServletResponse response,
+    final int sc,
+    final LLv1Messages v1Messages)
+    throws IOException
+  {
+    response.setContentType("application/json");
+    response.setStatus(sc);
+
+    final var data = v1Messages.serialize(message);
+    response.setContentLength(data.length + 2);
+    try (var output = response.getOutputStream()) {
+      output.write(data);
+      output.write('\r');
+      output.write('\n');
+    }
+  }
+
+  @Override
+  protected void service(
+    final HttpServletRequest request,
+    final HttpServletResponse response)
+    throws IOException
+  {
+    withTelemetry(
+      this.telemetry,
+      "List",
+      request,
+      response,
+      () -> {
+        final var userPrincipal =
+          (LLUserPrincipal) request.getUserPrincipal();
+        final var user =
+          userPrincipal.user();
+
+        try {
+          MDC.put("user", user.name().name());
+          MDC.put(
+            "client",
+            "%s:%d".formatted(request.getRemoteAddr(), request.getRemotePort())
+          );
+          this.doProcessMessage(request, response, user, userPrincipal.permissions());
+        } finally {
+          MDC.remove("user");
+          MDC.remove("client");
+        }
+      }
+    );
+  }
+
+  private void doProcessMessage(
+    final HttpServletRequest request,
+    final HttpServletResponse response,
+    final LLUser user,
+    final LLPermissions permissions)
+    throws IOException
+  {
+    final var v1Messages =
+      this.messages.messages();
+
+    try {
+      final var prefix =
+        this.prefixOf(request);
+      final var limit =
+        this.limitOf(request);
+      final var includeValues =
+        Boolean.parseBoolean(request.getParameter("values"));
+
+      var after =
+        this.afterOf(request);
+
+      final var names =
+        new ArrayList<String>(limit);
+      final var listed =
+        new ArrayList<LLKeyName>(limit);
+      final var values =
+        new HashMap<String, String>();
+
+      final var timeThen =
+        this.clock.nanoTime();
+
+      var scanned = 0;
+      var complete = false;
+      while (names.size() < limit) {
+        final var scan =
+          new LLDatabaseScan(prefix, after, limit - names.size(), includeValues);
+
+        final var result = this.runScan(user, scan);
+        for (final var key : result.keys()) {
+          if (permissions.allows(READ, key)) {
+            names.add(key.value());
+            listed.add(key);
+            if (includeValues) {
+              values.put(key.value(), result.values().get(key));
+            }
+          }
+        }
+
+        scanned += result.keys().size();
+        if (result.next().isEmpty()) {
+          complete = true;
+          break;
+        }
+
+        after = result.next();
+        if (scanned >= limit * SCAN_FACTOR) {
+          break;
+        }
+      }
+
+      final var timeNow =
+        this.clock.nanoTime();
+
+      this.metrics.addDBTime("list", timeNow - timeThen);
+      if (includeValues) {
+        this.metrics.countReads(user, listed.size());
+        this.audit.record(user, "list", listed, List.of(), List.of());
+      } else {
+        this.audit.record(user, "list", List.of(), List.of(), List.of());
+      }
+
+      final String next;
+      if (complete) {
+        next = null;
+      } else {
+        next = after.map(LLKeyName::value).orElse(null);
+      }
+
+      send(new LLv1Listing(names, values, next), response, 200, v1Messages);
+    } catch (final LLHTTPErrorStatusException e) {
+      final var errors =
+        List.of(new LLv1Error(e.errorCode(), e.getMessage()));
+      send(new LLv1Errors(errors), response, e.statusCode(), v1Messages);
+    }
+  }
+
+  private LLDatabaseScanResult runScan(
+    final LLUser user,
+    final LLDatabaseScan scan)
+    throws IOException
+  {
+    try {
+      this.configuration.faultInjection()
+        .orElseGet(LLFaultInjection::disabled)
+        .databaseFaultInject();
+
+      return this.database.scan(scan);
+    } catch (final Exception e) {
+      Span.current().recordException(e);
+      this.metrics.logError(user, e.getMessage());
+      throw e;
+    }
+  }
+
+  private String prefixOf(
+    final HttpServletRequest request)
+    throws LLHTTPErrorStatusException
+  {
+    final var path = request.getPathInfo();
+    if (path == null || path.chars().allMatch(c -> c == '/')) {
+      return "/";
+    }
+
+    try {
+      return LLKeyName.create(path).value() + "/";
+    } catch (final IllegalArgumentException e) {
+      throw new LLHTTPErrorStatusException(
+        400,
+        "bad-key-name",
+        this.strings.format("errorBadKeyName", path, e.getMessage())
+      );
+    }
+  }
+
+  private Optional<LLKeyName> afterOf(
+    final HttpServletRequest request)
+    throws LLHTTPErrorStatusException
+  {
+    final var after = request.getParameter("after");
+    if (after == null || after.isEmpty()) {
+      return Optional.empty();
+    }
+
+    try {
+      return Optional.of(LLKeyName.create(after));
+    } catch (final IllegalArgumentException e) {
+      throw new LLHTTPErrorStatusException(
+        400,
+        "bad-key-name",
+        this.strings.format("errorBadKeyName", after, e.getMessage())
+      );
+    }
+  }
+
+  private int limitOf(
+    final HttpServletRequest request)
+    throws LLHTTPErrorStatusException
+  {
+    final var limit = request.getParameter("limit");
+    if (limit == null || limit.isEmpty()) {
+      return LIMIT_DEFAULT;
+    }
+
+    try {
+      final var value = Integer.parseInt(limit);
+      if (value > 0 && value <= LIMIT_MAXIMUM) {
+        return value;
+      }
+    } catch (final NumberFormatException e) {
+      // Fall through
+    }
+
+    throw new LLHTTPErrorStatusException(
+      400,
+      "bad-parameter",
+      this.strings.format("errorBadLimit", limit, LIMIT_MAXIMUM)
+    );
+  }
+}
@@ -26,6 +26,7 @@ import com.io7m.looseleaf.protocol.v1.LLv1Messages;
 import com.io7m.looseleaf.protocol.v1.LLv1RUD;
 import com.io7m.looseleaf.protocol.v1.LLv1Result;
 import com.io7m.looseleaf.security.LLKeyName;
+import com.io7m.looseleaf.security.LLPermissions;
 import com.io7m.looseleaf.security.LLUser;
 import com.io7m.looseleaf.server.api.LLFaultInjection;
 import com.io7m.looseleaf.server.api.LLServerConfiguration;
@@ -36,6 +37,7 @@ import com.io7m.looseleaf.server.internal.LLMetricsService;
 import com.io7m.looseleaf.server.internal.LLServerClock;
 import com.io7m.looseleaf.server.internal.LLStrings;
 import com.io7m.looseleaf.server.internal.LLv1MessagesService;
+import com.io7m.looseleaf.server.internal.audit.LLAuditService;
 import com.io7m.looseleaf.server.internal.auth.LLUserPrincipal;
 import com.io7m.looseleaf.server.internal.telemetry.LLTelemetryServiceType;
 import com.io7m.repetoir.core.RPServiceDirectoryType;
@@ -43,12 +45,9 @@ import io.opentelemetry.api.trace.Span;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
 import java.io.IOException;
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -66,13 +65,12 @@ import static com.io7m.looseleaf.server.internal.v1.LLWithTelemetry.withTelemetr
 
 public final class LLRUDServlet extends HttpServlet
 {
-  private static final Logger LOG =
-    LoggerFactory.getLogger(LLRUDServlet.class);
-
   private final LLv1MessagesService messages;
+  private final LLDatabaseService databaseService;
   private final LLDatabaseType database;
   private final LLStrings strings;
   private final LLMetricsService metrics;
+  private final LLAuditService audit;
   private final LLTelemetryServiceType telemetry;
   private final LLServerClock clock;
   private final LLServerConfiguration configuration;
@@ -90,12 +88,16 @@ public final class LLRUDServlet extends HttpServlet
       inServices.requireService(LLServerClock.class);
     this.messages =
       inServices.requireService(LLv1MessagesService.class);
+    this.databaseService =
+      inServices.requireService(LLDatabaseService.class);
     this.database =
-      inServices.requireService(LLDatabaseService.class).database();
+      this.databaseService.database();
     this.strings =
       inServices.requireService(LLStrings.class);
     this.metrics =
       inServices.requireService(LLMetricsService.class);
+    this.audit =
+      inServices.requireService(LLAuditService.class);
     this.telemetry =
       inServices.requireService(LLTelemetryServiceType.class);
     this.configuration =
@@ -133,6 +135,7 @@ public final class LLRUDServlet extends HttpServlet
       this.telemetry,
       "RUD",
       request,
+      response,
       () -> {
         final var userPrincipal =
           (LLUserPrincipal) request.getUserPrincipal();
@@ -145,7 +148,7 @@ public final class LLRUDServlet extends HttpServlet
             "client",
             "%s:%d".formatted(request.getRemoteAddr(), request.getRemotePort())
           );
-          this.doProcessMessage(request, response, user);
+          this.doProcessMessage(request, response, user, userPrincipal.permissions());
         } finally {
           MDC.remove("user");
           MDC.remove("client");
@@ -157,7 +160,8 @@ public final class LLRUDServlet extends HttpServlet
   private void doProcessMessage(
     final HttpServletRequest request,
     final HttpServletResponse response,
-    final LLUser user)
+    final LLUser user,
+    final LLPermissions permissions)
     throws IOException
   {
     final var v1Messages =
@@ -171,15 +175,23 @@ public final class LLRUDServlet extends HttpServlet
         new ArrayList<LLv1Error>();
 
       final var rud =
-        this.checkKeysPermitted(user, message, errors);
+        this.checkKeysPermitted(permissions, message, errors);
 
       if (!errors.isEmpty()) {
         sendV1Errors(new LLv1Errors(errors), response, 400, v1Messages);
         return;
       }
 
+      if (this.databaseService.writesSpanMounts(rud)) {
+        throw new LLHTTPErrorStatusException(
+          400,
+          "writes-span-mounts",
+          this.strings.format("errorWritesSpanMounts")
+        );
+      }
+
       final var timeThen =
-        this.clock.nowPrecise();
+        this.clock.nanoTime();
 
       final Map<LLKeyName, String> dbResult;
       try {
@@ -195,22 +207,20 @@ public final class LLRUDServlet extends HttpServlet
       }
 
       final var timeNow =
-        this.clock.nowPrecise();
-
-      for (final var read : rud.read()) {
-        LOG.info("read {}", read.value());
-        this.metrics.logRead(user, read.value());
-      }
-      for (final var update : rud.update().keySet()) {
-        LOG.info("update {}", update.value());
-        this.metrics.logUpdate(user, update.value());
-      }
-      for (final var delete : rud.delete()) {
-        LOG.info("delete {}", delete.value());
-        this.metrics.logDelete(user, delete.value());
-      }
+        this.clock.nanoTime();
+
+      this.metrics.countReads(user, rud.read().size());
+      this.metrics.countWrites(user, rud.update().size());
+      this.metrics.countDeletes(user, rud.delete().size());
+      this.audit.record(
+        user,
+        "rud",
+        rud.read(),
+        rud.update().keySet(),
+        rud.delete()
+      );
 
-      this.metrics.addDBTime(Duration.between(timeThen, timeNow));
+      this.metrics.addDBTime("rud", timeNow - timeThen);
 
       final var result =
         new LLv1Result(
@@ -240,7 +250,7 @@ public final class LLRUDServlet extends HttpServlet
   }
 
   private LLDatabaseRUD checkKeysPermitted(
-    final LLUser user,
+    final LLPermissions permissions,
     final LLv1RUD message,
     final List<LLv1Error> errors)
   {
@@ -248,7 +258,7 @@ public final class LLRUDServlet extends HttpServlet
     for (final var value : message.read()) {
       try {
         final var keyName = LLKeyName.create(value);
-        if (!user.allows(READ, keyName)) {
+        if (!permissions.allows(READ, keyName)) {
           errors.add(new LLv1Error(
             "operation-not-permitted",
             this.strings.format(
@@ -273,7 +283,7 @@ public final class LLRUDServlet extends HttpServlet
       final var v = entry.getValue();
       try {
         final var keyName = LLKeyName.create(k);
-        if (!user.allows(READ, keyName)) {
+        if (!permissions.allows(READ, keyName)) {
           errors.add(new LLv1Error(
             "operation-not-permitted",
             this.strings.format(
@@ -296,7 +306,7 @@ public final class LLRUDServlet extends HttpServlet
     for (final var value : message.delete()) {
       try {
         final var keyName = LLKeyName.create(value);
-        if (!user.allows(WRITE, keyName)) {
+        if (!permissions.allows(WRITE, keyName)) {
           errors.add(new LLv1Error(
             "operation-not-permitted",
             this.strings.format(
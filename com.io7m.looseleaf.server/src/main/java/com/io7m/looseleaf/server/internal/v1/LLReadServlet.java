@@ -20,6 +20,7 @@ import com.io7m.looseleaf.database.api.LLDatabaseType;
 import com.io7m.looseleaf.protocol.v1.LLv1Error;
 import com.io7m.looseleaf.protocol.v1.LLv1Errors;
 import com.io7m.looseleaf.security.LLKeyName;
+import com.io7m.looseleaf.security.LLPermissions;
 import com.io7m.looseleaf.security.LLUser;
 import com.io7m.looseleaf.server.api.LLFaultInjection;
 import com.io7m.looseleaf.server.api.LLServerConfiguration;
@@ -27,9 +28,11 @@ import com.io7m.looseleaf.server.internal.LLConfigurationService;
 import com.io7m.looseleaf.server.internal.LLDatabaseService;
 import com.io7m.looseleaf.server.internal.LLHTTPErrorStatusException;
 import com.io7m.looseleaf.server.internal.LLMetricsService;
+import com.io7m.looseleaf.server.internal.LLReadCachingDatabase;
 import com.io7m.looseleaf.server.internal.LLServerClock;
 import com.io7m.looseleaf.server.internal.LLStrings;
 import com.io7m.looseleaf.server.internal.LLv1MessagesService;
+import com.io7m.looseleaf.server.internal.audit.LLAuditService;
 import com.io7m.looseleaf.server.internal.auth.LLUserPrincipal;
 import com.io7m.looseleaf.server.internal.telemetry.LLTelemetryServiceType;
 import com.io7m.repetoir.core.RPServiceDirectoryType;
@@ -37,12 +40,9 @@ import io.opentelemetry.api.trace.Span;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
 import java.io.IOException;
-import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -56,13 +56,12 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 public final class LLReadServlet extends HttpServlet
 {
-  private static final Logger LOG =
-    LoggerFactory.getLogger(LLReadServlet.class);
-
   private final LLv1MessagesService messages;
   private final LLDatabaseType database;
+  private final Optional<LLReadCachingDatabase> readCache;
   private final LLStrings strings;
   private final LLMetricsService metrics;
+  private final LLAuditService audit;
   private final LLTelemetryServiceType telemetry;
   private final LLServerClock clock;
   private final LLServerConfiguration configuration;
@@ -80,12 +79,18 @@ public final class LLReadServlet extends HttpServlet
       inServices.requireService(LLServerClock.class);
     this.messages =
       inServices.requireService(LLv1MessagesService.class);
+    final var databaseService =
+      inServices.requireService(LLDatabaseService.class);
     this.database =
-      inServices.requireService(LLDatabaseService.class).database();
+      databaseService.database();
+    this.readCache =
+      databaseService.readCache();
     this.strings =
       inServices.requireService(LLStrings.class);
     this.metrics =
       inServices.requireService(LLMetricsService.class);
+    this.audit =
+      inServices.requireService(LLAuditService.class);
     this.telemetry =
       inServices.requireService(LLTelemetryServiceType.class);
     this.configuration =
@@ -103,6 +108,7 @@ public final class LLReadServlet extends HttpServlet
       this.telemetry,
       "Read",
       request,
+      response,
       () -> {
         final var userPrincipal =
           (LLUserPrincipal) request.getUserPrincipal();
@@ -115,7 +121,7 @@ public final class LLReadServlet extends HttpServlet
             "client",
             "%s:%d".formatted(request.getRemoteAddr(), request.getRemotePort())
           );
-          this.doProcessMessage(request, response, user);
+          this.doProcessMessage(request, response, user, userPrincipal.permissions());
         } finally {
           MDC.remove("user");
           MDC.remove("client");
@@ -124,10 +130,22 @@ public final class LLReadServlet extends HttpServlet
     );
   }
 
+  private Optional<byte[]> readEncoded(
+    final LLKeyName keyName)
+    throws IOException
+  {
+    if (this.readCache.isPresent()) {
+      return this.readCache.get().getEncoded(keyName);
+    }
+    return this.database.get(keyName)
+      .map(v -> v.getBytes(UTF_8));
+  }
+
   private void doProcessMessage(
     final HttpServletRequest request,
     final HttpServletResponse response,
-    final LLUser user)
+    final LLUser user,
+    final LLPermissions permissions)
     throws IOException
   {
     final var v1Messages = this.messages.messages();
@@ -136,7 +154,7 @@ public final class LLReadServlet extends HttpServlet
       final var keyName =
         LLKeyName.create(request.getPathInfo());
 
-      if (!user.allows(READ, keyName)) {
+      if (!permissions.allows(READ, keyName)) {
         throw new LLHTTPErrorStatusException(
           400,
           "operation-not-permitted",
@@ -148,15 +166,15 @@ public final class LLReadServlet extends HttpServlet
       }
 
       final var timeThen =
-        this.clock.nowPrecise();
+        this.clock.nanoTime();
 
-      final Optional<String> value;
+      final Optional<byte[]> value;
       try {
         this.configuration.faultInjection()
           .orElseGet(LLFaultInjection::disabled)
           .databaseFaultInject();
 
-        value = this.database.get(keyName);
+        value = this.readEncoded(keyName);
       } catch (final Exception e) {
         Span.current().recordException(e);
         this.metrics.logError(user, e.getMessage());
@@ -164,7 +182,7 @@ public final class LLReadServlet extends HttpServlet
       }
 
       final var timeNow =
-        this.clock.nowPrecise();
+        this.clock.nanoTime();
 
       if (value.isEmpty()) {
         throw new LLHTTPErrorStatusException(
@@ -176,7 +194,7 @@ public final class LLReadServlet extends HttpServlet
         );
       }
 
-      final var valueBytes = value.get().getBytes(UTF_8);
+      final var valueBytes = value.get();
       try (var output = response.getOutputStream()) {
         response.setStatus(200);
         response.setContentType("text/plain");
@@ -185,10 +203,9 @@ public final class LLReadServlet extends HttpServlet
         output.flush();
       }
 
-      this.metrics.logRead(user, keyName.value());
-      this.metrics.addDBTime(Duration.between(timeThen, timeNow));
-
-      LOG.info("get {}", keyName.value());
+      this.metrics.countReads(user, 1L);
+      this.metrics.addDBTime("read", timeNow - timeThen);
+      this.audit.recordRead(user, keyName);
     } catch (final LLHTTPErrorStatusException e) {
       response.setContentType("application/json");
       response.setStatus(e.statusCode());
@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.server.internal.v1;
+
+import com.io7m.looseleaf.protocol.v1.LLv1Error;
+import com.io7m.looseleaf.protocol.v1.LLv1Errors;
+import com.io7m.looseleaf.protocol.v1.LLv1MessageType;
+import com.io7m.looseleaf.protocol.v1.LLv1Token;
+import com.io7m.looseleaf.server.internal.LLStrings;
+import com.io7m.looseleaf.server.internal.LLv1MessagesService;
+import com.io7m.looseleaf.server.internal.auth.LLSessionTokens;
+import com.io7m.looseleaf.server.internal.auth.LLUserPrincipal;
+import com.io7m.looseleaf.server.internal.telemetry.LLTelemetryServiceType;
+import com.io7m.repetoir.core.RPServiceDirectoryType;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.io7m.looseleaf.server.internal.auth.LLBasicAuthenticator.BEARER_AUTH;
+import static com.io7m.looseleaf.server.internal.v1.LLWithTelemetry.withTelemetry;
+
+/**
+ * The v1 "token" servlet. Exchanges a successful basic authentication for
+ * a short-lived bearer session token.
+ */
+
+public final class LLTokenServlet extends HttpServlet
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(LLTokenServlet.class);
+
+  private final LLTelemetryServiceType telemetry;
+  private final LLv1MessagesService messages;
+  private final LLSessionTokens sessionTokens;
+  private final LLStrings strings;
+
+  /**
+   * The v1 "token" servlet.
+   *
+   * @param inServices The service directory
+   */
+
+  public LLTokenServlet(
+    final RPServiceDirectoryType inServices)
+  {
+    this.telemetry =
+      inServices.requireService(LLTelemetryServiceType.class);
+    this.messages =
+      inServices.requireService(LLv1MessagesService.class);
+    this.sessionTokens =
+      inServices.requireService(LLSessionTokens.class);
+    this.strings =
+      inServices.requireService(LLStrings.class);
+  }
+
+  @Override
+  protected void service(
+    final HttpServletRequest request,
+    final HttpServletResponse response)
+    throws IOException
+  {
+    withTelemetry(
+      this.telemetry,
+      "Token",
+      request,
+      response,
+      () -> {
+        final var userPrincipal =
+          (LLUserPrincipal) request.getUserPrincipal();
+        final var user =
+          userPrincipal.user();
+
+        try {
+          MDC.put("user", user.name().name());
+          MDC.put(
+            "client",
+            "%s:%d".formatted(request.getRemoteAddr(), request.getRemotePort())
+          );
+
+          /*
+           * Tokens cannot be used to obtain further tokens; otherwise a
+           * single leaked token could be renewed indefinitely.
+           */
+
+          if (BEARER_AUTH.equals(request.getAuthType())) {
+            this.send(
+              response,
+              400,
+              new LLv1Errors(List.of(new LLv1Error(
+                "operation-not-permitted",
+                this.strings.format("errorTokenRenewal")
+              )))
+            );
+            return;
+          }
+
+          final var token = this.sessionTokens.issue(user);
+          this.send(
+            response,
+            200,
+            new LLv1Token(token.text(), token.expires().toString())
+          );
+          LOG.info("issued token (expires {})", token.expires());
+        } finally {
+          MDC.remove("user");
+          MDC.remove("client");
+        }
+      }
+    );
+  }
+
+  private void send(
+    final HttpServletResponse response,
+    final int statusCode,
+    final LLv1MessageType message)
+    throws IOException
+  {
+    response.setContentType("application/json");
+    response.setStatus(statusCode);
+
+    final var data = this.messages.messages().serialize(message);
+    response.setContentLength(data.length + 2);
+
+    try (var output = response.getOutputStream()) {
+      output.write(data);
+      output.write('\r');
+      output.write('\n');
+    }
+  }
+}
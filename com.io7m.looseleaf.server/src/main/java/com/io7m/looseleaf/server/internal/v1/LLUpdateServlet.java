@@ -22,6 +22,7 @@ import com.io7m.looseleaf.database.api.LLDatabaseType;
 import com.io7m.looseleaf.protocol.v1.LLv1Error;
 import com.io7m.looseleaf.protocol.v1.LLv1Errors;
 import com.io7m.looseleaf.security.LLKeyName;
+import com.io7m.looseleaf.security.LLPermissions;
 import com.io7m.looseleaf.security.LLUser;
 import com.io7m.looseleaf.server.api.LLFaultInjection;
 import com.io7m.looseleaf.server.api.LLServerConfiguration;
@@ -32,6 +33,7 @@ import com.io7m.looseleaf.server.internal.LLMetricsService;
 import com.io7m.looseleaf.server.internal.LLServerClock;
 import com.io7m.looseleaf.server.internal.LLStrings;
 import com.io7m.looseleaf.server.internal.LLv1MessagesService;
+import com.io7m.looseleaf.server.internal.audit.LLAuditService;
 import com.io7m.looseleaf.server.internal.auth.LLUserPrincipal;
 import com.io7m.looseleaf.server.internal.telemetry.LLTelemetryServiceType;
 import com.io7m.repetoir.core.RPServiceDirectoryType;
@@ -40,12 +42,9 @@ import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
 import java.io.IOException;
-import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -60,13 +59,11 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 public final class LLUpdateServlet extends HttpServlet
 {
-  private static final Logger LOG =
-    LoggerFactory.getLogger(LLUpdateServlet.class);
-
   private final LLv1MessagesService messages;
   private final LLDatabaseType database;
   private final LLStrings strings;
   private final LLMetricsService metrics;
+  private final LLAuditService audit;
   private final LLTelemetryServiceType telemetry;
   private final LLServerClock clock;
   private final LLServerConfiguration configuration;
@@ -88,6 +85,8 @@ public final class LLUpdateServlet extends HttpServlet
       inServices.requireService(LLStrings.class);
     this.metrics =
       inServices.requireService(LLMetricsService.class);
+    this.audit =
+      inServices.requireService(LLAuditService.class);
     this.telemetry =
       inServices.requireService(LLTelemetryServiceType.class);
     this.clock =
@@ -107,6 +106,7 @@ public final class LLUpdateServlet extends HttpServlet
       this.telemetry,
       "Update",
       request,
+      response,
       () -> {
         final var userPrincipal =
           (LLUserPrincipal) request.getUserPrincipal();
@@ -119,7 +119,7 @@ public final class LLUpdateServlet extends HttpServlet
             "client",
             "%s:%d".formatted(request.getRemoteAddr(), request.getRemotePort())
           );
-          this.doProcessMessage(request, response, user);
+          this.doProcessMessage(request, response, user, userPrincipal.permissions());
         } finally {
           MDC.remove("user");
           MDC.remove("client");
@@ -131,7 +131,8 @@ public final class LLUpdateServlet extends HttpServlet
   private void doProcessMessage(
     final HttpServletRequest request,
     final HttpServletResponse response,
-    final LLUser user)
+    final LLUser user,
+    final LLPermissions permissions)
     throws IOException
   {
     final var v1Messages = this.messages.messages();
@@ -140,7 +141,7 @@ public final class LLUpdateServlet extends HttpServlet
       final var keyName =
         LLKeyName.create(request.getPathInfo());
 
-      if (!user.allows(WRITE, keyName)) {
+      if (!permissions.allows(WRITE, keyName)) {
         throw new LLHTTPErrorStatusException(
           400,
           "operation-not-permitted",
@@ -152,7 +153,7 @@ public final class LLUpdateServlet extends HttpServlet
       }
 
       try (var input = request.getInputStream()) {
-        final var timeThen = this.clock.nowPrecise();
+        final var timeThen = this.clock.nanoTime();
 
         try {
           this.configuration.faultInjection()
@@ -172,12 +173,12 @@ public final class LLUpdateServlet extends HttpServlet
           throw e;
         }
 
-        final var timeNow = this.clock.nowPrecise();
-        this.metrics.logUpdate(user, keyName.value());
-        this.metrics.addDBTime(Duration.between(timeThen, timeNow));
+        final var timeNow = this.clock.nanoTime();
+        this.metrics.countWrites(user, 1L);
+        this.metrics.addDBTime("update", timeNow - timeThen);
       }
 
-      LOG.info("update {}", keyName.value());
+      this.audit.recordUpdate(user, keyName);
       response.setStatus(200);
       response.setContentLength(0);
     } catch (final LLHTTPErrorStatusException e) {
@@ -17,19 +17,12 @@
 
 package com.io7m.looseleaf.server.internal.v1;
 
+import com.io7m.looseleaf.server.internal.telemetry.LLRequestSpan;
 import com.io7m.looseleaf.server.internal.telemetry.LLTelemetryServiceType;
-import io.opentelemetry.api.trace.SpanKind;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
-import java.time.Instant;
-
-import static com.io7m.looseleaf.server.internal.LLServerRequestDecoration.requestIdFor;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_CLIENT_IP;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_METHOD;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_REQUEST_CONTENT_LENGTH;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_URL;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_USER_AGENT;
 
 /**
  * Execute a request under telemetry tracing.
@@ -64,6 +57,7 @@ public final class LLWithTelemetry
    * @param telemetry The telemetry service
    * @param rootName  The span name
    * @param request   The request
+   * @param response  The response
    * @param function  The function
    *
    * @throws IOException On errors
@@ -73,32 +67,18 @@ public final class LLWithTelemetry
     final LLTelemetryServiceType telemetry,
     final String rootName,
     final HttpServletRequest request,
+    final HttpServletResponse response,
     final WithTelemetryType function)
     throws IOException
   {
-    final var span =
-      telemetry.tracer()
-        .spanBuilder(rootName)
-        .setStartTimestamp(Instant.now())
-        .setSpanKind(SpanKind.SERVER)
-        .setAttribute(HTTP_CLIENT_IP, request.getRemoteAddr())
-        .setAttribute(HTTP_METHOD, request.getMethod())
-        .setAttribute(
-          HTTP_REQUEST_CONTENT_LENGTH,
-          request.getContentLengthLong()
-        )
-        .setAttribute(HTTP_USER_AGENT, request.getHeader("User-Agent"))
-        .setAttribute(HTTP_URL, request.getRequestURI())
-        .setAttribute("http.request_id", requestIdFor(request).toString())
-        .startSpan();
-
-    try (var ignored = span.makeCurrent()) {
-      function.execute();
-    } catch (final Throwable e) {
-      span.recordException(e);
-      throw e;
-    } finally {
-      span.end();
+    try (var span =
+           LLRequestSpan.start(telemetry, rootName, request, response)) {
+      try {
+        function.execute();
+      } catch (final Throwable e) {
+        span.recordException(e);
+        throw e;
+      }
     }
   }
 }
@@ -25,7 +25,11 @@ module com.io7m.looseleaf.server
 
   requires com.io7m.looseleaf.server.api;
   requires com.io7m.looseleaf.database.api;
+  requires com.io7m.looseleaf.database.bitcask;
+  requires com.io7m.looseleaf.database.lsm;
+  requires com.io7m.looseleaf.database.memory;
   requires com.io7m.looseleaf.database.mvstore;
+  requires com.io7m.looseleaf.database.sharded;
   requires com.io7m.looseleaf.database.sqlite;
   requires com.io7m.looseleaf.protocol.v1;
 
@@ -52,4 +56,9 @@ module com.io7m.looseleaf.server
 
   exports com.io7m.looseleaf.server;
   opens com.io7m.looseleaf.server.internal;
+
+  exports com.io7m.looseleaf.server.internal.audit
+    to com.io7m.looseleaf.tests;
+  exports com.io7m.looseleaf.server.internal.telemetry
+    to com.io7m.looseleaf.tests;
 }
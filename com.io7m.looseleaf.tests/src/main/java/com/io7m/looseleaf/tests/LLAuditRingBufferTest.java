@@ -0,0 +1,190 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.tests;
+
+import com.io7m.looseleaf.server.internal.audit.LLAuditEvent;
+import com.io7m.looseleaf.server.internal.audit.LLAuditRingBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class LLAuditRingBufferTest
+{
+  private static LLAuditEvent event(
+    final String user,
+    final int index)
+  {
+    return new LLAuditEvent(
+      user,
+      Integer.toString(index),
+      0,
+      0,
+      0,
+      List.of(),
+      List.of(),
+      List.of()
+    );
+  }
+
+  /**
+   * Capacities must be positive powers of two.
+   */
+
+  @Test
+  public void testCapacityInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new LLAuditRingBuffer(0);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new LLAuditRingBuffer(6);
+    });
+  }
+
+  /**
+   * An empty buffer yields nothing.
+   */
+
+  @Test
+  public void testEmpty()
+  {
+    final var buffer = new LLAuditRingBuffer(4);
+    assertNull(buffer.poll());
+  }
+
+  /**
+   * Offers fail when the buffer is full, and succeed again once an event
+   * has been removed.
+   */
+
+  @Test
+  public void testFull()
+  {
+    final var buffer = new LLAuditRingBuffer(4);
+    for (int index = 0; index < 4; ++index) {
+      assertTrue(buffer.offer(event("u", index)));
+    }
+
+    assertFalse(buffer.offer(event("u", 4)));
+    assertFalse(buffer.offer(event("u", 5)));
+
+    assertEquals("0", buffer.poll().operation());
+    assertTrue(buffer.offer(event("u", 6)));
+    assertFalse(buffer.offer(event("u", 7)));
+
+    assertEquals("1", buffer.poll().operation());
+    assertEquals("2", buffer.poll().operation());
+    assertEquals("3", buffer.poll().operation());
+    assertEquals("6", buffer.poll().operation());
+    assertNull(buffer.poll());
+  }
+
+  /**
+   * Events are removed in the order they were added across many laps of
+   * the ring.
+   */
+
+  @Test
+  public void testWrapAround()
+  {
+    final var buffer = new LLAuditRingBuffer(4);
+
+    int offered = 0;
+    int polled = 0;
+    for (int lap = 0; lap < 100; ++lap) {
+      for (int index = 0; index < 3; ++index) {
+        assertTrue(buffer.offer(event("u", offered)));
+        ++offered;
+      }
+      for (int index = 0; index < 3; ++index) {
+        assertEquals(Integer.toString(polled), buffer.poll().operation());
+        ++polled;
+      }
+      assertNull(buffer.poll());
+    }
+  }
+
+  /**
+   * With many concurrent producers, no event is lost or duplicated, and the
+   * events of each producer are removed in the order that producer added
+   * them.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMultipleProducersOrdering()
+    throws Exception
+  {
+    final var producers = 8;
+    final var perProducer = 10_000;
+    final var buffer = new LLAuditRingBuffer(256);
+    final var start = new CountDownLatch(1);
+
+    try (var executor = Executors.newFixedThreadPool(producers)) {
+      final var futures = new ArrayList<Future<?>>();
+      for (int p = 0; p < producers; ++p) {
+        final var user = Integer.toString(p);
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int index = 0; index < perProducer; ++index) {
+            while (!buffer.offer(event(user, index))) {
+              Thread.yield();
+            }
+          }
+          return null;
+        }));
+      }
+
+      start.countDown();
+
+      final var next = new int[producers];
+      var received = 0;
+      while (received < producers * perProducer) {
+        final var e = buffer.poll();
+        if (e == null) {
+          Thread.yield();
+          continue;
+        }
+
+        final var p = Integer.parseInt(e.user());
+        assertEquals(Integer.toString(next[p]), e.operation());
+        ++next[p];
+        ++received;
+      }
+
+      for (final var future : futures) {
+        future.get();
+      }
+      assertNull(buffer.poll());
+
+      for (int p = 0; p < producers; ++p) {
+        assertEquals(perProducer, next[p]);
+      }
+    }
+  }
+}
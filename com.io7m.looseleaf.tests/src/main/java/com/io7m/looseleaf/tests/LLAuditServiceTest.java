@@ -0,0 +1,310 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.tests;
+
+import com.io7m.looseleaf.security.LLKeyName;
+import com.io7m.looseleaf.security.LLPassword;
+import com.io7m.looseleaf.security.LLPasswordAlgorithmPBKDF2HmacSHA256;
+import com.io7m.looseleaf.security.LLUser;
+import com.io7m.looseleaf.security.LLUserName;
+import com.io7m.looseleaf.server.api.LLServerAuditConfiguration;
+import com.io7m.looseleaf.server.api.LLServerAuditDetail;
+import com.io7m.looseleaf.server.internal.audit.LLAuditService;
+import com.io7m.looseleaf.server.internal.telemetry.LLTelemetryService;
+import com.io7m.looseleaf.server.internal.telemetry.LLTraceRetention;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.logs.SdkLoggerProvider;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.logs.export.LogRecordExporter;
+import io.opentelemetry.sdk.logs.export.SimpleLogRecordProcessor;
+import io.opentelemetry.sdk.testing.exporter.InMemoryLogRecordExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringArrayKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class LLAuditServiceTest
+{
+  private static final LLUser USER =
+    new LLUser(
+      new LLUserName("grouch"),
+      new LLPassword(
+        LLPasswordAlgorithmPBKDF2HmacSHA256.create(),
+        "ABCDEF0123456789",
+        "ABCDEF0123456789"
+      ),
+      Map.of()
+    );
+
+  private SdkLoggerProvider loggerProvider;
+
+  private static LLKeyName key(
+    final String name)
+  {
+    return LLKeyName.create(name);
+  }
+
+  private LLAuditService audit(
+    final LogRecordExporter exporter,
+    final double sampleRate,
+    final LLServerAuditDetail detail,
+    final int capacity)
+  {
+    this.loggerProvider =
+      SdkLoggerProvider.builder()
+        .addLogRecordProcessor(SimpleLogRecordProcessor.create(exporter))
+        .build();
+
+    final var noop = OpenTelemetry.noop();
+    final var telemetry =
+      new LLTelemetryService(
+        noop.getTracer("test"),
+        noop.getMeter("test"),
+        this.loggerProvider.get("test"),
+        LLTraceRetention.none()
+      );
+
+    return new LLAuditService(
+      telemetry,
+      new LLServerAuditConfiguration(sampleRate, detail),
+      capacity
+    );
+  }
+
+  @AfterEach
+  public void tearDown()
+  {
+    if (this.loggerProvider != null) {
+      this.loggerProvider.close();
+    }
+  }
+
+  /**
+   * A sample rate of 0 records nothing.
+   */
+
+  @Test
+  public void testSampleRateZero()
+  {
+    final var exporter = InMemoryLogRecordExporter.create();
+    final var audit =
+      this.audit(exporter, 0.0, LLServerAuditDetail.KEYS, 1024);
+
+    for (int index = 0; index < 100; ++index) {
+      audit.recordRead(USER, key("/x"));
+    }
+    audit.close();
+
+    assertEquals(List.of(), exporter.getFinishedLogRecordItems());
+    assertEquals(0L, audit.dropped());
+  }
+
+  /**
+   * A sample rate of 1 records every request.
+   */
+
+  @Test
+  public void testSampleRateOne()
+  {
+    final var exporter = InMemoryLogRecordExporter.create();
+    final var audit =
+      this.audit(exporter, 1.0, LLServerAuditDetail.KEYS, 1024);
+
+    for (int index = 0; index < 100; ++index) {
+      audit.recordRead(USER, key("/x"));
+    }
+    audit.close();
+
+    assertEquals(100, exporter.getFinishedLogRecordItems().size());
+    assertEquals(0L, audit.dropped());
+  }
+
+  /**
+   * Key names are recorded at the KEYS level of detail.
+   */
+
+  @Test
+  public void testDetailKeys()
+  {
+    final var exporter = InMemoryLogRecordExporter.create();
+    final var audit =
+      this.audit(exporter, 1.0, LLServerAuditDetail.KEYS, 16);
+
+    audit.record(
+      USER,
+      "rud",
+      List.of(key("/a"), key("/b")),
+      List.of(key("/c")),
+      List.of()
+    );
+    audit.close();
+
+    final var records = exporter.getFinishedLogRecordItems();
+    assertEquals(1, records.size());
+
+    final var attributes = records.get(0).getAttributes();
+    assertEquals("grouch", attributes.get(stringKey("looseleaf.user")));
+    assertEquals("rud", attributes.get(stringKey("looseleaf.operation")));
+    assertEquals(
+      List.of("/a", "/b"),
+      attributes.get(stringArrayKey("looseleaf.keys.read")));
+    assertEquals(
+      List.of("/c"),
+      attributes.get(stringArrayKey("looseleaf.keys.update")));
+    assertEquals(
+      List.of(),
+      attributes.get(stringArrayKey("looseleaf.keys.delete")));
+  }
+
+  /**
+   * Only key counts are recorded at the SUMMARY level of detail.
+   */
+
+  @Test
+  public void testDetailSummary()
+  {
+    final var exporter = InMemoryLogRecordExporter.create();
+    final var audit =
+      this.audit(exporter, 1.0, LLServerAuditDetail.SUMMARY, 16);
+
+    audit.record(
+      USER,
+      "rud",
+      List.of(key("/a"), key("/b")),
+      List.of(key("/c")),
+      List.of()
+    );
+    audit.close();
+
+    final var records = exporter.getFinishedLogRecordItems();
+    assertEquals(1, records.size());
+
+    final var attributes = records.get(0).getAttributes();
+    assertEquals(
+      Long.valueOf(2L),
+      attributes.get(longKey("looseleaf.reads")));
+    assertNull(attributes.get(stringArrayKey("looseleaf.keys.read")));
+    assertNull(attributes.get(stringArrayKey("looseleaf.keys.update")));
+    assertNull(attributes.get(stringArrayKey("looseleaf.keys.delete")));
+  }
+
+  /**
+   * Closing the service writes every event that was submitted before it.
+   */
+
+  @Test
+  public void testCloseDrains()
+  {
+    final var exporter = InMemoryLogRecordExporter.create();
+    final var audit =
+      this.audit(exporter, 1.0, LLServerAuditDetail.SUMMARY, 4096);
+
+    for (int index = 0; index < 4000; ++index) {
+      audit.recordUpdate(USER, key("/k/%d".formatted(index)));
+    }
+    audit.close();
+
+    assertEquals(4000, exporter.getFinishedLogRecordItems().size());
+    assertEquals(0L, audit.dropped());
+  }
+
+  /**
+   * Events submitted while the buffer is full are discarded and counted,
+   * and the events that fit are still written.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testDropped()
+    throws Exception
+  {
+    final var exporter = new BlockingExporter();
+    final var audit =
+      this.audit(exporter, 1.0, LLServerAuditDetail.SUMMARY, 4);
+
+    /*
+     * Stall the audit thread in the exporter, so that nothing further is
+     * removed from the buffer.
+     */
+
+    audit.recordRead(USER, key("/x"));
+    assertTrue(exporter.entered.await(10L, SECONDS));
+
+    for (int index = 0; index < 7; ++index) {
+      audit.recordRead(USER, key("/x"));
+    }
+    assertEquals(3L, audit.dropped());
+
+    exporter.release.countDown();
+    audit.close();
+
+    assertEquals(5, exporter.exported);
+    assertEquals(3L, audit.dropped());
+  }
+
+  private static final class BlockingExporter
+    implements LogRecordExporter
+  {
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile int exported;
+
+    BlockingExporter()
+    {
+
+    }
+
+    @Override
+    public CompletableResultCode export(
+      final Collection<LogRecordData> logs)
+    {
+      this.entered.countDown();
+      try {
+        this.release.await();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      this.exported += logs.size();
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush()
+    {
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown()
+    {
+      return CompletableResultCode.ofSuccess();
+    }
+  }
+}
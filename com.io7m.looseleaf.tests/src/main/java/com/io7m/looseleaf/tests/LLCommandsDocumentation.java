@@ -19,7 +19,9 @@ package com.io7m.looseleaf.tests;
 
 import com.io7m.looseleaf.cmdline.internal.LLCheckConfiguration;
 import com.io7m.looseleaf.cmdline.internal.LLCreatePassword;
+import com.io7m.looseleaf.cmdline.internal.LLLoadTestCommand;
 import com.io7m.looseleaf.cmdline.internal.LLMigrateDatabase;
+import com.io7m.looseleaf.cmdline.internal.LLReshardDatabase;
 import com.io7m.looseleaf.cmdline.internal.LLServer;
 import com.io7m.quarrel.core.QCommandOrGroupType;
 import com.io7m.quarrel.core.QCommandParserConfiguration;
@@ -58,7 +60,9 @@ public final class LLCommandsDocumentation
         new LLCheckConfiguration(),
         new LLCreatePassword(),
         new LLServer(),
-        new LLMigrateDatabase()
+        new LLMigrateDatabase(),
+        new LLReshardDatabase(),
+        new LLLoadTestCommand()
       );
 
     final var byName =
@@ -0,0 +1,282 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.tests;
+
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+import com.io7m.looseleaf.database.bitcask.LLDatabaseBitcaskConfiguration;
+import com.io7m.looseleaf.database.bitcask.LLDatabaseBitcaskFactory;
+import com.io7m.looseleaf.security.LLKeyName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class LLDatabaseBitcaskTest
+  extends LLDatabaseContract
+{
+  private static final LLDatabaseBitcaskConfiguration CONFIGURATION =
+    new LLDatabaseBitcaskConfiguration(false, 4_096L, 0.5);
+
+  @Override
+  protected LLDatabaseType create(
+    final Path file)
+    throws IOException
+  {
+    return new LLDatabaseBitcaskFactory(CONFIGURATION).open(file);
+  }
+
+  private static List<Path> segments(
+    final Path directory)
+    throws IOException
+  {
+    try (var stream = Files.list(directory)) {
+      return stream.filter(p -> p.toString().endsWith(".seg"))
+        .sorted()
+        .toList();
+    }
+  }
+
+  private static long segmentBytes(
+    final Path directory)
+    throws IOException
+  {
+    long size = 0L;
+    for (final var path : segments(directory)) {
+      size += Files.size(path);
+    }
+    return size;
+  }
+
+  /**
+   * Overwriting the same keys repeatedly produces merges that reclaim the
+   * superseded entries, and the contents survive a restart.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMergeRecovery(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("bitcask.db");
+
+    final Map<LLKeyName, String> expected;
+    try (var database = this.create(file)) {
+      expected = writeMany(database, 200, 20);
+      checkContents(database, expected);
+    }
+
+    /*
+     * Each round writes more than 8000 bytes of entries, so without merging
+     * the segments would hold more than 160000 bytes.
+     */
+
+    assertTrue(Files.isRegularFile(file));
+    assertTrue(
+      segmentBytes(directory) < 80_000L,
+      "Segments must have been merged"
+    );
+
+    try (var database = this.create(file)) {
+      checkContents(database, expected);
+    }
+  }
+
+  /**
+   * An incomplete batch at the end of the active segment is discarded, and
+   * the database remains writable.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTornSegmentTail(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("bitcask.db");
+    final var configuration =
+      new LLDatabaseBitcaskConfiguration(true, 1_048_576L, 0.5);
+    final var factory =
+      new LLDatabaseBitcaskFactory(configuration);
+
+    final Map<LLKeyName, String> expected;
+    try (var database = factory.open(file)) {
+      expected = writeMany(database, 100, 1);
+    }
+
+    final var segments = segments(directory);
+    final var last = segments.get(segments.size() - 1);
+    try (var channel = FileChannel.open(last, WRITE, APPEND)) {
+      channel.write(ByteBuffer.wrap(new byte[]{0, 0, 1, 0, 1, 2, 3}));
+    }
+
+    try (var database = factory.open(file)) {
+      checkContents(database, expected);
+      database.readUpdateDelete(
+        new LLDatabaseRUD(Set.of(), Map.of(key(100_000), "x"), Set.of())
+      );
+      expected.put(key(100_000), "x");
+    }
+
+    try (var database = factory.open(file)) {
+      checkContents(database, expected);
+      assertEquals(Optional.of("x"), database.get(key(100_000)));
+    }
+  }
+
+  /**
+   * Damage to a segment other than the active segment prevents the database
+   * from opening.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCorruptSegment(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("bitcask.db");
+    final var configuration =
+      new LLDatabaseBitcaskConfiguration(false, 4_096L, 1.0);
+
+    try (var database = new LLDatabaseBitcaskFactory(configuration).open(file)) {
+      for (int index = 0; index < 500; ++index) {
+        database.readUpdateDelete(
+          new LLDatabaseRUD(Set.of(), Map.of(key(index), "x"), Set.of())
+        );
+      }
+    }
+
+    final var first = segments(directory).get(0);
+    try (var channel = FileChannel.open(first, READ, WRITE)) {
+      final var buffer = ByteBuffer.allocate(1);
+      channel.read(buffer, 40L);
+      buffer.put(0, (byte) (buffer.get(0) ^ 0xff));
+      buffer.rewind();
+      channel.write(buffer, 40L);
+    }
+
+    assertThrows(
+      IOException.class,
+      () -> new LLDatabaseBitcaskFactory(configuration).open(file)
+    );
+  }
+
+  /**
+   * The output of a merge that was still being written is discarded, and a
+   * completed merge whose inputs were not yet deleted is finished.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInterruptedMerge(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("bitcask.db");
+
+    final Map<LLKeyName, String> expected;
+    try (var database = this.create(file)) {
+      expected = writeMany(database, 50, 1);
+    }
+
+    final var segments = segments(directory);
+    final var first = segments.get(0);
+    final var name = first.getFileName().toString();
+    final var stem = name.substring(0, name.length() - ".seg".length());
+
+    Files.writeString(directory.resolve(stem + ".merge.tmp"), "Incomplete.");
+    Files.copy(first, directory.resolve(stem + ".merge"));
+
+    try (var database = this.create(file)) {
+      checkContents(database, expected);
+    }
+
+    assertFalse(Files.exists(directory.resolve(stem + ".merge.tmp")));
+    assertFalse(Files.exists(directory.resolve(stem + ".merge")));
+    assertTrue(Files.exists(first));
+  }
+
+  /**
+   * A database cannot be opened twice.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAlreadyOpen(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("bitcask.db");
+    try (var database = this.create(file)) {
+      assertThrows(IOException.class, () -> this.create(file));
+    }
+    try (var database = this.create(file)) {
+      assertEquals(0L, database.keyCountApproximate());
+    }
+  }
+
+  /**
+   * A file that is not a Bitcask database is rejected.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNotBitcask(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("bitcask.db");
+    Files.writeString(file, "Not a database, but quite long enough.");
+    assertThrows(IOException.class, () -> this.create(file));
+  }
+}
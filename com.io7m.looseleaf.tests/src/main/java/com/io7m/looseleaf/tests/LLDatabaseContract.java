@@ -18,6 +18,7 @@
 package com.io7m.looseleaf.tests;
 
 import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.api.LLDatabaseScan;
 import com.io7m.looseleaf.database.api.LLDatabaseType;
 import com.io7m.looseleaf.security.LLKeyName;
 import org.junit.jupiter.api.AfterEach;
@@ -27,26 +28,117 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public abstract class LLDatabaseContract
 {
   private LLDatabaseType database;
+  private Path file;
 
   protected abstract LLDatabaseType create(Path file)
     throws IOException;
 
+  /**
+   * @return {@code true} if the database reports the total length of its
+   * values as its data size, rather than the size of its storage
+   */
+
+  protected boolean dataSizeCountsValues()
+  {
+    return true;
+  }
+
+  protected static LLKeyName key(
+    final int index)
+  {
+    return LLKeyName.create("/k/%05d".formatted(index));
+  }
+
+  protected static Map<LLKeyName, String> contents(
+    final LLDatabaseType database)
+    throws IOException
+  {
+    final var results = new HashMap<LLKeyName, String>();
+    try (var cursor = database.cursor()) {
+      while (cursor.next()) {
+        results.put(cursor.key(), cursor.value());
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Write {@code count} keys {@code rounds} times each, and then delete every
+   * third key.
+   *
+   * @param database The database
+   * @param count    The number of keys
+   * @param rounds   The number of times each key is written
+   *
+   * @return The expected contents of the database
+   *
+   * @throws IOException On errors
+   */
+
+  protected static Map<LLKeyName, String> writeMany(
+    final LLDatabaseType database,
+    final int count,
+    final int rounds)
+    throws IOException
+  {
+    final var expected = new HashMap<LLKeyName, String>();
+    for (int round = 0; round < rounds; ++round) {
+      for (int index = 0; index < count; ++index) {
+        final var value = "value-%d-%d".formatted(round, index);
+        database.readUpdateDelete(
+          new LLDatabaseRUD(Set.of(), Map.of(key(index), value), Set.of())
+        );
+        expected.put(key(index), value);
+      }
+    }
+    for (int index = 0; index < count; index += 3) {
+      database.readUpdateDelete(
+        new LLDatabaseRUD(Set.of(), Map.of(), Set.of(key(index)))
+      );
+      expected.remove(key(index));
+    }
+    return expected;
+  }
+
+  protected static void checkContents(
+    final LLDatabaseType database,
+    final Map<LLKeyName, String> expected)
+    throws IOException
+  {
+    assertEquals(expected, contents(database));
+    assertEquals(expected.size(), database.keyCountApproximate());
+    for (final var entry : expected.entrySet()) {
+      assertEquals(Optional.of(entry.getValue()), database.get(entry.getKey()));
+    }
+  }
+
   @BeforeEach
   public void setup(
     final @TempDir Path directory)
     throws Exception
   {
+    this.file =
+      directory.resolve("database.db");
     this.database =
-      this.create(directory.resolve("database.db"));
+      this.create(this.file);
   }
 
   @AfterEach
@@ -61,7 +153,7 @@ public abstract class LLDatabaseContract
     throws Exception
   {
     assertEquals(0L, this.database.keyCountApproximate());
-    assertEquals(Map.of(), this.database.getAll());
+    assertEquals(Map.of(), contents(this.database));
   }
 
   @Test
@@ -79,7 +171,7 @@ public abstract class LLDatabaseContract
       ));
 
     assertEquals(0L, this.database.keyCountApproximate());
-    assertEquals(Map.of(), this.database.getAll());
+    assertEquals(Map.of(), contents(this.database));
   }
 
   @Test
@@ -110,7 +202,7 @@ public abstract class LLDatabaseContract
         Map.entry(k0, "ABC!"),
         Map.entry(k1, "XYZ!")
       ),
-      this.database.getAll()
+      contents(this.database)
     );
 
     assertEquals("ABC!", this.database.get(k0).orElseThrow());
@@ -131,10 +223,249 @@ public abstract class LLDatabaseContract
       Map.ofEntries(
         Map.entry(k1, "XYZ!")
       ),
-      this.database.getAll()
+      contents(this.database)
     );
 
     assertEquals(Optional.empty(), this.database.get(k0));
     assertEquals("XYZ!", this.database.get(k1).orElseThrow());
   }
+
+  @Test
+  public void testConcurrentReadsWrites()
+    throws Exception
+  {
+    final var threads = 16;
+    final var keys = 50;
+
+    try (var executor = Executors.newFixedThreadPool(threads)) {
+      final var tasks = new ArrayList<Callable<Void>>();
+      for (int t = 0; t < threads; ++t) {
+        final var thread = t;
+        tasks.add(() -> {
+          for (int k = 0; k < keys; ++k) {
+            final var key =
+              LLKeyName.create("/t%d/k%d".formatted(thread, k));
+            final var value =
+              "%d:%d".formatted(thread, k);
+
+            assertEquals(Optional.empty(), this.database.get(key));
+            this.database.readUpdateDelete(
+              new LLDatabaseRUD(Set.of(), Map.of(key, value), Set.of())
+            );
+            assertEquals(value, this.database.get(key).orElseThrow());
+          }
+          return null;
+        });
+      }
+
+      for (final var future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    }
+
+    assertEquals(
+      (long) threads * (long) keys,
+      this.database.keyCountApproximate()
+    );
+  }
+
+  @Test
+  public void testGetMany()
+    throws Exception
+  {
+    final var expected = new HashMap<LLKeyName, String>();
+    final var requested = new HashSet<LLKeyName>();
+    for (int index = 0; index < 300; ++index) {
+      final var key = LLKeyName.create("/k/%d".formatted(index));
+      requested.add(key);
+      if (index % 3 == 0) {
+        expected.put(key, Integer.toString(index));
+      }
+    }
+
+    this.database.readUpdateDelete(
+      new LLDatabaseRUD(Set.of(), expected, Set.of())
+    );
+
+    assertEquals(Map.of(), this.database.getMany(Set.of()));
+    assertEquals(expected, this.database.getMany(requested));
+
+    final var k0 = LLKeyName.create("/k/0");
+    final var k1 = LLKeyName.create("/k/1");
+    assertEquals(Map.of(k0, "0"), this.database.getMany(Set.of(k0)));
+    assertEquals(Map.of(), this.database.getMany(Set.of(k1)));
+
+    assertEquals(
+      expected,
+      this.database.readUpdateDelete(
+        new LLDatabaseRUD(requested, Map.of(), Set.of())
+      )
+    );
+  }
+
+  @Test
+  public void testScan()
+    throws Exception
+  {
+    final var updates = new HashMap<LLKeyName, String>();
+    for (final var name : List.of(
+      "/app/config/a",
+      "/app/config/b",
+      "/app/config/c/d",
+      "/app/config/e",
+      "/app/config0",
+      "/app/configx",
+      "/app/confi",
+      "/other")) {
+      updates.put(LLKeyName.create(name), name.toUpperCase());
+    }
+
+    this.database.readUpdateDelete(
+      new LLDatabaseRUD(Set.of(), updates, Set.of())
+    );
+
+    final var r0 =
+      this.database.scan(
+        new LLDatabaseScan("/app/config/", Optional.empty(), 2, false));
+
+    assertEquals(
+      List.of(LLKeyName.create("/app/config/a"), LLKeyName.create("/app/config/b")),
+      r0.keys()
+    );
+    assertEquals(Map.of(), r0.values());
+    assertEquals(Optional.of(LLKeyName.create("/app/config/b")), r0.next());
+
+    final var r1 =
+      this.database.scan(
+        new LLDatabaseScan("/app/config/", r0.next(), 2, true));
+
+    assertEquals(
+      List.of(LLKeyName.create("/app/config/c/d"), LLKeyName.create("/app/config/e")),
+      r1.keys()
+    );
+    assertEquals("/APP/CONFIG/E", r1.values().get(LLKeyName.create("/app/config/e")));
+    assertEquals(Optional.empty(), r1.next());
+
+    final var r2 =
+      this.database.scan(
+        new LLDatabaseScan("/", Optional.empty(), 100, false));
+
+    assertEquals(8, r2.keys().size());
+    assertEquals(Optional.empty(), r2.next());
+
+    final var r3 =
+      this.database.scan(
+        new LLDatabaseScan("/nonexistent/", Optional.empty(), 100, false));
+
+    assertEquals(List.of(), r3.keys());
+    assertEquals(Optional.empty(), r3.next());
+  }
+
+  @Test
+  public void testCursorSnapshot()
+    throws Exception
+  {
+    final var updates = new HashMap<LLKeyName, String>();
+    for (int index = 0; index < 500; ++index) {
+      final var name = LLKeyName.create("/k/%03d".formatted(index));
+      updates.put(name, Integer.toString(index));
+    }
+
+    this.database.readUpdateDelete(
+      new LLDatabaseRUD(Set.of(), updates, Set.of())
+    );
+
+    final var seen = new ArrayList<LLKeyName>();
+    try (var cursor = this.database.cursor()) {
+      assertTrue(cursor.next());
+      seen.add(cursor.key());
+
+      this.database.readUpdateDelete(
+        new LLDatabaseRUD(
+          Set.of(),
+          Map.of(LLKeyName.create("/k/999"), "new"),
+          Set.of(LLKeyName.create("/k/499"))
+        )
+      );
+
+      while (cursor.next()) {
+        seen.add(cursor.key());
+        assertEquals(
+          Integer.toString(seen.size() - 1),
+          cursor.value()
+        );
+      }
+
+      assertThrows(IllegalStateException.class, cursor::key);
+    }
+
+    assertEquals(500, seen.size());
+    for (int index = 0; index < 500; ++index) {
+      assertEquals("/k/%03d".formatted(index), seen.get(index).value());
+    }
+
+    final var after = contents(this.database);
+    assertEquals(500, after.size());
+    assertEquals("new", after.get(LLKeyName.create("/k/999")));
+  }
+
+  @Test
+  public void testStatisticsIncremental()
+    throws Exception
+  {
+    final var k0 = LLKeyName.create("/a");
+    final var k1 = LLKeyName.create("/b");
+    final var k2 = LLKeyName.create("/c");
+
+    this.database.readUpdateDelete(
+      new LLDatabaseRUD(Set.of(), Map.of(k0, "x", k1, "y"), Set.of())
+    );
+    assertEquals(2L, this.database.keyCountApproximate());
+
+    this.database.readUpdateDelete(
+      new LLDatabaseRUD(Set.of(), Map.of(k0, "z", k2, "w"), Set.of(k2))
+    );
+    assertEquals(2L, this.database.keyCountApproximate());
+
+    this.database.readUpdateDelete(
+      new LLDatabaseRUD(Set.of(), Map.of(), Set.of(k1, k2))
+    );
+    assertEquals(1L, this.database.keyCountApproximate());
+
+    this.database.close();
+    this.database = this.create(this.file);
+    assertEquals(1L, this.database.keyCountApproximate());
+  }
+
+  @Test
+  public void testDataSizeIncremental()
+    throws Exception
+  {
+    assumeTrue(this.dataSizeCountsValues());
+
+    final var k0 = LLKeyName.create("/a");
+    final var k1 = LLKeyName.create("/b");
+    final var k2 = LLKeyName.create("/c");
+
+    assertEquals(0L, this.database.dataSizeApproximate());
+
+    this.database.readUpdateDelete(
+      new LLDatabaseRUD(Set.of(), Map.of(k0, "xyz", k1, "yy"), Set.of())
+    );
+    assertEquals(5L, this.database.dataSizeApproximate());
+
+    this.database.readUpdateDelete(
+      new LLDatabaseRUD(Set.of(), Map.of(k0, "z", k2, "wwww"), Set.of(k2))
+    );
+    assertEquals(3L, this.database.dataSizeApproximate());
+
+    this.database.readUpdateDelete(
+      new LLDatabaseRUD(Set.of(), Map.of(), Set.of(k1, k2))
+    );
+    assertEquals(1L, this.database.dataSizeApproximate());
+
+    this.database.close();
+    this.database = this.create(this.file);
+    assertEquals(1L, this.database.dataSizeApproximate());
+  }
 }
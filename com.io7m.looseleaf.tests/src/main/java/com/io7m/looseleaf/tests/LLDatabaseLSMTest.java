@@ -0,0 +1,287 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.tests;
+
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+import com.io7m.looseleaf.database.lsm.LLDatabaseLSMConfiguration;
+import com.io7m.looseleaf.database.lsm.LLDatabaseLSMFactory;
+import com.io7m.looseleaf.security.LLKeyName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class LLDatabaseLSMTest
+  extends LLDatabaseContract
+{
+  private static final LLDatabaseLSMConfiguration CONFIGURATION =
+    new LLDatabaseLSMConfiguration(false, 4_096L, 256, 10, 3);
+
+  @Override
+  protected LLDatabaseType create(
+    final Path file)
+    throws IOException
+  {
+    return new LLDatabaseLSMFactory(CONFIGURATION).open(file);
+  }
+
+  private static List<Path> filesEndingWith(
+    final Path directory,
+    final String suffix)
+    throws IOException
+  {
+    try (var stream = Files.list(directory)) {
+      return stream.filter(p -> p.toString().endsWith(suffix))
+        .sorted()
+        .toList();
+    }
+  }
+
+  /**
+   * Writing many more changes than fit in a memtable produces tables that
+   * are compacted, and the contents survive a restart.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFlushCompactionRecovery(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("lsm.db");
+
+    final Map<LLKeyName, String> expected;
+    try (var database = this.create(file)) {
+      expected = writeMany(database, 200, 20);
+      checkContents(database, expected);
+    }
+
+    /*
+     * Each round writes more than 4000 bytes of changes, so without
+     * compaction there would be one table for each round.
+     */
+
+    assertTrue(Files.isRegularFile(file));
+    final var tables = filesEndingWith(directory, ".sst");
+    assertFalse(tables.isEmpty(), "Memtables must have been flushed");
+    assertTrue(
+      tables.size() < 10,
+      "Tables must have been compacted (%d tables)".formatted(tables.size())
+    );
+
+    try (var database = this.create(file)) {
+      checkContents(database, expected);
+      final var more = writeMany(database, 10, 1);
+      for (int index = 0; index < 10; ++index) {
+        expected.remove(key(index));
+      }
+      expected.putAll(more);
+      checkContents(database, expected);
+    }
+
+    try (var database = this.create(file)) {
+      checkContents(database, expected);
+    }
+  }
+
+  /**
+   * An incomplete record at the end of the write-ahead log is discarded,
+   * and the database remains writable.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTornLogTail(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("lsm.db");
+    final var configuration =
+      new LLDatabaseLSMConfiguration(true, 1_048_576L, 4_096, 10, 4);
+    final var factory =
+      new LLDatabaseLSMFactory(configuration);
+
+    final Map<LLKeyName, String> expected;
+    try (var database = factory.open(file)) {
+      expected = writeMany(database, 100, 1);
+    }
+
+    final var logs = filesEndingWith(directory, ".wal");
+    final var last = logs.get(logs.size() - 1);
+    try (var channel = FileChannel.open(last, WRITE, APPEND)) {
+      channel.write(ByteBuffer.wrap(new byte[]{0, 0, 1, 0, 1, 2, 3}));
+    }
+
+    try (var database = factory.open(file)) {
+      checkContents(database, expected);
+      database.readUpdateDelete(
+        new LLDatabaseRUD(Set.of(), Map.of(key(100_000), "x"), Set.of())
+      );
+      expected.put(key(100_000), "x");
+    }
+
+    try (var database = factory.open(file)) {
+      checkContents(database, expected);
+      assertEquals(Optional.of("x"), database.get(key(100_000)));
+    }
+  }
+
+  /**
+   * A damaged data block in a table is detected rather than read as data.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCorruptTable(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("lsm.db");
+
+    try (var database = this.create(file)) {
+      writeMany(database, 500, 1);
+    }
+
+    final var first = filesEndingWith(directory, ".sst").get(0);
+    try (var channel = FileChannel.open(first, READ, WRITE)) {
+      final var buffer = ByteBuffer.allocate(1);
+      channel.read(buffer, 40L);
+      buffer.put(0, (byte) (buffer.get(0) ^ 0xff));
+      buffer.rewind();
+      channel.write(buffer, 40L);
+    }
+
+    /*
+     * The damage may be detected when the log is replayed on opening the
+     * database, or when the block is first read afterwards.
+     */
+
+    assertThrows(IOException.class, () -> {
+      try (var database = this.create(file);
+           var cursor = database.cursor()) {
+        while (cursor.next()) {
+          cursor.value();
+        }
+      }
+    });
+  }
+
+  /**
+   * Tables and temporary files that are not named in the manifest are
+   * left over from interrupted flushes and compactions, and are deleted.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUnreferencedFiles(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("lsm.db");
+
+    final Map<LLKeyName, String> expected;
+    try (var database = this.create(file)) {
+      expected = writeMany(database, 500, 1);
+    }
+
+    final var stray =
+      directory.resolve("lsm.db.%016x.sst".formatted(0x1000L));
+    final var temporary =
+      directory.resolve("lsm.db.%016x.sst.tmp".formatted(0x1001L));
+
+    Files.copy(filesEndingWith(directory, ".sst").get(0), stray);
+    Files.writeString(temporary, "Incomplete.");
+    Files.writeString(directory.resolve("lsm.db.tmp"), "Incomplete.");
+
+    try (var database = this.create(file)) {
+      checkContents(database, expected);
+    }
+
+    assertFalse(Files.exists(stray));
+    assertFalse(Files.exists(temporary));
+    assertFalse(Files.exists(directory.resolve("lsm.db.tmp")));
+  }
+
+  /**
+   * A database cannot be opened twice.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAlreadyOpen(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("lsm.db");
+    try (var database = this.create(file)) {
+      assertThrows(IOException.class, () -> this.create(file));
+    }
+    try (var database = this.create(file)) {
+      assertEquals(0L, database.keyCountApproximate());
+    }
+  }
+
+  /**
+   * A file that is not an LSM database manifest is rejected.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNotLSM(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("lsm.db");
+    Files.writeString(file, "Not a database, but quite long enough.");
+    assertThrows(IOException.class, () -> this.create(file));
+  }
+}
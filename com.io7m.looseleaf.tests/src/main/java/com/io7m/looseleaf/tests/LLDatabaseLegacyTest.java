@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.tests;
+
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+import com.io7m.looseleaf.database.memory.LLDatabaseMemoryConfiguration;
+import com.io7m.looseleaf.database.memory.LLDatabaseMemoryFactory;
+import com.io7m.looseleaf.security.LLKeyName;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The database contract applied to a database that implements only the
+ * methods of the original {@link LLDatabaseType} interface, so that the
+ * default implementations of the newer methods are exercised.
+ */
+
+public final class LLDatabaseLegacyTest
+  extends LLDatabaseContract
+{
+  private static final LLDatabaseMemoryConfiguration CONFIGURATION =
+    new LLDatabaseMemoryConfiguration(false, 4_096L);
+
+  @Override
+  protected LLDatabaseType create(
+    final Path file)
+    throws IOException
+  {
+    return new LegacyDatabase(
+      new LLDatabaseMemoryFactory(CONFIGURATION).open(file)
+    );
+  }
+
+  private static final class LegacyDatabase implements LLDatabaseType
+  {
+    private final LLDatabaseType delegate;
+
+    LegacyDatabase(
+      final LLDatabaseType inDelegate)
+    {
+      this.delegate = Objects.requireNonNull(inDelegate, "delegate");
+    }
+
+    @Override
+    public long dataSizeApproximate()
+      throws IOException
+    {
+      return this.delegate.dataSizeApproximate();
+    }
+
+    @Override
+    public long keyCountApproximate()
+      throws IOException
+    {
+      return this.delegate.keyCountApproximate();
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+      return this.delegate.isClosed();
+    }
+
+    @Override
+    public Map<LLKeyName, String> readUpdateDelete(
+      final LLDatabaseRUD rud)
+      throws IOException
+    {
+      return this.delegate.readUpdateDelete(rud);
+    }
+
+    @Override
+    public Optional<String> get(
+      final LLKeyName key)
+      throws IOException
+    {
+      return this.delegate.get(key);
+    }
+
+    @Override
+    @Deprecated
+    public Map<LLKeyName, String> getAll()
+      throws IOException
+    {
+      return this.delegate.getAll();
+    }
+
+    @Override
+    public void close()
+      throws IOException
+    {
+      this.delegate.close();
+    }
+  }
+}
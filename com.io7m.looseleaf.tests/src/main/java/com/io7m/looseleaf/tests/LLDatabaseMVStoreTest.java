@@ -33,4 +33,10 @@ public final class LLDatabaseMVStoreTest
   {
     return new LLDatabaseMVStoreFactory().open(file);
   }
+
+  @Override
+  protected boolean dataSizeCountsValues()
+  {
+    return false;
+  }
 }
@@ -0,0 +1,276 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.tests;
+
+import com.io7m.looseleaf.database.api.LLDatabaseCursorType;
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+import com.io7m.looseleaf.database.memory.LLDatabaseMemoryConfiguration;
+import com.io7m.looseleaf.database.memory.LLDatabaseMemoryFactory;
+import com.io7m.looseleaf.security.LLKeyName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class LLDatabaseMemoryTest
+  extends LLDatabaseContract
+{
+  private static final LLDatabaseMemoryConfiguration CONFIGURATION =
+    new LLDatabaseMemoryConfiguration(false, 4_096L);
+
+  @Override
+  protected LLDatabaseType create(
+    final Path file)
+    throws IOException
+  {
+    return new LLDatabaseMemoryFactory(CONFIGURATION).open(file);
+  }
+
+  private static long logCount(
+    final Path directory)
+    throws IOException
+  {
+    try (var stream = Files.list(directory)) {
+      return stream.filter(p -> p.toString().endsWith(".log")).count();
+    }
+  }
+
+  private static Path lastLog(
+    final Path directory)
+    throws IOException
+  {
+    try (var stream = Files.list(directory)) {
+      return stream.filter(p -> p.toString().endsWith(".log"))
+        .sorted()
+        .reduce((x, y) -> y)
+        .orElseThrow();
+    }
+  }
+
+  /**
+   * Writing enough data produces snapshots, old logs are deleted, and the
+   * contents survive a restart.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSnapshotRecovery(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("memory.db");
+
+    final Map<LLKeyName, String> expected;
+    try (var database = this.create(file)) {
+      expected = writeMany(database, 2_000, 1);
+      checkContents(database, expected);
+    }
+
+    assertTrue(Files.isRegularFile(file));
+    assertTrue(logCount(directory) <= 2L);
+
+    try (var database = this.create(file)) {
+      checkContents(database, expected);
+    }
+  }
+
+  /**
+   * An incomplete record at the end of the log is discarded, and the
+   * database remains writable.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTornLogTail(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("memory.db");
+    final var configuration =
+      new LLDatabaseMemoryConfiguration(true, 1_048_576L);
+    final var factory =
+      new LLDatabaseMemoryFactory(configuration);
+
+    final Map<LLKeyName, String> expected;
+    try (var database = factory.open(file)) {
+      expected = writeMany(database, 100, 1);
+    }
+
+    try (var channel = FileChannel.open(lastLog(directory), WRITE, APPEND)) {
+      channel.write(ByteBuffer.wrap(new byte[]{0, 0, 1, 0, 1, 2, 3}));
+    }
+
+    try (var database = factory.open(file)) {
+      checkContents(database, expected);
+      database.readUpdateDelete(
+        new LLDatabaseRUD(Set.of(), Map.of(key(100_000), "x"), Set.of())
+      );
+      expected.put(key(100_000), "x");
+    }
+
+    try (var database = factory.open(file)) {
+      checkContents(database, expected);
+      assertEquals(Optional.of("x"), database.get(key(100_000)));
+    }
+  }
+
+  /**
+   * A damaged snapshot prevents the database from opening.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCorruptSnapshot(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("memory.db");
+    try (var database = this.create(file)) {
+      writeMany(database, 2_000, 1);
+    }
+
+    try (var channel = FileChannel.open(file, READ, WRITE)) {
+      final var buffer = ByteBuffer.allocate(1);
+      channel.read(buffer, 40L);
+      buffer.put(0, (byte) (buffer.get(0) ^ 0xff));
+      buffer.rewind();
+      channel.write(buffer, 40L);
+    }
+
+    assertThrows(IOException.class, () -> this.create(file));
+  }
+
+  /**
+   * A file that is not a snapshot is rejected.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNotSnapshot(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("memory.db");
+    Files.writeString(file, "Not a snapshot, but quite long enough.");
+    assertThrows(IOException.class, () -> this.create(file));
+  }
+
+  private static Map<LLKeyName, String> drain(
+    final LLDatabaseCursorType cursor)
+    throws IOException
+  {
+    final var results = new TreeMap<LLKeyName, String>();
+    while (cursor.next()) {
+      results.put(cursor.key(), cursor.value());
+    }
+    return results;
+  }
+
+  /**
+   * Cursors opened at different versions each observe their own version,
+   * however the entries change while they are open, and a cursor opened
+   * after the others have closed observes the latest version.
+   */
+
+  @Test
+  public void testCursorsAtDifferentVersions(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("cursors.db");
+    try (var database = this.create(file)) {
+      database.readUpdateDelete(
+        new LLDatabaseRUD(
+          Set.of(),
+          Map.of(key(1), "a1", key(2), "a2", key(3), "a3"),
+          Set.of()
+        )
+      );
+
+      final var v0 =
+        Map.of(key(1), "a1", key(2), "a2", key(3), "a3");
+      final var v1 =
+        Map.of(key(1), "b1", key(3), "a3", key(4), "b4");
+      final var v2 =
+        Map.of(key(0), "c0", key(1), "c1", key(2), "c2");
+
+      final var c0 = database.cursor();
+      assertTrue(c0.next());
+      assertEquals(key(1), c0.key());
+
+      database.readUpdateDelete(
+        new LLDatabaseRUD(
+          Set.of(),
+          Map.of(key(1), "b1", key(4), "b4"),
+          Set.of(key(2))
+        )
+      );
+
+      try (var c1 = database.cursor()) {
+        database.readUpdateDelete(
+          new LLDatabaseRUD(
+            Set.of(),
+            Map.of(key(0), "c0", key(1), "c1", key(2), "c2"),
+            Set.of(key(3))
+          )
+        );
+
+        final var rest = drain(c0);
+        rest.put(key(1), "a1");
+        assertEquals(v0, rest);
+        c0.close();
+
+        database.readUpdateDelete(
+          new LLDatabaseRUD(Set.of(), Map.of(key(4), "d4"), Set.of(key(4)))
+        );
+        assertEquals(v1, drain(c1));
+      }
+
+      try (var c2 = database.cursor()) {
+        assertEquals(v2, drain(c2));
+      }
+    }
+  }
+}
@@ -17,15 +17,37 @@
 
 package com.io7m.looseleaf.tests;
 
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
 import com.io7m.looseleaf.database.api.LLDatabaseType;
 import com.io7m.looseleaf.database.sqlite.LLDatabaseSQLiteFactory;
+import com.io7m.looseleaf.security.LLKeyName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public final class LLDatabaseSQLiteTest
   extends LLDatabaseContract
 {
+  private static final int REQUESTS = 32;
+
   @Override
   protected LLDatabaseType create(
     final Path file)
@@ -33,4 +55,167 @@ public final class LLDatabaseSQLiteTest
   {
     return new LLDatabaseSQLiteFactory().open(file);
   }
+
+  private static Connection connect(
+    final Path file)
+    throws SQLException
+  {
+    return DriverManager.getConnection("jdbc:sqlite:" + file);
+  }
+
+  private static void execute(
+    final Connection connection,
+    final String text)
+    throws SQLException
+  {
+    try (var st = connection.createStatement()) {
+      st.execute(text);
+    }
+  }
+
+  /**
+   * Submit an update of one key, plus a key that is rejected by the
+   * database for every request where {@code fail} is true.
+   */
+
+  private static Future<Map<LLKeyName, String>> submitUpdate(
+    final ExecutorService executor,
+    final LLDatabaseType database,
+    final int index,
+    final boolean fail)
+  {
+    final var updates = new HashMap<LLKeyName, String>();
+    if (fail) {
+      updates.put(LLKeyName.create("/partial/%d".formatted(index)), "x");
+      updates.put(LLKeyName.create("/fail/%d".formatted(index)), "x");
+    } else {
+      updates.put(LLKeyName.create("/ok/%d".formatted(index)), "x");
+    }
+
+    final var rud = new LLDatabaseRUD(Set.of(), updates, Set.of());
+    return executor.submit(() -> database.readUpdateDelete(rud));
+  }
+
+  /**
+   * A request that fails in the middle of a group commit is rolled back to
+   * its own savepoint, and the other requests in the same transaction are
+   * neither failed nor lost.
+   *
+   * <p>A trigger rejects writes to keys beginning with {@code /fail/}, and
+   * a second connection holds the write lock while the requests are queued
+   * so that they are committed together.</p>
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriterFailureIsolatedInBatch(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("batch.db");
+    this.create(file).close();
+
+    try (var connection = connect(file)) {
+      execute(connection, """
+        CREATE TRIGGER fail_insert BEFORE INSERT ON key_value_store
+          WHEN NEW.kv_name LIKE '/fail/%'
+          BEGIN SELECT RAISE(ABORT, 'Injected failure.'); END;
+        """);
+    }
+
+    try (var database = this.create(file);
+         var lock = connect(file);
+         var executor = Executors.newFixedThreadPool(REQUESTS)) {
+
+      execute(lock, "BEGIN IMMEDIATE");
+
+      final var futures = new ArrayList<Future<Map<LLKeyName, String>>>();
+      for (int index = 0; index < REQUESTS; ++index) {
+        futures.add(submitUpdate(executor, database, index, index % 4 == 0));
+      }
+
+      Thread.sleep(250L);
+      execute(lock, "COMMIT");
+
+      final var expected = new HashMap<LLKeyName, String>();
+      for (int index = 0; index < REQUESTS; ++index) {
+        final var future = futures.get(index);
+        if (index % 4 == 0) {
+          final var ex =
+            assertThrows(Exception.class, () -> future.get(10L, SECONDS));
+          assertInstanceOf(IOException.class, ex.getCause());
+        } else {
+          assertEquals(Map.of(), future.get(10L, SECONDS));
+          expected.put(LLKeyName.create("/ok/%d".formatted(index)), "x");
+        }
+      }
+
+      assertEquals(expected, contents(database));
+    }
+  }
+
+  /**
+   * Closing the database completes or rejects every queued request, and
+   * requests made after closing are rejected.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriterCloseCompletesQueued(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("close.db");
+
+    try (var database = this.create(file);
+         var lock = connect(file);
+         var executor = Executors.newFixedThreadPool(REQUESTS + 1)) {
+
+      execute(lock, "BEGIN IMMEDIATE");
+
+      final var futures = new ArrayList<Future<Map<LLKeyName, String>>>();
+      for (int index = 0; index < REQUESTS; ++index) {
+        futures.add(submitUpdate(executor, database, index, false));
+      }
+
+      Thread.sleep(250L);
+      final var closing = executor.submit(() -> {
+        database.close();
+        return null;
+      });
+      Thread.sleep(100L);
+      execute(lock, "COMMIT");
+
+      closing.get(10L, SECONDS);
+
+      var completed = 0;
+      for (final var future : futures) {
+        try {
+          assertEquals(Map.of(), future.get(10L, SECONDS));
+          ++completed;
+        } catch (final ExecutionException e) {
+          assertInstanceOf(IOException.class, e.getCause());
+        }
+      }
+
+      try (var reopened = this.create(file)) {
+        assertEquals(completed, contents(reopened).size());
+      }
+
+      assertThrows(IOException.class, () -> {
+        database.readUpdateDelete(
+          new LLDatabaseRUD(
+            Set.of(),
+            Map.of(LLKeyName.create("/late"), "x"),
+            Set.of())
+        );
+      });
+    }
+  }
 }
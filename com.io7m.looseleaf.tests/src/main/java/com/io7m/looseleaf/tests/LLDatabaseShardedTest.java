@@ -0,0 +1,360 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.tests;
+
+import com.io7m.looseleaf.cmdline.Main;
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.api.LLDatabaseType;
+import com.io7m.looseleaf.database.memory.LLDatabaseMemoryConfiguration;
+import com.io7m.looseleaf.database.memory.LLDatabaseMemoryFactory;
+import com.io7m.looseleaf.database.sharded.LLDatabaseSharded;
+import com.io7m.looseleaf.database.sharded.LLDatabaseShardedConfiguration;
+import com.io7m.looseleaf.database.sharded.LLDatabaseShardedFactory;
+import com.io7m.looseleaf.security.LLKeyName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class LLDatabaseShardedTest
+  extends LLDatabaseContract
+{
+  private static final LLDatabaseMemoryFactory SHARD_FACTORY =
+    new LLDatabaseMemoryFactory(
+      new LLDatabaseMemoryConfiguration(false, 1_048_576L)
+    );
+
+  private static LLDatabaseType open(
+    final Path file,
+    final int shards)
+    throws IOException
+  {
+    return new LLDatabaseShardedFactory(
+      new LLDatabaseShardedConfiguration("MEMORY", shards),
+      List.of(SHARD_FACTORY)
+    ).open(file);
+  }
+
+  @Override
+  protected LLDatabaseType create(
+    final Path file)
+    throws IOException
+  {
+    return open(file, 4);
+  }
+
+  private static void putString(
+    final ByteBuffer buffer,
+    final String text)
+  {
+    final var bytes = text.getBytes(UTF_8);
+    buffer.putInt(bytes.length);
+    buffer.put(bytes);
+  }
+
+  /**
+   * Encode an intent record that updates the given keys, as the database
+   * would have written it immediately before crashing.
+   */
+
+  private static ByteBuffer intentRecord(
+    final Map<LLKeyName, String> updates,
+    final boolean damaged)
+  {
+    final var payload = ByteBuffer.allocate(4096);
+    payload.putLong(0L);
+    payload.put((byte) 1);
+    payload.putInt(updates.size());
+    for (final var e : updates.entrySet()) {
+      putString(payload, e.getKey().value());
+      putString(payload, e.getValue());
+    }
+    payload.putInt(0);
+    payload.flip();
+
+    final var checksum = new CRC32C();
+    checksum.update(payload.array(), 0, payload.limit());
+
+    final var record = ByteBuffer.allocate(8 + payload.limit());
+    record.putInt(payload.limit());
+    record.putInt((int) checksum.getValue() ^ (damaged ? 1 : 0));
+    record.put(payload);
+    record.flip();
+    return record;
+  }
+
+  /**
+   * Operations that change keys in several shards are visible as a whole,
+   * and the contents survive a restart.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testManyShardsRestart(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("sharded.db");
+    final var expected = new HashMap<LLKeyName, String>();
+
+    try (var database = open(file, 4)) {
+      for (int batch = 0; batch < 10; ++batch) {
+        final var updates = new HashMap<LLKeyName, String>();
+        for (int index = 0; index < 50; ++index) {
+          updates.put(key(batch * 50 + index), "v%d".formatted(index));
+        }
+        database.readUpdateDelete(new LLDatabaseRUD(Set.of(), updates, Set.of()));
+        expected.putAll(updates);
+      }
+
+      final var results =
+        database.readUpdateDelete(
+          new LLDatabaseRUD(
+            Set.of(key(0), key(1), key(2), key(3)),
+            Map.of(),
+            Set.of(key(10), key(11), key(12), key(13))
+          )
+        );
+      assertEquals(4, results.size());
+      for (int index = 10; index < 14; ++index) {
+        expected.remove(key(index));
+      }
+
+      assertEquals(expected, contents(database));
+      assertEquals(expected.size(), database.keyCountApproximate());
+    }
+
+    try (var stream = Files.list(directory)) {
+      final var names =
+        stream.map(p -> p.getFileName().toString())
+          .toList();
+      for (int index = 0; index < 4; ++index) {
+        final var prefix = "sharded.db.shard-%04d".formatted(index);
+        assertTrue(names.stream().anyMatch(n -> n.startsWith(prefix)));
+      }
+    }
+    assertEquals(0L, Files.size(directory.resolve("sharded.db.intents")));
+
+    try (var database = open(file, 4)) {
+      assertEquals(expected, contents(database));
+      for (final var e : expected.entrySet()) {
+        assertEquals(Optional.of(e.getValue()), database.get(e.getKey()));
+      }
+    }
+  }
+
+  /**
+   * An operation whose intent was recorded but which was not recorded as
+   * complete is applied when the database is next opened.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testIntentRecovery(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("sharded.db");
+    try (var database = open(file, 4)) {
+      database.readUpdateDelete(
+        new LLDatabaseRUD(Set.of(), Map.of(key(0), "old"), Set.of())
+      );
+    }
+
+    final var updates = new HashMap<LLKeyName, String>();
+    for (int index = 0; index < 20; ++index) {
+      updates.put(key(index), "new");
+    }
+
+    final var intents = directory.resolve("sharded.db.intents");
+    try (var channel = Files.newByteChannel(intents, APPEND)) {
+      channel.write(intentRecord(updates, false));
+    }
+
+    try (var database = open(file, 4)) {
+      assertEquals(updates, contents(database));
+    }
+    assertEquals(0L, Files.size(intents));
+
+    try (var database = open(file, 4)) {
+      assertEquals(updates, contents(database));
+    }
+  }
+
+  /**
+   * A damaged intent record at the end of the log, left by a crash while it
+   * was being written, is discarded.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testIntentTornTail(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("sharded.db");
+    try (var database = open(file, 4)) {
+      database.readUpdateDelete(
+        new LLDatabaseRUD(Set.of(), Map.of(key(0), "old"), Set.of())
+      );
+    }
+
+    final var intents = directory.resolve("sharded.db.intents");
+    try (var channel = Files.newByteChannel(intents, APPEND)) {
+      channel.write(intentRecord(Map.of(key(0), "new", key(1), "new"), true));
+      channel.write(ByteBuffer.wrap(new byte[]{0, 0, 1}));
+    }
+
+    try (var database = open(file, 4)) {
+      assertEquals(Map.of(key(0), "old"), contents(database));
+      database.readUpdateDelete(
+        new LLDatabaseRUD(Set.of(), Map.of(key(2), "x", key(3), "y"), Set.of())
+      );
+    }
+
+    try (var database = open(file, 4)) {
+      assertEquals(
+        Map.of(key(0), "old", key(2), "x", key(3), "y"),
+        contents(database)
+      );
+    }
+  }
+
+  /**
+   * A database cannot be opened with a different number of shards than it
+   * was created with.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testShardCountMismatch(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("sharded.db");
+    open(file, 4).close();
+
+    final var ex =
+      assertThrows(IOException.class, () -> open(file, 2));
+    assertTrue(ex.getMessage().contains("resharded"));
+
+    assertEquals(
+      new LLDatabaseShardedConfiguration("MEMORY", 4),
+      LLDatabaseSharded.readConfiguration(file)
+    );
+  }
+
+  /**
+   * A file that is not a sharded database is rejected.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNotSharded(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("sharded.db");
+    Files.writeString(file, "Not a database, but long enough to be mistaken for one.");
+    assertThrows(IOException.class, () -> open(file, 4));
+  }
+
+  /**
+   * Resharding a database copies every key into a database with a different
+   * number of shards.
+   *
+   * @param directory The directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReshard(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var source = directory.resolve("source.db");
+    final var target = directory.resolve("target.db");
+    final var expected = new HashMap<LLKeyName, String>();
+    for (int index = 0; index < 2500; ++index) {
+      expected.put(key(index), Integer.toString(index));
+    }
+
+    try (var database = open(source, 4)) {
+      database.readUpdateDelete(new LLDatabaseRUD(Set.of(), expected, Set.of()));
+    }
+
+    final var r = Main.mainExitless(new String[]{
+      "reshard-database",
+      "--database-source",
+      source.toString(),
+      "--database-target",
+      target.toString(),
+      "--shards",
+      "7"
+    });
+    assertEquals(0, r);
+
+    assertEquals(
+      new LLDatabaseShardedConfiguration("MEMORY", 7),
+      LLDatabaseSharded.readConfiguration(target)
+    );
+    try (var database = open(target, 7)) {
+      assertEquals(expected, contents(database));
+    }
+
+    assertEquals(1, Main.mainExitless(new String[]{
+      "reshard-database",
+      "--database-source",
+      source.toString(),
+      "--database-target",
+      target.toString(),
+      "--shards",
+      "2"
+    }));
+  }
+}
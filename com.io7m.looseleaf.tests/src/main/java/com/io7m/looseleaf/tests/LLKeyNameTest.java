@@ -29,6 +29,7 @@ import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public final class LLKeyNameTest
@@ -98,6 +99,30 @@ public final class LLKeyNameTest
     assertEquals(base, k.value());
   }
 
+  @TestFactory
+  public Stream<DynamicTest> testNormalizeCases()
+  {
+    return Stream.of(
+      List.of("/a", "/a"),
+      List.of("/a/", "/a"),
+      List.of("/a//", "/a"),
+      List.of("//a", "/a"),
+      List.of("/a//b///c", "/a/b/c"),
+      List.of("///a/b/", "/a/b")
+    ).map(c -> {
+      return DynamicTest.dynamicTest("testNormalize_" + c.get(0), () -> {
+        assertEquals(c.get(1), LLKeyName.create(c.get(0)).value());
+      });
+    });
+  }
+
+  @Test
+  public void testNormalUnchanged()
+  {
+    final var text = "/a/b/c";
+    assertSame(text, LLKeyName.create(text).value());
+  }
+
   @TestFactory
   public Stream<DynamicTest> testValid()
   {
@@ -112,7 +137,9 @@ public final class LLKeyNameTest
   {
     return Stream.of(
       "",
-      "/"
+      "/",
+      "//",
+      "a/b"
     ).map(LLKeyNameTest::invalid);
   }
 }
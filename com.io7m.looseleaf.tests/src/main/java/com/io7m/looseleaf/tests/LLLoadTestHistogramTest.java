@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.tests;
+
+import com.io7m.looseleaf.cmdline.internal.LLLoadTestHistogram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class LLLoadTestHistogramTest
+{
+  @Test
+  public void testEmpty()
+  {
+    final var h = new LLLoadTestHistogram();
+    assertEquals(0L, h.count());
+    assertEquals(0L, h.minimum());
+    assertEquals(0L, h.maximum());
+    assertEquals(0L, h.valueAtPercentile(99.0));
+  }
+
+  @Test
+  public void testSmallValuesExact()
+  {
+    final var h = new LLLoadTestHistogram();
+    for (long v = 1L; v <= 100L; ++v) {
+      h.record(v);
+    }
+    assertEquals(100L, h.count());
+    assertEquals(1L, h.minimum());
+    assertEquals(100L, h.maximum());
+    assertEquals(50L, h.valueAtPercentile(50.0));
+    assertEquals(99L, h.valueAtPercentile(99.0));
+    assertEquals(100L, h.valueAtPercentile(100.0));
+    assertEquals(50.5, h.mean(), 0.0001);
+  }
+
+  @Test
+  public void testLargeValuesPrecision()
+  {
+    final var h = new LLLoadTestHistogram();
+    for (long v = 1L; v <= 10_000L; ++v) {
+      h.record(v * 1_000_000L);
+    }
+
+    for (final var p : new double[]{50.0, 90.0, 99.0, 99.9, 99.99}) {
+      final var expected = (long) (p * 100.0) * 1_000_000L;
+      final var received = h.valueAtPercentile(p);
+      final var error = Math.abs(received - expected) / (double) expected;
+      assertTrue(error < 0.02, "p%s: %d vs %d".formatted(p, received, expected));
+    }
+    assertEquals(10_000_000_000L, h.valueAtPercentile(100.0));
+  }
+
+  @Test
+  public void testMerge()
+  {
+    final var a = new LLLoadTestHistogram();
+    final var b = new LLLoadTestHistogram();
+    a.record(10L);
+    b.record(1_000_000L);
+    b.record(Long.MAX_VALUE);
+    a.add(b);
+
+    assertEquals(3L, a.count());
+    assertEquals(10L, a.minimum());
+    assertEquals(Long.MAX_VALUE, a.maximum());
+    assertEquals(10L, a.valueAtPercentile(10.0));
+    assertEquals(Long.MAX_VALUE, a.valueAtPercentile(100.0));
+  }
+
+  @Test
+  public void testInvalidPercentile()
+  {
+    final var h = new LLLoadTestHistogram();
+    assertThrows(IllegalArgumentException.class, () -> {
+      h.valueAtPercentile(100.1);
+    });
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.tests;
+
+import com.io7m.looseleaf.security.LLAction;
+import com.io7m.looseleaf.security.LLGrant;
+import com.io7m.looseleaf.security.LLKeyExpression;
+import com.io7m.looseleaf.security.LLKeyName;
+import com.io7m.looseleaf.security.LLPassword;
+import com.io7m.looseleaf.security.LLPasswordAlgorithmPBKDF2HmacSHA256;
+import com.io7m.looseleaf.security.LLPermissions;
+import com.io7m.looseleaf.security.LLRole;
+import com.io7m.looseleaf.security.LLRoleName;
+import com.io7m.looseleaf.security.LLSecurityContext;
+import com.io7m.looseleaf.security.LLUser;
+import com.io7m.looseleaf.security.LLUserName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.io7m.looseleaf.security.LLAction.READ;
+import static com.io7m.looseleaf.security.LLAction.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class LLPermissionsTest
+{
+  private static LLGrant grant(
+    final LLAction action,
+    final String expression)
+  {
+    return new LLGrant(action, LLKeyExpression.create(expression));
+  }
+
+  private static LLKeyName key(
+    final String name)
+  {
+    return LLKeyName.create(name);
+  }
+
+  private static LLPassword password()
+  {
+    return new LLPassword(
+      LLPasswordAlgorithmPBKDF2HmacSHA256.create(),
+      "ABCDEF0123456789",
+      "ABCDEF0123456789"
+    );
+  }
+
+  /**
+   * A user keeps its own copy of the roles it was given.
+   */
+
+  @Test
+  public void testUserCopiesRoles()
+  {
+    final var r0 =
+      new LLRole(new LLRoleName("r0"), List.of(grant(READ, "/a/*")));
+    final var r1 =
+      new LLRole(new LLRoleName("r1"), List.of(grant(WRITE, "/a/*")));
+
+    final var roles = new HashMap<LLRoleName, LLRole>();
+    roles.put(r0.name(), r0);
+
+    final var user = new LLUser(new LLUserName("u"), password(), roles);
+    roles.put(r1.name(), r1);
+
+    assertEquals(Map.of(r0.name(), r0), user.roles());
+    assertTrue(user.allows(READ, key("/a/b")));
+    assertFalse(user.allows(WRITE, key("/a/b")));
+  }
+
+  /**
+   * The security context compiles the permissions of each of its users once,
+   * and the compiled permissions agree with the user's roles.
+   */
+
+  @Test
+  public void testSecurityContextPermissions()
+  {
+    final var r0 =
+      new LLRole(new LLRoleName("r0"), List.of(
+        grant(READ, "/a/*"),
+        grant(WRITE, "/a/b")
+      ));
+
+    final var context =
+      LLSecurityContext.builder()
+        .addRole(r0)
+        .addUser(new LLUserName("u"), password(), List.of(r0.name()))
+        .build();
+
+    final var user =
+      context.users().get(new LLUserName("u"));
+    final var permissions =
+      context.permissionsOf(user);
+
+    assertSame(permissions, context.permissionsOf(user));
+    for (final var name : List.of("/a", "/a/b", "/a/c", "/b")) {
+      for (final var action : LLAction.values()) {
+        assertEquals(
+          user.allows(action, key(name)),
+          permissions.allows(action, key(name)),
+          "%s %s".formatted(action, name)
+        );
+      }
+    }
+
+    final var other =
+      new LLUser(new LLUserName("u"), password(), Map.of());
+    assertFalse(context.permissionsOf(other).allows(READ, key("/a/b")));
+  }
+
+  @Test
+  public void testExactAndWildcard()
+  {
+    final var permissions =
+      LLPermissions.compile(List.of(
+        new LLRole(new LLRoleName("r0"), List.of(
+          grant(READ, "/a/b"),
+          grant(READ, "/x/*"),
+          grant(WRITE, "/x/y*")
+        )),
+        new LLRole(new LLRoleName("r1"), List.of(
+          grant(READ, "/x/y/z/*")
+        ))
+      ));
+
+    assertTrue(permissions.allows(READ, key("/a/b")));
+    assertFalse(permissions.allows(READ, key("/a/b/c")));
+    assertFalse(permissions.allows(READ, key("/a")));
+    assertTrue(permissions.allows(READ, key("/x/y")));
+    assertTrue(permissions.allows(READ, key("/x/y/z/w")));
+    assertFalse(permissions.allows(READ, key("/x")));
+    assertFalse(permissions.allows(WRITE, key("/a/b")));
+    assertTrue(permissions.allows(WRITE, key("/x/y")));
+    assertTrue(permissions.allows(WRITE, key("/x/yz")));
+    assertFalse(permissions.allows(WRITE, key("/x/z")));
+  }
+
+  @Test
+  public void testEmpty()
+  {
+    final var permissions =
+      LLPermissions.compile(List.of());
+
+    assertFalse(permissions.allows(READ, key("/a")));
+    assertFalse(permissions.allows(WRITE, key("/a")));
+  }
+
+  /**
+   * The compiled permissions agree with evaluating each role directly.
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testAgreesWithRoles()
+  {
+    return Stream.generate(() -> {
+      final var roles = new ArrayList<LLRole>();
+      for (int r = 0; r < 4; ++r) {
+        final var grants = new ArrayList<LLGrant>();
+        LLGenerators.keyExpressions()
+          .limit(8L)
+          .forEach(e -> {
+            final var action = Math.random() < 0.5 ? READ : WRITE;
+            final var text =
+              Math.random() < 0.5 ? e.value() : e.value() + "*";
+            grants.add(grant(action, text));
+          });
+        roles.add(new LLRole(new LLRoleName("r" + r), grants));
+      }
+      return roles;
+    }).limit(100L).map(roles -> {
+      return DynamicTest.dynamicTest("testAgreesWithRoles", () -> {
+        final var permissions = LLPermissions.compile(roles);
+        LLGenerators.keyNames()
+          .limit(100L)
+          .forEach(keyName -> {
+            for (final var action : LLAction.values()) {
+              final var expected =
+                roles.stream().anyMatch(r -> r.allows(action, keyName));
+              assertEquals(
+                expected,
+                permissions.allows(action, keyName),
+                "%s %s".formatted(action, keyName)
+              );
+            }
+          });
+      });
+    });
+  }
+}
@@ -27,7 +27,9 @@ import com.io7m.looseleaf.server.api.LLServerAddress;
 import com.io7m.looseleaf.server.api.LLServerConfiguration;
 import com.io7m.looseleaf.server.api.LLServerGrant;
 import com.io7m.looseleaf.server.api.LLServerHashedPassword;
+import com.io7m.looseleaf.server.api.LLServerReadCacheConfiguration;
 import com.io7m.looseleaf.server.api.LLServerRole;
+import com.io7m.looseleaf.server.api.LLServerSQLiteConfiguration;
 import com.io7m.looseleaf.server.api.LLServerType;
 import com.io7m.looseleaf.server.api.LLServerUser;
 import org.junit.jupiter.api.AfterEach;
@@ -126,6 +128,16 @@ public final class LLServerSmokeSQLITEIT
           )
         ),
         Optional.empty(),
+        Optional.empty(),
+        Optional.of(new LLServerSQLiteConfiguration(4, 67_108_864L, 4_096L)),
+        Optional.of(new LLServerReadCacheConfiguration(16_777_216L)),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        List.of(),
         Optional.empty()
       )
     );
@@ -17,16 +17,27 @@
 
 package com.io7m.looseleaf.tests;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.io7m.looseleaf.cmdline.Main;
+import com.io7m.looseleaf.database.api.LLDatabaseRUD;
+import com.io7m.looseleaf.database.mvstore.LLDatabaseMVStoreFactory;
 import com.io7m.looseleaf.protocol.v1.LLv1Errors;
+import com.io7m.looseleaf.protocol.v1.LLv1Listing;
 import com.io7m.looseleaf.protocol.v1.LLv1Messages;
 import com.io7m.looseleaf.protocol.v1.LLv1Result;
+import com.io7m.looseleaf.protocol.v1.LLv1Token;
+import com.io7m.looseleaf.security.LLKeyName;
 import com.io7m.looseleaf.security.LLPassword;
 import com.io7m.looseleaf.security.LLPasswordAlgorithmPBKDF2HmacSHA256;
 import com.io7m.looseleaf.server.LLServers;
 import com.io7m.looseleaf.server.api.LLServerAddress;
+import com.io7m.looseleaf.server.api.LLServerAuditConfiguration;
 import com.io7m.looseleaf.server.api.LLServerConfiguration;
 import com.io7m.looseleaf.server.api.LLServerGrant;
 import com.io7m.looseleaf.server.api.LLServerHashedPassword;
+import com.io7m.looseleaf.server.api.LLServerMetricsConfiguration;
+import com.io7m.looseleaf.server.api.LLServerMount;
+import com.io7m.looseleaf.server.api.LLServerReadCacheConfiguration;
 import com.io7m.looseleaf.server.api.LLServerRole;
 import com.io7m.looseleaf.server.api.LLServerType;
 import com.io7m.looseleaf.server.api.LLServerUser;
@@ -37,18 +48,29 @@ import org.junit.jupiter.api.Test;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 
 import static com.io7m.looseleaf.server.api.LLServerAction.READ;
 import static com.io7m.looseleaf.server.api.LLServerAction.WRITE;
+import static com.io7m.looseleaf.server.api.LLServerAuditDetail.SUMMARY;
 import static java.net.http.HttpRequest.BodyPublishers.ofString;
 import static java.net.http.HttpResponse.BodyHandlers.ofByteArray;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public final class LLServerTest
 {
@@ -56,6 +78,7 @@ public final class LLServerTest
   private Path directory;
   private LLPassword password0;
   private LLServerType server;
+  private LLServerConfiguration configuration;
   private HttpClient client;
   private LLv1Messages messages;
 
@@ -77,6 +100,26 @@ public final class LLServerTest
     return Base64.getUrlEncoder().encodeToString(text.getBytes(UTF_8));
   }
 
+  private String scrapeMetrics()
+    throws Exception
+  {
+    final var scrape =
+      HttpRequest.newBuilder(URI.create("http://localhost:20001/metrics"))
+        .build();
+
+    final var response =
+      this.client.send(scrape, HttpResponse.BodyHandlers.ofString());
+
+    assertEquals(200, response.statusCode());
+    assertTrue(
+      response.headers()
+        .firstValue("Content-Type")
+        .orElseThrow()
+        .startsWith("application/openmetrics-text")
+    );
+    return response.body();
+  }
+
   @BeforeEach
   public void setup()
     throws Exception
@@ -90,7 +133,7 @@ public final class LLServerTest
         .createHashed("password0");
 
     this.servers = new LLServers();
-    this.server = this.servers.open(
+    this.configuration =
       new LLServerConfiguration(
         null,
         List.of(new LLServerAddress("localhost", 20000)),
@@ -118,9 +161,28 @@ public final class LLServerTest
           )
         ),
         Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.of(new LLServerReadCacheConfiguration(1_048_576L)),
+        Optional.of(new LLServerAuditConfiguration(0.5, SUMMARY)),
+        Optional.of(new LLServerMetricsConfiguration(
+          List.of(1.0, 10.0, 100.0),
+          Optional.of(new LLServerAddress("localhost", 20001))
+        )),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        List.of(
+          new LLServerMount(
+            "/x/y/m/",
+            this.directory.resolve("mounted.db"),
+            "MEMORY"
+          )
+        ),
         Optional.empty()
-      )
-    );
+      );
+    this.server = this.servers.open(this.configuration);
 
     this.client = HttpClient.newHttpClient();
   }
@@ -256,6 +318,170 @@ public final class LLServerTest
     assertEquals(401, response.statusCode());
   }
 
+  /**
+   * Repeated authentication succeeds, and a successful authentication does
+   * not cause subsequent bad passwords to be accepted. Only the first
+   * successful authentication and the bad password require hashing.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAuthenticateRepeatedThenBadPassword()
+    throws Exception
+  {
+    for (int index = 0; index < 3; ++index) {
+      final var request =
+        HttpRequest.newBuilder(uriOf("/v1/check-auth"))
+          .header("Authorization", basic("grouch", "password0"))
+          .build();
+
+      final var response =
+        this.client.send(request, ofByteArray());
+
+      assertEquals(200, response.statusCode());
+    }
+
+    final var request =
+      HttpRequest.newBuilder(uriOf("/v1/check-auth"))
+        .header("Authorization", basic("grouch", "password1"))
+        .build();
+
+    final var response =
+      this.client.send(request, ofByteArray());
+
+    assertEquals(401, response.statusCode());
+
+    final var body = this.scrapeMetrics();
+    assertTrue(body.contains("\nlooseleaf_auth_cache_hits_total 2\n"), body);
+    assertTrue(body.contains("\nlooseleaf_auth_cache_misses_total 2\n"), body);
+  }
+
+  /**
+   * A session token obtained with basic authentication can be used as a
+   * bearer token, and carries the user's permissions.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTokenAuthenticated()
+    throws Exception
+  {
+    final var token = this.obtainToken();
+
+    {
+      final var request =
+        HttpRequest.newBuilder(uriOf("/v1/update/x/y/z"))
+          .header("Authorization", "Bearer " + token.token())
+          .POST(ofString("Hello."))
+          .build();
+
+      final var response =
+        this.client.send(request, ofByteArray());
+
+      assertEquals(200, response.statusCode());
+    }
+
+    {
+      final var request =
+        HttpRequest.newBuilder(uriOf("/v1/read/x/y/z"))
+          .header("Authorization", "Bearer " + token.token())
+          .build();
+
+      final var response =
+        this.client.send(request, ofByteArray());
+
+      assertEquals(200, response.statusCode());
+      assertEquals("Hello.", new String(response.body(), UTF_8));
+    }
+
+    {
+      final var request =
+        HttpRequest.newBuilder(uriOf("/v1/read/a/b/c"))
+          .header("Authorization", "Bearer " + token.token())
+          .build();
+
+      final var response =
+        this.client.send(request, ofByteArray());
+
+      assertEquals(400, response.statusCode());
+    }
+  }
+
+  /**
+   * Tampered session tokens are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTokenTampered()
+    throws Exception
+  {
+    final var token = this.obtainToken();
+    final var dot = token.token().indexOf('.');
+    final var forged =
+      Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString("root:99999999999".getBytes(UTF_8))
+      + token.token().substring(dot);
+
+    for (final var text : List.of(forged, "garbage", token.token() + "x")) {
+      final var request =
+        HttpRequest.newBuilder(uriOf("/v1/check-auth"))
+          .header("Authorization", "Bearer " + text)
+          .build();
+
+      final var response =
+        this.client.send(request, ofByteArray());
+
+      assertEquals(401, response.statusCode());
+    }
+  }
+
+  /**
+   * Session tokens cannot be used to obtain new session tokens.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTokenNotRenewable()
+    throws Exception
+  {
+    final var token = this.obtainToken();
+
+    final var request =
+      HttpRequest.newBuilder(uriOf("/v1/token"))
+        .header("Authorization", "Bearer " + token.token())
+        .build();
+
+    final var response =
+      this.client.send(request, ofByteArray());
+
+    assertEquals(400, response.statusCode());
+
+    final var errors =
+      (LLv1Errors) this.messages.deserialize(response.body());
+    assertEquals("operation-not-permitted", errors.errors().get(0).errorCode());
+  }
+
+  private LLv1Token obtainToken()
+    throws Exception
+  {
+    final var request =
+      HttpRequest.newBuilder(uriOf("/v1/token"))
+        .header("Authorization", basic("grouch", "password0"))
+        .build();
+
+    final var response =
+      this.client.send(request, ofByteArray());
+
+    assertEquals(200, response.statusCode());
+    return (LLv1Token) this.messages.deserialize(response.body());
+  }
+
   /**
    * Getting a nonexistent key results in 404.
    *
@@ -732,4 +958,624 @@ public final class LLServerTest
     assertEquals(400, res0.statusCode());
     assertEquals("unexpected-message", errors.errors().get(0).errorCode());
   }
+
+  /**
+   * Reading many keys returns the values of the keys that exist.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadMany()
+    throws Exception
+  {
+    for (final var name : List.of("a", "b", "c")) {
+      final var req =
+        HttpRequest.newBuilder(uriOf("/v1/update/x/y/" + name))
+          .header("Authorization", basic("grouch", "password0"))
+          .POST(ofString(name.toUpperCase()))
+          .build();
+
+      final var res =
+        this.client.send(req, ofByteArray());
+
+      assertEquals(200, res.statusCode());
+    }
+
+    final var req0 =
+      HttpRequest.newBuilder(uriOf("/v1/read-many"))
+        .header("Authorization", basic("grouch", "password0"))
+        .POST(ofString("""
+                         {"keys":["/x/y/a","/x/y/c","/x/y/nonexistent"]}
+                         """))
+        .build();
+
+    final var res0 =
+      this.client.send(req0, ofByteArray());
+
+    assertEquals(200, res0.statusCode());
+
+    final var results =
+      (LLv1Result) this.messages.deserialize(res0.body());
+    assertEquals(Map.of("/x/y/a", "A", "/x/y/c", "C"), results.values());
+  }
+
+  /**
+   * Reading many keys respects read permissions.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadManyNotPermitted()
+    throws Exception
+  {
+    final var req0 =
+      HttpRequest.newBuilder(uriOf("/v1/read-many"))
+        .header("Authorization", basic("grouch", "password0"))
+        .POST(ofString("""
+                         {"keys":["/x/y/a","/a/b/c"]}
+                         """))
+        .build();
+
+    final var res0 =
+      this.client.send(req0, ofByteArray());
+
+    final var errors =
+      (LLv1Errors) this.messages.deserialize(res0.body());
+    assertEquals(400, res0.statusCode());
+    assertEquals(1, errors.errors().size());
+    assertEquals("operation-not-permitted", errors.errors().get(0).errorCode());
+  }
+
+  /**
+   * Listing returns the readable keys under a prefix, a page at a time.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testList()
+    throws Exception
+  {
+    for (final var name : List.of("a", "b", "c", "d/e")) {
+      final var req =
+        HttpRequest.newBuilder(uriOf("/v1/update/x/y/" + name))
+          .header("Authorization", basic("grouch", "password0"))
+          .POST(ofString(name))
+          .build();
+
+      final var res =
+        this.client.send(req, ofByteArray());
+
+      assertEquals(200, res.statusCode());
+    }
+
+    final var req0 =
+      HttpRequest.newBuilder(uriOf("/v1/list/x/y?limit=3"))
+        .header("Authorization", basic("grouch", "password0"))
+        .build();
+
+    final var res0 =
+      this.client.send(req0, ofByteArray());
+
+    assertEquals(200, res0.statusCode());
+
+    final var page0 =
+      (LLv1Listing) this.messages.deserialize(res0.body());
+    assertEquals(List.of("/x/y/a", "/x/y/b", "/x/y/c"), page0.keyNames());
+    assertEquals(Map.of(), page0.keyValues());
+    assertEquals("/x/y/c", page0.next());
+
+    final var req1 =
+      HttpRequest.newBuilder(
+          uriOf("/v1/list/x/y?limit=3&values=true&after=" + page0.next()))
+        .header("Authorization", basic("grouch", "password0"))
+        .build();
+
+    final var res1 =
+      this.client.send(req1, ofByteArray());
+
+    assertEquals(200, res1.statusCode());
+
+    final var page1 =
+      (LLv1Listing) this.messages.deserialize(res1.body());
+    assertEquals(List.of("/x/y/d/e"), page1.keyNames());
+    assertEquals(Map.of("/x/y/d/e", "d/e"), page1.keyValues());
+    assertEquals(null, page1.next());
+  }
+
+  /**
+   * Listing omits keys that the user cannot read.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testListFiltered()
+    throws Exception
+  {
+    final var req0 =
+      HttpRequest.newBuilder(uriOf("/v1/update/x/y/z"))
+        .header("Authorization", basic("grouch", "password0"))
+        .POST(ofString("z"))
+        .build();
+
+    assertEquals(200, this.client.send(req0, ofByteArray()).statusCode());
+
+    this.server.close();
+    this.server = this.servers.open(
+      new LLServerConfiguration(
+        null,
+        List.of(new LLServerAddress("localhost", 20000)),
+        this.directory.resolve("looseleaf.db"),
+        Optional.empty(),
+        List.of(
+          new LLServerRole(
+            "q-reader",
+            List.of(new LLServerGrant(READ, "/q/*"))
+          )
+        ),
+        List.of(
+          new LLServerUser(
+            "grouch",
+            new LLServerHashedPassword(
+              this.password0.algorithm().identifier(),
+              this.password0.salt(),
+              this.password0.hash()
+            ),
+            List.of("q-reader")
+          )
+        ),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        List.of(),
+        Optional.empty()
+      )
+    );
+
+    final var req1 =
+      HttpRequest.newBuilder(uriOf("/v1/list"))
+        .header("Authorization", basic("grouch", "password0"))
+        .build();
+
+    final var res1 =
+      this.client.send(req1, ofByteArray());
+
+    assertEquals(200, res1.statusCode());
+
+    final var page =
+      (LLv1Listing) this.messages.deserialize(res1.body());
+    assertEquals(List.of(), page.keyNames());
+    assertEquals(null, page.next());
+  }
+
+  /**
+   * Listing rejects bad limits.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testListBadLimit()
+    throws Exception
+  {
+    for (final var limit : List.of("0", "-1", "100000", "x")) {
+      final var req =
+        HttpRequest.newBuilder(uriOf("/v1/list/x?limit=" + limit))
+          .header("Authorization", basic("grouch", "password0"))
+          .build();
+
+      final var res =
+        this.client.send(req, ofByteArray());
+
+      final var errors =
+        (LLv1Errors) this.messages.deserialize(res.body());
+      assertEquals(400, res.statusCode());
+      assertEquals("bad-parameter", errors.errors().get(0).errorCode());
+    }
+  }
+
+  /**
+   * Reads are served from the read cache in this configuration, so writes
+   * must invalidate both cached values and cached negative entries.
+   */
+
+  @Test
+  public void testReadCacheInvalidation()
+    throws Exception
+  {
+    final var read =
+      HttpRequest.newBuilder(uriOf("/v1/read/x/y/cached"))
+        .header("Authorization", basic("grouch", "password0"))
+        .build();
+
+    assertEquals(404, this.client.send(read, ofByteArray()).statusCode());
+    assertEquals(404, this.client.send(read, ofByteArray()).statusCode());
+
+    for (final var value : List.of("One", "Two")) {
+      final var update =
+        HttpRequest.newBuilder(uriOf("/v1/update/x/y/cached"))
+          .header("Authorization", basic("grouch", "password0"))
+          .POST(ofString(value))
+          .build();
+
+      assertEquals(200, this.client.send(update, ofByteArray()).statusCode());
+
+      for (int index = 0; index < 2; ++index) {
+        final var res =
+          this.client.send(read, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, res.statusCode());
+        assertEquals(value, res.body());
+      }
+    }
+
+    final var delete =
+      HttpRequest.newBuilder(uriOf("/v1/delete/x/y/cached"))
+        .header("Authorization", basic("grouch", "password0"))
+        .build();
+
+    assertEquals(200, this.client.send(delete, ofByteArray()).statusCode());
+    assertEquals(404, this.client.send(read, ofByteArray()).statusCode());
+  }
+
+  /**
+   * Keys beneath a mount prefix are held by the mounted database, and
+   * listings merge the keys of every database.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMountRUD()
+    throws Exception
+  {
+    for (final var name : List.of("a", "z")) {
+      final var req =
+        HttpRequest.newBuilder(uriOf("/v1/update/x/y/" + name))
+          .header("Authorization", basic("grouch", "password0"))
+          .POST(ofString(name))
+          .build();
+
+      assertEquals(200, this.client.send(req, ofByteArray()).statusCode());
+    }
+
+    final var req0 =
+      HttpRequest.newBuilder(uriOf("/v1/rud"))
+        .header("Authorization", basic("grouch", "password0"))
+        .POST(ofString(
+          """
+            {
+              "read": [
+                "/x/y/a",
+                "/x/y/m/b"
+              ],
+              "update": {
+                "/x/y/m/b": "b",
+                "/x/y/m/c": "c"
+              },
+              "delete": []
+            }
+            """))
+        .build();
+
+    final var res0 =
+      this.client.send(req0, ofByteArray());
+
+    assertEquals(200, res0.statusCode());
+    final var results =
+      (LLv1Result) this.messages.deserialize(res0.body());
+    assertEquals(Map.of("/x/y/a", "a"), results.values());
+
+    final var req1 =
+      HttpRequest.newBuilder(uriOf("/v1/list/x/y?values=true"))
+        .header("Authorization", basic("grouch", "password0"))
+        .build();
+
+    final var res1 =
+      this.client.send(req1, ofByteArray());
+
+    assertEquals(200, res1.statusCode());
+    final var page =
+      (LLv1Listing) this.messages.deserialize(res1.body());
+    assertEquals(
+      List.of("/x/y/a", "/x/y/m/b", "/x/y/m/c", "/x/y/z"),
+      page.keyNames()
+    );
+    assertEquals(
+      Map.of("/x/y/a", "a", "/x/y/m/b", "b", "/x/y/m/c", "c", "/x/y/z", "z"),
+      page.keyValues()
+    );
+
+    try (var files = Files.list(this.directory)) {
+      assertTrue(
+        files.anyMatch(f -> f.getFileName().toString().startsWith("mounted.db"))
+      );
+    }
+  }
+
+  /**
+   * Keys left in the main database beneath a mount prefix are not listed,
+   * and do not cause keys to be skipped or listings to end early, whatever
+   * the page size.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMountListStaleKeys()
+    throws Exception
+  {
+    this.server.close();
+
+    try (var root =
+           new LLDatabaseMVStoreFactory()
+             .open(this.configuration.databaseFile())) {
+      final var stale = new HashMap<LLKeyName, String>();
+      for (final var name : List.of("a", "b", "c", "e", "f")) {
+        stale.put(LLKeyName.create("/x/y/m/" + name), "stale");
+      }
+      root.readUpdateDelete(new LLDatabaseRUD(Set.of(), stale, Set.of()));
+    }
+
+    this.server = this.servers.open(this.configuration);
+
+    final var expected = new TreeMap<String, String>();
+    for (final var name : List.of("/x/y/a", "/x/y/n", "/x/y/z", "/x/y/m/b", "/x/y/m/d")) {
+      final var req =
+        HttpRequest.newBuilder(uriOf("/v1/update" + name))
+          .header("Authorization", basic("grouch", "password0"))
+          .POST(ofString("real"))
+          .build();
+
+      assertEquals(200, this.client.send(req, ofByteArray()).statusCode());
+      expected.put(name, "real");
+    }
+
+    for (final var limit : List.of(1, 2, 3, 100)) {
+      final var names = new ArrayList<String>();
+      final var values = new HashMap<String, String>();
+      String next = null;
+      do {
+        final var after = next == null ? "" : "&after=" + next;
+        final var req =
+          HttpRequest.newBuilder(
+              uriOf("/v1/list/x/y?values=true&limit=" + limit + after))
+            .header("Authorization", basic("grouch", "password0"))
+            .build();
+
+        final var res = this.client.send(req, ofByteArray());
+        assertEquals(200, res.statusCode());
+
+        final var page =
+          (LLv1Listing) this.messages.deserialize(res.body());
+        assertTrue(page.keyNames().size() <= limit);
+        names.addAll(page.keyNames());
+        values.putAll(page.keyValues());
+        next = page.next();
+      } while (next != null);
+
+      assertEquals(List.copyOf(expected.keySet()), names, "limit " + limit);
+      assertEquals(expected, values, "limit " + limit);
+    }
+  }
+
+  /**
+   * An operation cannot write to keys in more than one mounted database.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMountRUDWritesSpanMounts()
+    throws Exception
+  {
+    final var req0 =
+      HttpRequest.newBuilder(uriOf("/v1/rud"))
+        .header("Authorization", basic("grouch", "password0"))
+        .POST(ofString(
+          """
+            {
+              "read": [],
+              "update": {
+                "/x/y/a": "a",
+                "/x/y/m/a": "a"
+              },
+              "delete": []
+            }
+            """))
+        .build();
+
+    final var res0 =
+      this.client.send(req0, ofByteArray());
+
+    final var errors =
+      (LLv1Errors) this.messages.deserialize(res0.body());
+    assertEquals(400, res0.statusCode());
+    assertEquals("writes-span-mounts", errors.errors().get(0).errorCode());
+
+    for (final var name : List.of("/x/y/a", "/x/y/m/a")) {
+      final var req =
+        HttpRequest.newBuilder(uriOf("/v1/read" + name))
+          .header("Authorization", basic("grouch", "password0"))
+          .build();
+
+      assertEquals(404, this.client.send(req, ofByteArray()).statusCode());
+    }
+  }
+
+  /**
+   * Mount prefixes must be directories other than the root.
+   */
+
+  @Test
+  public void testMountPrefixInvalid()
+  {
+    for (final var prefix : List.of("/", "/x", "x/", "")) {
+      assertThrows(IllegalArgumentException.class, () -> {
+        new LLServerMount(prefix, Path.of("mounted.db"), "MEMORY");
+      });
+    }
+  }
+
+  /**
+   * The health endpoint reports exact counts after concurrent requests, and
+   * does not reveal user names. The per-user breakdown is available only
+   * from the metrics endpoint.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testHealthCountsConcurrent()
+    throws Exception
+  {
+    final var futures =
+      new ArrayList<CompletableFuture<HttpResponse<byte[]>>>();
+
+    for (int index = 0; index < 200; ++index) {
+      final var update =
+        HttpRequest.newBuilder(uriOf("/v1/update/x/y/h%d".formatted(index % 8)))
+          .header("Authorization", basic("grouch", "password0"))
+          .POST(ofString("Hello."))
+          .build();
+      futures.add(this.client.sendAsync(update, ofByteArray()));
+    }
+
+    for (final var future : futures) {
+      assertEquals(200, future.get().statusCode());
+    }
+
+    final var health =
+      HttpRequest.newBuilder(uriOf("/health"))
+        .build();
+
+    final var response =
+      this.client.send(health, ofByteArray());
+
+    assertEquals(200, response.statusCode());
+
+    final var tree =
+      new ObjectMapper().readTree(response.body());
+
+    assertEquals(200L, tree.get("writes").asLong());
+    assertEquals(0L, tree.get("reads").asLong());
+    assertFalse(tree.has("users"), tree.toString());
+
+    final var body = this.scrapeMetrics();
+    assertTrue(
+      body.contains("looseleaf_db_writes_total{looseleaf_user=\"grouch\"} 200\n"),
+      body);
+  }
+
+  /**
+   * The scrape endpoint serves metrics in OpenMetrics format.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMetricsScrape()
+    throws Exception
+  {
+    final var update =
+      HttpRequest.newBuilder(uriOf("/v1/update/x/y/scraped"))
+        .header("Authorization", basic("grouch", "password0"))
+        .POST(ofString("Hello."))
+        .build();
+
+    assertEquals(200, this.client.send(update, ofByteArray()).statusCode());
+
+    final var body = this.scrapeMetrics();
+    assertTrue(body.endsWith("# EOF\n"), body);
+    assertTrue(body.contains("\nlooseleaf_up 1\n"), body);
+    assertTrue(
+      body.contains("# TYPE looseleaf_db_writes counter\n"), body);
+    assertTrue(
+      body.contains("looseleaf_db_writes_total{looseleaf_user=\"grouch\"} 1\n"),
+      body);
+    assertTrue(
+      body.contains("# TYPE looseleaf_db_time_milliseconds histogram\n"),
+      body);
+    assertTrue(
+      body.contains(
+        "looseleaf_db_time_milliseconds_bucket{looseleaf_operation=\"update\",le=\"+Inf\"} 1\n"),
+      body);
+  }
+
+  /**
+   * The load test command can drive a running server in closed-loop mode.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLoadTestClosedLoop()
+    throws Exception
+  {
+    final var report = this.directory.resolve("report.json");
+
+    final var r = Main.mainExitless(new String[]{
+      "load-test",
+      "--server", "http://localhost:20000",
+      "--user", "grouch",
+      "--password", "password0",
+      "--key-prefix", "/x/y/load",
+      "--key-count", "100",
+      "--distribution", "ZIPFIAN",
+      "--duration", "PT1S",
+      "--concurrency", "4",
+      "--weight-delete", "5",
+      "--report", report.toString()
+    });
+    assertEquals(0, r);
+
+    final var json = new ObjectMapper().readTree(report.toFile());
+    assertEquals("closed-loop", json.at("/workload/mode").asText());
+    assertTrue(json.at("/total/count").asLong() > 0L, json.toString());
+    assertEquals(0L, json.at("/total/errors").asLong(), json.toString());
+    assertTrue(json.at("/operations/read/count").asLong() > 0L);
+    assertTrue(json.at("/operations/rud/count").asLong() > 0L);
+  }
+
+  /**
+   * The load test command can drive a running server in open-loop mode.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLoadTestOpenLoop()
+    throws Exception
+  {
+    final var report = this.directory.resolve("report.json");
+
+    final var r = Main.mainExitless(new String[]{
+      "load-test",
+      "--server", "http://localhost:20000",
+      "--user", "grouch",
+      "--password", "password0",
+      "--key-prefix", "/x/y/load",
+      "--key-count", "100",
+      "--duration", "PT1S",
+      "--concurrency", "2",
+      "--rate", "100",
+      "--report", report.toString()
+    });
+    assertEquals(0, r);
+
+    final var json = new ObjectMapper().readTree(report.toFile());
+    final var count = json.at("/total/count").asLong();
+    assertEquals("open-loop", json.at("/workload/mode").asText());
+    assertEquals(0L, json.at("/total/errors").asLong(), json.toString());
+    assertTrue(count > 0L && count <= 100L, json.toString());
+  }
 }
@@ -0,0 +1,531 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.looseleaf.tests;
+
+import com.io7m.looseleaf.server.internal.telemetry.LLRequestSpan;
+import com.io7m.looseleaf.server.internal.telemetry.LLTelemetryService;
+import com.io7m.looseleaf.server.internal.telemetry.LLTelemetryServiceType;
+import com.io7m.looseleaf.server.internal.telemetry.LLTelemetryServices;
+import com.io7m.looseleaf.server.internal.telemetry.LLTraceRetention;
+import com.io7m.looseleaf.server.internal.telemetry.LLTraceSampler;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.logs.SdkLoggerProvider;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.testing.exporter.InMemoryLogRecordExporter;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricExporter;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+import static com.io7m.looseleaf.server.api.LLTelemetryConfiguration.LLBatchExport;
+import static com.io7m.looseleaf.server.api.LLTelemetryConfiguration.LLLogs;
+import static com.io7m.looseleaf.server.api.LLTelemetryConfiguration.LLMetrics;
+import static com.io7m.looseleaf.server.api.LLTelemetryConfiguration.LLOTLPProtocol.HTTP;
+import static com.io7m.looseleaf.server.api.LLTelemetryConfiguration.LLTraceSampling;
+import static com.io7m.looseleaf.server.api.LLTelemetryConfiguration.LLTraces;
+import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_METHOD;
+import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_STATUS_CODE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public final class LLTelemetryTest
+{
+  private static final URI ENDPOINT =
+    URI.create("http://localhost:4318");
+
+  private InMemorySpanExporter spans;
+  private SdkTracerProvider tracerProvider;
+  private List<String> requestCalls;
+
+  private static Optional<LLTraceSampling> sampling(
+    final double ratio,
+    final boolean parentBased,
+    final boolean errors,
+    final Optional<Long> slowMilliseconds)
+  {
+    return Optional.of(
+      new LLTraceSampling(ratio, parentBased, errors, slowMilliseconds)
+    );
+  }
+
+  private static Context parent(
+    final boolean sampled)
+  {
+    final var context =
+      SpanContext.createFromRemoteParent(
+        "0af7651916cd43dd8448eb211c80319c",
+        "b7ad6b7169203331",
+        sampled ? TraceFlags.getSampled() : TraceFlags.getDefault(),
+        TraceState.getDefault()
+      );
+    return Context.root().with(Span.wrap(context));
+  }
+
+  private static long epochNanos(
+    final Instant time)
+  {
+    return SECONDS.toNanos(time.getEpochSecond()) + time.getNano();
+  }
+
+  private static void awaitSize(
+    final IntSupplier size,
+    final int expected)
+    throws InterruptedException
+  {
+    final var deadline = System.nanoTime() + SECONDS.toNanos(10L);
+    while (size.getAsInt() < expected) {
+      if (System.nanoTime() > deadline) {
+        fail("Expected %d items, but received %d".formatted(expected, size.getAsInt()));
+      }
+      Thread.sleep(10L);
+    }
+    assertEquals(expected, size.getAsInt());
+  }
+
+  @BeforeEach
+  public void setup()
+  {
+    this.spans = InMemorySpanExporter.create();
+    this.requestCalls = new ArrayList<>();
+  }
+
+  @AfterEach
+  public void tearDown()
+  {
+    if (this.tracerProvider != null) {
+      this.tracerProvider.close();
+    }
+  }
+
+  private LLTelemetryServiceType telemetry(
+    final Optional<LLTraceSampling> sampling)
+  {
+    this.tracerProvider =
+      SdkTracerProvider.builder()
+        .addSpanProcessor(SimpleSpanProcessor.create(this.spans))
+        .setSampler(LLTraceSampler.create(sampling))
+        .build();
+
+    final var noop = OpenTelemetry.noop();
+    return new LLTelemetryService(
+      this.tracerProvider.get("test"),
+      noop.getMeter("test"),
+      noop.getLogsBridge().get("test"),
+      sampling.map(LLTraceRetention::of).orElseGet(LLTraceRetention::none)
+    );
+  }
+
+  /**
+   * A request that records the names of the methods called on it.
+   */
+
+  private HttpServletRequest request()
+  {
+    final var requestId = UUID.randomUUID();
+    return (HttpServletRequest) Proxy.newProxyInstance(
+      HttpServletRequest.class.getClassLoader(),
+      new Class<?>[]{HttpServletRequest.class},
+      (proxy, method, args) -> {
+        this.requestCalls.add(method.getName());
+        return switch (method.getName()) {
+          case "getAttribute" -> requestId;
+          case "getContentLengthLong" -> Long.valueOf(0L);
+          case "getMethod" -> "GET";
+          case "getRemoteAddr" -> "127.0.0.1";
+          case "getRequestURI" -> "/v1/read/x";
+          default -> null;
+        };
+      });
+  }
+
+  private static HttpServletResponse response(
+    final int status)
+  {
+    return (HttpServletResponse) Proxy.newProxyInstance(
+      HttpServletResponse.class.getClassLoader(),
+      new Class<?>[]{HttpServletResponse.class},
+      (proxy, method, args) -> {
+        if ("getStatus".equals(method.getName())) {
+          return Integer.valueOf(status);
+        }
+        return null;
+      });
+  }
+
+  private void runRequest(
+    final LLTelemetryServiceType telemetry,
+    final int status,
+    final long delayMilliseconds)
+    throws InterruptedException
+  {
+    try (var ignored = LLRequestSpan.start(
+      telemetry, "request", this.request(), response(status))) {
+      if (delayMilliseconds > 0L) {
+        Thread.sleep(delayMilliseconds);
+      }
+    }
+  }
+
+  /**
+   * A request that is not sampled records no span, and never builds the
+   * request attributes.
+   */
+
+  @Test
+  public void testUnsampledRecordsNothing()
+    throws Exception
+  {
+    final var telemetry =
+      this.telemetry(sampling(0.0, false, false, Optional.empty()));
+
+    this.runRequest(telemetry, 200, 0L);
+    this.runRequest(telemetry, 500, 0L);
+
+    assertEquals(List.of(), this.spans.getFinishedSpanItems());
+    assertEquals(List.of(), this.requestCalls);
+  }
+
+  /**
+   * A request that is not sampled, and that neither fails nor is slow,
+   * records no span even when retention is enabled.
+   */
+
+  @Test
+  public void testUnsampledFastSuccessNotRetained()
+    throws Exception
+  {
+    final var telemetry =
+      this.telemetry(sampling(0.0, false, true, Optional.of(Long.valueOf(60_000L))));
+
+    this.runRequest(telemetry, 200, 0L);
+
+    assertEquals(List.of(), this.spans.getFinishedSpanItems());
+    assertEquals(List.of(), this.requestCalls);
+  }
+
+  /**
+   * A failed request that was not sampled is retained as exactly one span,
+   * carrying the original start time.
+   */
+
+  @Test
+  public void testUnsampledErrorRetained()
+    throws Exception
+  {
+    final var telemetry =
+      this.telemetry(sampling(0.0, false, true, Optional.empty()));
+
+    final var before = epochNanos(Instant.now());
+    this.runRequest(telemetry, 503, 50L);
+    final var after = epochNanos(Instant.now());
+
+    final var items = this.spans.getFinishedSpanItems();
+    assertEquals(1, items.size());
+
+    final var span = items.get(0);
+    assertEquals(Boolean.TRUE, span.getAttributes().get(LLTraceSampler.RETAINED));
+    assertEquals(Long.valueOf(503L), span.getAttributes().get(HTTP_STATUS_CODE));
+    assertEquals("GET", span.getAttributes().get(HTTP_METHOD));
+
+    final var tolerance = MILLISECONDS.toNanos(20L);
+    assertTrue(span.getStartEpochNanos() >= before - tolerance);
+    assertTrue(span.getStartEpochNanos() <= before + tolerance);
+    assertTrue(span.getEndEpochNanos() - span.getStartEpochNanos() >= MILLISECONDS.toNanos(50L));
+    assertTrue(span.getEndEpochNanos() <= after + tolerance);
+  }
+
+  /**
+   * A request that fails with an exception, but that reports a successful
+   * status, is retained along with the exception.
+   */
+
+  @Test
+  public void testUnsampledExceptionRetained()
+    throws Exception
+  {
+    final var telemetry =
+      this.telemetry(sampling(0.0, false, true, Optional.empty()));
+
+    try (var span = LLRequestSpan.start(
+      telemetry, "request", this.request(), response(200))) {
+      span.recordException(new IOException("Failed"));
+    }
+
+    final var items = this.spans.getFinishedSpanItems();
+    assertEquals(1, items.size());
+
+    final var span = items.get(0);
+    assertEquals(Boolean.TRUE, span.getAttributes().get(LLTraceSampler.RETAINED));
+    assertEquals(1, span.getEvents().size());
+    assertEquals("exception", span.getEvents().get(0).getName());
+  }
+
+  /**
+   * A slow request that was not sampled is retained as exactly one span,
+   * carrying the original start time.
+   */
+
+  @Test
+  public void testUnsampledSlowRetained()
+    throws Exception
+  {
+    final var telemetry =
+      this.telemetry(sampling(0.0, false, false, Optional.of(Long.valueOf(200L))));
+
+    this.runRequest(telemetry, 200, 0L);
+    assertEquals(List.of(), this.spans.getFinishedSpanItems());
+
+    final var before = epochNanos(Instant.now());
+    this.runRequest(telemetry, 200, 250L);
+
+    final var items = this.spans.getFinishedSpanItems();
+    assertEquals(1, items.size());
+
+    final var span = items.get(0);
+    assertEquals(Boolean.TRUE, span.getAttributes().get(LLTraceSampler.RETAINED));
+    assertEquals(Long.valueOf(200L), span.getAttributes().get(HTTP_STATUS_CODE));
+
+    final var tolerance = MILLISECONDS.toNanos(20L);
+    assertTrue(span.getStartEpochNanos() >= before - tolerance);
+    assertTrue(span.getStartEpochNanos() <= before + tolerance);
+  }
+
+  /**
+   * A sampled request records a single ordinary span with its attributes.
+   */
+
+  @Test
+  public void testSampledRecorded()
+    throws Exception
+  {
+    final var telemetry =
+      this.telemetry(sampling(1.0, false, true, Optional.empty()));
+
+    this.runRequest(telemetry, 503, 0L);
+
+    final var items = this.spans.getFinishedSpanItems();
+    assertEquals(1, items.size());
+
+    final var span = items.get(0);
+    assertNull(span.getAttributes().get(LLTraceSampler.RETAINED));
+    assertEquals("GET", span.getAttributes().get(HTTP_METHOD));
+    assertEquals(Long.valueOf(503L), span.getAttributes().get(HTTP_STATUS_CODE));
+  }
+
+  /**
+   * The sampling ratio is honoured.
+   */
+
+  @Test
+  public void testRatioHonoured()
+    throws Exception
+  {
+    final var telemetry =
+      this.telemetry(sampling(0.25, false, false, Optional.empty()));
+
+    for (int index = 0; index < 4_000; ++index) {
+      this.runRequest(telemetry, 200, 0L);
+    }
+
+    final var count = this.spans.getFinishedSpanItems().size();
+    assertTrue(count > 800 && count < 1_200, "Sampled %d spans".formatted(count));
+  }
+
+  /**
+   * If sampling is parent-based, the parent's decision overrides the ratio.
+   */
+
+  @Test
+  public void testParentBasedHonoured()
+    throws Exception
+  {
+    final var telemetry =
+      this.telemetry(sampling(0.0, true, false, Optional.empty()));
+
+    try (var ignored = parent(true).makeCurrent()) {
+      this.runRequest(telemetry, 200, 0L);
+    }
+    assertEquals(1, this.spans.getFinishedSpanItems().size());
+
+    final var span = this.spans.getFinishedSpanItems().get(0);
+    assertEquals("0af7651916cd43dd8448eb211c80319c", span.getTraceId());
+    assertEquals("b7ad6b7169203331", span.getParentSpanId());
+
+    this.spans.reset();
+    try (var ignored = parent(false).makeCurrent()) {
+      this.runRequest(telemetry, 200, 0L);
+    }
+    this.runRequest(telemetry, 200, 0L);
+    assertEquals(List.of(), this.spans.getFinishedSpanItems());
+  }
+
+  /**
+   * If sampling is not parent-based, the parent's decision is ignored.
+   */
+
+  @Test
+  public void testNotParentBasedIgnoresParent()
+    throws Exception
+  {
+    final var telemetry =
+      this.telemetry(sampling(0.0, false, false, Optional.empty()));
+
+    try (var ignored = parent(true).makeCurrent()) {
+      this.runRequest(telemetry, 200, 0L);
+    }
+    assertEquals(List.of(), this.spans.getFinishedSpanItems());
+  }
+
+  /**
+   * Without a sampling configuration, every request is sampled unless its
+   * parent was not.
+   */
+
+  @Test
+  public void testDefaultSampling()
+    throws Exception
+  {
+    final var telemetry =
+      this.telemetry(Optional.empty());
+
+    this.runRequest(telemetry, 200, 0L);
+    assertEquals(1, this.spans.getFinishedSpanItems().size());
+
+    this.spans.reset();
+    try (var ignored = parent(false).makeCurrent()) {
+      this.runRequest(telemetry, 200, 0L);
+    }
+    assertEquals(List.of(), this.spans.getFinishedSpanItems());
+  }
+
+  /**
+   * Spans are exported when a batch of the configured size is ready, rather
+   * than after the configured delay.
+   */
+
+  @Test
+  public void testSpanBatchSettings()
+    throws Exception
+  {
+    final var traces =
+      new LLTraces(
+        ENDPOINT,
+        HTTP,
+        Optional.empty(),
+        Optional.of(new LLBatchExport(16, 2, 3_600_000L))
+      );
+
+    this.tracerProvider =
+      SdkTracerProvider.builder()
+        .addSpanProcessor(LLTelemetryServices.createSpanProcessor(traces, this.spans))
+        .setSampler(Sampler.alwaysOn())
+        .build();
+
+    final var tracer = this.tracerProvider.get("test");
+    tracer.spanBuilder("a").startSpan().end();
+    Thread.sleep(250L);
+    assertEquals(List.of(), this.spans.getFinishedSpanItems());
+
+    tracer.spanBuilder("b").startSpan().end();
+    awaitSize(() -> this.spans.getFinishedSpanItems().size(), 2);
+  }
+
+  /**
+   * Log records are exported when a batch of the configured size is ready,
+   * rather than after the configured delay.
+   */
+
+  @Test
+  public void testLogBatchSettings()
+    throws Exception
+  {
+    final var logs =
+      new LLLogs(
+        ENDPOINT,
+        HTTP,
+        Optional.of(new LLBatchExport(16, 2, 3_600_000L))
+      );
+
+    final var exporter = InMemoryLogRecordExporter.create();
+    try (var provider = SdkLoggerProvider.builder()
+      .addLogRecordProcessor(LLTelemetryServices.createLogRecordProcessor(logs, exporter))
+      .build()) {
+      final var logger = provider.get("test");
+      logger.logRecordBuilder().setBody("a").emit();
+      Thread.sleep(250L);
+      assertEquals(List.of(), exporter.getFinishedLogRecordItems());
+
+      logger.logRecordBuilder().setBody("b").emit();
+      awaitSize(() -> exporter.getFinishedLogRecordItems().size(), 2);
+    }
+  }
+
+  /**
+   * Metrics are exported at the configured interval.
+   */
+
+  @Test
+  public void testMetricExportInterval()
+    throws Exception
+  {
+    final var slowExporter = InMemoryMetricExporter.create();
+    final var fastExporter = InMemoryMetricExporter.create();
+
+    final var slow =
+      new LLMetrics(ENDPOINT, HTTP, Optional.of(Long.valueOf(3_600_000L)));
+    final var fast =
+      new LLMetrics(ENDPOINT, HTTP, Optional.of(Long.valueOf(50L)));
+
+    try (var provider = SdkMeterProvider.builder()
+      .registerMetricReader(LLTelemetryServices.createPeriodicReader(slow, slowExporter))
+      .registerMetricReader(LLTelemetryServices.createPeriodicReader(fast, fastExporter))
+      .build()) {
+      provider.get("test")
+        .counterBuilder("looseleaf_test")
+        .build()
+        .add(1L);
+
+      awaitSize(() -> Math.min(1, fastExporter.getFinishedMetricItems().size()), 1);
+      assertEquals(List.of(), slowExporter.getFinishedMetricItems());
+    }
+  }
+}
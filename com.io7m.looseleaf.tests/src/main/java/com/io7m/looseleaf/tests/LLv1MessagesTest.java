@@ -18,13 +18,18 @@ package com.io7m.looseleaf.tests;
 
 import com.io7m.looseleaf.protocol.v1.LLv1Error;
 import com.io7m.looseleaf.protocol.v1.LLv1Errors;
+import com.io7m.looseleaf.protocol.v1.LLv1Listing;
 import com.io7m.looseleaf.protocol.v1.LLv1Messages;
+import com.io7m.looseleaf.protocol.v1.LLv1ReadMany;
+import com.io7m.looseleaf.protocol.v1.LLv1Token;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -76,4 +81,48 @@ public final class LLv1MessagesTest
 
     assertEquals(m0, m1);
   }
+
+  @Test
+  public void testToken()
+    throws IOException
+  {
+    final var m0 =
+      new LLv1Token("abcd.efgh", "2026-01-01T00:00:00Z");
+    final var b =
+      this.messages.serialize(m0);
+    final var m1 =
+      this.messages.deserialize(b);
+
+    assertEquals(m0, m1);
+  }
+
+  @Test
+  public void testReadMany()
+    throws IOException
+  {
+    final var m0 =
+      new LLv1ReadMany(Set.of("/a/b/c", "/x/y/z"));
+    final var b =
+      this.messages.serialize(m0);
+    final var m1 =
+      this.messages.deserialize(b);
+
+    assertEquals(m0, m1);
+  }
+
+  @Test
+  public void testListing()
+    throws IOException
+  {
+    for (final var m0 : List.of(
+      new LLv1Listing(List.of("/a", "/b"), Map.of(), "/b"),
+      new LLv1Listing(List.of("/a"), Map.of("/a", "x"), null))) {
+      final var b =
+        this.messages.serialize(m0);
+      final var m1 =
+        this.messages.deserialize(b);
+
+      assertEquals(m0, m1);
+    }
+  }
 }
@@ -25,7 +25,11 @@ open module com.io7m.looseleaf.tests
 
   requires com.io7m.looseleaf.cmdline;
   requires com.io7m.looseleaf.database.api;
+  requires com.io7m.looseleaf.database.bitcask;
+  requires com.io7m.looseleaf.database.lsm;
+  requires com.io7m.looseleaf.database.memory;
   requires com.io7m.looseleaf.database.mvstore;
+  requires com.io7m.looseleaf.database.sharded;
   requires com.io7m.looseleaf.database.sqlite;
   requires com.io7m.looseleaf.grafana;
   requires com.io7m.looseleaf.protocol.v1;
@@ -36,8 +40,18 @@ open module com.io7m.looseleaf.tests
   requires com.io7m.quarrel.core;
   requires com.io7m.quarrel.ext.xstructural;
   requires java.net.http;
+  requires java.sql;
+  requires jetty.servlet.api;
   requires org.slf4j;
 
+  requires io.opentelemetry.api;
+  requires io.opentelemetry.context;
+  requires io.opentelemetry.sdk.common;
+  requires io.opentelemetry.sdk.logs;
+  requires io.opentelemetry.sdk.metrics;
+  requires io.opentelemetry.sdk.testing;
+  requires io.opentelemetry.sdk.trace;
+
   exports com.io7m.looseleaf.tests;
 
   requires org.junit.jupiter.api;